@@ -0,0 +1,49 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.ui;
+
+import android.app.Activity;
+
+import com.vincentganneau.hanabi.model.Dispatcher;
+
+/**
+ * {@link Dispatcher} that runs every {@link Runnable} inside the UI thread of an {@link Activity}.
+ * @author Vincent Ganneau
+ */
+public class ActivityDispatcher implements Dispatcher {
+
+    // Activity
+    /**
+     * The {@link Activity} the game is running in.
+     */
+    private final Activity mActivity;
+
+    // Constructor
+    /**
+     * Creates a new {@link ActivityDispatcher}.
+     * @param activity the {@link Activity} the game is running in.
+     */
+    public ActivityDispatcher(Activity activity) {
+        mActivity = activity;
+    }
+
+    @Override
+    public void dispatch(Runnable runnable) {
+        mActivity.runOnUiThread(runnable);
+    }
+}
@@ -0,0 +1,87 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.ui;
+
+import android.view.Choreographer;
+import android.view.Display;
+
+import com.vincentganneau.hanabi.model.DrawScheduler;
+import com.vincentganneau.hanabi.model.GameEngine;
+
+/**
+ * {@link DrawScheduler} that renders the game on every vsync signal of the display, using {@link Choreographer}.
+ * <p>
+ * Frames follow the actual refresh rate of the display, including 90 Hz and 120 Hz panels, and no thread sleeps
+ * between them. Rendering happens inside the UI thread, so {@link GameEngine#drawGame()} runs its frame right away.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public class ChoreographerDrawScheduler implements DrawScheduler, Choreographer.FrameCallback {
+
+    // Dependencies
+    /**
+     * The {@link Choreographer} of the UI thread.
+     */
+    private final Choreographer mChoreographer;
+    /**
+     * The {@link Display} the game is rendered on.
+     */
+    private final Display mDisplay;
+    /**
+     * The game engine, or <code>null</code> if the scheduler is stopped.
+     */
+    private volatile GameEngine mGameEngine;
+
+    // Constructor
+    /**
+     * Creates a new {@link ChoreographerDrawScheduler}.
+     * <p>
+     * This constructor must be called from the UI thread.
+     * </p>
+     * @param display the {@link Display} the game is rendered on.
+     */
+    public ChoreographerDrawScheduler(Display display) {
+        mChoreographer = Choreographer.getInstance();
+        mDisplay = display;
+    }
+
+    // Draw scheduler
+    @Override
+    public void start(GameEngine gameEngine) {
+        stop();
+        gameEngine.getMetrics().mFrameIntervalNanos = (long) (1000000000d / mDisplay.getRefreshRate());
+        mGameEngine = gameEngine;
+        mChoreographer.postFrameCallback(this);
+    }
+
+    @Override
+    public void stop() {
+        mGameEngine = null;
+        mChoreographer.removeFrameCallback(this);
+    }
+
+    // Frame callback
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        final GameEngine gameEngine = mGameEngine;
+        if (gameEngine != null) {
+            gameEngine.drawGame();
+            mChoreographer.postFrameCallback(this);
+        }
+    }
+}
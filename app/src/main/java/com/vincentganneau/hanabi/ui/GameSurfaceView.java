@@ -0,0 +1,77 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.ui;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.view.SurfaceView;
+
+import com.vincentganneau.hanabi.model.DirectDispatcher;
+import com.vincentganneau.hanabi.model.DrawThread;
+import com.vincentganneau.hanabi.model.GameEngine;
+import com.vincentganneau.hanabi.render.SpriteRenderer;
+
+/**
+ * {@link SurfaceView} the game is rendered on by its {@link DrawThread}, instead of the UI thread.
+ * <p>
+ * The view makes the game engine render every frame directly on the {@link DrawThread}, which records the sprites of
+ * the game objects and draws them onto the surface through a {@link SurfaceSpriteBackend}. The UI thread only handles
+ * input and layout, and never waits for a frame. The game objects are still notified on the UI thread, through the
+ * dispatcher of the game engine.
+ * </p>
+ * @author Vincent Ganneau
+ */
+@SuppressLint("ViewConstructor")
+public class GameSurfaceView extends SurfaceView {
+
+    // Backend
+    /**
+     * The backend drawing the frames onto the surface of the view.
+     */
+    private final SurfaceSpriteBackend mSpriteBackend;
+
+    // Constructor
+    /**
+     * Creates a new {@link GameSurfaceView}.
+     * <p>
+     * This constructor must be called before the game starts.
+     * </p>
+     * @param context the {@link Context} of the view.
+     * @param gameEngine the {@link GameEngine} instance.
+     * @param spriteRenderer the {@link SpriteRenderer} the game objects record their sprites into.
+     * @param textures the bitmap of every texture atlas of the sprite renderer, indexed by texture.
+     */
+    public GameSurfaceView(Context context, GameEngine gameEngine, SpriteRenderer spriteRenderer,
+            Bitmap... textures) {
+        super(context);
+        mSpriteBackend = new SurfaceSpriteBackend(gameEngine, getHolder(), textures);
+        gameEngine.setSpriteRenderer(spriteRenderer, mSpriteBackend);
+        gameEngine.setDrawDispatcher(new DirectDispatcher());
+        gameEngine.setDrawScheduler(null);
+    }
+
+    // Backend
+    /**
+     * Returns the backend drawing the frames onto the surface of the view.
+     * @return the {@link SurfaceSpriteBackend} instance.
+     */
+    public SurfaceSpriteBackend getSpriteBackend() {
+        return mSpriteBackend;
+    }
+}
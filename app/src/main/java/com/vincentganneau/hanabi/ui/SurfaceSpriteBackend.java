@@ -0,0 +1,298 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.ui;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Shader;
+import android.view.SurfaceHolder;
+
+import com.vincentganneau.hanabi.model.DrawThread;
+import com.vincentganneau.hanabi.model.GameEngine;
+import com.vincentganneau.hanabi.render.DrawCommandBuffer;
+import com.vincentganneau.hanabi.render.SpriteBackend;
+import com.vincentganneau.hanabi.render.SpriteRenderer;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link SpriteBackend} that draws the batches of a {@link SpriteRenderer} onto the surface of a {@link SurfaceHolder},
+ * from the thread rendering the frames.
+ * <p>
+ * Every frame locks the canvas of the surface, draws every batch with a single call to
+ * {@link Canvas#drawVertices(Canvas.VertexMode, int, float[], int, float[], int, int[], int, short[], int, int, Paint)}
+ * textured by the bitmap of its atlas, then posts the canvas. Nothing runs on the UI thread, apart from the callbacks
+ * of the surface, which wait for the frame in flight before the surface is destroyed.
+ * </p>
+ * @author Vincent Ganneau
+ * @see GameSurfaceView
+ */
+public class SurfaceSpriteBackend implements SpriteBackend, SurfaceHolder.Callback {
+
+    // Vertices
+    /**
+     * The maximum number of sprites of a single draw call, as vertices are indexed with <code>short</code> values.
+     */
+    private static final int MAX_SPRITES_PER_CALL = Short.MAX_VALUE / 4;
+
+    // Dependencies
+    /**
+     * The game engine, asked for a full frame whenever the surface changes.
+     */
+    private final GameEngine mGameEngine;
+    /**
+     * The holder of the surface the frames are drawn on.
+     */
+    private final SurfaceHolder mSurfaceHolder;
+
+    // Textures
+    /**
+     * The paint drawing every texture, indexed by texture.
+     */
+    private final Paint[] mPaints;
+    /**
+     * The alpha of every drawing state, from <code>0</code> to <code>255</code>, indexed by state.
+     */
+    private final int[] mStateAlphas = new int[DrawCommandBuffer.MAX_KEY_VALUE + 1];
+    /**
+     * The color the surface is cleared with on every frame.
+     */
+    private int mBackgroundColor = Color.BLACK;
+
+    // Surface
+    /**
+     * The lock held while a frame is drawn, so that the surface is not destroyed in the middle of a frame.
+     */
+    private final ReentrantLock mSurfaceLock = new ReentrantLock();
+    /**
+     * Indicates whether the surface can be drawn on, guarded by {@link #mSurfaceLock}.
+     */
+    private boolean mSurfaceAvailable;
+    /**
+     * The canvas of the frame being drawn, or <code>null</code> if the frame is not drawn.
+     */
+    private Canvas mCanvas;
+
+    // Buffers
+    /**
+     * The screen coordinates of the vertices of a batch.
+     */
+    private float[] mVertices = new float[0];
+    /**
+     * The texture coordinates of the vertices of a batch.
+     */
+    private float[] mTextureCoordinates = new float[0];
+    /**
+     * The indices of the two triangles of every sprite, shared by every batch.
+     */
+    private short[] mIndices = new short[0];
+
+    // Constructor
+    /**
+     * Creates a new {@link SurfaceSpriteBackend} and registers it as a callback of a {@link SurfaceHolder}.
+     * @param gameEngine the {@link GameEngine} instance.
+     * @param surfaceHolder the holder of the surface the frames are drawn on.
+     * @param textures the bitmap of every texture atlas, indexed by texture.
+     */
+    public SurfaceSpriteBackend(GameEngine gameEngine, SurfaceHolder surfaceHolder, Bitmap... textures) {
+        mGameEngine = gameEngine;
+        mSurfaceHolder = surfaceHolder;
+        mPaints = new Paint[textures.length];
+        for (int i = 0; i < textures.length; i++) {
+            final Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+            paint.setShader(new BitmapShader(textures[i], Shader.TileMode.CLAMP, Shader.TileMode.CLAMP));
+            mPaints[i] = paint;
+        }
+        Arrays.fill(mStateAlphas, 255);
+        surfaceHolder.addCallback(this);
+    }
+
+    // Settings
+    /**
+     * Sets the alpha the sprites recorded with a drawing state are drawn with.
+     * @param state the drawing state, from <code>0</code> to {@link DrawCommandBuffer#MAX_KEY_VALUE}.
+     * @param alpha the alpha, from <code>0</code> to <code>255</code>.
+     */
+    public void setStateAlpha(int state, int alpha) {
+        mStateAlphas[state] = alpha;
+    }
+
+    /**
+     * Sets the color the surface is cleared with on every frame.
+     * @param backgroundColor the color.
+     */
+    public void setBackgroundColor(int backgroundColor) {
+        mBackgroundColor = backgroundColor;
+    }
+
+    // Sprite backend
+    @Override
+    public void beginFrame() {
+        mSurfaceLock.lock();
+        try {
+            if (mSurfaceAvailable) {
+                mCanvas = mSurfaceHolder.lockCanvas();
+            }
+            if (mCanvas != null) {
+                mCanvas.drawColor(mBackgroundColor);
+            }
+        } catch (RuntimeException e) {
+            endFrame();
+            throw e;
+        } finally {
+            // Only keep the surface locked while a canvas is held, until endFrame()
+            if (mCanvas == null && mSurfaceLock.isHeldByCurrentThread()) {
+                mSurfaceLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void drawBatch(int texture, int state, float[] vertices, int spriteCount) {
+        final Canvas canvas = mCanvas;
+        if (canvas == null) {
+            return;
+        }
+        final Paint paint = mPaints[texture];
+        paint.setAlpha(mStateAlphas[state]);
+        for (int first = 0; first < spriteCount; first += MAX_SPRITES_PER_CALL) {
+            final int count = Math.min(spriteCount - first, MAX_SPRITES_PER_CALL);
+            fillVertices(vertices, first, count);
+            canvas.drawVertices(Canvas.VertexMode.TRIANGLES, count * 8, mVertices, 0, mTextureCoordinates, 0,
+                    null, 0, mIndices, 0, count * 6, paint);
+        }
+    }
+
+    /**
+     * Posts the canvas of the frame and lets the surface be destroyed.
+     * <p>
+     * The {@link SpriteRenderer} calls this method even if drawing a batch failed, so the surface is always released.
+     * </p>
+     */
+    @Override
+    public void endFrame() {
+        final Canvas canvas = mCanvas;
+        if (canvas == null) {
+            return;
+        }
+        mCanvas = null;
+        try {
+            mSurfaceHolder.unlockCanvasAndPost(canvas);
+        } finally {
+            mSurfaceLock.unlock();
+        }
+    }
+
+    /**
+     * Turns the rectangles of sprites into the four corners of every sprite, and grows the buffers if needed.
+     * @param vertices the coordinates of the sprites, as handed to {@link #drawBatch(int, int, float[], int)}.
+     * @param first the first sprite.
+     * @param count the number of sprites.
+     */
+    private void fillVertices(float[] vertices, int first, int count) {
+        if (mVertices.length < count * 8) {
+            grow(count);
+        }
+        final float[] screen = mVertices;
+        final float[] texture = mTextureCoordinates;
+        for (int i = 0; i < count; i++) {
+            final int source = (first + i) * SpriteRenderer.FLOATS_PER_SPRITE;
+            final int target = i * 8;
+            fillCorners(screen, target, vertices[source], vertices[source + 1], vertices[source + 2],
+                    vertices[source + 3]);
+            fillCorners(texture, target, vertices[source + 4], vertices[source + 5], vertices[source + 6],
+                    vertices[source + 7]);
+        }
+    }
+
+    /**
+     * Writes the top left, top right, bottom right and bottom left corners of a rectangle.
+     * @param corners the array the corners are written to.
+     * @param offset the index of the first value to be written.
+     * @param left the left of the rectangle.
+     * @param top the top of the rectangle.
+     * @param right the right of the rectangle.
+     * @param bottom the bottom of the rectangle.
+     */
+    private static void fillCorners(float[] corners, int offset, float left, float top, float right, float bottom) {
+        corners[offset] = left;
+        corners[offset + 1] = top;
+        corners[offset + 2] = right;
+        corners[offset + 3] = top;
+        corners[offset + 4] = right;
+        corners[offset + 5] = bottom;
+        corners[offset + 6] = left;
+        corners[offset + 7] = bottom;
+    }
+
+    /**
+     * Grows the buffers to hold a number of sprites.
+     * @param spriteCount the number of sprites.
+     */
+    private void grow(int spriteCount) {
+        final int capacity = Math.min(Math.max(spriteCount, mVertices.length / 4), MAX_SPRITES_PER_CALL);
+        mVertices = new float[capacity * 8];
+        mTextureCoordinates = new float[capacity * 8];
+        mIndices = new short[capacity * 6];
+        for (int i = 0; i < capacity; i++) {
+            final int vertex = i * 4;
+            final int index = i * 6;
+            mIndices[index] = (short) vertex;
+            mIndices[index + 1] = (short) (vertex + 1);
+            mIndices[index + 2] = (short) (vertex + 2);
+            mIndices[index + 3] = (short) vertex;
+            mIndices[index + 4] = (short) (vertex + 2);
+            mIndices[index + 5] = (short) (vertex + 3);
+        }
+    }
+
+    // Surface callback
+    @Override
+    public void surfaceCreated(SurfaceHolder holder) {
+        mSurfaceLock.lock();
+        try {
+            mSurfaceAvailable = true;
+        } finally {
+            mSurfaceLock.unlock();
+        }
+        mGameEngine.requestFullRedraw();
+    }
+
+    @Override
+    public void surfaceChanged(SurfaceHolder holder, int format, int width, int height) {
+        mGameEngine.requestFullRedraw();
+    }
+
+    /**
+     * Stops drawing on the surface, waiting for the frame being drawn by the {@link DrawThread}, if any.
+     * @param holder the holder of the destroyed surface.
+     */
+    @Override
+    public void surfaceDestroyed(SurfaceHolder holder) {
+        mSurfaceLock.lock();
+        try {
+            mSurfaceAvailable = false;
+        } finally {
+            mSurfaceLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.ui;
+
+import android.app.Activity;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests the {@link ActivityDispatcher} class.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class ActivityDispatcherTest {
+
+    // Dependencies
+    @Mock
+    private Activity mActivity;
+
+    // Dispatcher
+    private ActivityDispatcher mDispatcher;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        mDispatcher = new ActivityDispatcher(mActivity);
+    }
+
+    /**
+     * Tests the {@link ActivityDispatcher#dispatch(Runnable)} method.
+     */
+    @Test
+    public void testDispatch() {
+        // Given
+        final Runnable runnable = mock(Runnable.class);
+
+        // When
+        mDispatcher.dispatch(runnable);
+
+        // Then
+        verify(mActivity).runOnUiThread(runnable);
+    }
+}
@@ -0,0 +1,81 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.benchmark;
+
+import com.vincentganneau.hanabi.model.GameEngine;
+import com.vincentganneau.hanabi.model.GameObject;
+import com.vincentganneau.hanabi.model.SnapshotReader;
+import com.vincentganneau.hanabi.model.SnapshotWriter;
+
+/**
+ * {@link GameObject} subclass with a minimal amount of work, so that benchmarks measure the engine itself.
+ * @author Vincent Ganneau
+ */
+public class BenchmarkGameObject extends GameObject {
+
+    // Snapshot
+    /**
+     * The type of the object inside snapshots.
+     */
+    public static final int SNAPSHOT_TYPE = 1;
+
+    // State
+    /**
+     * The position of the object, moved on every update.
+     */
+    public double mPosition;
+    /**
+     * The number of times the object has been rendered.
+     */
+    public int mDrawCount;
+
+    @Override
+    public int getUpdateGroup() {
+        return UPDATE_GROUP_INDEPENDENT;
+    }
+
+    @Override
+    public void onGameStart() {
+
+    }
+
+    @Override
+    public void onUpdate(double elapsedMillis, GameEngine gameEngine) {
+        mPosition += elapsedMillis;
+    }
+
+    @Override
+    public void onDraw() {
+        mDrawCount++;
+    }
+
+    @Override
+    public int getSnapshotType() {
+        return SNAPSHOT_TYPE;
+    }
+
+    @Override
+    public void saveSnapshot(SnapshotWriter writer) {
+        writer.writeDouble(mPosition);
+    }
+
+    @Override
+    public void restoreSnapshot(SnapshotReader reader, int version) {
+        mPosition = reader.readDouble();
+    }
+}
@@ -0,0 +1,70 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.benchmark;
+
+import com.vincentganneau.hanabi.model.DirectDispatcher;
+import com.vincentganneau.hanabi.model.GameEngine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the iteration of {@link GameEngine#mDrawRunnable} over the latest render snapshot.
+ * @author Vincent Ganneau
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DrawBenchmark {
+
+    // Parameters
+    /**
+     * The number of game objects.
+     */
+    @Param({"100", "10000", "100000"})
+    public int mObjectCount;
+
+    // Game engine
+    private GameEngine mGameEngine;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mGameEngine = new GameEngine(new DirectDispatcher());
+        for (int i = 0; i < mObjectCount; i++) {
+            mGameEngine.addGameObject(new BenchmarkGameObject());
+        }
+        mGameEngine.updateGame(0);
+    }
+
+    /**
+     * Renders every game object once.
+     */
+    @Benchmark
+    public void draw() {
+        mGameEngine.mDrawRunnable.run();
+    }
+}
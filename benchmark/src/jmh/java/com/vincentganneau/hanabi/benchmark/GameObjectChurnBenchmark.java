@@ -0,0 +1,96 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.benchmark;
+
+import com.vincentganneau.hanabi.model.DirectDispatcher;
+import com.vincentganneau.hanabi.model.GameEngine;
+import com.vincentganneau.hanabi.model.GameObject;
+import com.vincentganneau.hanabi.model.UpdateThread;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures adding and removing game objects through {@link GameEngine#mGameObjectsToAdd} and
+ * {@link GameEngine#mGameObjectsToRemove} while the game is running.
+ * @author Vincent Ganneau
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GameObjectChurnBenchmark {
+
+    // Parameters
+    /**
+     * The number of game objects that stay in the game.
+     */
+    @Param({"10000"})
+    public int mObjectCount;
+    /**
+     * The number of game objects added and removed on every update.
+     */
+    @Param({"100", "10000"})
+    public int mChurnCount;
+
+    // Game engine
+    private GameEngine mGameEngine;
+
+    // Game objects
+    private GameObject[] mChurnObjects;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mGameEngine = new GameEngine(new DirectDispatcher());
+        mGameEngine.setRenderingEnabled(false);
+        for (int i = 0; i < mObjectCount; i++) {
+            mGameEngine.addGameObject(new BenchmarkGameObject());
+        }
+        mChurnObjects = new GameObject[mChurnCount];
+        for (int i = 0; i < mChurnCount; i++) {
+            mChurnObjects[i] = new BenchmarkGameObject();
+        }
+
+        // Pretend the game is running so that changes go through the pending queues
+        mGameEngine.mUpdateThread = new UpdateThread(mGameEngine);
+        mGameEngine.mUpdateThread.mGameRunning = true;
+    }
+
+    /**
+     * Adds a batch of game objects, applies it, then removes the batch and applies it again.
+     */
+    @Benchmark
+    public void addAndRemove() {
+        for (GameObject gameObject : mChurnObjects) {
+            mGameEngine.addGameObject(gameObject);
+        }
+        mGameEngine.updateGame(0);
+        for (GameObject gameObject : mChurnObjects) {
+            mGameEngine.removeGameObject(gameObject);
+        }
+        mGameEngine.updateGame(0);
+    }
+}
@@ -0,0 +1,95 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.benchmark;
+
+import com.vincentganneau.hanabi.game.GameState;
+import com.vincentganneau.hanabi.game.Move;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures random playouts on a {@link GameState}, walking down with {@link GameState#apply(int)} and back up with
+ * {@link GameState#undo(int)} as a tree search does.
+ * @author Vincent Ganneau
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GameStateBenchmark {
+
+    // Parameters
+    /**
+     * The number of players.
+     */
+    @Param({"2", "5"})
+    public int mPlayerCount;
+
+    // Game state
+    private GameState mGameState;
+    private final int[] mMoves = new int[Move.MAX_LEGAL_MOVES];
+    private final int[] mRecords = new int[256];
+
+    // Randomness
+    private final Random mRandom = new Random(42);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mGameState = new GameState(mPlayerCount);
+        mGameState.deal(mRandom);
+    }
+
+    /**
+     * Plays a random game to the end, then undoes every move.
+     * @return the score of the game.
+     */
+    @Benchmark
+    public int playoutAndUndo() {
+        int turns = 0;
+        while (!mGameState.isGameOver()) {
+            final int count = mGameState.getLegalMoves(mMoves);
+            mRecords[turns++] = mGameState.apply(mMoves[mRandom.nextInt(count)]);
+        }
+        final int score = mGameState.getScore();
+        while (turns > 0) {
+            mGameState.undo(mRecords[--turns]);
+        }
+        return score;
+    }
+
+    /**
+     * Copies the game state, as done once per search iteration.
+     * @return the copy.
+     */
+    @Benchmark
+    public GameState copy() {
+        final GameState copy = new GameState(mPlayerCount);
+        copy.copyFrom(mGameState);
+        return copy;
+    }
+}
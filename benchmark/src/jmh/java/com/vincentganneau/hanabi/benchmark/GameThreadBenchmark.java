@@ -0,0 +1,97 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.benchmark;
+
+import com.vincentganneau.hanabi.model.DirectDispatcher;
+import com.vincentganneau.hanabi.model.GameEngine;
+import com.vincentganneau.hanabi.model.GameMetrics;
+import com.vincentganneau.hanabi.model.GameThread;
+import com.vincentganneau.hanabi.model.LatencyHistogram;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of a single iteration of the {@link GameThread#run()} loop.
+ * @author Vincent Ganneau
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GameThreadBenchmark {
+
+    // Iterations
+    /**
+     * The number of loop iterations per benchmark invocation.
+     */
+    private static final int ITERATIONS = 10000;
+
+    // Game engine
+    private final GameEngine mGameEngine = new GameEngine(new DirectDispatcher());
+
+    /**
+     * Runs the game loop on the benchmark thread until it has fired {@link #ITERATIONS} updates.
+     * @return the elapsed time accumulated by the updates.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    public double run() {
+        final CountingThread thread = new CountingThread(mGameEngine);
+        thread.mGameRunning = true;
+        thread.run();
+        return thread.mElapsedMillis;
+    }
+
+    /**
+     * {@link GameThread} subclass that stops after {@link #ITERATIONS} updates.
+     */
+    private static class CountingThread extends GameThread {
+
+        private int mUpdates;
+        private double mElapsedMillis;
+
+        private CountingThread(GameEngine gameEngine) {
+            super(gameEngine, gameEngine.getClock());
+        }
+
+        @Override
+        public void update(double elapsedMillis) {
+            mElapsedMillis += elapsedMillis;
+            if (++mUpdates == ITERATIONS) {
+                mGameRunning = false;
+            }
+        }
+
+        @Override
+        protected LatencyHistogram getSleepHistogram(GameMetrics metrics) {
+            return metrics.mUpdateSleep;
+        }
+
+        @Override
+        protected LatencyHistogram getPauseHistogram(GameMetrics metrics) {
+            return metrics.mUpdatePause;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.benchmark;
+
+import com.vincentganneau.hanabi.bot.HeuristicPlayer;
+import com.vincentganneau.hanabi.game.GameState;
+import com.vincentganneau.hanabi.journal.JournalReplay;
+import com.vincentganneau.hanabi.journal.MoveJournal;
+import com.vincentganneau.hanabi.model.DirectDispatcher;
+import com.vincentganneau.hanabi.model.GameEngine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures replaying a {@link MoveJournal} through a headless {@link GameEngine}.
+ * @author Vincent Ganneau
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JournalReplayBenchmark {
+
+    // Journal
+    private MoveJournal mJournal;
+    private int mTurnCount;
+
+    // Replay
+    private GameEngine mGameEngine;
+    private JournalReplay mJournalReplay;
+    private final GameState mGameState = new GameState(GameState.MIN_PLAYER_COUNT);
+    private final Random mRandom = new Random(42);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Record a game at 60 ticks per second, with a move every 30 ticks
+        mJournal = new MoveJournal(4096, 10);
+        final GameState gameState = new GameState(4);
+        gameState.setMoveListener(mJournal);
+        gameState.deal(mRandom);
+        mJournal.start(gameState);
+        final GameEngine gameEngine = new GameEngine(new DirectDispatcher());
+        gameEngine.setTickListener(mJournal);
+        final HeuristicPlayer[] players = new HeuristicPlayer[4];
+        for (int player = 0; player < 4; player++) {
+            players[player] = new HeuristicPlayer(gameState, player, mRandom);
+        }
+        for (int tick = 0; !gameState.isGameOver(); tick++) {
+            if (tick % 30 == 0) {
+                players[gameState.getCurrentPlayer()].onUpdate(0, gameEngine);
+            }
+            gameEngine.updateGame(1000.0 / 60);
+        }
+        mTurnCount = gameState.getTurn();
+
+        mGameEngine = new GameEngine(new DirectDispatcher());
+        mJournalReplay = new JournalReplay(mJournal, mGameState);
+        mGameEngine.addGameObject(mJournalReplay);
+    }
+
+    /**
+     * Seeks a random turn, from the nearest checkpoint or from the current position.
+     * @return the turn reached.
+     */
+    @Benchmark
+    public int seek() {
+        mJournalReplay.seek(mGameEngine, mRandom.nextInt(mTurnCount + 1));
+        return mGameState.getTurn();
+    }
+
+    /**
+     * Replays the whole game from the start.
+     * @return the number of ticks.
+     */
+    @Benchmark
+    public int replayGame() {
+        mJournalReplay.seek(mGameEngine, 0);
+        return mJournalReplay.play(mGameEngine);
+    }
+}
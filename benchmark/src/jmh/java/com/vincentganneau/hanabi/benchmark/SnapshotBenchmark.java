@@ -0,0 +1,99 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.benchmark;
+
+import com.vincentganneau.hanabi.game.GameState;
+import com.vincentganneau.hanabi.model.DirectDispatcher;
+import com.vincentganneau.hanabi.model.GameEngine;
+import com.vincentganneau.hanabi.model.SnapshotReader;
+import com.vincentganneau.hanabi.model.SnapshotWriter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures saving and restoring a snapshot of a {@link GameState} and of the game objects of a {@link GameEngine}.
+ * @author Vincent Ganneau
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SnapshotBenchmark {
+
+    // Parameters
+    /**
+     * The number of game objects.
+     */
+    @Param({"100", "10000"})
+    public int mObjectCount;
+
+    // Game
+    private GameEngine mGameEngine;
+    private GameState mGameState;
+
+    // Snapshot
+    private SnapshotWriter mWriter;
+    private final SnapshotReader mReader = new SnapshotReader(1024);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mGameEngine = new GameEngine(new DirectDispatcher());
+        for (int i = 0; i < mObjectCount; i++) {
+            mGameEngine.addGameObject(new BenchmarkGameObject());
+        }
+        mGameState = new GameState(4);
+        mGameState.deal(new Random(42));
+        mWriter = new SnapshotWriter(mObjectCount * 32 + 1024);
+        save();
+    }
+
+    /**
+     * Saves the game state and the game objects into the preallocated buffer.
+     * @return the size of the snapshot.
+     */
+    @Benchmark
+    public int save() {
+        mWriter.reset();
+        mGameState.saveSnapshot(mWriter);
+        mGameEngine.saveSnapshot(mWriter);
+        return mWriter.getSize();
+    }
+
+    /**
+     * Restores the game state and recreates the game objects, as done on a cold start.
+     * @return the restored game engine.
+     */
+    @Benchmark
+    public GameEngine restore() {
+        final GameEngine gameEngine = new GameEngine(new DirectDispatcher());
+        mReader.reset(mWriter.getBuffer(), 0, mWriter.getSize());
+        mGameState.restoreSnapshot(mReader);
+        gameEngine.restoreSnapshot(mReader, type -> new BenchmarkGameObject());
+        return gameEngine;
+    }
+}
@@ -0,0 +1,116 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.benchmark;
+
+import com.vincentganneau.hanabi.model.Bounds;
+import com.vincentganneau.hanabi.model.GameObject;
+import com.vincentganneau.hanabi.model.SpatialGrid;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures hit-testing and moving game objects inside a {@link SpatialGrid}.
+ * @author Vincent Ganneau
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpatialGridBenchmark {
+
+    // Area
+    /**
+     * The size of the indexed area.
+     */
+    private static final float AREA_SIZE = 2048;
+    /**
+     * The size of a game object.
+     */
+    private static final float OBJECT_SIZE = 48;
+
+    // Parameters
+    /**
+     * The number of indexed game objects.
+     */
+    @Param({"1000", "10000"})
+    public int mObjectCount;
+
+    // Spatial grid
+    private SpatialGrid mSpatialGrid;
+    private int[] mEntries;
+    private final Bounds mBounds = new Bounds();
+    private final List<GameObject> mResults = new ArrayList<>();
+
+    // Positions
+    private final Random mRandom = new Random(42);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mSpatialGrid = new SpatialGrid(0, 0, 64, (int) (AREA_SIZE / 64), (int) (AREA_SIZE / 64));
+        mEntries = new int[mObjectCount];
+        for (int i = 0; i < mObjectCount; i++) {
+            final float x = mRandom.nextFloat() * AREA_SIZE;
+            final float y = mRandom.nextFloat() * AREA_SIZE;
+            mBounds.set(x, y, x + OBJECT_SIZE, y + OBJECT_SIZE);
+            mEntries[i] = mSpatialGrid.insert(new BenchmarkGameObject(), mBounds);
+        }
+    }
+
+    /**
+     * Picks the game objects under a touch.
+     */
+    @Benchmark
+    public int queryPoint() {
+        mResults.clear();
+        return mSpatialGrid.queryPoint(mRandom.nextFloat() * AREA_SIZE, mRandom.nextFloat() * AREA_SIZE, mResults);
+    }
+
+    /**
+     * Finds the game objects hit by an effect.
+     */
+    @Benchmark
+    public int queryRadius() {
+        mResults.clear();
+        return mSpatialGrid.queryRadius(mRandom.nextFloat() * AREA_SIZE, mRandom.nextFloat() * AREA_SIZE, 100,
+                mResults);
+    }
+
+    /**
+     * Moves a game object to a random position, relinking it into other cells.
+     */
+    @Benchmark
+    public void move() {
+        final int entry = mEntries[mRandom.nextInt(mObjectCount)];
+        final float x = mRandom.nextFloat() * AREA_SIZE;
+        final float y = mRandom.nextFloat() * AREA_SIZE;
+        mBounds.set(x, y, x + OBJECT_SIZE, y + OBJECT_SIZE);
+        mSpatialGrid.move(entry, mBounds);
+    }
+}
@@ -0,0 +1,163 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.benchmark;
+
+import com.vincentganneau.hanabi.render.DrawCommandBuffer;
+import com.vincentganneau.hanabi.render.SpriteBackend;
+import com.vincentganneau.hanabi.render.SpriteRenderer;
+import com.vincentganneau.hanabi.render.Sprites;
+import com.vincentganneau.hanabi.render.TextureAtlas;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the recording and the batched rendering of a frame of sprites by a {@link SpriteRenderer}, against one
+ * draw call per sprite.
+ * @author Vincent Ganneau
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SpriteRendererBenchmark {
+
+    // Parameters
+    /**
+     * The number of sprites of a frame.
+     */
+    @Param({"100", "1000", "10000"})
+    public int mSpriteCount;
+
+    // Frame
+    private int[] mLayers;
+    private int[] mStates;
+    private int[] mRegions;
+
+    // Renderer
+    private TextureAtlas mAtlas;
+    private SpriteRenderer mSpriteRenderer;
+    private DrawCommandBuffer mCommands;
+    private BlackholeBackend mBackend;
+    private final float[] mVertices = new float[SpriteRenderer.FLOATS_PER_SPRITE];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mAtlas = Sprites.newAtlas(64, 96, 24, 48);
+        mSpriteRenderer = new SpriteRenderer(mSpriteCount, mAtlas);
+        mCommands = mSpriteRenderer.getCommands();
+        mLayers = new int[mSpriteCount];
+        mStates = new int[mSpriteCount];
+        mRegions = new int[mSpriteCount];
+        final Random random = new Random(42);
+        for (int i = 0; i < mSpriteCount; i++) {
+            mLayers[i] = random.nextInt(3);
+            mStates[i] = random.nextInt(2);
+            mRegions[i] = random.nextInt(Sprites.COUNT);
+        }
+    }
+
+    /**
+     * Records the frame and renders it in as few batches as its layers and states allow.
+     * @param blackhole the sink of the batches.
+     */
+    @Benchmark
+    public void batched(final Blackhole blackhole) {
+        if (mBackend == null) {
+            mBackend = new BlackholeBackend(blackhole);
+        }
+        record();
+        mSpriteRenderer.render(mBackend);
+    }
+
+    /**
+     * Renders the frame with one draw call per sprite, in recording order.
+     * @param blackhole the sink of the draw calls.
+     */
+    @Benchmark
+    public void unbatched(final Blackhole blackhole) {
+        final float[] vertices = mVertices;
+        for (int i = 0; i < mSpriteCount; i++) {
+            final int region = mRegions[i];
+            final float x = i % 32 * 32;
+            final float y = i / 32 * 48;
+            vertices[0] = x;
+            vertices[1] = y;
+            vertices[2] = x + 64;
+            vertices[3] = y + 96;
+            vertices[4] = mAtlas.getRegionX(region);
+            vertices[5] = mAtlas.getRegionY(region);
+            vertices[6] = vertices[4] + mAtlas.getRegionWidth(region);
+            vertices[7] = vertices[5] + mAtlas.getRegionHeight(region);
+            blackhole.consume(mStates[i]);
+            blackhole.consume(vertices);
+        }
+    }
+
+    /**
+     * Records every sprite of the frame, placed on a grid.
+     */
+    private void record() {
+        for (int i = 0; i < mSpriteCount; i++) {
+            mCommands.add(mLayers[i], 0, mStates[i], mRegions[i], i % 32 * 32, i / 32 * 48, 64, 96);
+        }
+    }
+
+    /**
+     * {@link SpriteBackend} that hands every batch to a {@link Blackhole}.
+     */
+    private static class BlackholeBackend implements SpriteBackend {
+
+        // Sink
+        private final Blackhole mBlackhole;
+
+        /**
+         * Creates a new {@link BlackholeBackend}.
+         * @param blackhole the sink of the batches.
+         */
+        BlackholeBackend(Blackhole blackhole) {
+            mBlackhole = blackhole;
+        }
+
+        @Override
+        public void beginFrame() {
+
+        }
+
+        @Override
+        public void drawBatch(int texture, int state, float[] vertices, int spriteCount) {
+            mBlackhole.consume(vertices);
+            mBlackhole.consume(spriteCount);
+        }
+
+        @Override
+        public void endFrame() {
+
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.benchmark;
+
+import com.vincentganneau.hanabi.model.DirectDispatcher;
+import com.vincentganneau.hanabi.model.GameEngine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link GameEngine#updateGame(double)} with a growing number of game objects.
+ * @author Vincent Ganneau
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UpdateGameBenchmark {
+
+    // Parameters
+    /**
+     * The number of game objects.
+     */
+    @Param({"100", "10000", "100000"})
+    public int mObjectCount;
+    /**
+     * The number of threads updating the game objects.
+     */
+    @Param({"1", "4"})
+    public int mParallelism;
+
+    // Game engine
+    private GameEngine mGameEngine;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mGameEngine = new GameEngine(new DirectDispatcher());
+        mGameEngine.setRenderingEnabled(false);
+        mGameEngine.setParallelUpdate(mParallelism);
+        for (int i = 0; i < mObjectCount; i++) {
+            mGameEngine.addGameObject(new BenchmarkGameObject());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mGameEngine.setParallelUpdate(1);
+    }
+
+    /**
+     * Updates every game object once.
+     */
+    @Benchmark
+    public void updateGame() {
+        mGameEngine.updateGame(1000d / 60);
+    }
+}
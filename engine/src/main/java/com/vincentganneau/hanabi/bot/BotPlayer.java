@@ -0,0 +1,196 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.bot;
+
+import android.support.annotation.VisibleForTesting;
+
+import com.vincentganneau.hanabi.game.GameState;
+import com.vincentganneau.hanabi.game.Move;
+import com.vincentganneau.hanabi.model.GameEngine;
+import com.vincentganneau.hanabi.model.GameObject;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link GameObject} playing the turns of a computer player with a {@link MctsSearch}.
+ * <p>
+ * When it is the turn of the bot, the state of the game is copied and searched on an {@link Executor}, so the update
+ * thread never waits for the search. The move found is applied to the game from the update thread, on the first update
+ * after the search is done, which wakes up the game engine if it runs with adaptive scheduling.
+ * </p>
+ * <p>
+ * If the search fails or cannot be started, the bot plays the move of the {@link HeuristicPolicy} instead, so the game
+ * never waits for a search that will not finish.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public class BotPlayer extends GameObject {
+
+    // Search states
+    /**
+     * The state of a bot waiting for its turn.
+     */
+    private static final int STATE_IDLE = 0;
+    /**
+     * The state of a bot whose search is running.
+     */
+    private static final int STATE_SEARCHING = 1;
+    /**
+     * The state of a bot whose move is ready to be applied.
+     */
+    private static final int STATE_READY = 2;
+
+    // Dependencies
+    /**
+     * The state of the game, only modified from the update thread.
+     */
+    @VisibleForTesting
+    public final GameState mGameState;
+    /**
+     * The player the bot plays for.
+     */
+    @VisibleForTesting
+    public final int mPlayer;
+    /**
+     * The search finding the moves of the bot.
+     */
+    private final MctsSearch mSearch;
+    /**
+     * The executor running the searches.
+     */
+    private final Executor mExecutor;
+
+    // Search
+    /**
+     * The copy of the state of the game being searched.
+     */
+    private final GameState mSearchedState;
+    /**
+     * The state of the search.
+     */
+    @VisibleForTesting
+    public final AtomicInteger mSearchState = new AtomicInteger(STATE_IDLE);
+    /**
+     * The move found by the latest search, or {@link Move#NONE} if it failed.
+     */
+    private volatile int mMove = Move.NONE;
+    /**
+     * The buffer of the legal moves of the {@link HeuristicPolicy}, only used from the update thread.
+     */
+    private final int[] mMoves = new int[Move.MAX_LEGAL_MOVES];
+    /**
+     * The game engine to be woken up once the search is done.
+     */
+    private volatile GameEngine mGameEngine;
+    /**
+     * The {@link Runnable} searching {@link #mSearchedState} on the executor.
+     */
+    private final Runnable mSearchRunnable = new Runnable() {
+        @Override
+        public void run() {
+            int move;
+            try {
+                move = mSearch.search(mSearchedState);
+            } catch (RuntimeException e) {
+                // Leave the searching state anyway, the bot falls back to the policy
+                move = Move.NONE;
+            }
+            mMove = move;
+            mSearchState.set(STATE_READY);
+            final GameEngine gameEngine = mGameEngine;
+            if (gameEngine != null) {
+                gameEngine.wakeUp();
+            }
+        }
+    };
+
+    // Constructor
+    /**
+     * Creates a new {@link BotPlayer}.
+     * @param gameState the state of the game, only modified from the update thread.
+     * @param player the player the bot plays for.
+     * @param search the search finding the moves of the bot.
+     * @param executor the executor running the searches, which must not be the update thread.
+     */
+    public BotPlayer(GameState gameState, int player, MctsSearch search, Executor executor) {
+        mGameState = gameState;
+        mPlayer = player;
+        mSearch = search;
+        mExecutor = executor;
+        mSearchedState = new GameState(gameState.getPlayerCount());
+    }
+
+    // Game object
+    @Override
+    public void onGameStart() {
+        mSearchState.set(STATE_IDLE);
+    }
+
+    @Override
+    public void onUpdate(double elapsedMillis, GameEngine gameEngine) {
+        if (mGameState.isGameOver() || mGameState.getCurrentPlayer() != mPlayer) {
+            return;
+        }
+        switch (mSearchState.get()) {
+            case STATE_IDLE:
+                // Search a copy of the game
+                mSearchedState.copyFrom(mGameState);
+                mGameEngine = gameEngine;
+                mSearchState.set(STATE_SEARCHING);
+                try {
+                    mExecutor.execute(mSearchRunnable);
+                } catch (RejectedExecutionException e) {
+                    mSearchState.set(STATE_IDLE);
+                    play(HeuristicPolicy.chooseMove(mGameState, gameEngine.getRandom(), mMoves));
+                }
+                break;
+            case STATE_READY:
+                // Play the move, or the move of the policy if the search failed, unless the game has moved on
+                mSearchState.set(STATE_IDLE);
+                if (mSearchedState.getTurn() == mGameState.getTurn()) {
+                    play(mGameState.isLegal(mMove)
+                            ? mMove : HeuristicPolicy.chooseMove(mGameState, gameEngine.getRandom(), mMoves));
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Applies a move of the bot to the game.
+     * @param move the move, which is legal.
+     */
+    private void play(int move) {
+        mGameState.apply(move);
+        invalidate();
+    }
+
+    @Override
+    public boolean needsUpdate() {
+        return mSearchState.get() != STATE_SEARCHING && !mGameState.isGameOver()
+                && mGameState.getCurrentPlayer() == mPlayer;
+    }
+
+    @Override
+    public void onDraw() {
+
+    }
+}
@@ -0,0 +1,97 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.bot;
+
+import android.support.annotation.VisibleForTesting;
+
+import com.vincentganneau.hanabi.game.GameState;
+import com.vincentganneau.hanabi.game.Move;
+import com.vincentganneau.hanabi.model.GameEngine;
+import com.vincentganneau.hanabi.model.GameObject;
+
+import java.util.Random;
+
+/**
+ * {@link GameObject} playing the turns of a computer player with the {@link HeuristicPolicy}.
+ * <p>
+ * The policy is cheap enough to be run on the update thread: the move is applied on the first update of the turn of
+ * the player.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public class HeuristicPlayer extends GameObject {
+
+    // Dependencies
+    /**
+     * The state of the game.
+     */
+    @VisibleForTesting
+    public final GameState mGameState;
+    /**
+     * The player played by this object.
+     */
+    @VisibleForTesting
+    public final int mPlayer;
+    /**
+     * The source of randomness of the policy.
+     */
+    private final Random mRandom;
+
+    // Moves
+    /**
+     * The buffer of the legal moves.
+     */
+    private final int[] mMoves = new int[Move.MAX_LEGAL_MOVES];
+
+    // Constructor
+    /**
+     * Creates a new {@link HeuristicPlayer}.
+     * @param gameState the state of the game, which is only modified from the update thread.
+     * @param player the player played by this object.
+     * @param random the source of randomness of the policy.
+     */
+    public HeuristicPlayer(GameState gameState, int player, Random random) {
+        mGameState = gameState;
+        mPlayer = player;
+        mRandom = random;
+    }
+
+    // Game object
+    @Override
+    public void onGameStart() {
+
+    }
+
+    @Override
+    public void onUpdate(double elapsedMillis, GameEngine gameEngine) {
+        if (needsUpdate()) {
+            mGameState.apply(HeuristicPolicy.chooseMove(mGameState, mRandom, mMoves));
+            invalidate();
+        }
+    }
+
+    @Override
+    public boolean needsUpdate() {
+        return !mGameState.isGameOver() && mGameState.getCurrentPlayer() == mPlayer;
+    }
+
+    @Override
+    public void onDraw() {
+
+    }
+}
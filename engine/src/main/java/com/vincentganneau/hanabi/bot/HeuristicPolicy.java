@@ -0,0 +1,133 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.bot;
+
+import com.vincentganneau.hanabi.game.Card;
+import com.vincentganneau.hanabi.game.GameState;
+import com.vincentganneau.hanabi.game.Move;
+
+import java.util.Random;
+
+/**
+ * Fast rule-based policy of Hanabi, used to play out the games of a {@link MctsWorker} and the turns of the other
+ * players.
+ * <p>
+ * The policy never looks at the cards of the current player, only at their hint masks, see
+ * {@link GameState#getHintMask(int, int)}. In order, the current player:
+ * </p>
+ * <ol>
+ *     <li>plays a card known to be playable;</li>
+ *     <li>hints a playable card of another player, preferably with the hint that makes it known to be playable;</li>
+ *     <li>discards a card known to be useless, else its oldest card without any hint;</li>
+ *     <li>gives a random hint.</li>
+ * </ol>
+ * @author Vincent Ganneau
+ */
+public final class HeuristicPolicy {
+
+    // Constructor
+    /**
+     * Prevents instantiation.
+     */
+    private HeuristicPolicy() {
+    }
+
+    // Policy
+    /**
+     * Chooses the move of the current player of a state, without allocating.
+     * @param state the state, which must not be over.
+     * @param random the source of randomness.
+     * @param moves an array of at least {@link Move#MAX_LEGAL_MOVES} elements, used as a buffer.
+     * @return the move, which is legal.
+     */
+    public static int chooseMove(GameState state, Random random, int[] moves) {
+        final int player = state.getCurrentPlayer();
+        final int playableMask = state.getPlayableMask();
+
+        // Play a card known to be playable
+        final int handSize = state.getHandSize(player);
+        for (int slot = 0; slot < handSize; slot++) {
+            if ((state.getHintMask(player, slot) & ~playableMask) == 0) {
+                return Move.play(slot);
+            }
+        }
+
+        // Hint a playable card
+        if (state.getHints() > 0) {
+            final int move = chooseHint(state, player, playableMask);
+            if (move != Move.NONE) {
+                return move;
+            }
+        }
+
+        // Discard a useless card, else the oldest card without any hint
+        if (state.getHints() < GameState.MAX_HINTS && handSize > 0) {
+            final int playedMask = state.getPlayedMask();
+            int oldest = handSize - 1;
+            for (int slot = handSize - 1; slot >= 0; slot--) {
+                final int mask = state.getHintMask(player, slot);
+                if ((mask & ~playedMask) == 0) {
+                    return Move.discard(slot);
+                }
+                if (mask == Card.ALL_KINDS && state.getHintMask(player, oldest) != Card.ALL_KINDS) {
+                    oldest = slot;
+                }
+            }
+            return Move.discard(oldest);
+        }
+
+        // Give a random hint, the legal moves listing the plays first and no discard with every hint token left
+        final int count = state.getLegalMoves(moves);
+        return count > handSize ? moves[handSize + random.nextInt(count - handSize)] : moves[random.nextInt(count)];
+    }
+
+    /**
+     * Chooses a hint about a playable card of the next players, which is not already known to be playable.
+     * @param state the state.
+     * @param player the current player.
+     * @param playableMask the kinds of cards that can currently be played.
+     * @return the hint making such a card known to be playable, else a hint about the rank of such a card, or
+     * {@link Move#NONE} if no other player holds a playable card unknown to be playable.
+     */
+    private static int chooseHint(GameState state, int player, int playableMask) {
+        final int playerCount = state.getPlayerCount();
+        int fallback = Move.NONE;
+        for (int i = 1; i < playerCount; i++) {
+            final int target = (player + i) % playerCount;
+            final int handSize = state.getHandSize(target);
+            for (int slot = 0; slot < handSize; slot++) {
+                final int card = state.getCard(target, slot);
+                final int mask = state.getHintMask(target, slot);
+                if ((playableMask & 1 << card) == 0 || (mask & ~playableMask) == 0) {
+                    continue;
+                }
+                final int rankMask = Card.rankMask(Card.rank(card));
+                if ((mask & rankMask & ~playableMask) == 0) {
+                    return Move.hintRank(target, Card.rank(card));
+                }
+                if ((mask & Card.colorMask(Card.color(card)) & ~playableMask) == 0) {
+                    return Move.hintColor(target, Card.color(card));
+                }
+                if (fallback == Move.NONE && (mask & ~rankMask) != 0) {
+                    fallback = Move.hintRank(target, Card.rank(card));
+                }
+            }
+        }
+        return fallback;
+    }
+}
@@ -0,0 +1,205 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.bot;
+
+import com.vincentganneau.hanabi.game.GameState;
+import com.vincentganneau.hanabi.game.Move;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parallel information-set Monte Carlo tree search for Hanabi.
+ * <p>
+ * The search uses root parallelization: every thread grows its own tree with its own {@link MctsWorker}, on its own
+ * determinizations, without any lock. Once the budget is spent, the visits of the children of every root are summed
+ * and the most visited move wins. The calling thread takes part in the search, so a search over <code>N</code>
+ * threads only keeps <code>N - 1</code> threads of its own.
+ * </p>
+ * <p>
+ * A search blocks for its whole budget, so it must not be run on the update thread: see {@link BotPlayer}.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public class MctsSearch {
+
+    // Budget
+    /**
+     * The maximum number of iterations of a search over every thread, or {@link Integer#MAX_VALUE}.
+     */
+    public final int mMaxIterations;
+    /**
+     * The maximum duration of a search in nanoseconds, or {@link Long#MAX_VALUE}.
+     */
+    public final long mTimeBudgetNanos;
+
+    // Workers
+    /**
+     * The worker of every thread, the first one being run by the calling thread.
+     */
+    private final MctsWorker[] mWorkers;
+    /**
+     * The threads running the other workers, or <code>null</code> with a single thread.
+     */
+    private final ExecutorService mExecutor;
+    /**
+     * The number of iterations of the latest search.
+     */
+    private volatile int mIterationCount;
+
+    // Statistics
+    /**
+     * The visits of every move at the root, summed over the workers.
+     */
+    private final int[] mVisits = new int[1 << 8];
+    /**
+     * The rewards of every move at the root, summed over the workers.
+     */
+    private final double[] mRewards = new double[1 << 8];
+
+    // Constructor
+    /**
+     * Creates a new {@link MctsSearch}.
+     * @param threadCount the number of threads, typically {@link Runtime#availableProcessors()}.
+     * @param timeBudgetMillis the maximum duration of a search in milliseconds, or <code>0</code> for no limit.
+     * @param maxIterations the maximum number of iterations of a search, or <code>0</code> for no limit.
+     * @param seed the seed of the workers.
+     */
+    public MctsSearch(int threadCount, long timeBudgetMillis, int maxIterations, long seed) {
+        if (threadCount <= 0) {
+            throw new IllegalArgumentException("threadCount must be positive: " + threadCount);
+        }
+        if (timeBudgetMillis <= 0 && maxIterations <= 0) {
+            throw new IllegalArgumentException("A time or iteration budget is required");
+        }
+        mTimeBudgetNanos = timeBudgetMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis) : Long.MAX_VALUE;
+        mMaxIterations = maxIterations > 0 ? maxIterations : Integer.MAX_VALUE;
+        mWorkers = new MctsWorker[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            mWorkers[i] = new MctsWorker(seed + i);
+        }
+        mExecutor = threadCount > 1 ? Executors.newFixedThreadPool(threadCount - 1, runnable -> {
+            final Thread thread = new Thread(runnable, "MctsSearch");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    // Getters
+    /**
+     * Gets the number of threads.
+     * @return the number of threads, including the calling thread.
+     */
+    public int getThreadCount() {
+        return mWorkers.length;
+    }
+
+    /**
+     * Gets the number of iterations of the latest search, summed over the threads.
+     * @return the number of iterations.
+     */
+    public int getIterationCount() {
+        return mIterationCount;
+    }
+
+    // Search
+    /**
+     * Searches the best move of the current player, from the point of view of that player: the cards of its hand and
+     * of the deck are never looked at.
+     * @param state the state, which is not modified and must not be modified during the search.
+     * @return the best move, or {@link Move#NONE} if the game is over.
+     */
+    public synchronized int search(final GameState state) {
+        if (state.isGameOver()) {
+            return Move.NONE;
+        }
+        final long deadlineNanos = mTimeBudgetNanos == Long.MAX_VALUE
+                ? Long.MAX_VALUE : System.nanoTime() + mTimeBudgetNanos;
+        final int threadCount = mWorkers.length;
+        final int[] iterations = new int[threadCount];
+
+        // Run the other workers on the executor
+        final CountDownLatch latch = new CountDownLatch(threadCount - 1);
+        for (int i = 1; i < threadCount; i++) {
+            final int index = i;
+            mExecutor.execute(() -> {
+                try {
+                    iterations[index] = mWorkers[index].search(state, share(index), deadlineNanos);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        iterations[0] = mWorkers[0].search(state, share(0), deadlineNanos);
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Merge the roots
+        Arrays.fill(mVisits, 0);
+        Arrays.fill(mRewards, 0);
+        int iterationCount = 0;
+        for (int i = 0; i < threadCount; i++) {
+            mWorkers[i].collectRootStatistics(mVisits, mRewards);
+            iterationCount += iterations[i];
+        }
+        mIterationCount = iterationCount;
+        int best = Move.NONE;
+        for (int move = 0; move < mVisits.length; move++) {
+            if (mVisits[move] > 0 && (best == Move.NONE || mVisits[move] > mVisits[best]
+                    || mVisits[move] == mVisits[best] && mRewards[move] > mRewards[best])) {
+                best = move;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Gets the share of the iteration budget of a thread.
+     * @param index the index of the thread.
+     * @return the maximum number of iterations of the thread.
+     */
+    private int share(int index) {
+        if (mMaxIterations == Integer.MAX_VALUE) {
+            return Integer.MAX_VALUE;
+        }
+        final int threadCount = mWorkers.length;
+        return mMaxIterations / threadCount + (index < mMaxIterations % threadCount ? 1 : 0);
+    }
+
+    /**
+     * Stops the threads of the search, which cannot be used anymore.
+     */
+    public void shutdown() {
+        if (mExecutor != null) {
+            mExecutor.shutdown();
+        }
+    }
+}
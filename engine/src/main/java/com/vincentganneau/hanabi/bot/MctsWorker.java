@@ -0,0 +1,335 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.bot;
+
+import com.vincentganneau.hanabi.game.GameState;
+import com.vincentganneau.hanabi.game.Move;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Single-threaded information-set Monte Carlo tree search, run by every thread of a {@link MctsSearch}.
+ * <p>
+ * Every iteration redistributes the cards hidden from the searching player, then walks down a single tree shared by
+ * every determinization, selecting children with UCB1 where the number of visits of the parent is replaced by the
+ * number of times the child was available. Hanabi being cooperative, every node is scored with the final score of
+ * the game, in points.
+ * </p>
+ * <p>
+ * The searching player only chooses among its own moves: the other players, who cannot see their own cards either,
+ * play the {@link HeuristicPolicy} in the tree as well as in the playouts. Their moves depend on the cards dealt to
+ * the searching player, so they are nodes of the tree too, and the statistics of a node only mix determinizations
+ * that went through the same moves.
+ * </p>
+ * <p>
+ * The search starts from the {@link HeuristicPolicy}: the move of the policy is expanded first, and it gets a bonus
+ * that fades with its visits, so another move has to beat it over enough playouts to be chosen.
+ * </p>
+ * <p>
+ * The tree is stored in primitive arrays that are reused from one search to the next, so iterations do not allocate
+ * once the arrays are large enough.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public class MctsWorker {
+
+    // Search
+    /**
+     * The exploration constant of UCB1, in points: a few playouts rarely tell moves apart by more than a point.
+     */
+    private static final double EXPLORATION = 0.5;
+    /**
+     * The bonus of the move of the {@link HeuristicPolicy}, in points, divided by the number of visits of its node.
+     */
+    private static final double HEURISTIC_BIAS = GameState.MAX_SCORE;
+    /**
+     * The number of distinct move values, as moves are encoded on 8 bits.
+     */
+    private static final int MOVE_SPACE = 1 << 8;
+
+    // Randomness
+    /**
+     * The source of randomness of the worker.
+     */
+    private final Random mRandom;
+
+    // States
+    /**
+     * The state every iteration is played on.
+     */
+    private final GameState mState = new GameState(GameState.MIN_PLAYER_COUNT);
+    /**
+     * The legal moves of the current state.
+     */
+    private final int[] mMoves = new int[Move.MAX_LEGAL_MOVES];
+    /**
+     * The moves that have not been tried yet from the current node.
+     */
+    private final int[] mUntriedMoves = new int[Move.MAX_LEGAL_MOVES];
+    /**
+     * The stamp of every legal move of the current state.
+     */
+    private final int[] mLegalStamps = new int[MOVE_SPACE];
+    /**
+     * The stamp of every move already expanded from the current node.
+     */
+    private final int[] mExpandedStamps = new int[MOVE_SPACE];
+    /**
+     * The stamp of the current node.
+     */
+    private int mStamp;
+
+    // Tree
+    /**
+     * The move leading to every node.
+     */
+    private int[] mNodeMoves = new int[1024];
+    /**
+     * The parent of every node, or <code>-1</code> for the root.
+     */
+    private int[] mNodeParents = new int[1024];
+    /**
+     * The first child of every node, or <code>-1</code>.
+     */
+    private int[] mNodeChildren = new int[1024];
+    /**
+     * The next sibling of every node, or <code>-1</code>.
+     */
+    private int[] mNodeSiblings = new int[1024];
+    /**
+     * The number of visits of every node.
+     */
+    private int[] mNodeVisits = new int[1024];
+    /**
+     * The number of times every node was available when its parent was visited.
+     */
+    private int[] mNodeAvailability = new int[1024];
+    /**
+     * The sum of the rewards of every node.
+     */
+    private double[] mNodeRewards = new double[1024];
+    /**
+     * The number of nodes.
+     */
+    private int mNodeCount;
+
+    // Constructor
+    /**
+     * Creates a new {@link MctsWorker}.
+     * @param seed the seed of the source of randomness.
+     */
+    public MctsWorker(long seed) {
+        mRandom = new Random(seed);
+    }
+
+    // Search
+    /**
+     * Searches the best move of the current player of a state, until the iteration budget is spent or the deadline is
+     * reached.
+     * @param root the state to be searched, which is not modified.
+     * @param maxIterations the maximum number of iterations.
+     * @param deadlineNanos the time on the {@link System#nanoTime()} clock after which the search stops, or
+     * {@link Long#MAX_VALUE} for no deadline.
+     * @return the number of iterations.
+     */
+    public int search(GameState root, int maxIterations, long deadlineNanos) {
+        mNodeCount = 0;
+        newNode(-1, Move.NONE);
+        final int observer = root.getCurrentPlayer();
+        int iterations = 0;
+        while (iterations < maxIterations
+                && (deadlineNanos == Long.MAX_VALUE || System.nanoTime() - deadlineNanos < 0)) {
+            mState.copyFrom(root);
+            mState.determinize(observer, mRandom);
+            final int leaf = selectAndExpand(observer);
+            backpropagate(leaf, rollout());
+            iterations++;
+        }
+        return iterations;
+    }
+
+    /**
+     * Adds the statistics of the children of the root to arrays indexed by move.
+     * @param visits the number of visits of every move.
+     * @param rewards the sum of the rewards of every move.
+     */
+    public void collectRootStatistics(int[] visits, double[] rewards) {
+        for (int child = mNodeChildren[0]; child >= 0; child = mNodeSiblings[child]) {
+            visits[mNodeMoves[child]] += mNodeVisits[child];
+            rewards[mNodeMoves[child]] += mNodeRewards[child];
+        }
+    }
+
+    /**
+     * Walks down the tree from the root, applying moves to {@link #mState}, until a node with untried moves is
+     * expanded or the game is over.
+     * @param observer the searching player.
+     * @return the reached node.
+     */
+    private int selectAndExpand(int observer) {
+        int node = 0;
+        while (!mState.isGameOver()) {
+            if (mState.getCurrentPlayer() != observer) {
+                final int move = HeuristicPolicy.chooseMove(mState, mRandom, mMoves);
+                mState.apply(move);
+                node = findOrAddChild(node, move);
+                continue;
+            }
+            final int heuristicMove = HeuristicPolicy.chooseMove(mState, mRandom, mMoves);
+
+            // Mark the legal moves of the determinization
+            final int stamp = ++mStamp;
+            final int count = mState.getLegalMoves(mMoves);
+            for (int i = 0; i < count; i++) {
+                mLegalStamps[mMoves[i]] = stamp;
+            }
+
+            // Select among the available children
+            int best = -1;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int child = mNodeChildren[node]; child >= 0; child = mNodeSiblings[child]) {
+                final int move = mNodeMoves[child];
+                if (mLegalStamps[move] != stamp) {
+                    continue;
+                }
+                mExpandedStamps[move] = stamp;
+                final int availability = ++mNodeAvailability[child];
+                final int visits = mNodeVisits[child];
+                double value = mNodeRewards[child] / visits
+                        + EXPLORATION * Math.sqrt(Math.log(availability) / visits);
+                if (move == heuristicMove) {
+                    value += HEURISTIC_BIAS / visits;
+                }
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+
+            // Expand the move of the policy first, else an untried move
+            if (mExpandedStamps[heuristicMove] != stamp) {
+                return expand(node, heuristicMove);
+            }
+            int untriedCount = 0;
+            for (int i = 0; i < count; i++) {
+                if (mExpandedStamps[mMoves[i]] != stamp) {
+                    mUntriedMoves[untriedCount++] = mMoves[i];
+                }
+            }
+            if (untriedCount > 0) {
+                return expand(node, mUntriedMoves[mRandom.nextInt(untriedCount)]);
+            }
+            mState.apply(mNodeMoves[best]);
+            node = best;
+        }
+        return node;
+    }
+
+    /**
+     * Applies an untried move of the searching player to {@link #mState} and creates its node.
+     * @param node the current node.
+     * @param move the move.
+     * @return the created node.
+     */
+    private int expand(int node, int move) {
+        mState.apply(move);
+        final int child = newNode(node, move);
+        mNodeAvailability[child] = 1;
+        return child;
+    }
+
+    /**
+     * Gets the child of a node reached by a move of another player, creating it if needed.
+     * @param node the current node.
+     * @param move the move.
+     * @return the child.
+     */
+    private int findOrAddChild(int node, int move) {
+        for (int child = mNodeChildren[node]; child >= 0; child = mNodeSiblings[child]) {
+            if (mNodeMoves[child] == move) {
+                return child;
+            }
+        }
+        return newNode(node, move);
+    }
+
+    /**
+     * Plays {@link #mState} to the end with the {@link HeuristicPolicy}.
+     * @return the reward of the game, which is its score.
+     */
+    private double rollout() {
+        final GameState state = mState;
+        while (!state.isGameOver()) {
+            state.apply(HeuristicPolicy.chooseMove(state, mRandom, mMoves));
+        }
+        return state.getScore();
+    }
+
+    /**
+     * Adds a reward to a node and all its ancestors.
+     * @param node the node.
+     * @param reward the reward.
+     */
+    private void backpropagate(int node, double reward) {
+        for (; node >= 0; node = mNodeParents[node]) {
+            mNodeVisits[node]++;
+            mNodeRewards[node] += reward;
+        }
+    }
+
+    /**
+     * Creates a node and links it as the first child of its parent.
+     * @param parent the parent, or <code>-1</code> for the root.
+     * @param move the move leading to the node.
+     * @return the node.
+     */
+    private int newNode(int parent, int move) {
+        if (mNodeCount == mNodeMoves.length) {
+            grow(mNodeCount * 2);
+        }
+        final int node = mNodeCount++;
+        mNodeMoves[node] = move;
+        mNodeParents[node] = parent;
+        mNodeChildren[node] = -1;
+        mNodeVisits[node] = 0;
+        mNodeAvailability[node] = 0;
+        mNodeRewards[node] = 0;
+        if (parent >= 0) {
+            mNodeSiblings[node] = mNodeChildren[parent];
+            mNodeChildren[parent] = node;
+        } else {
+            mNodeSiblings[node] = -1;
+        }
+        return node;
+    }
+
+    /**
+     * Grows every node array.
+     * @param capacity the new capacity.
+     */
+    private void grow(int capacity) {
+        mNodeMoves = Arrays.copyOf(mNodeMoves, capacity);
+        mNodeParents = Arrays.copyOf(mNodeParents, capacity);
+        mNodeChildren = Arrays.copyOf(mNodeChildren, capacity);
+        mNodeSiblings = Arrays.copyOf(mNodeSiblings, capacity);
+        mNodeVisits = Arrays.copyOf(mNodeVisits, capacity);
+        mNodeAvailability = Arrays.copyOf(mNodeAvailability, capacity);
+        mNodeRewards = Arrays.copyOf(mNodeRewards, capacity);
+    }
+}
@@ -0,0 +1,148 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.game;
+
+/**
+ * Encoding of the Hanabi cards as small integers, so that hands and decks fit into primitive arrays.
+ * <p>
+ * A card is encoded as <code>color * RANK_COUNT + rank - 1</code>, which gives every kind of card a value between
+ * <code>0</code> and {@link #KIND_COUNT} excluded, and {@link #NONE} stands for no card.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public final class Card {
+
+    // Kinds
+    /**
+     * The number of colors.
+     */
+    public static final int COLOR_COUNT = 5;
+    /**
+     * The number of ranks, from <code>1</code> to <code>5</code>.
+     */
+    public static final int RANK_COUNT = 5;
+    /**
+     * The number of kinds of cards.
+     */
+    public static final int KIND_COUNT = COLOR_COUNT * RANK_COUNT;
+    /**
+     * The value of an empty slot.
+     */
+    public static final byte NONE = -1;
+
+    // Copies
+    /**
+     * The number of copies of every rank inside the deck, indexed by <code>rank - 1</code>.
+     */
+    private static final int[] COPIES = {3, 2, 2, 2, 1};
+    /**
+     * The number of cards inside the deck.
+     */
+    public static final int DECK_SIZE = 50;
+
+    // Constructor
+    /**
+     * Prevents instantiation.
+     */
+    private Card() {
+    }
+
+    // Encoding
+    /**
+     * Encodes a card.
+     * @param color the color, between <code>0</code> and {@link #COLOR_COUNT} excluded.
+     * @param rank the rank, between <code>1</code> and {@link #RANK_COUNT}.
+     * @return the card.
+     */
+    public static byte of(int color, int rank) {
+        return (byte) (color * RANK_COUNT + rank - 1);
+    }
+
+    /**
+     * Gets the color of a card.
+     * @param card the card.
+     * @return the color, between <code>0</code> and {@link #COLOR_COUNT} excluded.
+     */
+    public static int color(int card) {
+        return card / RANK_COUNT;
+    }
+
+    /**
+     * Gets the rank of a card.
+     * @param card the card.
+     * @return the rank, between <code>1</code> and {@link #RANK_COUNT}.
+     */
+    public static int rank(int card) {
+        return card % RANK_COUNT + 1;
+    }
+
+    /**
+     * Gets the number of copies of a card inside the deck.
+     * @param card the card.
+     * @return <code>3</code> for ones, <code>1</code> for fives and <code>2</code> otherwise.
+     */
+    public static int copies(int card) {
+        return COPIES[card % RANK_COUNT];
+    }
+
+    /**
+     * Fills an array with every card of the deck, ordered by color then rank.
+     * @param deck the array to be filled, of at least {@link #DECK_SIZE} elements.
+     */
+    public static void fillDeck(byte[] deck) {
+        int index = 0;
+        for (int card = 0; card < KIND_COUNT; card++) {
+            for (int copy = copies(card); copy > 0; copy--) {
+                deck[index++] = (byte) card;
+            }
+        }
+    }
+
+    // Masks
+    /**
+     * The mask of every kind of card, one bit per card value.
+     */
+    public static final int ALL_KINDS = (1 << KIND_COUNT) - 1;
+
+    /**
+     * Gets the mask of the kinds of cards of a color.
+     * @param color the color.
+     * @return the mask, with one bit per card value.
+     */
+    public static int colorMask(int color) {
+        return 0x1F << color * RANK_COUNT;
+    }
+
+    /**
+     * Gets the mask of the kinds of cards of a rank.
+     * @param rank the rank, between <code>1</code> and {@link #RANK_COUNT}.
+     * @return the mask, with one bit per card value.
+     */
+    public static int rankMask(int rank) {
+        return 0x108421 << rank - 1;
+    }
+
+    /**
+     * Describes a card, such as <code>R1</code> for a red one.
+     * @param card the card.
+     * @return the description.
+     */
+    public static String toString(int card) {
+        return card == NONE ? "--" : "RYGBW".charAt(color(card)) + Integer.toString(rank(card));
+    }
+}
@@ -0,0 +1,1000 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.game;
+
+import com.vincentganneau.hanabi.model.SnapshotReader;
+import com.vincentganneau.hanabi.model.SnapshotWriter;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Compact state of a game of Hanabi, built for fast search and self-play.
+ * <p>
+ * Cards are encoded with {@link Card} and moves with {@link Move}. The deck and the hands are byte arrays, the
+ * fireworks are packed into an <code>int</code> with three bits per color, and the discard pile is packed into a
+ * <code>long</code> with two bits per kind of card. {@link #apply(int)} returns an <code>int</code> record that
+ * {@link #undo(int)} uses to restore the previous state, so a search can walk down and back up the game tree without
+ * allocating nor copying the state.
+ * </p>
+ * <p>
+ * Every card of every hand also carries a hint mask of the kinds of cards it can be according to the hints it received.
+ * Those masks are public knowledge: a player does not see its own cards but sees their masks.
+ * </p>
+ * <p>
+ * The view of a player is a state whose hidden cards, those of its own hand and of the deck, are {@link Card#NONE},
+ * see {@link #hideCards(int)}. It is kept up to date with {@link #applyObserved(int, int, int)}, from the cards the
+ * player learns as the moves are played.
+ * </p>
+ * <p>
+ * Slot <code>0</code> of a hand holds the newest card: drawn cards are inserted on the left and the other cards are
+ * shifted to the right.
+ * </p>
+ * <p>
+ * The state is not thread-safe: every thread should work on its own copy, see {@link #copyFrom(GameState)}.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public class GameState {
+
+    // Rules
+    /**
+     * The minimum number of players.
+     */
+    public static final int MIN_PLAYER_COUNT = 2;
+    /**
+     * The maximum number of players.
+     */
+    public static final int MAX_PLAYER_COUNT = 5;
+    /**
+     * The maximum number of cards in a hand.
+     */
+    public static final int MAX_HAND_SIZE = 5;
+    /**
+     * The maximum number of hint tokens.
+     */
+    public static final int MAX_HINTS = 8;
+    /**
+     * The number of fuse tokens at the start of the game.
+     */
+    public static final int MAX_FUSES = 3;
+    /**
+     * The score of a game where every firework has been completed.
+     */
+    public static final int MAX_SCORE = Card.COLOR_COUNT * Card.RANK_COUNT;
+
+    // Hint masks
+    /**
+     * The capacity of {@link #mMaskHistory}: every play and discard saves one mask and every hint at most
+     * {@link #MAX_HAND_SIZE} masks, and a game holds fewer than 64 hints and {@link Card#DECK_SIZE} plays and
+     * discards.
+     */
+    private static final int MASK_HISTORY_SIZE = 64 * MAX_HAND_SIZE + Card.DECK_SIZE;
+
+    // Snapshot
+    /**
+     * The type of the record of the game state inside snapshots.
+     */
+    public static final int SNAPSHOT_TYPE = -2;
+    /**
+     * The version of the record of the game state inside snapshots.
+     */
+    private static final int SNAPSHOT_VERSION = 1;
+
+    // Undo records
+    /**
+     * The flag of the records whose move drew a card.
+     */
+    private static final int RECORD_DREW = 1 << 20;
+    /**
+     * The flag of the records whose move played a card successfully.
+     */
+    private static final int RECORD_SUCCESS = 1 << 21;
+
+    // Players
+    /**
+     * The number of players.
+     */
+    private int mPlayerCount;
+    /**
+     * The number of cards dealt to every player.
+     */
+    private int mInitialHandSize;
+    /**
+     * The player whose turn it is.
+     */
+    private int mCurrentPlayer;
+
+    // Cards
+    /**
+     * The cards of the deck in drawing order, including the cards already drawn.
+     */
+    private final byte[] mDeck = new byte[Card.DECK_SIZE];
+    /**
+     * The index of the next card to be drawn inside {@link #mDeck}.
+     */
+    private int mDrawIndex;
+    /**
+     * The cards of every hand, {@link #MAX_HAND_SIZE} slots per player.
+     */
+    private final byte[] mHands = new byte[MAX_PLAYER_COUNT * MAX_HAND_SIZE];
+    /**
+     * The number of cards of every hand.
+     */
+    private final byte[] mHandSizes = new byte[MAX_PLAYER_COUNT];
+    /**
+     * The kinds of cards every card of every hand can be according to the hints it received, one bit per card value.
+     */
+    private final int[] mHintMasks = new int[MAX_PLAYER_COUNT * MAX_HAND_SIZE];
+    /**
+     * The number of cards of every kind hidden from the observing player, used by {@link #determinize(int, Random)}.
+     */
+    private final int[] mHiddenCounts = new int[Card.KIND_COUNT];
+    /**
+     * The slots of the hand of the observing player in dealing order, used by {@link #determinize(int, Random)}.
+     */
+    private final int[] mDealOrder = new int[MAX_HAND_SIZE];
+    /**
+     * The kinds already tried for every slot in dealing order, used by {@link #determinize(int, Random)}.
+     */
+    private final int[] mTriedKinds = new int[MAX_HAND_SIZE];
+    /**
+     * The hint masks overwritten by the applied moves, popped by {@link #undo(int)}.
+     */
+    private final int[] mMaskHistory = new int[MASK_HISTORY_SIZE];
+    /**
+     * The number of hint masks inside {@link #mMaskHistory}.
+     */
+    private int mMaskHistorySize;
+    /**
+     * The height of every firework, three bits per color.
+     */
+    private int mFireworks;
+    /**
+     * The number of discarded copies of every kind of card, two bits per kind.
+     */
+    private long mDiscards;
+
+    // Tokens
+    /**
+     * The number of hint tokens.
+     */
+    private int mHints;
+    /**
+     * The number of fuse tokens.
+     */
+    private int mFuses;
+
+    // Turns
+    /**
+     * The number of turns left once the deck is empty, or <code>-1</code> while cards can be drawn.
+     */
+    private int mFinalTurns;
+    /**
+     * The number of moves applied since the cards have been dealt.
+     */
+    private int mTurn;
+
+    // Move listener
+    /**
+     * The listener notified of every applied and undone move, or <code>null</code>.
+     */
+    private MoveListener mMoveListener;
+
+    // Constructor
+    /**
+     * Creates a new {@link GameState} whose cards have not been dealt yet.
+     * @param playerCount the number of players, between {@link #MIN_PLAYER_COUNT} and {@link #MAX_PLAYER_COUNT}.
+     */
+    public GameState(int playerCount) {
+        if (playerCount < MIN_PLAYER_COUNT || playerCount > MAX_PLAYER_COUNT) {
+            throw new IllegalArgumentException("playerCount must be between " + MIN_PLAYER_COUNT + " and "
+                    + MAX_PLAYER_COUNT + ": " + playerCount);
+        }
+        mPlayerCount = playerCount;
+        mInitialHandSize = playerCount <= 3 ? 5 : 4;
+    }
+
+    // Deal
+    /**
+     * Shuffles the deck and deals the cards.
+     * @param random the source of randomness.
+     */
+    public void deal(Random random) {
+        Card.fillDeck(mDeck);
+        for (int i = Card.DECK_SIZE - 1; i > 0; i--) {
+            final int j = random.nextInt(i + 1);
+            final byte card = mDeck[i];
+            mDeck[i] = mDeck[j];
+            mDeck[j] = card;
+        }
+        dealDeck();
+    }
+
+    /**
+     * Deals the cards from a deck in a given order.
+     * @param deck the {@link Card#DECK_SIZE} cards of the deck in drawing order.
+     */
+    public void deal(byte[] deck) {
+        System.arraycopy(deck, 0, mDeck, 0, Card.DECK_SIZE);
+        dealDeck();
+    }
+
+    /**
+     * Resets the game and deals the cards of {@link #mDeck}, one card to every player in turn.
+     */
+    private void dealDeck() {
+        Arrays.fill(mHands, Card.NONE);
+        Arrays.fill(mHandSizes, (byte) 0);
+        Arrays.fill(mHintMasks, Card.ALL_KINDS);
+        mMaskHistorySize = 0;
+        mDrawIndex = 0;
+        mFireworks = 0;
+        mDiscards = 0;
+        mHints = MAX_HINTS;
+        mFuses = MAX_FUSES;
+        mFinalTurns = -1;
+        mTurn = 0;
+        mCurrentPlayer = 0;
+        for (int i = 0; i < mInitialHandSize; i++) {
+            for (int player = 0; player < mPlayerCount; player++) {
+                insertCard(player, 0, mDeck[mDrawIndex++], Card.ALL_KINDS);
+            }
+        }
+    }
+
+    /**
+     * Copies another state into this one, without allocating.
+     * @param state the state to be copied.
+     */
+    public void copyFrom(GameState state) {
+        mPlayerCount = state.mPlayerCount;
+        mInitialHandSize = state.mInitialHandSize;
+        mCurrentPlayer = state.mCurrentPlayer;
+        System.arraycopy(state.mDeck, 0, mDeck, 0, Card.DECK_SIZE);
+        mDrawIndex = state.mDrawIndex;
+        System.arraycopy(state.mHands, 0, mHands, 0, mHands.length);
+        System.arraycopy(state.mHandSizes, 0, mHandSizes, 0, MAX_PLAYER_COUNT);
+        System.arraycopy(state.mHintMasks, 0, mHintMasks, 0, mHintMasks.length);
+        System.arraycopy(state.mMaskHistory, 0, mMaskHistory, 0, state.mMaskHistorySize);
+        mMaskHistorySize = state.mMaskHistorySize;
+        mFireworks = state.mFireworks;
+        mDiscards = state.mDiscards;
+        mHints = state.mHints;
+        mFuses = state.mFuses;
+        mFinalTurns = state.mFinalTurns;
+        mTurn = state.mTurn;
+    }
+
+    /**
+     * Saves the state into a snapshot, as a single record of type {@link #SNAPSHOT_TYPE}.
+     * @param writer the writer, outside of any record.
+     */
+    public void saveSnapshot(SnapshotWriter writer) {
+        writer.beginRecord(SNAPSHOT_TYPE, SNAPSHOT_VERSION);
+        writer.writeByte(mPlayerCount);
+        writer.writeByte(mCurrentPlayer);
+        writer.writeByte(mDrawIndex);
+        writer.writeByte(mHints);
+        writer.writeByte(mFuses);
+        writer.writeByte(mFinalTurns);
+        writer.writeShort(mTurn);
+        writer.writeInt(mFireworks);
+        writer.writeLong(mDiscards);
+        writer.writeBytes(mDeck, 0, Card.DECK_SIZE);
+        for (int player = 0; player < mPlayerCount; player++) {
+            final int offset = player * MAX_HAND_SIZE;
+            writer.writeByte(mHandSizes[player]);
+            writer.writeBytes(mHands, offset, mHandSizes[player]);
+            for (int slot = 0; slot < mHandSizes[player]; slot++) {
+                writer.writeInt(mHintMasks[offset + slot]);
+            }
+        }
+        writer.endRecord();
+    }
+
+    /**
+     * Restores the state from a snapshot saved by {@link #saveSnapshot(SnapshotWriter)}, including its number of
+     * players.
+     * <p>
+     * The moves applied before the snapshot was saved cannot be undone.
+     * </p>
+     * @param reader the reader, whose next record is the record of the game state.
+     */
+    public void restoreSnapshot(SnapshotReader reader) {
+        reader.requireRecord(SNAPSHOT_TYPE);
+        final int playerCount = reader.readByte();
+        if (playerCount < MIN_PLAYER_COUNT || playerCount > MAX_PLAYER_COUNT) {
+            throw new IllegalArgumentException("Invalid number of players: " + playerCount);
+        }
+        mPlayerCount = playerCount;
+        mInitialHandSize = playerCount <= 3 ? 5 : 4;
+        mCurrentPlayer = reader.readByte();
+        mDrawIndex = reader.readByte();
+        mHints = reader.readByte();
+        mFuses = reader.readByte();
+        mFinalTurns = reader.readByte();
+        mTurn = reader.readShort();
+        mFireworks = reader.readInt();
+        mDiscards = reader.readLong();
+        reader.readBytes(mDeck, 0, Card.DECK_SIZE);
+        Arrays.fill(mHands, Card.NONE);
+        Arrays.fill(mHandSizes, (byte) 0);
+        Arrays.fill(mHintMasks, Card.ALL_KINDS);
+        mMaskHistorySize = 0;
+        for (int player = 0; player < playerCount; player++) {
+            final int offset = player * MAX_HAND_SIZE;
+            final byte handSize = reader.readByte();
+            if (handSize < 0 || handSize > MAX_HAND_SIZE) {
+                throw new IllegalArgumentException("Invalid hand size: " + handSize);
+            }
+            mHandSizes[player] = handSize;
+            reader.readBytes(mHands, offset, handSize);
+            for (int slot = 0; slot < handSize; slot++) {
+                if (mHands[offset + slot] < Card.NONE || mHands[offset + slot] >= Card.KIND_COUNT) {
+                    throw new IllegalArgumentException("Invalid card: " + mHands[offset + slot]);
+                }
+                mHintMasks[offset + slot] = reader.readInt();
+            }
+        }
+        if (mCurrentPlayer < 0 || mCurrentPlayer >= playerCount || mDrawIndex < 0 || mDrawIndex > Card.DECK_SIZE) {
+            throw new IllegalArgumentException("Invalid game state: " + this);
+        }
+    }
+
+    /**
+     * Hides the cards a player cannot see, namely the cards of its own hand and of the deck, so that the state becomes
+     * the view of the player.
+     * <p>
+     * The hidden cards are replaced with {@link Card#NONE}, while their hint masks are kept.
+     * </p>
+     * @param player the observing player.
+     */
+    public void hideCards(int player) {
+        Arrays.fill(mHands, player * MAX_HAND_SIZE, (player + 1) * MAX_HAND_SIZE, Card.NONE);
+        Arrays.fill(mDeck, Card.NONE);
+    }
+
+    /**
+     * Redistributes at random the cards hidden from a player, namely the cards of its own hand and of the deck, so that
+     * the state becomes one of the states the player cannot tell apart from the actual one.
+     * <p>
+     * The hand is dealt most constrained slot first: every slot draws a kind allowed by its hint mask, with a
+     * probability proportional to the number of hidden cards of that kind, and a slot left without any allowed card
+     * backtracks to the previous slot, which then tries another kind. The hidden cards are counted from the cards the
+     * player sees, and the actual hand being one of the solutions, the deal always succeeds without ever looking at it.
+     * The rest of the hidden cards are then shuffled into the deck.
+     * </p>
+     * <p>
+     * The hand keeps its size, every other hand and the public cards are left untouched, and nothing is allocated. The
+     * state can be the view of the player, see {@link #hideCards(int)}.
+     * </p>
+     * @param player the observing player.
+     * @param random the source of randomness.
+     * @throws IllegalStateException if the hint masks of the hand do not match any hidden card.
+     */
+    public void determinize(int player, Random random) {
+        final int offset = player * MAX_HAND_SIZE;
+        final int handSize = mHandSizes[player];
+
+        // Count the hidden cards
+        for (int card = 0; card < Card.KIND_COUNT; card++) {
+            final int played = Card.rank(card) <= getFirework(Card.color(card)) ? 1 : 0;
+            mHiddenCounts[card] = Card.copies(card) - getDiscardCount(card) - played;
+        }
+        for (int other = 0; other < mPlayerCount; other++) {
+            if (other != player) {
+                for (int slot = 0; slot < mHandSizes[other]; slot++) {
+                    mHiddenCounts[mHands[other * MAX_HAND_SIZE + slot]]--;
+                }
+            }
+        }
+
+        // Order the slots by number of allowed kinds
+        for (int i = 0; i < handSize; i++) {
+            int j = i;
+            final int bits = Integer.bitCount(mHintMasks[offset + i]);
+            while (j > 0 && Integer.bitCount(mHintMasks[offset + mDealOrder[j - 1]]) > bits) {
+                mDealOrder[j] = mDealOrder[j - 1];
+                j--;
+            }
+            mDealOrder[j] = i;
+        }
+
+        // Deal the hand, backtracking when a slot has no allowed card left
+        int depth = 0;
+        mTriedKinds[0] = 0;
+        while (depth < handSize) {
+            final int slot = offset + mDealOrder[depth];
+            final int allowed = mHintMasks[slot] & ~mTriedKinds[depth];
+            int total = 0;
+            for (int kind = 0; kind < Card.KIND_COUNT; kind++) {
+                if ((allowed & 1 << kind) != 0) {
+                    total += mHiddenCounts[kind];
+                }
+            }
+            if (total == 0) {
+                if (depth == 0) {
+                    throw new IllegalStateException("No card matches the hints of player " + player + ": " + this);
+                }
+                mHiddenCounts[mHands[offset + mDealOrder[--depth]]]++;
+                continue;
+            }
+            int pick = random.nextInt(total);
+            int kind = 0;
+            while ((allowed & 1 << kind) == 0 || pick >= mHiddenCounts[kind]) {
+                if ((allowed & 1 << kind) != 0) {
+                    pick -= mHiddenCounts[kind];
+                }
+                kind++;
+            }
+            mHands[slot] = (byte) kind;
+            mHiddenCounts[kind]--;
+            mTriedKinds[depth] |= 1 << kind;
+            if (++depth < handSize) {
+                mTriedKinds[depth] = 0;
+            }
+        }
+
+        // Shuffle the other hidden cards into the deck
+        int index = mDrawIndex;
+        for (int kind = 0; kind < Card.KIND_COUNT; kind++) {
+            for (int i = 0; i < mHiddenCounts[kind]; i++) {
+                mDeck[index++] = (byte) kind;
+            }
+        }
+        for (int i = Card.DECK_SIZE - 1; i > mDrawIndex; i--) {
+            final int j = mDrawIndex + random.nextInt(i - mDrawIndex + 1);
+            final byte card = mDeck[i];
+            mDeck[i] = mDeck[j];
+            mDeck[j] = card;
+        }
+    }
+
+    // Move listener
+    /**
+     * Sets the listener notified of every move applied to this state and of every move undone.
+     * <p>
+     * The listener is not copied by {@link #copyFrom(GameState)}.
+     * </p>
+     * @param moveListener the {@link MoveListener} instance, or <code>null</code> to remove the listener.
+     */
+    public void setMoveListener(MoveListener moveListener) {
+        mMoveListener = moveListener;
+    }
+
+    // Getters
+    /**
+     * Gets the number of players.
+     * @return the number of players.
+     */
+    public int getPlayerCount() {
+        return mPlayerCount;
+    }
+
+    /**
+     * Gets the player whose turn it is.
+     * @return the current player.
+     */
+    public int getCurrentPlayer() {
+        return mCurrentPlayer;
+    }
+
+    /**
+     * Gets the number of cards in the hand of a player.
+     * @param player the player.
+     * @return the number of cards.
+     */
+    public int getHandSize(int player) {
+        return mHandSizes[player];
+    }
+
+    /**
+     * Gets a card from the hand of a player.
+     * @param player the player.
+     * @param slot the slot, <code>0</code> being the newest card.
+     * @return the card, or {@link Card#NONE} if the slot is empty.
+     */
+    public int getCard(int player, int slot) {
+        return mHands[player * MAX_HAND_SIZE + slot];
+    }
+
+    /**
+     * Gets the kinds of cards a card of a hand can be according to the hints it received, which every player knows.
+     * @param player the player.
+     * @param slot the slot.
+     * @return the mask, with one bit per card value.
+     */
+    public int getHintMask(int player, int slot) {
+        return mHintMasks[player * MAX_HAND_SIZE + slot];
+    }
+
+    /**
+     * Gets the number of cards left in the deck.
+     * @return the number of cards that can still be drawn.
+     */
+    public int getDeckSize() {
+        return Card.DECK_SIZE - mDrawIndex;
+    }
+
+    /**
+     * Gets a card of the deck that has not been drawn yet.
+     * @param index the index of the card, <code>0</code> being the next card to be drawn.
+     * @return the card.
+     */
+    public int getDeckCard(int index) {
+        return mDeck[mDrawIndex + index];
+    }
+
+    /**
+     * Gets the height of a firework.
+     * @param color the color of the firework.
+     * @return the rank of the latest card played on the firework, or <code>0</code>.
+     */
+    public int getFirework(int color) {
+        return mFireworks >>> 3 * color & 0x7;
+    }
+
+    /**
+     * Gets the number of discarded copies of a card, including the cards lost by misplays.
+     * @param card the card.
+     * @return the number of discarded copies.
+     */
+    public int getDiscardCount(int card) {
+        return (int) (mDiscards >>> 2 * card) & 0x3;
+    }
+
+    /**
+     * Gets the number of hint tokens.
+     * @return the number of hint tokens.
+     */
+    public int getHints() {
+        return mHints;
+    }
+
+    /**
+     * Gets the number of fuse tokens.
+     * @return the number of fuse tokens left.
+     */
+    public int getFuses() {
+        return mFuses;
+    }
+
+    /**
+     * Gets the number of moves applied since the cards have been dealt.
+     * @return the number of moves.
+     */
+    public int getTurn() {
+        return mTurn;
+    }
+
+    /**
+     * Gets the score, as the sum of the heights of the fireworks.
+     * @return the score, between <code>0</code> and {@link #MAX_SCORE}.
+     */
+    public int getScore() {
+        int score = 0;
+        for (int color = 0; color < Card.COLOR_COUNT; color++) {
+            score += getFirework(color);
+        }
+        return score;
+    }
+
+    /**
+     * Indicates whether a card can be played successfully.
+     * @param card the card.
+     * @return <code>true</code> if the card is the next one of its firework.
+     */
+    public boolean isPlayable(int card) {
+        return getFirework(Card.color(card)) == Card.rank(card) - 1;
+    }
+
+    /**
+     * Gets the kinds of cards that can currently be played.
+     * @return the mask, with one bit per card value.
+     */
+    public int getPlayableMask() {
+        int mask = 0;
+        for (int color = 0; color < Card.COLOR_COUNT; color++) {
+            final int firework = getFirework(color);
+            if (firework < Card.RANK_COUNT) {
+                mask |= 1 << Card.of(color, firework + 1);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Gets the kinds of cards that have already been played, whose remaining copies are useless.
+     * @return the mask, with one bit per card value.
+     */
+    public int getPlayedMask() {
+        int mask = 0;
+        for (int color = 0; color < Card.COLOR_COUNT; color++) {
+            mask |= ((1 << getFirework(color)) - 1) << color * Card.RANK_COUNT;
+        }
+        return mask;
+    }
+
+    /**
+     * Indicates whether the game is over, because the last fuse has burnt, every firework has been completed, or
+     * every player has played once since the deck is empty.
+     * @return <code>true</code> if no move can be applied anymore.
+     */
+    public boolean isGameOver() {
+        return mFuses == 0 || mFinalTurns == 0 || getScore() == MAX_SCORE;
+    }
+
+    // Moves
+    /**
+     * Indicates whether a move can be applied by the current player.
+     * @param move the move.
+     * @return <code>true</code> if the move is legal.
+     */
+    public boolean isLegal(int move) {
+        if (move < 0 || move >>> 8 != 0 || isGameOver()) {
+            return false;
+        }
+        switch (Move.type(move)) {
+            case Move.TYPE_PLAY:
+                return Move.value(move) == 0 && Move.slot(move) < mHandSizes[mCurrentPlayer];
+            case Move.TYPE_DISCARD:
+                return Move.value(move) == 0 && mHints < MAX_HINTS && Move.slot(move) < mHandSizes[mCurrentPlayer];
+            case Move.TYPE_HINT_COLOR:
+                return Move.value(move) < Card.COLOR_COUNT && isLegalHint(move);
+            default:
+                return Move.value(move) >= 1 && Move.value(move) <= Card.RANK_COUNT && isLegalHint(move);
+        }
+    }
+
+    /**
+     * Indicates whether a hint with a valid color or rank can be given by the current player.
+     * @param move the hint.
+     * @return <code>true</code> if a hint token is left and the target holds a card of the hinted color or rank.
+     */
+    private boolean isLegalHint(int move) {
+        final int target = Move.target(move);
+        return mHints > 0 && target != mCurrentPlayer && target < mPlayerCount
+                && (getHandFeatures(target) & hintBit(move)) != 0;
+    }
+
+    /**
+     * Fills an array with the legal moves of the current player, without allocating.
+     * @param moves the array to be filled, of at least {@link Move#MAX_LEGAL_MOVES} elements.
+     * @return the number of legal moves.
+     */
+    public int getLegalMoves(int[] moves) {
+        if (isGameOver()) {
+            return 0;
+        }
+        int count = 0;
+        final int handSize = mHandSizes[mCurrentPlayer];
+        for (int slot = 0; slot < handSize; slot++) {
+            moves[count++] = Move.play(slot);
+        }
+        if (mHints < MAX_HINTS) {
+            for (int slot = 0; slot < handSize; slot++) {
+                moves[count++] = Move.discard(slot);
+            }
+        }
+        if (mHints > 0) {
+            for (int target = 0; target < mPlayerCount; target++) {
+                if (target == mCurrentPlayer) {
+                    continue;
+                }
+                final int mask = getHandFeatures(target);
+                for (int color = 0; color < Card.COLOR_COUNT; color++) {
+                    if ((mask & 1 << color) != 0) {
+                        moves[count++] = Move.hintColor(target, color);
+                    }
+                }
+                for (int rank = 1; rank <= Card.RANK_COUNT; rank++) {
+                    if ((mask & 1 << Card.COLOR_COUNT + rank - 1) != 0) {
+                        moves[count++] = Move.hintRank(target, rank);
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Applies a legal move of the current player.
+     * @param move the move, which must be legal.
+     * @return the record to be passed to {@link #undo(int)} to restore the current state.
+     */
+    public int apply(int move) {
+        return applyMove(move, Move.isHint(move) ? getHintedSlots(move) : 0);
+    }
+
+    /**
+     * Applies a legal move of the current player to the view of a player, whose hidden cards are {@link Card#NONE}.
+     * <p>
+     * The cards the player learns from the move are revealed first: the played or discarded card, which every player
+     * sees, and the drawn card, unless the player drew it.
+     * </p>
+     * @param move the move, which must be legal.
+     * @param revealed the played or discarded card, or the slots of the hinted hand matching a hint, see
+     * {@link #getHintedSlots(int)}.
+     * @param drawnCard the drawn card, or {@link Card#NONE} if the player cannot see it or no card is drawn.
+     * @return the record to be passed to {@link #undo(int)} to restore the current state.
+     * @see #hideCards(int)
+     */
+    public int applyObserved(int move, int revealed, int drawnCard) {
+        if (Move.isHint(move)) {
+            return applyMove(move, revealed);
+        }
+        mHands[mCurrentPlayer * MAX_HAND_SIZE + Move.slot(move)] = (byte) revealed;
+        if (mDrawIndex < Card.DECK_SIZE) {
+            mDeck[mDrawIndex] = (byte) drawnCard;
+        }
+        return applyMove(move, 0);
+    }
+
+    /**
+     * Gets the slots of the hinted hand holding a card of the hinted color or rank.
+     * @param move the hint.
+     * @return a mask with one bit per slot.
+     */
+    public int getHintedSlots(int move) {
+        final int offset = Move.target(move) * MAX_HAND_SIZE;
+        final int size = mHandSizes[Move.target(move)];
+        final int hintMask = Move.type(move) == Move.TYPE_HINT_COLOR
+                ? Card.colorMask(Move.value(move))
+                : Card.rankMask(Move.value(move));
+        int slots = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if ((hintMask & 1 << mHands[offset + slot]) != 0) {
+                slots |= 1 << slot;
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Applies a legal move of the current player.
+     * @param move the move, which must be legal.
+     * @param hintedSlots the slots of the hinted hand matching a hint.
+     * @return the record to be passed to {@link #undo(int)} to restore the current state.
+     */
+    private int applyMove(int move, int hintedSlots) {
+        final int player = mCurrentPlayer;
+        final int type = Move.type(move);
+        int record = mHints | mFuses << 4 | (mFinalTurns + 1) << 6 | player << 9 | type << 22;
+        boolean deckEmptied = false;
+        if (type == Move.TYPE_PLAY || type == Move.TYPE_DISCARD) {
+            final int slot = Move.slot(move);
+            mMaskHistory[mMaskHistorySize++] = mHintMasks[player * MAX_HAND_SIZE + slot];
+            final int card = removeCard(player, slot);
+            record |= card << 12 | slot << 17;
+            if (type == Move.TYPE_DISCARD) {
+                addDiscard(card);
+                mHints++;
+            } else if (isPlayable(card)) {
+                mFireworks += 1 << 3 * Card.color(card);
+                record |= RECORD_SUCCESS;
+                if (Card.rank(card) == Card.RANK_COUNT && mHints < MAX_HINTS) {
+                    mHints++;
+                }
+            } else {
+                addDiscard(card);
+                mFuses--;
+            }
+
+            // Draw a card
+            if (mDrawIndex < Card.DECK_SIZE) {
+                insertCard(player, 0, mDeck[mDrawIndex++], Card.ALL_KINDS);
+                record |= RECORD_DREW;
+                deckEmptied = mDrawIndex == Card.DECK_SIZE;
+            }
+        } else {
+            mHints--;
+            applyHint(move, hintedSlots);
+            record |= Move.target(move) << 17;
+        }
+
+        // Move on to the next player
+        if (deckEmptied) {
+            mFinalTurns = mPlayerCount;
+        } else if (mFinalTurns > 0) {
+            mFinalTurns--;
+        }
+        mCurrentPlayer = player + 1 == mPlayerCount ? 0 : player + 1;
+        mTurn++;
+        if (mMoveListener != null) {
+            mMoveListener.onMoveApplied(this, move);
+        }
+        return record;
+    }
+
+    /**
+     * Restores the state before the latest applied move.
+     * @param record the record returned by {@link #apply(int)} for the latest applied move.
+     */
+    public void undo(int record) {
+        final int player = record >>> 9 & 0x7;
+        final int type = record >>> 22 & 0x3;
+        mTurn--;
+        mCurrentPlayer = player;
+        mHints = record & 0xF;
+        mFuses = record >>> 4 & 0x3;
+        mFinalTurns = (record >>> 6 & 0x7) - 1;
+        if (type == Move.TYPE_PLAY || type == Move.TYPE_DISCARD) {
+            final int card = record >>> 12 & 0x1F;
+            if ((record & RECORD_DREW) != 0) {
+                removeCard(player, 0);
+                mDrawIndex--;
+            }
+            insertCard(player, record >>> 17 & 0x7, (byte) card, mMaskHistory[--mMaskHistorySize]);
+            if ((record & RECORD_SUCCESS) != 0) {
+                mFireworks -= 1 << 3 * Card.color(card);
+            } else {
+                mDiscards -= 1L << 2 * card;
+            }
+        } else {
+            // Restore the hint masks of the hinted hand
+            final int target = record >>> 17 & 0x7;
+            for (int slot = mHandSizes[target] - 1; slot >= 0; slot--) {
+                mHintMasks[target * MAX_HAND_SIZE + slot] = mMaskHistory[--mMaskHistorySize];
+            }
+        }
+        if (mMoveListener != null) {
+            mMoveListener.onMoveUndone(this);
+        }
+    }
+
+    /**
+     * Narrows the hint masks of the cards of the hinted player, and saves the previous masks for {@link #undo(int)}.
+     * @param move the hint.
+     * @param hintedSlots the slots of the hinted hand matching the hint.
+     */
+    private void applyHint(int move, int hintedSlots) {
+        final int target = Move.target(move);
+        final int offset = target * MAX_HAND_SIZE;
+        final int size = mHandSizes[target];
+        final int hintMask = Move.type(move) == Move.TYPE_HINT_COLOR
+                ? Card.colorMask(Move.value(move))
+                : Card.rankMask(Move.value(move));
+        for (int slot = 0; slot < size; slot++) {
+            final int mask = mHintMasks[offset + slot];
+            mMaskHistory[mMaskHistorySize++] = mask;
+            mHintMasks[offset + slot] = (hintedSlots & 1 << slot) != 0
+                    ? mask & hintMask
+                    : mask & ~hintMask;
+        }
+    }
+
+    // Hands
+    /**
+     * Removes a card from a hand by shifting the older cards to the left.
+     * @param player the player.
+     * @param slot the slot of the card.
+     * @return the removed card.
+     */
+    private int removeCard(int player, int slot) {
+        final int offset = player * MAX_HAND_SIZE;
+        final int last = mHandSizes[player] - 1;
+        final byte card = mHands[offset + slot];
+        System.arraycopy(mHands, offset + slot + 1, mHands, offset + slot, last - slot);
+        System.arraycopy(mHintMasks, offset + slot + 1, mHintMasks, offset + slot, last - slot);
+        mHands[offset + last] = Card.NONE;
+        mHintMasks[offset + last] = Card.ALL_KINDS;
+        mHandSizes[player]--;
+        return card;
+    }
+
+    /**
+     * Inserts a card into a hand by shifting the older cards to the right.
+     * @param player the player.
+     * @param slot the slot of the card.
+     * @param card the card.
+     * @param hintMask the hint mask of the card.
+     */
+    private void insertCard(int player, int slot, byte card, int hintMask) {
+        final int offset = player * MAX_HAND_SIZE;
+        final int size = mHandSizes[player];
+        System.arraycopy(mHands, offset + slot, mHands, offset + slot + 1, size - slot);
+        System.arraycopy(mHintMasks, offset + slot, mHintMasks, offset + slot + 1, size - slot);
+        mHands[offset + slot] = card;
+        mHintMasks[offset + slot] = hintMask;
+        mHandSizes[player]++;
+    }
+
+    /**
+     * Adds a card to the discard pile.
+     * @param card the card.
+     */
+    private void addDiscard(int card) {
+        mDiscards += 1L << 2 * card;
+    }
+
+    /**
+     * Gets the colors and ranks present in the hand of a player.
+     * @param player the player.
+     * @return a mask with one bit per color, followed by one bit per rank, with every bit set for a hidden card.
+     */
+    private int getHandFeatures(int player) {
+        final int offset = player * MAX_HAND_SIZE;
+        final int size = mHandSizes[player];
+        int mask = 0;
+        for (int slot = 0; slot < size; slot++) {
+            final int card = mHands[offset + slot];
+            if (card == Card.NONE) {
+                return (1 << Card.COLOR_COUNT + Card.RANK_COUNT) - 1;
+            }
+            mask |= 1 << Card.color(card) | 1 << Card.COLOR_COUNT + Card.rank(card) - 1;
+        }
+        return mask;
+    }
+
+    /**
+     * Gets the bit of the color or rank hinted by a move inside a mask returned by {@link #getHandFeatures(int)}.
+     * @param move the hint.
+     * @return the bit.
+     */
+    private static int hintBit(int move) {
+        return Move.type(move) == Move.TYPE_HINT_COLOR
+                ? 1 << Move.value(move)
+                : 1 << Card.COLOR_COUNT + Move.value(move) - 1;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof GameState)) {
+            return false;
+        }
+        final GameState state = (GameState) object;
+        return mPlayerCount == state.mPlayerCount && mCurrentPlayer == state.mCurrentPlayer
+                && mDrawIndex == state.mDrawIndex && mFireworks == state.mFireworks && mDiscards == state.mDiscards
+                && mHints == state.mHints && mFuses == state.mFuses && mFinalTurns == state.mFinalTurns
+                && mTurn == state.mTurn && Arrays.equals(mDeck, state.mDeck) && Arrays.equals(mHands, state.mHands)
+                && Arrays.equals(mHandSizes, state.mHandSizes) && Arrays.equals(mHintMasks, state.mHintMasks);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Arrays.hashCode(mHands);
+        hash = 31 * hash + mFireworks;
+        hash = 31 * hash + Long.valueOf(mDiscards).hashCode();
+        hash = 31 * hash + (mHints | mFuses << 4 | mCurrentPlayer << 6 | mDrawIndex << 9);
+        return 31 * hash + mTurn;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("GameState{turn=").append(mTurn)
+                .append(", player=").append(mCurrentPlayer)
+                .append(", hints=").append(mHints)
+                .append(", fuses=").append(mFuses)
+                .append(", deck=").append(getDeckSize())
+                .append(", fireworks=");
+        for (int color = 0; color < Card.COLOR_COUNT; color++) {
+            builder.append(getFirework(color));
+        }
+        for (int player = 0; player < mPlayerCount; player++) {
+            builder.append(", hand").append(player).append('=');
+            for (int slot = 0; slot < mHandSizes[player]; slot++) {
+                builder.append(Card.toString(getCard(player, slot)));
+            }
+        }
+        return builder.append('}').toString();
+    }
+}
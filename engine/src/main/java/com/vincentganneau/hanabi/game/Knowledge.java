@@ -0,0 +1,323 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.game;
+
+import java.util.Arrays;
+
+/**
+ * What every player of a game of Hanabi knows about the cards of its own hand, updated incrementally.
+ * <p>
+ * A player does not see its own cards, but it sees the other hands, the fireworks, the discard pile and the hints it
+ * received. For every player, the knowledge keeps the number of unseen copies of every kind of card, namely the copies
+ * left in the deck or in its own hand, and for every card of its hand the kinds of cards it can still be as a bitmask
+ * with one bit per card value, see {@link Card#colorMask(int)} and {@link Card#rankMask(int)}. Each card also keeps the
+ * sum of the unseen copies of its possible kinds, so that the probability of a kind is a single division.
+ * </p>
+ * <p>
+ * The tables follow the moves passed to {@link #apply(GameState, int)}: a play or a discard updates the counts of the
+ * player and of the card it drew in <code>O(players * hand size)</code>, a hint updates the cards of the hinted hand.
+ * Probabilities treat every card independently of the other cards of the same hand.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public class Knowledge {
+
+    // Players
+    /**
+     * The number of players.
+     */
+    private final int mPlayerCount;
+    /**
+     * The number of cards of every hand.
+     */
+    private final int[] mHandSizes = new int[GameState.MAX_PLAYER_COUNT];
+
+    // Counts
+    /**
+     * The number of copies of every kind of card unseen by every player, indexed by
+     * <code>player * {@link Card#KIND_COUNT} + card</code>.
+     */
+    private final int[] mUnseenCounts = new int[GameState.MAX_PLAYER_COUNT * Card.KIND_COUNT];
+    /**
+     * The number of cards unseen by every player.
+     */
+    private final int[] mUnseenTotals = new int[GameState.MAX_PLAYER_COUNT];
+    /**
+     * The kinds of cards with at least one copy unseen by every player.
+     */
+    private final int[] mUnseenMasks = new int[GameState.MAX_PLAYER_COUNT];
+
+    // Cards
+    /**
+     * The kinds of cards every card of every hand can be according to its holder, indexed by
+     * <code>player * {@link GameState#MAX_HAND_SIZE} + slot</code>.
+     */
+    private final int[] mPossibilities = new int[GameState.MAX_PLAYER_COUNT * GameState.MAX_HAND_SIZE];
+    /**
+     * The number of unseen copies of the possible kinds of every card of every hand.
+     */
+    private final int[] mWeights = new int[GameState.MAX_PLAYER_COUNT * GameState.MAX_HAND_SIZE];
+
+    // Constructor
+    /**
+     * Creates a new {@link Knowledge}.
+     * @param playerCount the number of players.
+     */
+    public Knowledge(int playerCount) {
+        if (playerCount < GameState.MIN_PLAYER_COUNT || playerCount > GameState.MAX_PLAYER_COUNT) {
+            throw new IllegalArgumentException("Invalid number of players: " + playerCount);
+        }
+        mPlayerCount = playerCount;
+    }
+
+    // Knowledge
+    /**
+     * Rebuilds every table from a state, for instance after it has been dealt, copied or undone.
+     * @param state the state, with the same number of players.
+     */
+    public void reset(GameState state) {
+        for (int player = 0; player < mPlayerCount; player++) {
+            mHandSizes[player] = state.getHandSize(player);
+        }
+
+        // Count the copies of every kind that no player can see
+        for (int card = 0; card < Card.KIND_COUNT; card++) {
+            final int played = Card.rank(card) <= state.getFirework(Card.color(card)) ? 1 : 0;
+            final int hidden = Card.copies(card) - state.getDiscardCount(card) - played;
+            for (int player = 0; player < mPlayerCount; player++) {
+                mUnseenCounts[player * Card.KIND_COUNT + card] = hidden;
+            }
+        }
+
+        // Every card of a hand is seen by the other players
+        for (int holder = 0; holder < mPlayerCount; holder++) {
+            for (int slot = 0; slot < mHandSizes[holder]; slot++) {
+                final int card = state.getCard(holder, slot);
+                for (int player = 0; player < mPlayerCount; player++) {
+                    if (player != holder) {
+                        mUnseenCounts[player * Card.KIND_COUNT + card]--;
+                    }
+                }
+            }
+        }
+        for (int player = 0; player < mPlayerCount; player++) {
+            int total = 0;
+            int mask = 0;
+            for (int card = 0; card < Card.KIND_COUNT; card++) {
+                final int count = mUnseenCounts[player * Card.KIND_COUNT + card];
+                total += count;
+                if (count > 0) {
+                    mask |= 1 << card;
+                }
+            }
+            mUnseenTotals[player] = total;
+            mUnseenMasks[player] = mask;
+            for (int slot = 0; slot < mHandSizes[player]; slot++) {
+                updateCard(state, player, slot);
+            }
+        }
+    }
+
+    /**
+     * Applies a legal move to a state and updates the knowledge of every player accordingly.
+     * @param state the state, whose knowledge is described by this object.
+     * @param move the move, which must be legal.
+     * @return the record returned by {@link GameState#apply(int)}.
+     */
+    public int apply(GameState state, int move) {
+        final int player = state.getCurrentPlayer();
+        if (Move.isHint(move)) {
+            final int record = state.apply(move);
+            final int target = Move.target(move);
+            for (int slot = 0; slot < mHandSizes[target]; slot++) {
+                updateCard(state, target, slot);
+            }
+            return record;
+        }
+
+        // The player sees the card it plays or discards
+        final int slot = Move.slot(move);
+        final int card = state.getCard(player, slot);
+        final int deckSize = state.getDeckSize();
+        final int record = state.apply(move);
+        removeCard(player, slot);
+        onCardSeen(player, card);
+
+        // The other players see the card it draws
+        if (state.getDeckSize() < deckSize) {
+            final int drawnCard = state.getCard(player, 0);
+            for (int other = 0; other < mPlayerCount; other++) {
+                if (other != player) {
+                    onCardSeen(other, drawnCard);
+                }
+            }
+            insertCard(player);
+        }
+        return record;
+    }
+
+    // Getters
+    /**
+     * Gets the kinds of cards a card can be according to its holder.
+     * @param player the holder of the card.
+     * @param slot the slot of the card.
+     * @return the mask, with one bit per card value.
+     */
+    public int getPossibilities(int player, int slot) {
+        return mPossibilities[player * GameState.MAX_HAND_SIZE + slot];
+    }
+
+    /**
+     * Gets the number of copies of a kind of card a player cannot see, in the deck or in its own hand.
+     * @param player the player.
+     * @param card the kind of card.
+     * @return the number of copies.
+     */
+    public int getUnseenCount(int player, int card) {
+        return mUnseenCounts[player * Card.KIND_COUNT + card];
+    }
+
+    /**
+     * Gets the probability, according to its holder, that a card is of a given kind.
+     * @param player the holder of the card.
+     * @param slot the slot of the card.
+     * @param card the kind of card.
+     * @return the probability, between <code>0</code> and <code>1</code>.
+     */
+    public double getProbability(int player, int slot, int card) {
+        final int index = player * GameState.MAX_HAND_SIZE + slot;
+        return (mPossibilities[index] & 1 << card) != 0
+                ? (double) mUnseenCounts[player * Card.KIND_COUNT + card] / mWeights[index]
+                : 0;
+    }
+
+    /**
+     * Gets the probability, according to its holder, that a card is of any of the given kinds.
+     * <p>
+     * This method runs in time proportional to the number of kinds in the mask, at most {@link Card#COLOR_COUNT} for
+     * the mask returned by {@link GameState#getPlayableMask()}.
+     * </p>
+     * @param player the holder of the card.
+     * @param slot the slot of the card.
+     * @param mask the kinds of cards, with one bit per card value.
+     * @return the probability, between <code>0</code> and <code>1</code>.
+     */
+    public double getMaskProbability(int player, int slot, int mask) {
+        final int index = player * GameState.MAX_HAND_SIZE + slot;
+        int kinds = mPossibilities[index] & mask;
+        int count = 0;
+        while (kinds != 0) {
+            count += mUnseenCounts[player * Card.KIND_COUNT + Integer.numberOfTrailingZeros(kinds)];
+            kinds &= kinds - 1;
+        }
+        return (double) count / mWeights[index];
+    }
+
+    // Tables
+    /**
+     * Recomputes the possibilities and the weight of a card from its hint mask.
+     * @param state the state.
+     * @param player the holder of the card.
+     * @param slot the slot of the card.
+     */
+    private void updateCard(GameState state, int player, int slot) {
+        final int index = player * GameState.MAX_HAND_SIZE + slot;
+        int kinds = state.getHintMask(player, slot) & mUnseenMasks[player];
+        mPossibilities[index] = kinds;
+        int weight = 0;
+        while (kinds != 0) {
+            weight += mUnseenCounts[player * Card.KIND_COUNT + Integer.numberOfTrailingZeros(kinds)];
+            kinds &= kinds - 1;
+        }
+        mWeights[index] = weight;
+    }
+
+    /**
+     * Removes a card of the hand of a player from its knowledge, shifting the older cards to the left.
+     * @param player the player.
+     * @param slot the slot of the card.
+     */
+    private void removeCard(int player, int slot) {
+        final int offset = player * GameState.MAX_HAND_SIZE;
+        final int last = --mHandSizes[player];
+        System.arraycopy(mPossibilities, offset + slot + 1, mPossibilities, offset + slot, last - slot);
+        System.arraycopy(mWeights, offset + slot + 1, mWeights, offset + slot, last - slot);
+        mPossibilities[offset + last] = 0;
+        mWeights[offset + last] = 0;
+    }
+
+    /**
+     * Inserts a card without any hint into the first slot of the hand of a player, shifting the other cards to the
+     * right.
+     * @param player the player.
+     */
+    private void insertCard(int player) {
+        final int offset = player * GameState.MAX_HAND_SIZE;
+        final int size = mHandSizes[player]++;
+        System.arraycopy(mPossibilities, offset, mPossibilities, offset + 1, size);
+        System.arraycopy(mWeights, offset, mWeights, offset + 1, size);
+        mPossibilities[offset] = mUnseenMasks[player];
+        mWeights[offset] = mUnseenTotals[player];
+    }
+
+    /**
+     * Takes into account that a player sees a new card, which is no longer possible for its hand once every copy has
+     * been seen.
+     * @param player the player.
+     * @param card the card.
+     */
+    private void onCardSeen(int player, int card) {
+        final int count = --mUnseenCounts[player * Card.KIND_COUNT + card];
+        mUnseenTotals[player]--;
+        final int bit = 1 << card;
+        final int offset = player * GameState.MAX_HAND_SIZE;
+        for (int slot = 0; slot < mHandSizes[player]; slot++) {
+            if ((mPossibilities[offset + slot] & bit) != 0) {
+                mWeights[offset + slot]--;
+                if (count == 0) {
+                    mPossibilities[offset + slot] &= ~bit;
+                }
+            }
+        }
+        if (count == 0) {
+            mUnseenMasks[player] &= ~bit;
+        }
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof Knowledge)) {
+            return false;
+        }
+        final Knowledge knowledge = (Knowledge) object;
+        return mPlayerCount == knowledge.mPlayerCount && Arrays.equals(mHandSizes, knowledge.mHandSizes)
+                && Arrays.equals(mUnseenCounts, knowledge.mUnseenCounts)
+                && Arrays.equals(mUnseenTotals, knowledge.mUnseenTotals)
+                && Arrays.equals(mUnseenMasks, knowledge.mUnseenMasks)
+                && Arrays.equals(mPossibilities, knowledge.mPossibilities)
+                && Arrays.equals(mWeights, knowledge.mWeights);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(mUnseenCounts) + Arrays.hashCode(mPossibilities);
+    }
+}
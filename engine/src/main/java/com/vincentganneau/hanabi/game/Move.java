@@ -0,0 +1,169 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.game;
+
+/**
+ * Encoding of the Hanabi moves as integers, so that moves can be generated and stored without allocation.
+ * <p>
+ * The lowest two bits hold the type of the move, the next three bits the slot of the played or discarded card or the
+ * target player of a hint, and the next three bits the hinted color or rank.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public final class Move {
+
+    // Types
+    /**
+     * The type of the moves playing a card.
+     */
+    public static final int TYPE_PLAY = 0;
+    /**
+     * The type of the moves discarding a card.
+     */
+    public static final int TYPE_DISCARD = 1;
+    /**
+     * The type of the moves hinting a color.
+     */
+    public static final int TYPE_HINT_COLOR = 2;
+    /**
+     * The type of the moves hinting a rank.
+     */
+    public static final int TYPE_HINT_RANK = 3;
+
+    // Moves
+    /**
+     * The value of no move.
+     */
+    public static final int NONE = -1;
+    /**
+     * The maximum number of legal moves in any state, to size the arrays passed to
+     * {@link GameState#getLegalMoves(int[])}.
+     */
+    public static final int MAX_LEGAL_MOVES = 2 * GameState.MAX_HAND_SIZE
+            + (GameState.MAX_PLAYER_COUNT - 1) * (Card.COLOR_COUNT + Card.RANK_COUNT);
+
+    // Constructor
+    /**
+     * Prevents instantiation.
+     */
+    private Move() {
+    }
+
+    // Encoding
+    /**
+     * Encodes the move playing a card.
+     * @param slot the slot of the card inside the hand of the current player.
+     * @return the move.
+     */
+    public static int play(int slot) {
+        return TYPE_PLAY | slot << 2;
+    }
+
+    /**
+     * Encodes the move discarding a card.
+     * @param slot the slot of the card inside the hand of the current player.
+     * @return the move.
+     */
+    public static int discard(int slot) {
+        return TYPE_DISCARD | slot << 2;
+    }
+
+    /**
+     * Encodes the move hinting a color.
+     * @param target the hinted player.
+     * @param color the hinted color.
+     * @return the move.
+     */
+    public static int hintColor(int target, int color) {
+        return TYPE_HINT_COLOR | target << 2 | color << 5;
+    }
+
+    /**
+     * Encodes the move hinting a rank.
+     * @param target the hinted player.
+     * @param rank the hinted rank, between <code>1</code> and {@link Card#RANK_COUNT}.
+     * @return the move.
+     */
+    public static int hintRank(int target, int rank) {
+        return TYPE_HINT_RANK | target << 2 | rank << 5;
+    }
+
+    // Decoding
+    /**
+     * Gets the type of a move.
+     * @param move the move.
+     * @return {@link #TYPE_PLAY}, {@link #TYPE_DISCARD}, {@link #TYPE_HINT_COLOR} or {@link #TYPE_HINT_RANK}.
+     */
+    public static int type(int move) {
+        return move & 0x3;
+    }
+
+    /**
+     * Gets the slot of the card played or discarded by a move.
+     * @param move the move.
+     * @return the slot.
+     */
+    public static int slot(int move) {
+        return move >>> 2 & 0x7;
+    }
+
+    /**
+     * Gets the player hinted by a move.
+     * @param move the move.
+     * @return the target player.
+     */
+    public static int target(int move) {
+        return move >>> 2 & 0x7;
+    }
+
+    /**
+     * Gets the color or rank hinted by a move.
+     * @param move the move.
+     * @return the hinted color or rank.
+     */
+    public static int value(int move) {
+        return move >>> 5 & 0x7;
+    }
+
+    /**
+     * Indicates whether a move is a hint.
+     * @param move the move.
+     * @return <code>true</code> for color and rank hints.
+     */
+    public static boolean isHint(int move) {
+        return (move & 0x2) != 0;
+    }
+
+    /**
+     * Describes a move, such as <code>play 2</code> or <code>hint 1 rank 5</code>.
+     * @param move the move.
+     * @return the description.
+     */
+    public static String toString(int move) {
+        switch (type(move)) {
+            case TYPE_PLAY:
+                return "play " + slot(move);
+            case TYPE_DISCARD:
+                return "discard " + slot(move);
+            case TYPE_HINT_COLOR:
+                return "hint " + target(move) + " color " + "RYGBW".charAt(value(move));
+            default:
+                return "hint " + target(move) + " rank " + value(move);
+        }
+    }
+}
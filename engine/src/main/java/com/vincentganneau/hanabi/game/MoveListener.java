@@ -0,0 +1,43 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+package com.vincentganneau.hanabi.game;
+
+/**
+ * Interface for listeners notified of every move applied to a {@link GameState} and of every move undone.
+ * <p>
+ * The listener is called whoever applies the move, which makes it suitable to record the moves of a game shared by
+ * several players. It is not copied by {@link GameState#copyFrom(GameState)}, so the copies searched by the bots are
+ * never recorded.
+ * </p>
+ * @author Vincent Ganneau
+ * @see GameState#setMoveListener(MoveListener)
+ */
+public interface MoveListener {
+
+    /**
+     * Callback invoked right after a move has been applied.
+     * @param state the state, after the move.
+     * @param move the move.
+     */
+    void onMoveApplied(GameState state, int move);
+
+    /**
+     * Callback invoked right after the latest applied move has been undone.
+     * @param state the state, back to the turn of the undone move.
+     */
+    void onMoveUndone(GameState state);
+}
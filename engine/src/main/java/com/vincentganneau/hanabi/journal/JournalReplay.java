@@ -0,0 +1,242 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.journal;
+
+import com.vincentganneau.hanabi.game.GameState;
+import com.vincentganneau.hanabi.model.GameEngine;
+import com.vincentganneau.hanabi.model.GameObject;
+import com.vincentganneau.hanabi.model.SnapshotReader;
+
+import java.util.Arrays;
+
+/**
+ * {@link GameObject} replaying a {@link MoveJournal} through a headless {@link GameEngine}.
+ * <p>
+ * The replay drives the game engine itself: every recorded tick becomes a call to
+ * {@link GameEngine#updateGame(double)} with the recorded duration, during which the replay applies the moves of that
+ * tick, so the other game objects of the engine, such as views of the game, see the same sequence of updates as the
+ * recorded game. The engine must not be started, and must not contain any player.
+ * </p>
+ * <p>
+ * {@link #seek(GameEngine, int)} restores the nearest checkpoint at or before the requested turn and replays forward
+ * from there, unless the replay can reach the turn faster by going on from its current position.
+ * </p>
+ * <p>
+ * Undone moves are undone by the replay as well. Every checkpoint met on the way is restored, as a checkpoint may
+ * stand for an undo going back before the previous checkpoint.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public class JournalReplay extends GameObject {
+
+    // Dependencies
+    /**
+     * The replayed journal.
+     */
+    private final MoveJournal mJournal;
+    /**
+     * The state the moves are applied to.
+     */
+    private final GameState mGameState;
+    /**
+     * The reader of the snapshots of the checkpoints.
+     */
+    private final SnapshotReader mReader = new SnapshotReader(0);
+
+    // Position
+    /**
+     * The offset of the next entry, or <code>-1</code> before the first seek.
+     */
+    private int mPosition = -1;
+    /**
+     * The duration of the latest replayed tick in milliseconds.
+     */
+    private double mTickMillis;
+    /**
+     * The turn at which moves stop being applied.
+     */
+    private int mTargetTurn = Integer.MAX_VALUE;
+
+    // Undo
+    /**
+     * The records of the moves applied since the latest restored checkpoint, to be passed to
+     * {@link GameState#undo(int)}.
+     */
+    private int[] mRecords = new int[128];
+    /**
+     * The number of records inside {@link #mRecords}.
+     */
+    private int mRecordCount;
+
+    // Constructor
+    /**
+     * Creates a new {@link JournalReplay}.
+     * @param journal the replayed journal.
+     * @param gameState the state the moves are applied to.
+     */
+    public JournalReplay(MoveJournal journal, GameState gameState) {
+        mJournal = journal;
+        mGameState = gameState;
+    }
+
+    // Replay
+    /**
+     * Moves the replay to the start of a turn, updating the game engine for every tick replayed on the way.
+     * @param gameEngine the game engine, which contains this replay.
+     * @param turn the turn.
+     * @return <code>true</code> if the turn has been reached, <code>false</code> if the journal ends before it.
+     */
+    public boolean seek(GameEngine gameEngine, int turn) {
+        final int checkpoint = mJournal.findCheckpoint(turn);
+        if (checkpoint < 0) {
+            throw new IllegalArgumentException("No checkpoint before turn " + turn);
+        }
+
+        // Restore the checkpoint, unless the current position is at least as close
+        final int currentTurn = mGameState.getTurn();
+        if (mPosition < 0 || turn < currentTurn || mJournal.getCheckpointTurn(checkpoint) > currentTurn) {
+            mPosition = mJournal.restoreCheckpoint(checkpoint, mGameState, mReader);
+            mRecordCount = 0;
+        }
+
+        // Replay forward
+        mTargetTurn = turn;
+        try {
+            applyMoves();
+            while (mGameState.getTurn() < turn && nextTick()) {
+                gameEngine.updateGame(mTickMillis);
+            }
+        } finally {
+            mTargetTurn = Integer.MAX_VALUE;
+        }
+        return mGameState.getTurn() == turn;
+    }
+
+    /**
+     * Replays the next tick of the journal.
+     * @param gameEngine the game engine, which contains this replay.
+     * @return <code>true</code> if a tick has been replayed, <code>false</code> at the end of the journal.
+     */
+    public boolean step(GameEngine gameEngine) {
+        if (mPosition < 0) {
+            mPosition = mJournal.restoreCheckpoint(0, mGameState, mReader);
+            mRecordCount = 0;
+        }
+        applyMoves();
+        if (!nextTick()) {
+            return false;
+        }
+        gameEngine.updateGame(mTickMillis);
+        return true;
+    }
+
+    /**
+     * Replays the journal from the current position to its end, as fast as possible.
+     * @param gameEngine the game engine, which contains this replay.
+     * @return the number of replayed ticks.
+     */
+    public int play(GameEngine gameEngine) {
+        int ticks = 0;
+        while (step(gameEngine)) {
+            ticks++;
+        }
+        return ticks;
+    }
+
+    /**
+     * Applies the moves of the current tick, until the next tick or the target turn.
+     */
+    private void applyMoves() {
+        final byte[] data = mJournal.getData();
+        final int size = mJournal.getSize();
+        while (mPosition < size) {
+            final int tag = data[mPosition];
+            if (tag == MoveJournal.TAG_CHECKPOINT) {
+                restoreCheckpoint();
+            } else if (tag == MoveJournal.TAG_MOVE && mGameState.getTurn() < mTargetTurn) {
+                final int move = data[mPosition + 1] & 0xFF;
+                if (!mGameState.isLegal(move)) {
+                    throw new IllegalStateException("The journal diverges at turn " + mGameState.getTurn());
+                }
+                if (mRecordCount == mRecords.length) {
+                    mRecords = Arrays.copyOf(mRecords, mRecordCount * 2);
+                }
+                mRecords[mRecordCount++] = mGameState.apply(move);
+                mPosition += 2;
+            } else if (tag == MoveJournal.TAG_UNDO && mGameState.getTurn() < mTargetTurn) {
+                if (mRecordCount == 0) {
+                    throw new IllegalStateException("The journal undoes a move before its checkpoint");
+                }
+                mGameState.undo(mRecords[--mRecordCount]);
+                mPosition++;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reads the next tick, restoring checkpoints on the way.
+     * @return <code>true</code> if a tick has been read into {@link #mTickMillis}, <code>false</code> at the end of
+     * the journal or before a move.
+     */
+    private boolean nextTick() {
+        final byte[] data = mJournal.getData();
+        final int size = mJournal.getSize();
+        while (mPosition < size) {
+            final int tag = data[mPosition];
+            if (tag == MoveJournal.TAG_CHECKPOINT) {
+                restoreCheckpoint();
+            } else if (tag == MoveJournal.TAG_TICK) {
+                mTickMillis = Double.longBitsToDouble(mJournal.readLong(mPosition + 1));
+                mPosition += 9;
+                return true;
+            } else if (tag == MoveJournal.TAG_TICK_REPEAT) {
+                mPosition++;
+                return true;
+            } else {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Restores the checkpoint at the current position and moves past it.
+     */
+    private void restoreCheckpoint() {
+        mPosition = mJournal.restoreCheckpointAt(mPosition, mGameState, mReader);
+        mRecordCount = 0;
+    }
+
+    // Game object
+    @Override
+    public void onGameStart() {
+
+    }
+
+    @Override
+    public void onUpdate(double elapsedMillis, GameEngine gameEngine) {
+        applyMoves();
+    }
+
+    @Override
+    public void onDraw() {
+
+    }
+}
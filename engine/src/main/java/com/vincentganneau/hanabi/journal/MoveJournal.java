@@ -0,0 +1,466 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.journal;
+
+import com.vincentganneau.hanabi.game.GameState;
+import com.vincentganneau.hanabi.game.MoveListener;
+import com.vincentganneau.hanabi.model.GameEngine;
+import com.vincentganneau.hanabi.model.SnapshotReader;
+import com.vincentganneau.hanabi.model.SnapshotWriter;
+import com.vincentganneau.hanabi.model.TickListener;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Append-only binary journal of a game: the ticks of the game engine, the moves, and periodic checkpoints of the state.
+ * <p>
+ * The journal starts with {@link #MAGIC} and {@link #FORMAT_VERSION}, followed by entries, each one starting with a
+ * tag byte:
+ * </p>
+ * <ul>
+ *     <li>{@link #TAG_TICK}: an update of the game engine, followed by the elapsed milliseconds as a double;</li>
+ *     <li>{@link #TAG_TICK_REPEAT}: an update lasting as long as the previous one since the latest checkpoint, so a
+ *     fixed time step costs a single byte per tick;</li>
+ *     <li>{@link #TAG_MOVE}: a move applied during the current tick, followed by the move on one byte;</li>
+ *     <li>{@link #TAG_UNDO}: the latest applied move undone;</li>
+ *     <li>{@link #TAG_CHECKPOINT}: a snapshot of the {@link GameState}, followed by its length and its bytes.</li>
+ * </ul>
+ * <p>
+ * The journal always starts with a checkpoint of the dealt state, and then takes one every
+ * {@link #mCheckpointInterval} turns, so that a {@link JournalReplay} can reach any turn from the nearest checkpoint.
+ * An undo going back before the latest checkpoint is recorded as a new checkpoint, which replaces the checkpoints of
+ * the later turns. A journal is not thread-safe: it is meant to be written from the update thread.
+ * </p>
+ * <p>
+ * A game is recorded by setting the journal as the {@link TickListener} of its {@link GameEngine}, which records every
+ * tick before the game objects are updated, and as the {@link MoveListener} of the {@link GameState} shared by its
+ * players, which records every move applied to it or undone.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public class MoveJournal implements TickListener, MoveListener {
+
+    // Format
+    /**
+     * The first four bytes of every journal.
+     */
+    public static final int MAGIC = 0x484E424A;
+    /**
+     * The version of the layout of the entries.
+     */
+    public static final int FORMAT_VERSION = 2;
+    /**
+     * The size of the header of a journal.
+     */
+    static final int HEADER_SIZE = 4 + 2;
+
+    // Tags
+    /**
+     * The tag of the entries recording an update of the game engine.
+     */
+    static final int TAG_TICK = 1;
+    /**
+     * The tag of the entries recording an update lasting as long as the previous one.
+     */
+    static final int TAG_TICK_REPEAT = 2;
+    /**
+     * The tag of the entries recording a move.
+     */
+    static final int TAG_MOVE = 3;
+    /**
+     * The tag of the entries holding a checkpoint.
+     */
+    static final int TAG_CHECKPOINT = 4;
+    /**
+     * The tag of the entries recording an undone move.
+     */
+    static final int TAG_UNDO = 5;
+
+    // Configuration
+    /**
+     * The number of turns between two checkpoints.
+     */
+    public final int mCheckpointInterval;
+
+    // Log
+    /**
+     * The entries of the journal, preceded by its header.
+     */
+    private byte[] mData;
+    /**
+     * The number of bytes of the journal.
+     */
+    private int mSize;
+    /**
+     * The elapsed milliseconds of the latest tick, or <code>NaN</code> before the first tick.
+     */
+    private double mLastTickMillis = Double.NaN;
+
+    // Checkpoints
+    /**
+     * The turn of every checkpoint, in increasing order.
+     */
+    private int[] mCheckpointTurns = new int[16];
+    /**
+     * The offset of the snapshot of every checkpoint.
+     */
+    private int[] mCheckpointOffsets = new int[16];
+    /**
+     * The length of the snapshot of every checkpoint.
+     */
+    private int[] mCheckpointLengths = new int[16];
+    /**
+     * The number of checkpoints.
+     */
+    private int mCheckpointCount;
+    /**
+     * The writer of the snapshots of the checkpoints.
+     */
+    private final SnapshotWriter mSnapshotWriter = new SnapshotWriter(256);
+
+    // Constructor
+    /**
+     * Creates a new {@link MoveJournal}.
+     * @param capacity the initial capacity in bytes, large enough for a typical game.
+     * @param checkpointInterval the number of turns between two checkpoints.
+     */
+    public MoveJournal(int capacity, int checkpointInterval) {
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("Invalid checkpoint interval: " + checkpointInterval);
+        }
+        mData = new byte[Math.max(capacity, 64)];
+        mCheckpointInterval = checkpointInterval;
+    }
+
+    // Recording
+    /**
+     * Clears the journal and starts recording a game from its current state, typically right after the deal.
+     * @param state the state.
+     */
+    public void start(GameState state) {
+        mSize = 0;
+        mCheckpointCount = 0;
+        mLastTickMillis = Double.NaN;
+        ensureCapacity(HEADER_SIZE);
+        writeInt(MAGIC);
+        mData[mSize++] = (byte) (FORMAT_VERSION >>> 8);
+        mData[mSize++] = (byte) FORMAT_VERSION;
+        checkpoint(state);
+    }
+
+    /**
+     * Records an update of the game engine, before the moves applied during that update.
+     * @param elapsedMillis the elapsed milliseconds passed to the update.
+     */
+    public void recordTick(double elapsedMillis) {
+        requireStarted();
+        if (Double.doubleToLongBits(elapsedMillis) == Double.doubleToLongBits(mLastTickMillis)) {
+            ensureCapacity(1);
+            mData[mSize++] = TAG_TICK_REPEAT;
+        } else {
+            ensureCapacity(1 + 8);
+            mData[mSize++] = TAG_TICK;
+            writeLong(Double.doubleToLongBits(elapsedMillis));
+            mLastTickMillis = elapsedMillis;
+        }
+    }
+
+    @Override
+    public void onTick(double elapsedMillis) {
+        recordTick(elapsedMillis);
+    }
+
+    /**
+     * Records a move that has just been applied to a state, taking a checkpoint when due.
+     * @param state the recorded state, after the move.
+     * @param move the move.
+     */
+    @Override
+    public void onMoveApplied(GameState state, int move) {
+        requireStarted();
+        ensureCapacity(2);
+        mData[mSize++] = TAG_MOVE;
+        mData[mSize++] = (byte) move;
+        if (state.getTurn() - mCheckpointTurns[mCheckpointCount - 1] >= mCheckpointInterval) {
+            checkpoint(state);
+        }
+    }
+
+    /**
+     * Records the undo of the latest move applied to a state, as a checkpoint if the state goes back before the latest
+     * checkpoint.
+     * @param state the recorded state, after the undo.
+     */
+    @Override
+    public void onMoveUndone(GameState state) {
+        requireStarted();
+        if (state.getTurn() < mCheckpointTurns[mCheckpointCount - 1]) {
+            checkpoint(state);
+        } else {
+            ensureCapacity(1);
+            mData[mSize++] = TAG_UNDO;
+        }
+    }
+
+    /**
+     * Appends a checkpoint of a state.
+     * @param state the state.
+     */
+    private void checkpoint(GameState state) {
+        mSnapshotWriter.reset();
+        state.saveSnapshot(mSnapshotWriter);
+        final int length = mSnapshotWriter.getSize();
+        ensureCapacity(1 + 4 + length);
+        mData[mSize++] = TAG_CHECKPOINT;
+        writeInt(length);
+        System.arraycopy(mSnapshotWriter.getBuffer(), 0, mData, mSize, length);
+        addCheckpoint(state.getTurn(), mSize, length);
+        mSize += length;
+
+        // Replays may start from this checkpoint: the next tick must not be a repeat
+        mLastTickMillis = Double.NaN;
+    }
+
+    // Checkpoints
+    /**
+     * Gets the number of checkpoints.
+     * @return the number of checkpoints.
+     */
+    public int getCheckpointCount() {
+        return mCheckpointCount;
+    }
+
+    /**
+     * Gets the turn of a checkpoint.
+     * @param index the index of the checkpoint.
+     * @return the turn.
+     */
+    public int getCheckpointTurn(int index) {
+        return mCheckpointTurns[index];
+    }
+
+    /**
+     * Finds the latest checkpoint at or before a turn.
+     * @param turn the turn.
+     * @return the index of the checkpoint, or <code>-1</code> if the turn precedes the first checkpoint.
+     */
+    public int findCheckpoint(int turn) {
+        int low = 0;
+        int high = mCheckpointCount - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            if (mCheckpointTurns[middle] <= turn) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Restores a state from a checkpoint.
+     * @param index the index of the checkpoint.
+     * @param state the state to be restored.
+     * @param reader the reader of the snapshot.
+     * @return the offset of the entry following the checkpoint.
+     */
+    int restoreCheckpoint(int index, GameState state, SnapshotReader reader) {
+        final int offset = mCheckpointOffsets[index];
+        reader.reset(mData, offset, mCheckpointLengths[index]);
+        state.restoreSnapshot(reader);
+        return offset + mCheckpointLengths[index];
+    }
+
+    /**
+     * Restores a state from the checkpoint entry at an offset, whether it is still indexed or not.
+     * @param offset the offset of the entry.
+     * @param state the state to be restored.
+     * @param reader the reader of the snapshot.
+     * @return the offset of the entry following the checkpoint.
+     */
+    int restoreCheckpointAt(int offset, GameState state, SnapshotReader reader) {
+        final int length = readInt(offset + 1);
+        reader.reset(mData, offset + 5, length);
+        state.restoreSnapshot(reader);
+        return offset + 5 + length;
+    }
+
+    // Getters
+    /**
+     * Gets the size of the journal.
+     * @return the number of bytes.
+     */
+    public int getSize() {
+        return mSize;
+    }
+
+    /**
+     * Gets the entries of the journal, without copying them.
+     * @return the array, whose first {@link #getSize()} bytes hold the journal.
+     */
+    byte[] getData() {
+        return mData;
+    }
+
+    // Input and output
+    /**
+     * Writes the journal to a stream.
+     * @param outputStream the stream.
+     * @throws IOException if the journal cannot be written.
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+        outputStream.write(mData, 0, mSize);
+    }
+
+    /**
+     * Replaces the journal with one read from a stream, and indexes its checkpoints.
+     * @param inputStream the stream, which is read until its end.
+     * @throws IOException if the journal cannot be read.
+     */
+    public void readFrom(InputStream inputStream) throws IOException {
+        mSize = 0;
+        int count;
+        while ((count = inputStream.read(mData, mSize, mData.length - mSize)) >= 0) {
+            mSize += count;
+            ensureCapacity(1);
+        }
+        if (mSize < HEADER_SIZE || readInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a journal");
+        }
+        final int version = (mData[4] & 0xFF) << 8 | mData[5] & 0xFF;
+        if (version > FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported journal format: " + version);
+        }
+
+        // Index the checkpoints, and find the duration of the latest tick to go on recording
+        final GameState state = new GameState(GameState.MIN_PLAYER_COUNT);
+        final SnapshotReader reader = new SnapshotReader(0);
+        mCheckpointCount = 0;
+        mLastTickMillis = Double.NaN;
+        int offset = HEADER_SIZE;
+        while (offset < mSize) {
+            final int tag = mData[offset];
+            if (tag == TAG_TICK && offset + 9 <= mSize) {
+                mLastTickMillis = Double.longBitsToDouble(readLong(offset + 1));
+                offset += 9;
+            } else if (tag == TAG_TICK_REPEAT || tag == TAG_UNDO) {
+                offset++;
+            } else if (tag == TAG_MOVE && offset + 2 <= mSize) {
+                offset += 2;
+            } else if (tag == TAG_CHECKPOINT && offset + 5 <= mSize) {
+                final int length = readInt(offset + 1);
+                if (length < 0 || offset + 5 + length > mSize) {
+                    throw new IllegalArgumentException("Truncated checkpoint at offset " + offset);
+                }
+                reader.reset(mData, offset + 5, length);
+                state.restoreSnapshot(reader);
+                addCheckpoint(state.getTurn(), offset + 5, length);
+                mLastTickMillis = Double.NaN;
+                offset += 5 + length;
+            } else {
+                throw new IllegalArgumentException("Invalid entry at offset " + offset);
+            }
+        }
+        requireStarted();
+    }
+
+    /**
+     * Decodes a big-endian int of the journal.
+     * @param offset the offset of the int.
+     * @return the value.
+     */
+    int readInt(int offset) {
+        return (mData[offset] & 0xFF) << 24 | (mData[offset + 1] & 0xFF) << 16 | (mData[offset + 2] & 0xFF) << 8
+                | mData[offset + 3] & 0xFF;
+    }
+
+    /**
+     * Decodes a big-endian long of the journal.
+     * @param offset the offset of the long.
+     * @return the value.
+     */
+    long readLong(int offset) {
+        return (long) readInt(offset) << 32 | readInt(offset + 4) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Appends a big-endian int, whose space must have been ensured.
+     * @param value the value.
+     */
+    private void writeInt(int value) {
+        mData[mSize++] = (byte) (value >>> 24);
+        mData[mSize++] = (byte) (value >>> 16);
+        mData[mSize++] = (byte) (value >>> 8);
+        mData[mSize++] = (byte) value;
+    }
+
+    /**
+     * Appends a big-endian long, whose space must have been ensured.
+     * @param value the value.
+     */
+    private void writeLong(long value) {
+        writeInt((int) (value >>> 32));
+        writeInt((int) value);
+    }
+
+    /**
+     * Indexes a checkpoint, in place of the checkpoints of the same or later turns.
+     * @param turn the turn of the checkpoint.
+     * @param offset the offset of its snapshot.
+     * @param length the length of its snapshot.
+     */
+    private void addCheckpoint(int turn, int offset, int length) {
+        // Forget the checkpoints of the turns that have been undone
+        while (mCheckpointCount > 0 && mCheckpointTurns[mCheckpointCount - 1] >= turn) {
+            mCheckpointCount--;
+        }
+        if (mCheckpointCount == mCheckpointTurns.length) {
+            final int capacity = mCheckpointCount * 2;
+            mCheckpointTurns = Arrays.copyOf(mCheckpointTurns, capacity);
+            mCheckpointOffsets = Arrays.copyOf(mCheckpointOffsets, capacity);
+            mCheckpointLengths = Arrays.copyOf(mCheckpointLengths, capacity);
+        }
+        mCheckpointTurns[mCheckpointCount] = turn;
+        mCheckpointOffsets[mCheckpointCount] = offset;
+        mCheckpointLengths[mCheckpointCount] = length;
+        mCheckpointCount++;
+    }
+
+    /**
+     * Checks the journal starts with a checkpoint.
+     */
+    private void requireStarted() {
+        if (mCheckpointCount == 0) {
+            throw new IllegalStateException("The journal has not been started");
+        }
+    }
+
+    /**
+     * Grows the journal if it cannot hold a given number of additional bytes.
+     * @param bytes the number of bytes.
+     */
+    private void ensureCapacity(int bytes) {
+        if (mData.length - mSize < bytes) {
+            mData = Arrays.copyOf(mData, Math.max(mData.length * 2, mSize + bytes));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+/**
+ * Mutable axis-aligned bounds of a {@link GameObject}, reused by the game engine so that reading bounds does not
+ * allocate.
+ * @author Vincent Ganneau
+ * @see GameObject#getBounds(Bounds)
+ */
+public class Bounds {
+
+    // Edges
+    /**
+     * The left edge.
+     */
+    public float mLeft;
+    /**
+     * The top edge.
+     */
+    public float mTop;
+    /**
+     * The right edge, greater than or equal to the left edge.
+     */
+    public float mRight;
+    /**
+     * The bottom edge, greater than or equal to the top edge.
+     */
+    public float mBottom;
+
+    // Setters
+    /**
+     * Sets the edges.
+     * @param left the left edge.
+     * @param top the top edge.
+     * @param right the right edge.
+     * @param bottom the bottom edge.
+     */
+    public void set(float left, float top, float right, float bottom) {
+        mLeft = left;
+        mTop = top;
+        mRight = right;
+        mBottom = bottom;
+    }
+}
@@ -0,0 +1,56 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import java.util.concurrent.locks.Condition;
+
+/**
+ * Interface for the time sources the game threads read the time from and wait on.
+ * <p>
+ * A {@link RealTimeClock} follows the wall clock. A {@link VirtualClock} makes waits advance the simulated time
+ * instead of blocking, so that a game can run faster than real time and be replayed identically.
+ * </p>
+ * @author Vincent Ganneau
+ * @see GameEngine#setClock(Clock)
+ */
+public interface Clock {
+
+    /**
+     * Gets the current time of the clock.
+     * @return the current time in nanoseconds, only meaningful relative to other values of the same clock.
+     */
+    long nanoTime();
+
+    /**
+     * Waits for a duration, or less if the current thread is unparked.
+     * @param blocker the object the thread is parked on, for monitoring tools.
+     * @param nanos the duration to wait in nanoseconds.
+     */
+    void parkNanos(Object blocker, long nanos);
+
+    /**
+     * Waits on a condition for a duration, or less if the condition is signalled.
+     * <p>
+     * The lock of the condition must be held by the current thread.
+     * </p>
+     * @param condition the {@link Condition} instance.
+     * @param nanos the duration to wait in nanoseconds.
+     * @throws InterruptedException if the current thread is interrupted.
+     */
+    void awaitNanos(Condition condition, long nanos) throws InterruptedException;
+}
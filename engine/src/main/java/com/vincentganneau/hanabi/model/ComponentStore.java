@@ -0,0 +1,217 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import java.util.Arrays;
+
+/**
+ * Structure-of-arrays storage for lightweight entities that do not need a {@link GameObject} of their own.
+ * <p>
+ * Every component is a primitive column indexed by the dense index of the entity, so a {@link ComponentSystem} can
+ * iterate over thousands of entities in a tight loop without virtual calls nor allocations. Entities are identified by
+ * stable ids while their dense index changes when other entities are destroyed.
+ * </p>
+ * <p>
+ * The store is not thread-safe: it must only be modified from the update thread, or before the game starts.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public class ComponentStore {
+
+    // Columns
+    /**
+     * The horizontal position of every entity.
+     */
+    public float[] mPositionX;
+    /**
+     * The vertical position of every entity.
+     */
+    public float[] mPositionY;
+    /**
+     * The horizontal velocity of every entity, in units per millisecond.
+     */
+    public float[] mVelocityX;
+    /**
+     * The vertical velocity of every entity, in units per millisecond.
+     */
+    public float[] mVelocityY;
+    /**
+     * The state flags of every entity, whose meaning is defined by the systems.
+     */
+    public int[] mFlags;
+    /**
+     * The number of entities, which is also the number of valid rows in every column.
+     */
+    private int mCount;
+
+    // Ids
+    /**
+     * The id of the entity at every dense index.
+     */
+    private int[] mIds;
+    /**
+     * The dense index of every entity id, or <code>-1</code> if the id is not used.
+     */
+    private int[] mIndices;
+    /**
+     * The ids of the destroyed entities that can be used again.
+     */
+    private int[] mFreeIds;
+    /**
+     * The number of ids that can be used again.
+     */
+    private int mFreeIdCount;
+    /**
+     * The number of ids created so far.
+     */
+    private int mIdCount;
+
+    // Constructors
+    /**
+     * Creates a new {@link ComponentStore} with a default capacity.
+     */
+    public ComponentStore() {
+        this(64);
+    }
+
+    /**
+     * Creates a new {@link ComponentStore}.
+     * @param capacity the number of entities the store can hold before growing.
+     */
+    public ComponentStore(int capacity) {
+        capacity = Math.max(1, capacity);
+        mPositionX = new float[capacity];
+        mPositionY = new float[capacity];
+        mVelocityX = new float[capacity];
+        mVelocityY = new float[capacity];
+        mFlags = new int[capacity];
+        mIds = new int[capacity];
+        mIndices = new int[capacity];
+        mFreeIds = new int[capacity];
+    }
+
+    // Getters
+    /**
+     * Gets the number of entities.
+     * @return the number of entities.
+     */
+    public int getCount() {
+        return mCount;
+    }
+
+    /**
+     * Gets the dense index of an entity inside the columns.
+     * <p>
+     * The index is only valid until an entity is destroyed.
+     * </p>
+     * @param entity the id of the entity.
+     * @return the dense index of the entity, or <code>-1</code> if the entity does not exist.
+     */
+    public int indexOf(int entity) {
+        return entity >= 0 && entity < mIdCount ? mIndices[entity] : -1;
+    }
+
+    /**
+     * Gets the id of the entity at a dense index.
+     * @param index the dense index, between <code>0</code> and {@link #getCount()} excluded.
+     * @return the id of the entity.
+     */
+    public int getEntity(int index) {
+        return mIds[index];
+    }
+
+    // Entities
+    /**
+     * Creates an entity whose components are all set to zero.
+     * @return the id of the entity.
+     */
+    public int createEntity() {
+        final int entity;
+        if (mFreeIdCount > 0) {
+            entity = mFreeIds[--mFreeIdCount];
+        } else {
+            if (mIdCount == mIndices.length) {
+                mIndices = Arrays.copyOf(mIndices, mIdCount * 2);
+                mFreeIds = Arrays.copyOf(mFreeIds, mIdCount * 2);
+            }
+            entity = mIdCount++;
+        }
+        if (mCount == mIds.length) {
+            grow(mCount * 2);
+        }
+        final int index = mCount++;
+        mPositionX[index] = 0;
+        mPositionY[index] = 0;
+        mVelocityX[index] = 0;
+        mVelocityY[index] = 0;
+        mFlags[index] = 0;
+        mIds[index] = entity;
+        mIndices[entity] = index;
+        return entity;
+    }
+
+    /**
+     * Destroys an entity by moving the last entity in its place.
+     * <p>
+     * A system destroying entities while iterating over the columns should iterate backwards.
+     * </p>
+     * @param entity the id of the entity.
+     * @return <code>true</code> if the entity has been destroyed, <code>false</code> if it did not exist.
+     */
+    public boolean destroyEntity(int entity) {
+        final int index = indexOf(entity);
+        if (index < 0) {
+            return false;
+        }
+        final int last = --mCount;
+        if (index != last) {
+            mPositionX[index] = mPositionX[last];
+            mPositionY[index] = mPositionY[last];
+            mVelocityX[index] = mVelocityX[last];
+            mVelocityY[index] = mVelocityY[last];
+            mFlags[index] = mFlags[last];
+            mIds[index] = mIds[last];
+            mIndices[mIds[index]] = index;
+        }
+        mIndices[entity] = -1;
+        mFreeIds[mFreeIdCount++] = entity;
+        return true;
+    }
+
+    /**
+     * Destroys every entity.
+     */
+    public void clear() {
+        for (int i = mCount - 1; i >= 0; i--) {
+            destroyEntity(mIds[i]);
+        }
+    }
+
+    /**
+     * Grows every column.
+     * @param capacity the new capacity.
+     */
+    private void grow(int capacity) {
+        mPositionX = Arrays.copyOf(mPositionX, capacity);
+        mPositionY = Arrays.copyOf(mPositionY, capacity);
+        mVelocityX = Arrays.copyOf(mVelocityX, capacity);
+        mVelocityY = Arrays.copyOf(mVelocityY, capacity);
+        mFlags = Arrays.copyOf(mFlags, capacity);
+        mIds = Arrays.copyOf(mIds, capacity);
+    }
+}
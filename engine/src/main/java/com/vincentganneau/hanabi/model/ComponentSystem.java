@@ -0,0 +1,37 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+/**
+ * Interface for systems that update the entities of a {@link ComponentStore}.
+ * <p>
+ * A system reads and writes the primitive columns of the store directly, typically in a single loop over
+ * {@link ComponentStore#getCount()} entities.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public interface ComponentSystem {
+
+    /**
+     * Callback invoked on the update thread to update the entities.
+     * @param elapsedMillis the number of milliseconds, with sub-millisecond precision, that have passed since the
+     * previous call.
+     * @param componentStore the {@link ComponentStore} instance.
+     */
+    void onUpdate(double elapsedMillis, ComponentStore componentStore);
+}
@@ -0,0 +1,34 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+/**
+ * {@link Dispatcher} that runs every {@link Runnable} immediately on the calling thread.
+ * <p>
+ * This lets the game engine run without any UI, for instance on a plain JVM: callbacks meant for the UI thread then
+ * run on the update thread, or on the thread that adds and removes game objects while the game is not running.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public class DirectDispatcher implements Dispatcher {
+
+    @Override
+    public void dispatch(Runnable runnable) {
+        runnable.run();
+    }
+}
@@ -0,0 +1,36 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+/**
+ * Interface for the targets the game engine hands rendering and UI callbacks over to.
+ * <p>
+ * On Android, runnables are typically run inside the UI thread of an activity. Without any UI, they can run directly
+ * on the thread that dispatches them.
+ * </p>
+ * @author Vincent Ganneau
+ * @see DirectDispatcher
+ */
+public interface Dispatcher {
+
+    /**
+     * Runs a {@link Runnable} on the thread this dispatcher targets.
+     * @param runnable the {@link Runnable} to be run.
+     */
+    void dispatch(Runnable runnable);
+}
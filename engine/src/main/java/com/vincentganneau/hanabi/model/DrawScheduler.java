@@ -18,24 +18,24 @@
 package com.vincentganneau.hanabi.model;
 
 /**
- * {@link GameThread} subclass that continuously runs updates on the game engine.
+ * Interface for schedulers that render the game in sync with the display instead of a {@link DrawThread}.
+ * <p>
+ * A scheduler calls {@link GameEngine#drawGame()} once per display frame, from the time it is started until it is
+ * stopped.
+ * </p>
  * @author Vincent Ganneau
+ * @see GameEngine#setDrawScheduler(DrawScheduler)
  */
-public class UpdateThread extends GameThread {
+public interface DrawScheduler {
 
-    // Constructor
     /**
-     * Creates a new {@link UpdateThread}.
+     * Starts rendering the game on every display frame.
      * @param gameEngine the {@link GameEngine} instance.
      */
-    public UpdateThread(GameEngine gameEngine) {
-        super(gameEngine);
-    }
-
-    // Game loop
-    @Override
-    public void update(long elapsedMillis) {
-        // Update the game
-        mGameEngine.updateGame(elapsedMillis);
-    }
+    void start(GameEngine gameEngine);
+
+    /**
+     * Stops rendering the game.
+     */
+    void stop();
 }
@@ -19,37 +19,45 @@ package com.vincentganneau.hanabi.model;
 
 /**
  * {@link GameThread} subclass that continuously renders the game objects.
+ * <p>
+ * Frames are paced with a fixed time step on a {@link RealTimeClock}, whatever the clock of the game engine, so the
+ * frame rate does not drift and drawing never moves the simulated time of a {@link VirtualClock}. On Android, a
+ * {@link DrawScheduler} following the display refresh should be preferred when rendering on the UI thread.
+ * </p>
+ * <p>
+ * With a {@link DirectDispatcher} set by {@link GameEngine#setDrawDispatcher(Dispatcher)}, the thread renders every
+ * frame itself, which lets it draw onto a surface it owns without going through the UI thread.
+ * </p>
  * @author Vincent Ganneau
  */
 public class DrawThread extends GameThread {
 
-    // Frames per second
-    /**
-     * The minimal number of milliseconds between updates to ensure the wanted number of frames per second.
-     */
-    public long mMinElapsedMillis;
-
     // Constructor
     /**
      * Creates a new {@link DrawThread}.
+     * <p>
+     * A frame that is late is rendered right away, but frames that have been missed are not rendered.
+     * </p>
      * @param gameEngine the {@link GameEngine} instance.
      * @param wantedFramesPerSecond the wanted number of frames per second.
      */
     public DrawThread(GameEngine gameEngine, int wantedFramesPerSecond) {
-        super(gameEngine);
-        mMinElapsedMillis = 1000 / wantedFramesPerSecond;
+        super(gameEngine, new RealTimeClock(), wantedFramesPerSecond, 1);
     }
 
     // Game loop
     @Override
-    public void update(long elapsedMillis) {
-        if (elapsedMillis < mMinElapsedMillis) {
-            try {
-                Thread.sleep(mMinElapsedMillis - elapsedMillis);
-            } catch (InterruptedException e) {
-                // We just continue.
-            }
-        }
+    public void update(double elapsedMillis) {
         mGameEngine.drawGame();
     }
+
+    @Override
+    protected LatencyHistogram getSleepHistogram(GameMetrics metrics) {
+        return metrics.mDrawSleep;
+    }
+
+    @Override
+    protected LatencyHistogram getPauseHistogram(GameMetrics metrics) {
+        return metrics.mDrawPause;
+    }
 }
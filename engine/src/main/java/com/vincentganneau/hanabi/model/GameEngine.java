@@ -0,0 +1,1067 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import android.support.annotation.VisibleForTesting;
+
+import com.vincentganneau.hanabi.render.DrawCommandBuffer;
+import com.vincentganneau.hanabi.render.SpriteBackend;
+import com.vincentganneau.hanabi.render.SpriteRenderer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The game engine.
+ * @author Vincent Ganneau
+ */
+public class GameEngine {
+
+    // Frames per second
+    /**
+     * The number of frames per second the drawing thread renders.
+     */
+    private static final int FRAMES_PER_SECOND = 60;
+
+    // Snapshot
+    /**
+     * The type of the record of the game engine inside snapshots.
+     */
+    public static final int SNAPSHOT_TYPE = -1;
+    /**
+     * The version of the record of the game engine inside snapshots.
+     */
+    private static final int SNAPSHOT_VERSION = 1;
+
+    // Notifications
+    /**
+     * The tag of the notification of a game object added to the game.
+     */
+    private static final int NOTIFICATION_ADDED = 0;
+    /**
+     * The tag of the notification of a game object removed from the game.
+     */
+    private static final int NOTIFICATION_REMOVED = 1;
+
+    // Dispatcher
+    /**
+     * The {@link Dispatcher} the game objects are rendered and notified through.
+     */
+    @VisibleForTesting
+    public final Dispatcher mDispatcher;
+    /**
+     * The {@link Dispatcher} the frames are rendered through, or <code>null</code> to render them through
+     * {@link #mDispatcher}.
+     */
+    @VisibleForTesting
+    public volatile Dispatcher mDrawDispatcher;
+    /**
+     * Indicates whether the game objects are rendered while the game is running.
+     */
+    @VisibleForTesting
+    public boolean mRenderingEnabled = true;
+
+    // Game objects
+    /**
+     * The game objects.
+     * <p>
+     * Every game object knows its own index inside the list so that it can be removed in constant time by moving the
+     * last game object in its place.
+     * </p>
+     */
+    @VisibleForTesting
+    public final List<GameObject> mGameObjects = new ArrayList<>();
+    /**
+     * The game objects to be added to the game.
+     */
+    @VisibleForTesting
+    public final GameObjectQueue mGameObjectsToAdd = new GameObjectQueue();
+    /**
+     * The game objects to be removed from the game.
+     */
+    @VisibleForTesting
+    public final GameObjectQueue mGameObjectsToRemove = new GameObjectQueue();
+
+    /**
+     * The game objects added to or removed from the game since the previous notification of the UI thread, in order,
+     * tagged with {@link #NOTIFICATION_ADDED} or {@link #NOTIFICATION_REMOVED}.
+     */
+    @VisibleForTesting
+    public final GameObjectQueue mNotifications = new GameObjectQueue();
+
+    // Update buckets
+    /**
+     * The bucket of the game objects updated on every tick.
+     */
+    @VisibleForTesting
+    public final UpdateBucket mEveryTickBucket = new UpdateBucket(UpdateRate.EVERY_TICK);
+    /**
+     * The buckets of the game objects updated less often than every tick.
+     */
+    @VisibleForTesting
+    public final List<UpdateBucket> mUpdateBuckets = new ArrayList<>();
+    /**
+     * The game time, as the sum of the elapsed milliseconds passed to {@link #updateGame(double)}.
+     */
+    private double mTimeMillis;
+
+    // Components
+    /**
+     * The entities stored as primitive columns, alongside the game objects.
+     */
+    @VisibleForTesting
+    public final ComponentStore mComponentStore = new ComponentStore();
+    /**
+     * The systems that update {@link #mComponentStore}.
+     */
+    @VisibleForTesting
+    public final List<ComponentSystem> mComponentSystems = new ArrayList<>();
+
+    // Threads
+    /**
+     * The thread that will update the game objects.
+     */
+    @VisibleForTesting
+    public UpdateThread mUpdateThread;
+    /**
+     * The thread that will render the game objects.
+     */
+    @VisibleForTesting
+    public DrawThread mDrawThread;
+    /**
+     * The scheduler that renders the game objects in sync with the display, or <code>null</code> to render them
+     * from {@link #mDrawThread}.
+     */
+    @VisibleForTesting
+    public DrawScheduler mDrawScheduler;
+
+    // Time step
+    /**
+     * The number of updates per second of the update thread, or <code>0</code> to update with a variable time step.
+     */
+    @VisibleForTesting
+    public int mTicksPerSecond;
+    /**
+     * The maximum number of updates fired in a row by the update thread to catch up with the clock.
+     */
+    @VisibleForTesting
+    public int mMaxCatchUpSteps;
+
+    // Clock
+    /**
+     * The clock the update thread reads the time from and waits on.
+     */
+    @VisibleForTesting
+    public Clock mClock = new RealTimeClock();
+
+    // Randomness
+    /**
+     * The source of randomness of the game, to be used from the update thread.
+     */
+    @VisibleForTesting
+    public final Random mRandom = new Random();
+
+    // Spatial index
+    /**
+     * The grid indexing the bounds of the game objects, or <code>null</code> if they are not indexed.
+     */
+    @VisibleForTesting
+    public SpatialGrid mSpatialGrid;
+    /**
+     * The bounds reused to read the bounds of every game object.
+     */
+    private final Bounds mBounds = new Bounds();
+
+    // Adaptive scheduling
+    /**
+     * Indicates whether the update thread blocks while no game object needs to be updated.
+     */
+    @VisibleForTesting
+    public volatile boolean mAdaptiveScheduling;
+
+    // Parallel update
+    /**
+     * The number of threads updating the game objects, <code>1</code> to only use the update thread.
+     */
+    @VisibleForTesting
+    public int mParallelism = 1;
+    /**
+     * The updater that updates the game objects on several threads, or <code>null</code> to update them on the update
+     * thread only.
+     */
+    @VisibleForTesting
+    public ParallelUpdater mParallelUpdater;
+
+    // Metrics
+    /**
+     * The frame-time metrics of the game loop.
+     */
+    @VisibleForTesting
+    public final GameMetrics mMetrics = new GameMetrics();
+    /**
+     * The time the latest frame has been posted to the dispatcher.
+     */
+    private volatile long mDrawPostedNanos;
+
+    // Tick listener
+    /**
+     * The listener notified of every update, or <code>null</code>.
+     */
+    @VisibleForTesting
+    public volatile TickListener mTickListener;
+
+    // Sprite renderer
+    /**
+     * The renderer the game objects record their sprites into, or <code>null</code> to render them with
+     * {@link GameObject#onDraw()}.
+     */
+    @VisibleForTesting
+    public volatile SpriteRenderer mSpriteRenderer;
+    /**
+     * The backend drawing the batches of {@link #mSpriteRenderer}.
+     */
+    @VisibleForTesting
+    public volatile SpriteBackend mSpriteBackend;
+
+    // Dirty tracking
+    /**
+     * Indicates whether only the game objects that have been invalidated are rendered.
+     */
+    @VisibleForTesting
+    public volatile boolean mDirtyTrackingEnabled;
+    /**
+     * Indicates whether a game object has been invalidated since the latest rendered frame.
+     */
+    @VisibleForTesting
+    public final AtomicBoolean mRedrawPending = new AtomicBoolean(true);
+    /**
+     * Indicates whether every game object must be rendered on the next frame, after game objects have been added or
+     * removed.
+     */
+    @VisibleForTesting
+    public final AtomicBoolean mFullRedrawPending = new AtomicBoolean(true);
+
+    // Backpressure
+    /**
+     * Indicates whether a frame has been posted to the dispatcher and is not rendered yet.
+     */
+    @VisibleForTesting
+    public final AtomicBoolean mDrawPending = new AtomicBoolean();
+    /**
+     * Indicates whether {@link #mNotifyRunnable} has been posted to the dispatcher and has not started yet.
+     */
+    @VisibleForTesting
+    public final AtomicBoolean mNotifyPending = new AtomicBoolean();
+
+    // Render snapshots
+    /**
+     * The snapshots of the game objects to be rendered, handed over from the update thread to the UI thread.
+     */
+    @VisibleForTesting
+    public final TripleBuffer<RenderSnapshot> mRenderSnapshots =
+            new TripleBuffer<>(new RenderSnapshot(), new RenderSnapshot(), new RenderSnapshot());
+
+    // Runnables
+    /**
+     * The {@link Runnable} that will be run through the draw dispatcher to render the game objects.
+     * <p>
+     * It renders the latest snapshot published by the update thread, so it never waits on it. When dirty tracking is
+     * enabled, only the game objects invalidated since they were last rendered are rendered again, unless a
+     * {@link SpriteRenderer} draws the whole frame from the sprites every game object recorded into the snapshot.
+     * </p>
+     * @see Dispatcher#dispatch(Runnable)
+     */
+    @VisibleForTesting
+    public final Runnable mDrawRunnable = () -> {
+        final long startNanos = System.nanoTime();
+        mMetrics.mDrawLatency.record(startNanos - mDrawPostedNanos);
+        mMetrics.onFrame(startNanos);
+
+        try {
+            final boolean dirtyTrackingEnabled = mDirtyTrackingEnabled;
+            final boolean fullRedraw = !dirtyTrackingEnabled || mFullRedrawPending.getAndSet(false);
+            mRedrawPending.set(false);
+
+            final RenderSnapshot snapshot = mRenderSnapshots.getReadBuffer();
+            final int count = snapshot.getCount();
+            final SpriteRenderer spriteRenderer = mSpriteRenderer;
+            if (spriteRenderer != null) {
+                // Draw the whole frame from the sprites recorded when the snapshot was published
+                spriteRenderer.render(mSpriteBackend, snapshot.getCommands());
+            } else {
+                for (int i = 0; i < count; i++) {
+                    final GameObject gameObject = snapshot.get(i);
+                    if (fullRedraw || gameObject.mDirty) {
+                        if (dirtyTrackingEnabled) {
+                            gameObject.mDirty = false;
+                        }
+                        gameObject.onDraw();
+                    }
+                }
+            }
+            mMetrics.mDrawExecute.record(System.nanoTime() - startNanos);
+        } finally {
+            // Let the next frame be posted even if this one failed
+            mDrawPending.set(false);
+        }
+    };
+
+    /**
+     * The {@link Runnable} that will be run inside the UI thread to notify the game objects added to or removed from
+     * the game, in a single batch.
+     * <p>
+     * The notifications are delivered in the order the game objects have been added and removed. Removed game objects
+     * that have been acquired from a {@link GameObjectPool} are released to it afterwards, unless they have been added
+     * to the game again in the meantime.
+     * </p>
+     * @see Dispatcher#dispatch(Runnable)
+     */
+    @VisibleForTesting
+    public final Runnable mNotifyRunnable = () -> {
+        mNotifyPending.set(false);
+        final int count = mNotifications.drain();
+        for (int i = 0; i < count; i++) {
+            final GameObject gameObject = mNotifications.getDrained(i);
+            if (mNotifications.getDrainedTag(i) == NOTIFICATION_ADDED) {
+                gameObject.onAddedToGameUiThread();
+                continue;
+            }
+            gameObject.onRemovedFromGameUiThread();
+            final GameObjectPool<?> pool = gameObject.mPool;
+            if (pool != null && gameObject.mSlotIndex < 0) {
+                pool.recycle(gameObject);
+            }
+        }
+    };
+
+    // Constructor
+    /**
+     * Creates a new {@link GameEngine}.
+     * @param dispatcher the {@link Dispatcher} the game objects are rendered and notified through.
+     */
+    public GameEngine(Dispatcher dispatcher) {
+        mDispatcher = dispatcher;
+    }
+
+    // Setters
+    /**
+     * Makes the update thread run with a fixed time step from the next call to {@link #startGame()}.
+     * <p>
+     * Every {@link GameObject#onUpdate(double, GameEngine)} call then receives the same elapsed time, which keeps the
+     * simulation stable and reproducible regardless of the device load.
+     * </p>
+     * @param ticksPerSecond the number of updates per second, or <code>0</code> to update with a variable time step.
+     * @param maxCatchUpSteps the maximum number of updates fired in a row to catch up with the clock.
+     */
+    public void setFixedTimeStep(int ticksPerSecond, int maxCatchUpSteps) {
+        mTicksPerSecond = ticksPerSecond;
+        mMaxCatchUpSteps = maxCatchUpSteps;
+    }
+
+    /**
+     * Makes the update thread read the time from a clock from the next call to {@link #startGame()}.
+     * <p>
+     * With a {@link VirtualClock} and a fixed time step, the game runs as fast as the CPU allows while every update
+     * receives the same elapsed time as in real time. The draw thread keeps following real time, so the simulated time
+     * does not depend on how often frames are drawn.
+     * </p>
+     * @param clock the {@link Clock} instance.
+     * @see #setFixedTimeStep(int, int)
+     */
+    public void setClock(Clock clock) {
+        mClock = clock;
+    }
+
+    /**
+     * Seeds the source of randomness of the game, so that the deals and every other random choice drawn from
+     * {@link #getRandom()} can be reproduced.
+     * @param seed the seed.
+     */
+    public void setRandomSeed(long seed) {
+        mRandom.setSeed(seed);
+    }
+
+    /**
+     * Enables or disables rendering from the next call to {@link #startGame()}.
+     * <p>
+     * Without rendering, no drawing thread is started and only the update thread runs, which lets a headless game run
+     * as fast as the CPU allows.
+     * </p>
+     * @param renderingEnabled <code>true</code> to render the game objects, <code>false</code> otherwise.
+     */
+    public void setRenderingEnabled(boolean renderingEnabled) {
+        mRenderingEnabled = renderingEnabled;
+    }
+
+    /**
+     * Enables or disables dirty tracking.
+     * <p>
+     * When enabled, a frame only renders the game objects that called {@link GameObject#invalidate()} since they were
+     * last rendered, and frames are not rendered at all while nothing changes. Every game object is rendered again
+     * after game objects have been added or removed.
+     * </p>
+     * @param dirtyTrackingEnabled <code>true</code> to only render dirty game objects, <code>false</code> to render
+     * every game object on every frame.
+     */
+    public void setDirtyTrackingEnabled(boolean dirtyTrackingEnabled) {
+        mDirtyTrackingEnabled = dirtyTrackingEnabled;
+        requestFullRedraw();
+    }
+
+    /**
+     * Makes the next frame render every game object, for instance after the surface the game is drawn on has been
+     * recreated or resized.
+     * <p>
+     * This method can be called from any thread.
+     * </p>
+     */
+    public void requestFullRedraw() {
+        mFullRedrawPending.set(true);
+        mRedrawPending.set(true);
+    }
+
+    /**
+     * Makes the game objects be rendered by a {@link DrawScheduler} from the next call to {@link #startGame()},
+     * instead of a dedicated {@link DrawThread}.
+     * @param drawScheduler the {@link DrawScheduler} instance, or <code>null</code> to use a {@link DrawThread}.
+     */
+    public void setDrawScheduler(DrawScheduler drawScheduler) {
+        mDrawScheduler = drawScheduler;
+    }
+
+    /**
+     * Makes the frames be rendered through a {@link Dispatcher} other than the one the game objects are notified
+     * through.
+     * <p>
+     * With a {@link DirectDispatcher}, the {@link DrawThread} renders every frame itself, for instance onto a surface
+     * it owns, and the UI thread is left to input and layout.
+     * </p>
+     * @param drawDispatcher the {@link Dispatcher} instance, or <code>null</code> to render the frames through the
+     * dispatcher of the game engine.
+     */
+    public void setDrawDispatcher(Dispatcher drawDispatcher) {
+        mDrawDispatcher = drawDispatcher;
+    }
+
+    /**
+     * Sets the listener notified at the start of every update, before any game object is updated.
+     * <p>
+     * This method should be called before the game starts.
+     * </p>
+     * @param tickListener the {@link TickListener} instance, or <code>null</code> to remove the listener.
+     */
+    public void setTickListener(TickListener tickListener) {
+        mTickListener = tickListener;
+    }
+
+    /**
+     * Makes the game objects be rendered by recording their sprites into a {@link SpriteRenderer}, which draws them
+     * in batches, instead of calling {@link GameObject#onDraw()} on every game object.
+     * @param spriteRenderer the {@link SpriteRenderer} instance, or <code>null</code> to call
+     * {@link GameObject#onDraw()}.
+     * @param spriteBackend the {@link SpriteBackend} drawing the batches.
+     * @see GameObject#onRender(DrawCommandBuffer)
+     */
+    public void setSpriteRenderer(SpriteRenderer spriteRenderer, SpriteBackend spriteBackend) {
+        mSpriteBackend = spriteBackend;
+        mSpriteRenderer = spriteRenderer;
+        requestFullRedraw();
+    }
+
+    /**
+     * Makes the game objects exposing bounds be indexed by a spatial grid, updated at the end of every update.
+     * <p>
+     * This method should be called before the game starts.
+     * </p>
+     * @param spatialGrid the {@link SpatialGrid} instance, or <code>null</code> to stop indexing the game objects.
+     * @see GameObject#getBounds(Bounds)
+     */
+    public void setSpatialGrid(SpatialGrid spatialGrid) {
+        if (mSpatialGrid != null) {
+            mSpatialGrid.clear();
+        }
+        final int count = mGameObjects.size();
+        for (int i = 0; i < count; i++) {
+            mGameObjects.get(i).mSpatialEntry = -1;
+        }
+        mSpatialGrid = spatialGrid;
+        if (spatialGrid != null) {
+            updateSpatialGrid(spatialGrid);
+        }
+    }
+
+    /**
+     * Enables or disables adaptive scheduling.
+     * <p>
+     * When enabled, the update thread blocks instead of ticking while no game object needs to be updated, no game
+     * object is waiting to be added or removed and no entity is left to the component systems. It is woken up by
+     * {@link #addGameObject(GameObject)}, {@link #removeGameObject(GameObject)}, {@link #wakeUp()} and
+     * {@link #scheduleWakeUp(long)}.
+     * </p>
+     * @param adaptiveScheduling <code>true</code> to block the update thread while idle, <code>false</code> to
+     * update continuously.
+     * @see GameObject#needsUpdate()
+     */
+    public void setAdaptiveScheduling(boolean adaptiveScheduling) {
+        mAdaptiveScheduling = adaptiveScheduling;
+        wakeUp();
+    }
+
+    /**
+     * Makes the game objects be updated on several threads according to their update group.
+     * <p>
+     * The update thread waits for every parallel update to be done before it updates the sequential game objects,
+     * then adds and removes game objects.
+     * </p>
+     * <p>
+     * The worker threads are stopped by {@link #stopGame()} and started again by {@link #startGame()}, so a stopped
+     * game does not keep any thread alive.
+     * </p>
+     * @param parallelism the number of threads updating the game objects, or <code>1</code> to only use the update
+     * thread.
+     * @see GameObject#getUpdateGroup()
+     */
+    public void setParallelUpdate(int parallelism) {
+        mParallelism = parallelism;
+        shutdownParallelUpdater();
+        if (parallelism > 1) {
+            mParallelUpdater = new ParallelUpdater(this, parallelism);
+        }
+    }
+
+    /**
+     * Stops the worker threads of the parallel updater, if any.
+     */
+    private void shutdownParallelUpdater() {
+        final ParallelUpdater parallelUpdater = mParallelUpdater;
+        if (parallelUpdater != null) {
+            mParallelUpdater = null;
+            parallelUpdater.shutdown();
+        }
+    }
+
+    // Getters
+    /**
+     * Gets the clock the update thread reads the time from.
+     * @return the {@link Clock} instance.
+     */
+    public Clock getClock() {
+        return mClock;
+    }
+
+    /**
+     * Gets the source of randomness of the game, to be used from the update thread.
+     * @return the {@link Random} instance.
+     * @see #setRandomSeed(long)
+     */
+    public Random getRandom() {
+        return mRandom;
+    }
+
+    /**
+     * Gets the frame-time metrics of the game loop.
+     * @return the {@link GameMetrics} instance.
+     */
+    public GameMetrics getMetrics() {
+        return mMetrics;
+    }
+
+    /**
+     * Gets the grid indexing the bounds of the game objects, to be queried from the update thread.
+     * @return the {@link SpatialGrid} instance, or <code>null</code> if the game objects are not indexed.
+     */
+    public SpatialGrid getSpatialGrid() {
+        return mSpatialGrid;
+    }
+
+    /**
+     * Indicates whether the game is running.
+     * @return <code>true</code> if the game is running, <code>false</code> otherwise.
+     */
+    public boolean isGameRunning() {
+        return mUpdateThread != null && mUpdateThread.mGameRunning;
+    }
+
+    /**
+     * Indicates whether the update thread can block because there is nothing to update.
+     * <p>
+     * This method must be called from the update thread.
+     * </p>
+     * @return <code>true</code> if adaptive scheduling is enabled and nothing needs to be updated.
+     * @see #setAdaptiveScheduling(boolean)
+     */
+    public boolean isIdle() {
+        if (!mAdaptiveScheduling || !mGameObjectsToAdd.isEmpty() || !mGameObjectsToRemove.isEmpty()) {
+            return false;
+        }
+        if (!mComponentSystems.isEmpty() && mComponentStore.getCount() > 0) {
+            return false;
+        }
+        final int count = mGameObjects.size();
+        for (int i = 0; i < count; i++) {
+            if (mGameObjects.get(i).needsUpdate()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Game lifecycle
+    /**
+     * Starts the game.
+     */
+    public void startGame() {
+        // Stop the game if it is already running
+        stopGame();
+        mDrawPending.set(false);
+
+        // Initialize the game objects
+        final int count = mGameObjects.size();
+        for (int i = 0; i < count; i++) {
+            mGameObjects.get(i).onGameStart();
+        }
+        if (mSpatialGrid != null) {
+            updateSpatialGrid(mSpatialGrid);
+        }
+        publishRenderSnapshot(true);
+
+        // Start the update thread and its workers
+        if (mParallelism > 1) {
+            mParallelUpdater = new ParallelUpdater(this, mParallelism);
+        }
+        mUpdateThread = mTicksPerSecond > 0
+                ? new UpdateThread(this, mTicksPerSecond, mMaxCatchUpSteps)
+                : new UpdateThread(this);
+        mUpdateThread.startGame();
+
+        // Start the drawing thread or scheduler
+        mDrawThread = null;
+        if (mRenderingEnabled && mDrawScheduler != null) {
+            mDrawScheduler.start(this);
+        } else if (mRenderingEnabled) {
+            mDrawThread = new DrawThread(this, FRAMES_PER_SECOND);
+            mMetrics.mFrameIntervalNanos = 1000000000L / FRAMES_PER_SECOND;
+            mDrawThread.startGame();
+        }
+    }
+
+    /**
+     * Updates the game.
+     * @param elapsedMillis the number of milliseconds, with sub-millisecond precision, that have passed since the
+     * previous call.
+     */
+    public void updateGame(double elapsedMillis) {
+        final long startNanos = System.nanoTime();
+        mTimeMillis += elapsedMillis;
+        final TickListener tickListener = mTickListener;
+        if (tickListener != null) {
+            tickListener.onTick(elapsedMillis);
+        }
+
+        // Update the game objects
+        final List<GameObject> everyTickObjects = mEveryTickBucket.getPhase(0);
+        final ParallelUpdater parallelUpdater = mParallelUpdater;
+        if (parallelUpdater != null) {
+            parallelUpdater.update(everyTickObjects, elapsedMillis);
+        } else {
+            final int count = everyTickObjects.size();
+            for (int i = 0; i < count; i++) {
+                everyTickObjects.get(i).onUpdate(elapsedMillis, this);
+            }
+        }
+        final int bucketCount = mUpdateBuckets.size();
+        for (int i = 0; i < bucketCount; i++) {
+            mUpdateBuckets.get(i).update(mTimeMillis, this);
+        }
+
+        // Update the entities
+        final int systemCount = mComponentSystems.size();
+        for (int i = 0; i < systemCount; i++) {
+            mComponentSystems.get(i).onUpdate(elapsedMillis, mComponentStore);
+        }
+
+        final long updatedNanos = System.nanoTime();
+        mMetrics.mUpdate.record(updatedNanos - startNanos);
+
+        // Handle objects that must be removed or added
+        final int removed = mGameObjectsToRemove.drain();
+        for (int i = 0; i < removed; i++) {
+            detachGameObject(mGameObjectsToRemove.getDrained(i));
+        }
+        final int added = mGameObjectsToAdd.drain();
+        for (int i = 0; i < added; i++) {
+            attachGameObject(mGameObjectsToAdd.getDrained(i));
+        }
+        final SpatialGrid spatialGrid = mSpatialGrid;
+        if (spatialGrid != null) {
+            updateSpatialGrid(spatialGrid);
+        }
+        final long appliedNanos = System.nanoTime();
+        mMetrics.mApply.record(appliedNanos - updatedNanos);
+        mMetrics.onTick(appliedNanos);
+
+        // Hand the game objects over to the UI thread
+        publishRenderSnapshot(removed + added > 0);
+        if (removed + added > 0) {
+            postNotifications();
+        }
+    }
+
+    /**
+     * Posts {@link #mNotifyRunnable} to the dispatcher, unless it is already waiting to be run.
+     */
+    private void postNotifications() {
+        if (mNotifyPending.compareAndSet(false, true)) {
+            mDispatcher.dispatch(mNotifyRunnable);
+        }
+    }
+
+    /**
+     * Inserts a game object at the end of {@link #mGameObjects} and queues its notification.
+     * @param gameObject the game object to be inserted.
+     */
+    private void attachGameObject(GameObject gameObject) {
+        if (gameObject.mSlotIndex < 0) {
+            gameObject.mSlotIndex = mGameObjects.size();
+            mGameObjects.add(gameObject);
+            getUpdateBucket(gameObject.getUpdateRate()).add(gameObject, mTimeMillis);
+            mNotifications.offer(gameObject, NOTIFICATION_ADDED);
+            invalidateParallelUpdate();
+        }
+    }
+
+    /**
+     * Gets the bucket of the game objects updated at a given rate, creating it if needed.
+     * @param rate the rate.
+     * @return the {@link UpdateBucket} instance.
+     */
+    private UpdateBucket getUpdateBucket(UpdateRate rate) {
+        if (rate.equals(UpdateRate.EVERY_TICK)) {
+            return mEveryTickBucket;
+        }
+        final int count = mUpdateBuckets.size();
+        for (int i = 0; i < count; i++) {
+            final UpdateBucket bucket = mUpdateBuckets.get(i);
+            if (bucket.mRate.equals(rate)) {
+                return bucket;
+            }
+        }
+        final UpdateBucket bucket = new UpdateBucket(rate);
+        mUpdateBuckets.add(bucket);
+        return bucket;
+    }
+
+    /**
+     * Removes a game object from {@link #mGameObjects} by moving the last game object in its place and queues its
+     * notification.
+     * @param gameObject the game object to be removed.
+     */
+    private void detachGameObject(GameObject gameObject) {
+        final int index = gameObject.mSlotIndex;
+        if (index < 0) {
+            return;
+        }
+        final GameObject last = mGameObjects.remove(mGameObjects.size() - 1);
+        if (last != gameObject) {
+            mGameObjects.set(index, last);
+            last.mSlotIndex = index;
+        }
+        gameObject.mSlotIndex = -1;
+        gameObject.mUpdateBucket.remove(gameObject);
+        if (gameObject.mSpatialEntry >= 0) {
+            mSpatialGrid.remove(gameObject.mSpatialEntry);
+            gameObject.mSpatialEntry = -1;
+        }
+        mNotifications.offer(gameObject, NOTIFICATION_REMOVED);
+        invalidateParallelUpdate();
+    }
+
+    /**
+     * Indexes, moves or removes every game object inside the spatial grid according to its current bounds.
+     * @param spatialGrid the spatial grid.
+     */
+    private void updateSpatialGrid(SpatialGrid spatialGrid) {
+        final Bounds bounds = mBounds;
+        final int count = mGameObjects.size();
+        for (int i = 0; i < count; i++) {
+            final GameObject gameObject = mGameObjects.get(i);
+            if (gameObject.getBounds(bounds)) {
+                if (gameObject.mSpatialEntry < 0) {
+                    gameObject.mSpatialEntry = spatialGrid.insert(gameObject, bounds);
+                } else {
+                    spatialGrid.move(gameObject.mSpatialEntry, bounds);
+                }
+            } else if (gameObject.mSpatialEntry >= 0) {
+                spatialGrid.remove(gameObject.mSpatialEntry);
+                gameObject.mSpatialEntry = -1;
+            }
+        }
+    }
+
+    /**
+     * Makes the parallel updater split the game objects again before the next update.
+     */
+    private void invalidateParallelUpdate() {
+        final ParallelUpdater parallelUpdater = mParallelUpdater;
+        if (parallelUpdater != null) {
+            parallelUpdater.invalidate();
+        }
+    }
+
+    /**
+     * Publishes a snapshot of the game objects to be rendered by {@link #mDrawRunnable}.
+     * <p>
+     * With a {@link SpriteRenderer}, every game object records its sprites into the snapshot on the update thread,
+     * between two updates, so that the UI thread never reads the fields of a game object being updated.
+     * </p>
+     * @param changed <code>true</code> if game objects have been added or removed since the previous snapshot.
+     */
+    private void publishRenderSnapshot(boolean changed) {
+        final RenderSnapshot snapshot = mRenderSnapshots.getWriteBuffer();
+        snapshot.set(mGameObjects);
+        boolean dirty = false;
+        if (mSpriteRenderer != null) {
+            final DrawCommandBuffer commands = snapshot.getCommands();
+            commands.clear();
+            final int count = mGameObjects.size();
+            for (int i = 0; i < count; i++) {
+                final GameObject gameObject = mGameObjects.get(i);
+                dirty |= gameObject.mDirty;
+                gameObject.mDirty = false;
+                gameObject.onRender(commands);
+            }
+        }
+        mRenderSnapshots.publish();
+
+        // Request a frame if anything changed
+        if (!mDirtyTrackingEnabled) {
+            return;
+        }
+        if (changed || dirty) {
+            mFullRedrawPending.set(true);
+            mRedrawPending.set(true);
+            return;
+        }
+        final int count = mGameObjects.size();
+        for (int i = 0; i < count; i++) {
+            if (mGameObjects.get(i).mDirty) {
+                mRedrawPending.set(true);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Renders the game objects.
+     * <p>
+     * At most one frame is in flight: the frame is skipped if the previous one has not been rendered yet. When dirty
+     * tracking is enabled, the frame is also skipped if no game object has been invalidated.
+     * </p>
+     */
+    public void drawGame() {
+        if (mDirtyTrackingEnabled && !mRedrawPending.get()) {
+            mMetrics.onFrameIdle();
+            return;
+        }
+        if (!mDrawPending.compareAndSet(false, true)) {
+            mMetrics.onFrameSkipped();
+            return;
+        }
+        final long postedNanos = System.nanoTime();
+        mDrawPostedNanos = postedNanos;
+        final Dispatcher drawDispatcher = mDrawDispatcher;
+        (drawDispatcher != null ? drawDispatcher : mDispatcher).dispatch(mDrawRunnable);
+        mMetrics.mDrawPost.record(System.nanoTime() - postedNanos);
+    }
+
+    /**
+     * Stops the game.
+     */
+    public void stopGame() {
+        if (mUpdateThread != null) {
+            mUpdateThread.stopGame();
+        }
+        if (mDrawThread != null) {
+            mDrawThread.stopGame();
+        }
+        if (mDrawScheduler != null) {
+            mDrawScheduler.stop();
+        }
+        shutdownParallelUpdater();
+    }
+
+    /**
+     * Adds a game object to the game.
+     * <p>
+     * This method can be called from any thread while the game is running.
+     * </p>
+     * @param gameObject the game object to be added.
+     */
+    public void addGameObject(final GameObject gameObject) {
+        if (isGameRunning()) {
+            mGameObjectsToAdd.offer(gameObject);
+            wakeUp();
+        } else {
+            attachGameObject(gameObject);
+            postNotifications();
+        }
+    }
+
+    /**
+     * Acquires a game object from a pool and adds it to the game.
+     * <p>
+     * The game object goes back to the pool once it has been removed from the game.
+     * </p>
+     * @param pool the pool of game objects.
+     * @param <T> the type of the game object.
+     * @return the game object.
+     */
+    public <T extends GameObject> T spawnGameObject(GameObjectPool<T> pool) {
+        final T gameObject = pool.acquire();
+        addGameObject(gameObject);
+        return gameObject;
+    }
+
+    /**
+     * Adds a system that updates the entities of {@link #mComponentStore} after the game objects are updated.
+     * <p>
+     * Systems run in the order they were added. This method must be called before the game starts.
+     * </p>
+     * @param componentSystem the system to be added.
+     */
+    public void addComponentSystem(ComponentSystem componentSystem) {
+        mComponentSystems.add(componentSystem);
+    }
+
+    /**
+     * Removes a game object from the game.
+     * <p>
+     * This method can be called from any thread while the game is running. The order of the remaining game objects
+     * is not preserved.
+     * </p>
+     * @param gameObject the game object to be removed.
+     */
+    public void removeGameObject(final GameObject gameObject) {
+        if (isGameRunning()) {
+            mGameObjectsToRemove.offer(gameObject);
+            wakeUp();
+        } else {
+            detachGameObject(gameObject);
+            postNotifications();
+        }
+    }
+
+    /**
+     * Makes the update thread run an update if it is blocked by adaptive scheduling, typically after an input.
+     */
+    public void wakeUp() {
+        final UpdateThread updateThread = mUpdateThread;
+        if (updateThread != null) {
+            updateThread.wakeUp();
+        }
+    }
+
+    /**
+     * Makes the update thread run an update after a delay if it is blocked by adaptive scheduling, typically to fire
+     * a timer.
+     * @param delayMillis the delay in milliseconds.
+     */
+    public void scheduleWakeUp(long delayMillis) {
+        final UpdateThread updateThread = mUpdateThread;
+        if (updateThread != null) {
+            updateThread.scheduleWakeUp(TimeUnit.MILLISECONDS.toNanos(delayMillis));
+        }
+    }
+
+    // Snapshot
+    /**
+     * Saves the game clock and every game object with a snapshot type into a snapshot: a record of the game engine
+     * followed by a record per game object, in the order of {@link #mGameObjects}.
+     * <p>
+     * This method must be called while the game is stopped, or from the update thread.
+     * </p>
+     * @param writer the writer, outside of any record.
+     * @see GameObject#getSnapshotType()
+     */
+    public void saveSnapshot(SnapshotWriter writer) {
+        final int count = mGameObjects.size();
+        int savedCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (mGameObjects.get(i).getSnapshotType() != GameObject.SNAPSHOT_TYPE_NONE) {
+                savedCount++;
+            }
+        }
+        writer.beginRecord(SNAPSHOT_TYPE, SNAPSHOT_VERSION);
+        writer.writeDouble(mTimeMillis);
+        writer.writeInt(savedCount);
+        writer.endRecord();
+        for (int i = 0; i < count; i++) {
+            final GameObject gameObject = mGameObjects.get(i);
+            final int type = gameObject.getSnapshotType();
+            if (type != GameObject.SNAPSHOT_TYPE_NONE) {
+                writer.beginRecord(type, gameObject.getSnapshotVersion());
+                gameObject.saveSnapshot(writer);
+                writer.endRecord();
+            }
+        }
+    }
+
+    /**
+     * Replaces the game objects with the ones of a snapshot saved by {@link #saveSnapshot(SnapshotWriter)}, and
+     * restores the game clock.
+     * <p>
+     * This method must be called while the game is stopped, typically before it is started again. Records of unknown
+     * types are skipped.
+     * </p>
+     * @param reader the reader, whose next record is the record of the game engine.
+     * @param factory the factory recreating the game objects.
+     */
+    public void restoreSnapshot(SnapshotReader reader, GameObjectFactory factory) {
+        if (isGameRunning()) {
+            throw new IllegalStateException("The game must be stopped to restore a snapshot");
+        }
+        reader.requireRecord(SNAPSHOT_TYPE);
+        final double timeMillis = reader.readDouble();
+        final int count = reader.readInt();
+
+        // Replace the game objects
+        for (int i = mGameObjects.size() - 1; i >= 0; i--) {
+            detachGameObject(mGameObjects.get(i));
+        }
+        mTimeMillis = timeMillis;
+        mEveryTickBucket.resetSchedule();
+        final int bucketCount = mUpdateBuckets.size();
+        for (int i = 0; i < bucketCount; i++) {
+            mUpdateBuckets.get(i).resetSchedule();
+        }
+        for (int i = 0; i < count; i++) {
+            if (!reader.nextRecord()) {
+                throw new IllegalArgumentException("Missing game object " + i + " of " + count);
+            }
+            final GameObject gameObject = factory.newGameObject(reader.getRecordType());
+            if (gameObject != null) {
+                gameObject.restoreSnapshot(reader, reader.getRecordVersion());
+                attachGameObject(gameObject);
+            }
+        }
+        postNotifications();
+    }
+}
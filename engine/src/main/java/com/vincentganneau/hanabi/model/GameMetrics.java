@@ -0,0 +1,230 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Frame-time metrics of a {@link GameEngine}, recorded without allocation for every phase of the game loop.
+ * <p>
+ * Every histogram is written by a single thread: the update thread and the draw thread keep their own histograms of
+ * the time they spend sleeping and paused.
+ * </p>
+ * @author Vincent Ganneau
+ * @see GameEngine#getMetrics()
+ */
+public class GameMetrics {
+
+    // Time
+    /**
+     * The number of nanoseconds in a second.
+     */
+    private static final double NANOS_PER_SECOND = 1000000000d;
+
+    // Phases
+    /**
+     * The time spent updating the game objects and the component systems.
+     */
+    public final LatencyHistogram mUpdate = new LatencyHistogram();
+    /**
+     * The time spent adding and removing game objects at the end of an update.
+     */
+    public final LatencyHistogram mApply = new LatencyHistogram();
+    /**
+     * The time spent posting a frame to the {@link Dispatcher}.
+     */
+    public final LatencyHistogram mDrawPost = new LatencyHistogram();
+    /**
+     * The time between posting a frame and the start of its rendering.
+     */
+    public final LatencyHistogram mDrawLatency = new LatencyHistogram();
+    /**
+     * The time spent rendering a frame.
+     */
+    public final LatencyHistogram mDrawExecute = new LatencyHistogram();
+    /**
+     * The time the update thread spends sleeping between fixed time steps.
+     */
+    public final LatencyHistogram mUpdateSleep = new LatencyHistogram();
+    /**
+     * The time the update thread spends waiting while the game is paused.
+     */
+    public final LatencyHistogram mUpdatePause = new LatencyHistogram();
+    /**
+     * The time the draw thread spends sleeping between frames.
+     */
+    public final LatencyHistogram mDrawSleep = new LatencyHistogram();
+    /**
+     * The time the draw thread spends waiting while the game is paused.
+     */
+    public final LatencyHistogram mDrawPause = new LatencyHistogram();
+    /**
+     * The time the update thread spends waiting while no game object needs to be updated.
+     */
+    public final LatencyHistogram mIdle = new LatencyHistogram();
+
+    // Counters
+    /**
+     * The number of updates.
+     */
+    private final AtomicLong mTickCount = new AtomicLong();
+    /**
+     * The time of the first update since the latest reset.
+     */
+    private volatile long mFirstTickNanos;
+    /**
+     * The time of the latest update.
+     */
+    private volatile long mLastTickNanos;
+    /**
+     * The number of rendered frames.
+     */
+    private final AtomicLong mFrameCount = new AtomicLong();
+    /**
+     * The number of frames that should have been rendered but were not.
+     */
+    private final AtomicLong mDroppedFrameCount = new AtomicLong();
+    /**
+     * The number of frames skipped because the previous frame was not rendered yet.
+     */
+    private final AtomicLong mSkippedFrameCount = new AtomicLong();
+    /**
+     * The time of the latest rendered frame.
+     */
+    private volatile long mLastFrameNanos;
+    /**
+     * Indicates whether frames have been left out on purpose since the latest rendered frame.
+     */
+    private volatile boolean mFrameIdle;
+    /**
+     * The expected time between two frames, in nanoseconds.
+     */
+    public volatile long mFrameIntervalNanos = (long) (NANOS_PER_SECOND / 60);
+
+    // Recording
+    /**
+     * Records the end of an update.
+     * @param nanos the value of {@link System#nanoTime()} at the end of the update.
+     */
+    public void onTick(long nanos) {
+        if (mTickCount.getAndIncrement() == 0) {
+            mFirstTickNanos = nanos;
+        }
+        mLastTickNanos = nanos;
+    }
+
+    /**
+     * Records the start of a frame, counting the frames dropped since the previous one.
+     * @param nanos the value of {@link System#nanoTime()} at the start of the frame.
+     */
+    public void onFrame(long nanos) {
+        final long previousNanos = mLastFrameNanos;
+        final boolean idle = mFrameIdle;
+        mLastFrameNanos = nanos;
+        mFrameIdle = false;
+        if (mFrameCount.getAndIncrement() > 0 && !idle) {
+            final long intervalNanos = mFrameIntervalNanos;
+            final long missedFrames = (nanos - previousNanos + intervalNanos / 2) / intervalNanos - 1;
+            if (missedFrames > 0) {
+                mDroppedFrameCount.addAndGet(missedFrames);
+            }
+        }
+    }
+
+    /**
+     * Records a frame left out on purpose because nothing changed, so that it is not counted as dropped.
+     */
+    public void onFrameIdle() {
+        mFrameIdle = true;
+    }
+
+    /**
+     * Records a frame skipped because the previous frame was not rendered yet.
+     */
+    public void onFrameSkipped() {
+        mSkippedFrameCount.incrementAndGet();
+    }
+
+    /**
+     * Clears every metric.
+     */
+    public void reset() {
+        mUpdate.reset();
+        mApply.reset();
+        mDrawPost.reset();
+        mDrawLatency.reset();
+        mDrawExecute.reset();
+        mUpdateSleep.reset();
+        mUpdatePause.reset();
+        mDrawSleep.reset();
+        mDrawPause.reset();
+        mIdle.reset();
+        mTickCount.set(0);
+        mFrameCount.set(0);
+        mDroppedFrameCount.set(0);
+        mSkippedFrameCount.set(0);
+        mFrameIdle = false;
+    }
+
+    // Getters
+    /**
+     * Gets the number of updates since the latest reset.
+     * @return the number of updates.
+     */
+    public long getTickCount() {
+        return mTickCount.get();
+    }
+
+    /**
+     * Gets the average number of updates per second since the latest reset.
+     * @return the tick rate, or <code>0</code> if fewer than two updates have been recorded.
+     */
+    public double getTicksPerSecond() {
+        final long count = mTickCount.get();
+        final long elapsedNanos = mLastTickNanos - mFirstTickNanos;
+        return count > 1 && elapsedNanos > 0 ? (count - 1) * NANOS_PER_SECOND / elapsedNanos : 0;
+    }
+
+    /**
+     * Gets the number of rendered frames since the latest reset.
+     * @return the number of frames.
+     */
+    public long getFrameCount() {
+        return mFrameCount.get();
+    }
+
+    /**
+     * Gets the number of dropped frames since the latest reset.
+     * <p>
+     * A frame is dropped when the time between two rendered frames spans more than one
+     * {@link #mFrameIntervalNanos}.
+     * </p>
+     * @return the number of dropped frames.
+     */
+    public long getDroppedFrameCount() {
+        return mDroppedFrameCount.get();
+    }
+
+    /**
+     * Gets the number of frames skipped since the latest reset because the previous frame was not rendered yet.
+     * @return the number of skipped frames.
+     */
+    public long getSkippedFrameCount() {
+        return mSkippedFrameCount.get();
+    }
+}
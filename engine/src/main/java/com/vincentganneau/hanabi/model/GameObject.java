@@ -0,0 +1,258 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import com.vincentganneau.hanabi.render.DrawCommandBuffer;
+import com.vincentganneau.hanabi.render.SpriteBackend;
+import com.vincentganneau.hanabi.render.SpriteRenderer;
+
+/**
+ * Abstract class for all game objects.
+ * @author Vincent Ganneau
+ */
+public abstract class GameObject {
+
+    // Update groups
+    /**
+     * The update group of objects that must be updated one after the other on the update thread.
+     */
+    public static final int UPDATE_GROUP_SEQUENTIAL = -1;
+    /**
+     * The update group of objects that can be updated in parallel with any other object.
+     */
+    public static final int UPDATE_GROUP_INDEPENDENT = 0;
+
+    // Slot
+    /**
+     * The index of the object inside {@link GameEngine#mGameObjects}, or <code>-1</code> if it is not part of the game.
+     * <p>
+     * It is written by the update thread, and read by the UI thread before releasing the object to its pool.
+     * </p>
+     */
+    volatile int mSlotIndex = -1;
+
+    // Update bucket
+    /**
+     * The bucket the object is updated from, or <code>null</code> if it is not part of the game.
+     */
+    UpdateBucket mUpdateBucket;
+    /**
+     * The phase of the object inside its bucket.
+     */
+    int mUpdatePhase;
+    /**
+     * The index of the object inside the phase of its bucket, or <code>-1</code> if it is not part of the game.
+     */
+    int mUpdateIndex = -1;
+    /**
+     * The game time of the latest update of the object, in milliseconds.
+     */
+    double mLastUpdateMillis;
+
+    // Spatial index
+    /**
+     * The entry of the object inside the spatial grid of the game engine, or <code>-1</code> if it is not indexed.
+     */
+    int mSpatialEntry = -1;
+
+    // Invalidation
+    /**
+     * Indicates whether the object must be rendered on the next frame when the game engine tracks dirty objects.
+     */
+    volatile boolean mDirty = true;
+
+    // Snapshot
+    /**
+     * The snapshot type of objects that are not saved into snapshots.
+     */
+    public static final int SNAPSHOT_TYPE_NONE = 0;
+
+    // Pool
+    /**
+     * The pool the object has been acquired from, or <code>null</code> if it does not belong to a pool.
+     */
+    volatile GameObjectPool<?> mPool;
+
+    // Callbacks
+    /**
+     * Callback invoked to initialize the object before the game can start.
+     */
+    public abstract void onGameStart();
+
+    /**
+     * Callback invoked to update the object.
+     * <p>
+     * The game engine should call this method as fast as possible, or once per tick when it runs with a fixed time
+     * step, unless the object has a lower {@link #getUpdateRate()}. With adaptive scheduling, it is not called while
+     * no game object needs to be updated.
+     * </p>
+     * @param elapsedMillis the number of milliseconds, with sub-millisecond precision, that have passed since the
+     * previous call.
+     * @param gameEngine the {@link GameEngine} instance.
+     */
+    public abstract void onUpdate(double elapsedMillis, GameEngine gameEngine);
+
+    /**
+     * Gets the update group of the object when the game engine updates objects in parallel.
+     * <p>
+     * Objects of a same positive group are updated one after the other on a single thread, in parallel with the other
+     * groups. The group must not change while the object is part of the game.
+     * </p>
+     * @return {@link #UPDATE_GROUP_SEQUENTIAL} by default, {@link #UPDATE_GROUP_INDEPENDENT} or a positive group.
+     * @see GameEngine#setParallelUpdate(int)
+     */
+    public int getUpdateGroup() {
+        return UPDATE_GROUP_SEQUENTIAL;
+    }
+
+    /**
+     * Gets the rate at which the object is updated.
+     * <p>
+     * Objects updated less often than every tick, such as background decorations, are skipped without being visited
+     * and are passed the whole time elapsed since their previous update. The rate is read when the object is added to
+     * the game, and only objects updated on every tick are updated in parallel.
+     * </p>
+     * @return {@link UpdateRate#EVERY_TICK} by default.
+     */
+    public UpdateRate getUpdateRate() {
+        return UpdateRate.EVERY_TICK;
+    }
+
+    /**
+     * Gets the bounds of the object, to be indexed by the spatial grid of the game engine.
+     * <p>
+     * The game engine calls this method after every update, so it should only copy fields.
+     * </p>
+     * @param bounds the bounds to be filled.
+     * @return <code>true</code> if the object has been filled in its bounds, <code>false</code> by default to stay out
+     * of the spatial grid.
+     * @see GameEngine#setSpatialGrid(SpatialGrid)
+     */
+    public boolean getBounds(Bounds bounds) {
+        return false;
+    }
+
+    /**
+     * Indicates whether the object needs to be updated, when the game engine runs with adaptive scheduling.
+     * <p>
+     * Objects waiting for an input or a timer should return <code>false</code>, and call
+     * {@link GameEngine#wakeUp()} or {@link GameEngine#scheduleWakeUp(long)} to be updated again.
+     * </p>
+     * @return <code>true</code> by default.
+     * @see GameEngine#setAdaptiveScheduling(boolean)
+     */
+    public boolean needsUpdate() {
+        return true;
+    }
+
+    /**
+     * Marks the object as dirty, so that it is rendered on the next frame when the game engine tracks dirty objects.
+     * <p>
+     * Objects typically call this method from {@link #onUpdate(double, GameEngine)} when their appearance changes.
+     * </p>
+     * @see GameEngine#setDirtyTrackingEnabled(boolean)
+     */
+    public void invalidate() {
+        mDirty = true;
+    }
+
+    /**
+     * Indicates whether the object must be rendered on the next frame when the game engine tracks dirty objects.
+     * @return <code>true</code> if the object has been invalidated since it was last rendered.
+     */
+    public boolean isDirty() {
+        return mDirty;
+    }
+
+    /**
+     * Gets the type of the object inside snapshots, which a {@link GameObjectFactory} maps back to its class.
+     * @return a positive type, or {@link #SNAPSHOT_TYPE_NONE} by default to leave the object out of snapshots.
+     * @see GameEngine#saveSnapshot(SnapshotWriter)
+     */
+    public int getSnapshotType() {
+        return SNAPSHOT_TYPE_NONE;
+    }
+
+    /**
+     * Gets the version of the fields written by {@link #saveSnapshot(SnapshotWriter)}, to be increased whenever fields
+     * are appended.
+     * @return <code>1</code> by default.
+     */
+    public int getSnapshotVersion() {
+        return 1;
+    }
+
+    /**
+     * Writes the state of the object into a snapshot.
+     * <p>
+     * New fields should only be appended, so that older snapshots can still be restored.
+     * </p>
+     * @param writer the writer, inside the record of the object.
+     */
+    public void saveSnapshot(SnapshotWriter writer) { }
+
+    /**
+     * Restores the state of the object from a snapshot, before it is added to the game.
+     * @param reader the reader, inside the record of the object.
+     * @param version the version of the fields of the record, see {@link #getSnapshotVersion()}.
+     */
+    public void restoreSnapshot(SnapshotReader reader, int version) { }
+
+    /**
+     * Callback invoked to render the object.
+     * <p>
+     * It is called on the UI thread while the update thread may be updating the object, so it must only read fields
+     * that do not change while the object is part of the game. Objects whose appearance changes should render through
+     * {@link #onRender(DrawCommandBuffer)} instead.
+     * </p>
+     */
+    public abstract void onDraw();
+
+    /**
+     * Callback invoked to render the object when the game engine renders with a {@link SpriteRenderer}, instead of
+     * {@link #onDraw()}.
+     * <p>
+     * It is called on the update thread after every update, and the recorded sprites are handed over to the UI thread
+     * with the snapshot of the game objects, so it can read any field written by
+     * {@link #onUpdate(double, GameEngine)}.
+     * </p>
+     * @param commands the buffer the sprites of the object are recorded into.
+     * @see GameEngine#setSpriteRenderer(SpriteRenderer, SpriteBackend)
+     */
+    public void onRender(DrawCommandBuffer commands) { }
+
+    /**
+     * Callback invoked when the object is added to the game.
+     */
+    public void onAddedToGameUiThread() { }
+
+    /**
+     * Callback invoked when the object is removed from the game.
+     */
+    public void onRemovedFromGameUiThread() { }
+
+    /**
+     * Callback invoked when the object is acquired from a {@link GameObjectPool}, before it is added to the game.
+     */
+    public void onAcquiredFromPool() { }
+
+    /**
+     * Callback invoked when the object is released to a {@link GameObjectPool}, to reset its state.
+     */
+    public void onReleasedToPool() { }
+}
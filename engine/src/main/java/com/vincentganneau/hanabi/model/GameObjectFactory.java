@@ -0,0 +1,35 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+/**
+ * Interface for the factories recreating game objects when a snapshot is restored, without reflection.
+ * @author Vincent Ganneau
+ * @see GameEngine#restoreSnapshot(SnapshotReader, GameObjectFactory)
+ */
+public interface GameObjectFactory {
+
+    /**
+     * Creates an empty game object of a given snapshot type, to be filled by
+     * {@link GameObject#restoreSnapshot(SnapshotReader, int)}.
+     * @param snapshotType the type returned by {@link GameObject#getSnapshotType()} when the snapshot was saved.
+     * @return the game object, which may come from a {@link GameObjectPool}, or <code>null</code> to skip objects of an
+     * unknown type.
+     */
+    GameObject newGameObject(int snapshotType);
+}
@@ -0,0 +1,132 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import java.util.Arrays;
+
+/**
+ * Abstract class for pools of game objects of a given type.
+ * <p>
+ * A game object acquired from a pool goes back to it once it has been removed from the game and
+ * {@link GameObject#onRemovedFromGameUiThread()} has been called, so spawning and despawning game objects does not
+ * allocate once the pool is warm. {@link GameObject#onAcquiredFromPool()} and {@link GameObject#onReleasedToPool()}
+ * are the places to reset the state of a reused game object.
+ * </p>
+ * <p>
+ * Pools can be used from any thread.
+ * </p>
+ * @param <T> the type of the game objects.
+ * @author Vincent Ganneau
+ * @see GameEngine#spawnGameObject(GameObjectPool)
+ */
+public abstract class GameObjectPool<T extends GameObject> {
+
+    // Free game objects
+    /**
+     * The game objects that can be acquired.
+     */
+    private GameObject[] mFreeGameObjects = new GameObject[16];
+    /**
+     * The number of game objects that can be acquired.
+     */
+    private int mFreeCount;
+
+    // Factory
+    /**
+     * Creates a new game object when the pool is empty.
+     * @return the new game object.
+     */
+    protected abstract T newGameObject();
+
+    // Getters
+    /**
+     * Gets the number of game objects that can be acquired without allocating.
+     * @return the number of free game objects.
+     */
+    public synchronized int getFreeCount() {
+        return mFreeCount;
+    }
+
+    // Pool
+    /**
+     * Creates game objects until the pool holds the given number of free game objects.
+     * @param count the number of free game objects.
+     */
+    public void prefill(int count) {
+        while (getFreeCount() < count) {
+            push(newGameObject());
+        }
+    }
+
+    /**
+     * Acquires a game object from the pool, or creates a new one if the pool is empty.
+     * @return the game object.
+     */
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        T gameObject = null;
+        synchronized (this) {
+            if (mFreeCount > 0) {
+                gameObject = (T) mFreeGameObjects[--mFreeCount];
+                mFreeGameObjects[mFreeCount] = null;
+            }
+        }
+        if (gameObject == null) {
+            gameObject = newGameObject();
+        }
+        gameObject.mPool = this;
+        gameObject.onAcquiredFromPool();
+        return gameObject;
+    }
+
+    /**
+     * Releases a game object that is not part of the game back to the pool.
+     * <p>
+     * Game objects acquired from the pool are released automatically when they are removed from the game. Releasing
+     * a game object that has not been acquired from this pool has no effect.
+     * </p>
+     * @param gameObject the game object.
+     */
+    public void release(T gameObject) {
+        recycle(gameObject);
+    }
+
+    /**
+     * Releases a game object back to the pool.
+     * @param gameObject the game object.
+     */
+    void recycle(GameObject gameObject) {
+        if (gameObject.mPool != this) {
+            return;
+        }
+        gameObject.mPool = null;
+        gameObject.onReleasedToPool();
+        push(gameObject);
+    }
+
+    /**
+     * Pushes a game object on the stack of free game objects.
+     * @param gameObject the game object.
+     */
+    private synchronized void push(GameObject gameObject) {
+        if (mFreeCount == mFreeGameObjects.length) {
+            mFreeGameObjects = Arrays.copyOf(mFreeGameObjects, mFreeCount * 2);
+        }
+        mFreeGameObjects[mFreeCount++] = gameObject;
+    }
+}
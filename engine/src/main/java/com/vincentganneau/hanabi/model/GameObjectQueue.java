@@ -0,0 +1,148 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import java.util.Arrays;
+
+/**
+ * Queue of game objects that any number of threads can fill and a single consumer thread drains in batches.
+ * <p>
+ * Offering a game object and draining the whole queue both run in constant time: draining swaps the array filled by
+ * the producers with the one previously drained by the consumer, so no allocation happens once both arrays are large
+ * enough.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public class GameObjectQueue {
+
+    // Arrays
+    /**
+     * The game objects offered since the previous call to {@link #drain()}.
+     */
+    private GameObject[] mPending = new GameObject[16];
+    /**
+     * The tags of the game objects offered since the previous call to {@link #drain()}.
+     */
+    private int[] mPendingTags = new int[16];
+    /**
+     * The number of game objects offered since the previous call to {@link #drain()}.
+     */
+    private int mPendingCount;
+    /**
+     * The game objects returned by the latest call to {@link #drain()}.
+     */
+    private GameObject[] mDrained = new GameObject[16];
+    /**
+     * The tags of the game objects returned by the latest call to {@link #drain()}.
+     */
+    private int[] mDrainedTags = new int[16];
+    /**
+     * The number of game objects returned by the latest call to {@link #drain()}.
+     */
+    private int mDrainedCount;
+
+    // Getters
+    /**
+     * Gets the number of game objects waiting in the queue.
+     * @return the number of game objects offered since the previous call to {@link #drain()}.
+     */
+    public synchronized int size() {
+        return mPendingCount;
+    }
+
+    /**
+     * Indicates whether the queue is empty.
+     * @return <code>true</code> if no game object has been offered since the previous call to {@link #drain()}.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Gets a game object returned by the latest call to {@link #drain()}.
+     * @param index the index of the game object, in the order they were offered.
+     * @return the game object.
+     */
+    public GameObject getDrained(int index) {
+        return mDrained[index];
+    }
+
+    /**
+     * Gets the tag of a game object returned by the latest call to {@link #drain()}.
+     * @param index the index of the game object, in the order they were offered.
+     * @return the tag the game object has been offered with.
+     */
+    public int getDrainedTag(int index) {
+        return mDrainedTags[index];
+    }
+
+    // Producers
+    /**
+     * Adds a game object at the end of the queue.
+     * <p>
+     * This method can be called from any thread.
+     * </p>
+     * @param gameObject the game object.
+     */
+    public void offer(GameObject gameObject) {
+        offer(gameObject, 0);
+    }
+
+    /**
+     * Adds a game object at the end of the queue, along with a tag telling the consumer what happened to it.
+     * <p>
+     * This method can be called from any thread.
+     * </p>
+     * @param gameObject the game object.
+     * @param tag the tag.
+     */
+    public synchronized void offer(GameObject gameObject, int tag) {
+        if (mPendingCount == mPending.length) {
+            mPending = Arrays.copyOf(mPending, mPendingCount * 2);
+            mPendingTags = Arrays.copyOf(mPendingTags, mPendingCount * 2);
+        }
+        mPendingTags[mPendingCount] = tag;
+        mPending[mPendingCount++] = gameObject;
+    }
+
+    // Consumer
+    /**
+     * Removes all the game objects from the queue, making them available through {@link #getDrained(int)}.
+     * <p>
+     * This method must always be called from the same thread.
+     * </p>
+     * @return the number of game objects drained.
+     */
+    public int drain() {
+        // Release the game objects of the previous batch
+        final GameObject[] drained = mDrained;
+        final int[] drainedTags = mDrainedTags;
+        Arrays.fill(drained, 0, mDrainedCount, null);
+
+        // Swap the arrays
+        synchronized (this) {
+            mDrained = mPending;
+            mDrainedTags = mPendingTags;
+            mDrainedCount = mPendingCount;
+            mPending = drained;
+            mPendingTags = drainedTags;
+            mPendingCount = 0;
+        }
+        return mDrainedCount;
+    }
+}
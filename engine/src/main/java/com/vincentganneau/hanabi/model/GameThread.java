@@ -0,0 +1,363 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import android.support.annotation.VisibleForTesting;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Abstract {@link Thread} subclass for game threads.
+ * <p>
+ * The thread reads the time from its own {@link Clock}: the update thread follows the clock of its game engine, which
+ * lets a {@link VirtualClock} run the game loop faster than real time, while the draw thread always follows real time
+ * so that drawing frames never moves the simulated time.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public abstract class GameThread extends Thread {
+
+    // Time
+    /**
+     * The number of nanoseconds in a millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1000000d;
+
+    // Dependencies
+    /**
+     * The game engine.
+     */
+    protected final GameEngine mGameEngine;
+    /**
+     * The clock the thread reads the time from and waits on.
+     */
+    @VisibleForTesting
+    public final Clock mClock;
+
+    // States
+    /**
+     * Indicates whether the game is running.
+     */
+    public volatile boolean mGameRunning;
+    /**
+     * Indicates whether the game is paused.
+     */
+    public volatile boolean mGamePaused;
+
+    // Lock
+    /**
+     * The lock for the thread to wait until the game is resumed or has work to do.
+     */
+    protected final ReentrantLock mLock = new ReentrantLock();
+    /**
+     * The condition signalled when the game is resumed, stopped or woken up.
+     */
+    protected final Condition mWakeUpCondition = mLock.newCondition();
+    /**
+     * Indicates whether the thread has been asked to run an update even though it is idle. Guarded by {@link #mLock}.
+     */
+    private boolean mWakeUpRequested;
+    /**
+     * Indicates whether a timed wake-up is scheduled. Guarded by {@link #mLock}.
+     */
+    private boolean mWakeUpScheduled;
+    /**
+     * The time of the scheduled wake-up on {@link #mClock}. Guarded by {@link #mLock}.
+     */
+    private long mWakeUpNanos;
+
+    // Time step
+    /**
+     * The duration of a fixed time step in nanoseconds, or <code>0</code> if the thread runs with a variable time step.
+     */
+    public final long mFixedStepNanos;
+    /**
+     * The duration of a fixed time step in milliseconds, as passed to {@link #update(double)}.
+     */
+    public final double mFixedStepMillis;
+    /**
+     * The maximum number of fixed time steps fired in a row to catch up with the clock.
+     */
+    public final int mMaxCatchUpSteps;
+
+    // Constructors
+    /**
+     * Creates a new {@link GameThread} that runs with a variable time step.
+     * @param gameEngine the {@link GameEngine} instance.
+     * @param clock the clock the thread reads the time from and waits on.
+     */
+    protected GameThread(GameEngine gameEngine, Clock clock) {
+        super();
+        mGameEngine = gameEngine;
+        mClock = clock;
+        mFixedStepNanos = 0;
+        mFixedStepMillis = 0;
+        mMaxCatchUpSteps = 0;
+    }
+
+    /**
+     * Creates a new {@link GameThread} that runs with a fixed time step.
+     * <p>
+     * When the thread falls behind by more than <code>maxCatchUpSteps</code> steps, the remaining time is dropped
+     * so that a single stall does not turn into a burst of updates.
+     * </p>
+     * @param gameEngine the {@link GameEngine} instance.
+     * @param clock the clock the thread reads the time from and waits on.
+     * @param ticksPerSecond the number of updates per second.
+     * @param maxCatchUpSteps the maximum number of updates fired in a row to catch up with the clock.
+     */
+    protected GameThread(GameEngine gameEngine, Clock clock, int ticksPerSecond, int maxCatchUpSteps) {
+        super();
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("ticksPerSecond must be positive: " + ticksPerSecond);
+        }
+        if (maxCatchUpSteps <= 0) {
+            throw new IllegalArgumentException("maxCatchUpSteps must be positive: " + maxCatchUpSteps);
+        }
+        mGameEngine = gameEngine;
+        mClock = clock;
+        mFixedStepNanos = 1000000000L / ticksPerSecond;
+        mFixedStepMillis = mFixedStepNanos / NANOS_PER_MILLI;
+        mMaxCatchUpSteps = maxCatchUpSteps;
+    }
+
+    // Game loop
+    /**
+     * Fires an update inside the game loop.
+     * @param elapsedMillis the number of milliseconds, with sub-millisecond precision, that have passed since the
+     * previous call.
+     */
+    public abstract void update(double elapsedMillis);
+
+    /**
+     * Gets the histogram of the time the thread spends sleeping between fixed time steps, only written by the thread.
+     * @param metrics the metrics of the game engine.
+     * @return the histogram.
+     */
+    protected abstract LatencyHistogram getSleepHistogram(GameMetrics metrics);
+
+    /**
+     * Gets the histogram of the time the thread spends waiting while the game is paused, only written by the thread.
+     * @param metrics the metrics of the game engine.
+     * @return the histogram.
+     */
+    protected abstract LatencyHistogram getPauseHistogram(GameMetrics metrics);
+
+    /**
+     * Indicates whether the thread has nothing to update, in which case it blocks until it is woken up.
+     * @return <code>true</code> if the thread can wait, <code>false</code> to keep running updates.
+     * @see #wakeUp()
+     * @see #scheduleWakeUp(long)
+     */
+    protected boolean isIdle() {
+        return false;
+    }
+
+    @Override
+    public void run() {
+        long previousTimeNanos = mClock.nanoTime();
+        long currentTimeNanos;
+        long elapsedNanos;
+        long accumulatedNanos = 0;
+        while (mGameRunning) {
+            // Handle pause and idleness
+            if (mGamePaused || isIdle()) {
+                final boolean paused = mGamePaused;
+                final long waitNanos = mClock.nanoTime();
+                awaitWakeUp();
+                currentTimeNanos = mClock.nanoTime();
+                final GameMetrics metrics = mGameEngine.getMetrics();
+                (paused ? getPauseHistogram(metrics) : metrics.mIdle).record(currentTimeNanos - waitNanos);
+
+                if (!mGameRunning || mGamePaused) {
+                    continue;
+                }
+
+                // Restart the clock so that the time spent waiting is not simulated, and update right away
+                previousTimeNanos = currentTimeNanos;
+                accumulatedNanos = mFixedStepNanos;
+            }
+
+            // Get the current time
+            currentTimeNanos = mClock.nanoTime();
+
+            // Calculate the elapsed nanoseconds since the previous run
+            elapsedNanos = currentTimeNanos - previousTimeNanos;
+
+            // Fire updates
+            if (mFixedStepNanos > 0) {
+                accumulatedNanos = fixedUpdate(accumulatedNanos + elapsedNanos);
+            } else {
+                update(elapsedNanos / NANOS_PER_MILLI);
+            }
+
+            // Store the current time
+            previousTimeNanos = currentTimeNanos;
+        }
+    }
+
+    /**
+     * Fires as many fixed time step updates as the accumulated time allows, then parks the thread until the next
+     * step is due.
+     * @param accumulatedNanos the number of nanoseconds that have not been simulated yet.
+     * @return the number of nanoseconds left to be simulated.
+     */
+    private long fixedUpdate(long accumulatedNanos) {
+        int steps = 0;
+        while (accumulatedNanos >= mFixedStepNanos && steps < mMaxCatchUpSteps) {
+            update(mFixedStepMillis);
+            accumulatedNanos -= mFixedStepNanos;
+            steps++;
+        }
+
+        // Drop the time we could not catch up with
+        if (accumulatedNanos >= mFixedStepNanos) {
+            accumulatedNanos %= mFixedStepNanos;
+        }
+
+        // Wait for the next step instead of spinning on empty iterations
+        if (mGameRunning && !mGamePaused) {
+            final long sleepNanos = mClock.nanoTime();
+            mClock.parkNanos(this, mFixedStepNanos - accumulatedNanos);
+            getSleepHistogram(mGameEngine.getMetrics()).record(mClock.nanoTime() - sleepNanos);
+        }
+        return accumulatedNanos;
+    }
+
+    // Game lifecycle
+    /**
+     * Starts the game.
+     */
+    public void startGame() {
+        mGameRunning = true;
+        mGamePaused = false;
+        start();
+    }
+
+    /**
+     * Resumes the game.
+     */
+    public void resumeGame() {
+        if (mGamePaused) {
+            mGamePaused = false;
+            signalWakeUp();
+        }
+    }
+
+    /**
+     * Pauses the game.
+     */
+    public void pauseGame() {
+        mGamePaused = true;
+    }
+
+    /**
+     * Stops the game.
+     */
+    public void stopGame() {
+        mGameRunning = false;
+        resumeGame();
+        signalWakeUp();
+    }
+
+    // Wake-ups
+    /**
+     * Makes an idle thread run an update, typically after an input or after work has been queued.
+     * <p>
+     * A paused thread stays paused.
+     * </p>
+     */
+    public void wakeUp() {
+        mLock.lock();
+        try {
+            mWakeUpRequested = true;
+            mWakeUpCondition.signal();
+        } finally {
+            mLock.unlock();
+        }
+    }
+
+    /**
+     * Makes an idle thread run an update after a delay, typically to fire a timer.
+     * <p>
+     * When several wake-ups are scheduled, the earliest one wins and the others are dropped once it has fired.
+     * </p>
+     * @param delayNanos the delay in nanoseconds.
+     */
+    public void scheduleWakeUp(long delayNanos) {
+        final long wakeUpNanos = mClock.nanoTime() + delayNanos;
+        mLock.lock();
+        try {
+            if (!mWakeUpScheduled || wakeUpNanos - mWakeUpNanos < 0) {
+                mWakeUpScheduled = true;
+                mWakeUpNanos = wakeUpNanos;
+                mWakeUpCondition.signal();
+            }
+        } finally {
+            mLock.unlock();
+        }
+    }
+
+    // Lock methods
+    /**
+     * Blocks until the game is resumed or stopped, or, when the thread is idle, until it is woken up or its scheduled
+     * wake-up is due.
+     * <p>
+     * The state is checked while holding the lock, so a signal sent before the thread starts waiting is never lost.
+     * </p>
+     */
+    @VisibleForTesting
+    public void awaitWakeUp() {
+        mLock.lock();
+        try {
+            while (mGameRunning && (mGamePaused || (!mWakeUpRequested && isIdle()))) {
+                try {
+                    if (mGamePaused || !mWakeUpScheduled) {
+                        mWakeUpCondition.await();
+                    } else {
+                        final long remainingNanos = mWakeUpNanos - mClock.nanoTime();
+                        if (remainingNanos <= 0) {
+                            mWakeUpScheduled = false;
+                            break;
+                        }
+                        mClock.awaitNanos(mWakeUpCondition, remainingNanos);
+                    }
+                } catch (InterruptedException e) {
+                    // Stay on the loop.
+                }
+            }
+            mWakeUpRequested = false;
+        } finally {
+            mLock.unlock();
+        }
+    }
+
+    /**
+     * Signals the thread waiting in {@link #awaitWakeUp()} so that it checks its state again.
+     */
+    @VisibleForTesting
+    public void signalWakeUp() {
+        mLock.lock();
+        try {
+            mWakeUpCondition.signal();
+        } finally {
+            mLock.unlock();
+        }
+    }
+}
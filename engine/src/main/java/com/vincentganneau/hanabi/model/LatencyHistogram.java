@@ -0,0 +1,159 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of durations in nanoseconds, with a bounded relative error and no allocation when recording.
+ * <p>
+ * Durations below 16 ns have their own bucket, then every power of two is split into 16 buckets, so percentiles are
+ * accurate to about 6%. Any thread can record durations while another thread reads percentiles.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public class LatencyHistogram {
+
+    // Buckets
+    /**
+     * The number of bits used to split every power of two into sub-buckets.
+     */
+    private static final int SUB_BUCKET_BITS = 4;
+    /**
+     * The number of sub-buckets per power of two.
+     */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    /**
+     * The number of buckets needed to hold any positive long value.
+     */
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+    /**
+     * The number of durations recorded in every bucket.
+     */
+    private final AtomicLongArray mBuckets = new AtomicLongArray(BUCKET_COUNT);
+
+    // Statistics
+    /**
+     * The number of durations recorded.
+     */
+    private final AtomicLong mCount = new AtomicLong();
+    /**
+     * The longest duration recorded.
+     */
+    private final AtomicLong mMax = new AtomicLong();
+
+    // Recording
+    /**
+     * Records a duration.
+     * @param nanos the duration in nanoseconds, negative durations being recorded as <code>0</code>.
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        mBuckets.incrementAndGet(indexOf(nanos));
+        mCount.incrementAndGet();
+        long max = mMax.get();
+        while (nanos > max && !mMax.compareAndSet(max, nanos)) {
+            max = mMax.get();
+        }
+    }
+
+    /**
+     * Clears every recorded duration.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            mBuckets.set(i, 0);
+        }
+        mCount.set(0);
+        mMax.set(0);
+    }
+
+    // Getters
+    /**
+     * Gets the number of durations recorded.
+     * @return the number of durations.
+     */
+    public long getCount() {
+        return mCount.get();
+    }
+
+    /**
+     * Gets the longest duration recorded.
+     * @return the longest duration in nanoseconds, or <code>0</code> if nothing has been recorded.
+     */
+    public long getMax() {
+        return mMax.get();
+    }
+
+    /**
+     * Gets a percentile of the recorded durations.
+     * @param percentile the percentile, between <code>0</code> and <code>100</code>.
+     * @return the smallest duration in nanoseconds such that the given percentage of recorded durations are lower or
+     * equal, or <code>0</code> if nothing has been recorded.
+     */
+    public long getPercentile(double percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += mBuckets.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100));
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            count += mBuckets.get(i);
+            if (count >= rank) {
+                return Math.min(highestValueOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    // Indices
+    /**
+     * Gets the index of the bucket holding a value.
+     * @param value the positive value.
+     * @return the index of the bucket.
+     */
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * Gets the highest value held by a bucket.
+     * @param index the index of the bucket.
+     * @return the highest value.
+     */
+    static long highestValueOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        final int shift = index / SUB_BUCKET_COUNT - 1;
+        final long lowest = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
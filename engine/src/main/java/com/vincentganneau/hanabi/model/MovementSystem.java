@@ -0,0 +1,39 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+/**
+ * {@link ComponentSystem} that moves every entity according to its velocity.
+ * @author Vincent Ganneau
+ */
+public class MovementSystem implements ComponentSystem {
+
+    @Override
+    public void onUpdate(double elapsedMillis, ComponentStore componentStore) {
+        final int count = componentStore.getCount();
+        final float elapsed = (float) elapsedMillis;
+        final float[] positionX = componentStore.mPositionX;
+        final float[] positionY = componentStore.mPositionY;
+        final float[] velocityX = componentStore.mVelocityX;
+        final float[] velocityY = componentStore.mVelocityY;
+        for (int i = 0; i < count; i++) {
+            positionX[i] += velocityX[i] * elapsed;
+            positionY[i] += velocityY[i] * elapsed;
+        }
+    }
+}
@@ -0,0 +1,384 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import android.support.annotation.VisibleForTesting;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Updates the game objects on a pool of worker threads.
+ * <p>
+ * Game objects are split according to {@link GameObject#getUpdateGroup()}: independent game objects are cut into
+ * chunks, every update group forms a single unit of work, and sequential game objects are updated on the calling
+ * thread once all the units are done. Workers and the calling thread claim units one at a time, so a thread that
+ * runs out of work keeps taking units from the slower ones.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public class ParallelUpdater {
+
+    // Chunks
+    /**
+     * The minimal number of independent game objects in a unit of work.
+     */
+    private static final int MIN_CHUNK_SIZE = 64;
+    /**
+     * The number of units of work per thread for independent game objects, to balance the load between threads.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+    /**
+     * The comparator sorting game objects by update group.
+     */
+    private static final Comparator<GameObject> UPDATE_GROUP_COMPARATOR =
+            (first, second) -> Integer.compare(first.getUpdateGroup(), second.getUpdateGroup());
+
+    // Dependencies
+    /**
+     * The game engine.
+     */
+    private final GameEngine mGameEngine;
+
+    // Workers
+    /**
+     * The worker threads.
+     */
+    @VisibleForTesting
+    public final Thread[] mWorkers;
+    /**
+     * The lock for the workers to wait for a new update and for the calling thread to wait for the workers.
+     */
+    private final Object mLock = new Object();
+    /**
+     * The generation of the latest update, guarded by {@link #mLock}.
+     */
+    private int mGeneration;
+    /**
+     * Indicates whether the workers are running.
+     */
+    private volatile boolean mRunning = true;
+
+    // Partition
+    /**
+     * Indicates whether the partition of the game objects must be computed again before the next update.
+     */
+    private boolean mPartitionInvalid = true;
+    /**
+     * The independent game objects followed by the grouped game objects sorted by update group.
+     */
+    private GameObject[] mParallelObjects = new GameObject[0];
+    /**
+     * The game objects to be updated on the calling thread.
+     */
+    private GameObject[] mSequentialObjects = new GameObject[0];
+    /**
+     * The number of game objects to be updated on the calling thread.
+     */
+    private int mSequentialCount;
+    /**
+     * The index of the first game object of each unit of work inside {@link #mParallelObjects}.
+     */
+    private int[] mUnitStarts = new int[0];
+    /**
+     * The index after the last game object of each unit of work inside {@link #mParallelObjects}.
+     */
+    private int[] mUnitEnds = new int[0];
+    /**
+     * The number of units of work.
+     */
+    private int mUnitCount;
+
+    // Current update
+    /**
+     * The number of milliseconds passed to the game objects during the current update.
+     */
+    private volatile double mElapsedMillis;
+    /**
+     * The generation of the current update in the high 32 bits and the index of the next unit of work to be claimed
+     * in the low 32 bits.
+     */
+    private final AtomicLong mCursor = new AtomicLong(Integer.MAX_VALUE);
+    /**
+     * The number of units of work done during the current update.
+     */
+    private final AtomicInteger mCompletedUnits = new AtomicInteger();
+    /**
+     * The first failure thrown by a game object during the current update.
+     */
+    private volatile Throwable mFailure;
+
+    // Constructor
+    /**
+     * Creates a new {@link ParallelUpdater} and starts its worker threads.
+     * @param gameEngine the {@link GameEngine} instance.
+     * @param parallelism the number of threads updating the game objects, including the calling thread.
+     */
+    public ParallelUpdater(GameEngine gameEngine, int parallelism) {
+        if (parallelism < 2) {
+            throw new IllegalArgumentException("parallelism must be at least 2: " + parallelism);
+        }
+        mGameEngine = gameEngine;
+        mWorkers = new Thread[parallelism - 1];
+        for (int i = 0; i < mWorkers.length; i++) {
+            mWorkers[i] = new Thread(this::runWorker, "ParallelUpdater-" + i);
+            mWorkers[i].setDaemon(true);
+            mWorkers[i].start();
+        }
+    }
+
+    // Getters
+    /**
+     * Gets the number of threads updating the game objects.
+     * @return the number of worker threads plus the calling thread.
+     */
+    public int getParallelism() {
+        return mWorkers.length + 1;
+    }
+
+    // Update
+    /**
+     * Marks the partition of the game objects as invalid, after game objects have been added or removed.
+     */
+    public void invalidate() {
+        mPartitionInvalid = true;
+    }
+
+    /**
+     * Updates the game objects and returns once all of them have been updated.
+     * <p>
+     * This method must always be called from the same thread.
+     * </p>
+     * @param gameObjects the game objects.
+     * @param elapsedMillis the number of milliseconds that have passed since the previous update.
+     */
+    public void update(List<GameObject> gameObjects, double elapsedMillis) {
+        if (mPartitionInvalid) {
+            partition(gameObjects);
+            mPartitionInvalid = false;
+        }
+
+        // Update the game objects that can be updated in parallel
+        if (mUnitCount == 1) {
+            updateRange(mUnitStarts[0], mUnitEnds[0], elapsedMillis);
+        } else if (mUnitCount > 1) {
+            updateUnits(elapsedMillis);
+        }
+
+        // Update the game objects that must be updated sequentially
+        final int count = mSequentialCount;
+        for (int i = 0; i < count; i++) {
+            mSequentialObjects[i].onUpdate(elapsedMillis, mGameEngine);
+        }
+    }
+
+    /**
+     * Stops the worker threads, after which the game objects are only updated on the calling thread.
+     */
+    public void shutdown() {
+        synchronized (mLock) {
+            mRunning = false;
+            mLock.notifyAll();
+        }
+    }
+
+    /**
+     * Wakes the workers up, helps them, then waits for every unit of work to be done.
+     * @param elapsedMillis the number of milliseconds that have passed since the previous update.
+     */
+    private void updateUnits(double elapsedMillis) {
+        // Open a new generation, only written by the calling thread
+        final int generation = mGeneration + 1;
+        mElapsedMillis = elapsedMillis;
+        mCompletedUnits.set(0);
+        mCursor.set((long) generation << 32);
+        synchronized (mLock) {
+            mGeneration = generation;
+            mLock.notifyAll();
+        }
+
+        // Help the workers
+        runUnits(generation);
+
+        // Wait for the workers
+        synchronized (mLock) {
+            while (mCompletedUnits.get() < mUnitCount) {
+                try {
+                    mLock.wait();
+                } catch (InterruptedException e) {
+                    // Stay on the loop.
+                }
+            }
+        }
+
+        // Close the generation so that late workers cannot claim units of the next partition
+        mCursor.set(((long) generation << 32) | Integer.MAX_VALUE);
+
+        // Propagate failures to the calling thread
+        final Throwable failure = mFailure;
+        if (failure != null) {
+            mFailure = null;
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            throw new RuntimeException(failure);
+        }
+    }
+
+    /**
+     * Claims and runs units of work until none is left for the given generation.
+     * @param generation the generation of the update.
+     */
+    private void runUnits(int generation) {
+        while (true) {
+            final long cursor = mCursor.get();
+            final int unit = (int) cursor;
+            if ((int) (cursor >>> 32) != generation || unit >= mUnitCount) {
+                return;
+            }
+            if (!mCursor.compareAndSet(cursor, cursor + 1)) {
+                continue;
+            }
+            try {
+                updateRange(mUnitStarts[unit], mUnitEnds[unit], mElapsedMillis);
+            } catch (Throwable t) {
+                if (mFailure == null) {
+                    mFailure = t;
+                }
+            } finally {
+                if (mCompletedUnits.incrementAndGet() == mUnitCount) {
+                    synchronized (mLock) {
+                        mLock.notifyAll();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates a range of {@link #mParallelObjects}.
+     * @param start the index of the first game object.
+     * @param end the index after the last game object.
+     * @param elapsedMillis the number of milliseconds that have passed since the previous update.
+     */
+    private void updateRange(int start, int end, double elapsedMillis) {
+        for (int i = start; i < end; i++) {
+            mParallelObjects[i].onUpdate(elapsedMillis, mGameEngine);
+        }
+    }
+
+    /**
+     * The loop run by every worker thread.
+     */
+    private void runWorker() {
+        int generation = 0;
+        while (true) {
+            synchronized (mLock) {
+                while (mRunning && mGeneration == generation) {
+                    try {
+                        mLock.wait();
+                    } catch (InterruptedException e) {
+                        // Stay on the loop.
+                    }
+                }
+                if (!mRunning) {
+                    return;
+                }
+                generation = mGeneration;
+            }
+            runUnits(generation);
+        }
+    }
+
+    // Partition
+    /**
+     * Splits the game objects into units of work.
+     * @param gameObjects the game objects.
+     */
+    private void partition(List<GameObject> gameObjects) {
+        final int count = gameObjects.size();
+        if (mParallelObjects.length < count) {
+            mParallelObjects = new GameObject[count];
+            mSequentialObjects = new GameObject[count];
+        } else {
+            Arrays.fill(mParallelObjects, null);
+            Arrays.fill(mSequentialObjects, null);
+        }
+
+        // Put independent game objects first, then grouped game objects
+        int independentCount = 0;
+        int parallelCount = 0;
+        mSequentialCount = 0;
+        for (int i = 0; i < count; i++) {
+            final GameObject gameObject = gameObjects.get(i);
+            final int group = gameObject.getUpdateGroup();
+            if (group == GameObject.UPDATE_GROUP_SEQUENTIAL) {
+                mSequentialObjects[mSequentialCount++] = gameObject;
+            } else {
+                mParallelObjects[parallelCount++] = gameObject;
+            }
+        }
+        for (int i = 0; i < parallelCount; i++) {
+            if (mParallelObjects[i].getUpdateGroup() == GameObject.UPDATE_GROUP_INDEPENDENT) {
+                final GameObject independent = mParallelObjects[i];
+                mParallelObjects[i] = mParallelObjects[independentCount];
+                mParallelObjects[independentCount++] = independent;
+            }
+        }
+        Arrays.sort(mParallelObjects, independentCount, parallelCount, UPDATE_GROUP_COMPARATOR);
+
+        // Cut independent game objects into chunks
+        final int chunkSize = Math.max(MIN_CHUNK_SIZE,
+                (independentCount + getParallelism() * CHUNKS_PER_THREAD - 1) / (getParallelism() * CHUNKS_PER_THREAD));
+        mUnitCount = 0;
+        for (int start = 0; start < independentCount; start += chunkSize) {
+            addUnit(start, Math.min(start + chunkSize, independentCount));
+        }
+
+        // Keep every update group in a single unit
+        int start = independentCount;
+        for (int i = independentCount + 1; i <= parallelCount; i++) {
+            if (i == parallelCount
+                    || mParallelObjects[i].getUpdateGroup() != mParallelObjects[start].getUpdateGroup()) {
+                addUnit(start, i);
+                start = i;
+            }
+        }
+    }
+
+    /**
+     * Adds a unit of work.
+     * @param start the index of the first game object.
+     * @param end the index after the last game object.
+     */
+    private void addUnit(int start, int end) {
+        if (mUnitCount == mUnitStarts.length) {
+            mUnitStarts = Arrays.copyOf(mUnitStarts, Math.max(8, mUnitCount * 2));
+            mUnitEnds = Arrays.copyOf(mUnitEnds, mUnitStarts.length);
+        }
+        mUnitStarts[mUnitCount] = start;
+        mUnitEnds[mUnitCount] = end;
+        mUnitCount++;
+    }
+}
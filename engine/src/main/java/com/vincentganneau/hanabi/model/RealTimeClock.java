@@ -17,35 +17,28 @@
 
 package com.vincentganneau.hanabi.model;
 
-import org.junit.runner.RunWith;
-import org.junit.runners.JUnit4;
-
-import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.Mockito.atLeastOnce;
-import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.spy;
-import static org.mockito.Mockito.verify;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
 
 /**
- * Tests the {@link UpdateThread} class.
+ * {@link Clock} that follows the {@link System#nanoTime()} clock and really waits.
  * @author Vincent Ganneau
  */
-@RunWith(JUnit4.class)
-public class UpdateThreadTest extends GameThreadTest {
+public class RealTimeClock implements Clock {
 
     @Override
-    public void setUp() throws InterruptedException {
-        super.setUp();
-        mGameThread = spy(new UpdateThread(mGameEngine));
+    public long nanoTime() {
+        return System.nanoTime();
     }
 
     @Override
-    protected void verifyNeverUpdate() {
-        verify(mGameEngine, never()).updateGame(anyLong());
+    public void parkNanos(Object blocker, long nanos) {
+        LockSupport.parkNanos(blocker, nanos);
     }
 
     @Override
-    protected void verifyAtLeastOnceUpdate() {
-        verify(mGameEngine, atLeastOnce()).updateGame(anyLong());
+    public void awaitNanos(Condition condition, long nanos) throws InterruptedException {
+        condition.await(nanos, TimeUnit.NANOSECONDS);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,103 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import com.vincentganneau.hanabi.render.DrawCommandBuffer;
+import com.vincentganneau.hanabi.render.SpriteRenderer;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Snapshot of the game objects to be rendered, published by the update thread through a {@link TripleBuffer}.
+ * <p>
+ * The snapshot reuses its array from one frame to the next, so copying the game objects does not allocate once the
+ * array is large enough.
+ * </p>
+ * <p>
+ * When the game is rendered with a {@link SpriteRenderer}, the snapshot also holds the sprites recorded by the game
+ * objects on the update thread, so that the UI thread draws a copy of their state instead of reading fields the next
+ * update may be writing.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public class RenderSnapshot {
+
+    // Game objects
+    /**
+     * The game objects to be rendered.
+     */
+    private GameObject[] mGameObjects = new GameObject[16];
+    /**
+     * The number of game objects to be rendered.
+     */
+    private int mCount;
+
+    // Commands
+    /**
+     * The sprites recorded by the game objects when the snapshot was published.
+     */
+    private final DrawCommandBuffer mCommands = new DrawCommandBuffer(16);
+
+    // Getters
+    /**
+     * Gets the number of game objects to be rendered.
+     * @return the number of game objects.
+     */
+    public int getCount() {
+        return mCount;
+    }
+
+    /**
+     * Gets a game object to be rendered.
+     * @param index the index of the game object, between <code>0</code> and {@link #getCount()} excluded.
+     * @return the game object.
+     */
+    public GameObject get(int index) {
+        return mGameObjects[index];
+    }
+
+    /**
+     * Gets the buffer holding the sprites recorded by the game objects.
+     * @return the {@link DrawCommandBuffer} instance.
+     */
+    public DrawCommandBuffer getCommands() {
+        return mCommands;
+    }
+
+    // Setters
+    /**
+     * Replaces the content of the snapshot with the given game objects.
+     * @param gameObjects the game objects to be rendered.
+     */
+    public void set(List<GameObject> gameObjects) {
+        final int count = gameObjects.size();
+        if (count > mGameObjects.length) {
+            mGameObjects = new GameObject[Math.max(count, mGameObjects.length * 2)];
+        }
+        for (int i = 0; i < count; i++) {
+            mGameObjects[i] = gameObjects.get(i);
+        }
+
+        // Release the game objects that are no longer part of the snapshot
+        if (count < mCount) {
+            Arrays.fill(mGameObjects, count, mCount, null);
+        }
+        mCount = count;
+    }
+}
@@ -0,0 +1,236 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Reads a binary snapshot written by a {@link SnapshotWriter}, record after record.
+ * <p>
+ * Fields can only be read inside the current record, and moving on to the next record skips the fields left unread, so
+ * that snapshots written by newer versions of a record remain readable. Older versions of a record can be told apart
+ * with {@link #getRecordVersion()} or {@link #hasMoreFields()}. A corrupted snapshot raises an
+ * {@link IllegalArgumentException}. A reader is not thread-safe.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public class SnapshotReader {
+
+    // Buffer
+    /**
+     * The array snapshots are read into by {@link #readFrom(InputStream)}.
+     */
+    private byte[] mData;
+    /**
+     * The buffer of the snapshot.
+     */
+    private ByteBuffer mBuffer;
+
+    // Current record
+    /**
+     * The type of the current record.
+     */
+    private int mRecordType;
+    /**
+     * The version of the current record.
+     */
+    private int mRecordVersion;
+    /**
+     * The position right after the current record, or <code>-1</code> before the first record.
+     */
+    private int mRecordEnd = -1;
+
+    // Constructor
+    /**
+     * Creates a new {@link SnapshotReader}.
+     * @param capacity the initial capacity in bytes of the array snapshots are read into, large enough for a typical
+     * snapshot.
+     */
+    public SnapshotReader(int capacity) {
+        mData = new byte[Math.max(capacity, 16)];
+    }
+
+    // Snapshot
+    /**
+     * Reads a whole snapshot from a stream, then checks its header.
+     * @param inputStream the stream, which is read until its end.
+     * @throws IOException if the snapshot cannot be read.
+     */
+    public void readFrom(InputStream inputStream) throws IOException {
+        int size = 0;
+        int count;
+        while ((count = inputStream.read(mData, size, mData.length - size)) >= 0) {
+            size += count;
+            if (size == mData.length) {
+                mData = Arrays.copyOf(mData, mData.length * 2);
+            }
+        }
+        reset(mData, 0, size);
+    }
+
+    /**
+     * Starts reading a snapshot held by an array, then checks its header.
+     * @param data the array, which is not copied.
+     * @param offset the index of the first byte of the snapshot.
+     * @param length the size of the snapshot.
+     */
+    public void reset(byte[] data, int offset, int length) {
+        mBuffer = ByteBuffer.wrap(data, offset, length).slice();
+        mRecordEnd = -1;
+        if (mBuffer.remaining() < 6 || mBuffer.getInt() != SnapshotWriter.MAGIC) {
+            throw new IllegalArgumentException("Not a snapshot");
+        }
+        final int version = mBuffer.getShort() & 0xFFFF;
+        if (version > SnapshotWriter.FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported snapshot format: " + version);
+        }
+        mRecordEnd = mBuffer.position();
+    }
+
+    /**
+     * Moves on to the next record, skipping the unread fields of the current one.
+     * @return <code>true</code> if there is a next record, <code>false</code> at the end of the snapshot.
+     */
+    public boolean nextRecord() {
+        if (mRecordEnd < 0) {
+            throw new IllegalStateException("No snapshot has been read");
+        }
+        mBuffer.position(mRecordEnd);
+        if (!mBuffer.hasRemaining()) {
+            return false;
+        }
+        if (mBuffer.remaining() < SnapshotWriter.RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("Truncated record header");
+        }
+        mRecordType = mBuffer.getInt();
+        mRecordVersion = mBuffer.getShort() & 0xFFFF;
+        final int length = mBuffer.getInt();
+        if (length < 0 || length > mBuffer.remaining()) {
+            throw new IllegalArgumentException("Truncated record of type " + mRecordType);
+        }
+        mRecordEnd = mBuffer.position() + length;
+        return true;
+    }
+
+    /**
+     * Moves on to the next record, which must be of a given type.
+     * @param type the expected type.
+     * @return the version of the record.
+     */
+    public int requireRecord(int type) {
+        if (!nextRecord() || mRecordType != type) {
+            throw new IllegalArgumentException("Missing record of type " + type);
+        }
+        return mRecordVersion;
+    }
+
+    // Getters
+    /**
+     * Gets the type of the current record.
+     * @return the type.
+     */
+    public int getRecordType() {
+        return mRecordType;
+    }
+
+    /**
+     * Gets the version of the current record.
+     * @return the version.
+     */
+    public int getRecordVersion() {
+        return mRecordVersion;
+    }
+
+    /**
+     * Indicates whether the current record holds unread fields, for instance fields appended by a newer version.
+     * @return <code>true</code> if there are unread fields.
+     */
+    public boolean hasMoreFields() {
+        return mBuffer.position() < mRecordEnd;
+    }
+
+    // Fields
+    /**
+     * Reads a byte.
+     * @return the value.
+     */
+    public byte readByte() {
+        require(1);
+        return mBuffer.get();
+    }
+
+    /**
+     * Reads a short.
+     * @return the value.
+     */
+    public short readShort() {
+        require(2);
+        return mBuffer.getShort();
+    }
+
+    /**
+     * Reads an int.
+     * @return the value.
+     */
+    public int readInt() {
+        require(4);
+        return mBuffer.getInt();
+    }
+
+    /**
+     * Reads a long.
+     * @return the value.
+     */
+    public long readLong() {
+        require(8);
+        return mBuffer.getLong();
+    }
+
+    /**
+     * Reads a double.
+     * @return the value.
+     */
+    public double readDouble() {
+        require(8);
+        return mBuffer.getDouble();
+    }
+
+    /**
+     * Reads bytes.
+     * @param values the array to be filled.
+     * @param offset the index of the first byte.
+     * @param length the number of bytes.
+     */
+    public void readBytes(byte[] values, int offset, int length) {
+        require(length);
+        mBuffer.get(values, offset, length);
+    }
+
+    /**
+     * Checks the current record holds a given number of unread bytes.
+     * @param bytes the number of bytes.
+     */
+    private void require(int bytes) {
+        if (mRecordEnd - mBuffer.position() < bytes) {
+            throw new IllegalArgumentException("Field beyond the end of the record of type " + mRecordType);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Writes a binary snapshot of a game into a preallocated buffer, to be restored by a {@link SnapshotReader}.
+ * <p>
+ * A snapshot starts with {@link #MAGIC} and {@link #FORMAT_VERSION}, followed by records. Every record starts with a
+ * type, a version and the length of its fields, so a reader can skip the records it does not know as well as the
+ * fields appended by newer versions of a record. Negative record types are reserved for the engine and the rules of the
+ * game, game objects use positive types, see {@link GameObject#getSnapshotType()}.
+ * </p>
+ * <p>
+ * Values are written in big-endian order. The buffer only grows when a snapshot does not fit in it, and is reused
+ * from one snapshot to the next. A writer is not thread-safe.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public class SnapshotWriter {
+
+    // Format
+    /**
+     * The first four bytes of every snapshot.
+     */
+    public static final int MAGIC = 0x484E4253;
+    /**
+     * The version of the layout of the header and of the records.
+     */
+    public static final int FORMAT_VERSION = 1;
+    /**
+     * The size of the header of every record: its type, its version and its length.
+     */
+    static final int RECORD_HEADER_SIZE = 4 + 2 + 4;
+
+    // Buffer
+    /**
+     * The buffer the snapshot is written into.
+     */
+    private ByteBuffer mBuffer;
+    /**
+     * The position of the length of the current record, or <code>-1</code> outside of a record.
+     */
+    private int mLengthPosition = -1;
+
+    // Constructor
+    /**
+     * Creates a new {@link SnapshotWriter}.
+     * @param capacity the initial capacity of the buffer in bytes, large enough for a typical snapshot.
+     */
+    public SnapshotWriter(int capacity) {
+        mBuffer = ByteBuffer.allocate(Math.max(capacity, 16));
+        reset();
+    }
+
+    // Snapshot
+    /**
+     * Discards the written snapshot and writes the header of a new one.
+     */
+    public void reset() {
+        mBuffer.clear();
+        mBuffer.putInt(MAGIC);
+        mBuffer.putShort((short) FORMAT_VERSION);
+        mLengthPosition = -1;
+    }
+
+    /**
+     * Starts a record, whose fields are written until {@link #endRecord()} is called.
+     * @param type the type of the record.
+     * @param version the version of the fields of the record, between <code>0</code> and <code>65535</code>.
+     */
+    public void beginRecord(int type, int version) {
+        if (mLengthPosition >= 0) {
+            throw new IllegalStateException("Records cannot be nested");
+        }
+        ensureCapacity(RECORD_HEADER_SIZE);
+        mBuffer.putInt(type);
+        mBuffer.putShort((short) version);
+        mLengthPosition = mBuffer.position();
+        mBuffer.putInt(0);
+    }
+
+    /**
+     * Ends the current record.
+     */
+    public void endRecord() {
+        if (mLengthPosition < 0) {
+            throw new IllegalStateException("No record has been started");
+        }
+        mBuffer.putInt(mLengthPosition, mBuffer.position() - mLengthPosition - 4);
+        mLengthPosition = -1;
+    }
+
+    // Fields
+    /**
+     * Writes a byte.
+     * @param value the value, of which only the lowest 8 bits are written.
+     */
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        mBuffer.put((byte) value);
+    }
+
+    /**
+     * Writes a short.
+     * @param value the value, of which only the lowest 16 bits are written.
+     */
+    public void writeShort(int value) {
+        ensureCapacity(2);
+        mBuffer.putShort((short) value);
+    }
+
+    /**
+     * Writes an int.
+     * @param value the value.
+     */
+    public void writeInt(int value) {
+        ensureCapacity(4);
+        mBuffer.putInt(value);
+    }
+
+    /**
+     * Writes a long.
+     * @param value the value.
+     */
+    public void writeLong(long value) {
+        ensureCapacity(8);
+        mBuffer.putLong(value);
+    }
+
+    /**
+     * Writes a double.
+     * @param value the value.
+     */
+    public void writeDouble(double value) {
+        ensureCapacity(8);
+        mBuffer.putDouble(value);
+    }
+
+    /**
+     * Writes bytes.
+     * @param values the array of the bytes.
+     * @param offset the index of the first byte.
+     * @param length the number of bytes.
+     */
+    public void writeBytes(byte[] values, int offset, int length) {
+        ensureCapacity(length);
+        mBuffer.put(values, offset, length);
+    }
+
+    // Output
+    /**
+     * Gets the size of the snapshot written so far.
+     * @return the number of bytes.
+     */
+    public int getSize() {
+        return mBuffer.position();
+    }
+
+    /**
+     * Gets the buffer the snapshot is written into, without copying it.
+     * @return the array, whose first {@link #getSize()} bytes hold the snapshot.
+     */
+    public byte[] getBuffer() {
+        return mBuffer.array();
+    }
+
+    /**
+     * Writes the snapshot to a stream.
+     * @param outputStream the stream.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+        if (mLengthPosition >= 0) {
+            throw new IllegalStateException("The current record has not been ended");
+        }
+        outputStream.write(mBuffer.array(), 0, mBuffer.position());
+    }
+
+    /**
+     * Grows the buffer if it cannot hold a given number of additional bytes.
+     * @param bytes the number of bytes.
+     */
+    private void ensureCapacity(int bytes) {
+        if (mBuffer.remaining() < bytes) {
+            final int position = mBuffer.position();
+            final int capacity = Math.max(mBuffer.capacity() * 2, position + bytes);
+            mBuffer = ByteBuffer.wrap(Arrays.copyOf(mBuffer.array(), capacity));
+            mBuffer.position(position);
+        }
+    }
+}
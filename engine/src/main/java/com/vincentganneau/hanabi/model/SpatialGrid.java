@@ -0,0 +1,492 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Uniform grid indexing the bounds of game objects for hit-testing and proximity queries.
+ * <p>
+ * The grid covers a fixed area split into square cells. An entry is linked into every cell its bounds overlap, and
+ * entries outside the area are clamped into the border cells, so any position can be indexed. Moving an entry only
+ * touches the cell lists when it crosses a cell boundary. Bounds are stored in primitive columns and cell lists are
+ * linked through pooled nodes, so neither updates nor queries allocate once the grid has grown to its working size.
+ * </p>
+ * <p>
+ * The grid is not thread-safe: when it is maintained by the {@link GameEngine}, it must only be used from the update
+ * thread, typically by game objects handling touches or collisions inside
+ * {@link GameObject#onUpdate(double, GameEngine)}.
+ * </p>
+ * @author Vincent Ganneau
+ * @see GameEngine#setSpatialGrid(SpatialGrid)
+ */
+public class SpatialGrid {
+
+    // Grid
+    /**
+     * The left edge of the indexed area.
+     */
+    public final float mOriginX;
+    /**
+     * The top edge of the indexed area.
+     */
+    public final float mOriginY;
+    /**
+     * The size of a cell.
+     */
+    public final float mCellSize;
+    /**
+     * The inverse of the size of a cell.
+     */
+    private final float mInverseCellSize;
+    /**
+     * The number of columns.
+     */
+    public final int mColumns;
+    /**
+     * The number of rows.
+     */
+    public final int mRows;
+    /**
+     * The first node of every cell, or <code>-1</code> if the cell is empty.
+     */
+    private final int[] mCellHeads;
+
+    // Nodes
+    /**
+     * The entry of every node.
+     */
+    private int[] mNodeEntries;
+    /**
+     * The next node of every node inside its cell or inside the free list, or <code>-1</code>.
+     */
+    private int[] mNodeNext;
+    /**
+     * The first free node, or <code>-1</code>.
+     */
+    private int mFreeNode = -1;
+    /**
+     * The number of nodes created so far.
+     */
+    private int mNodeCount;
+
+    // Entries
+    /**
+     * The game object of every entry, or <code>null</code> if the entry is not used.
+     */
+    private GameObject[] mObjects;
+    /**
+     * The left edge of every entry.
+     */
+    private float[] mLeft;
+    /**
+     * The top edge of every entry.
+     */
+    private float[] mTop;
+    /**
+     * The right edge of every entry.
+     */
+    private float[] mRight;
+    /**
+     * The bottom edge of every entry.
+     */
+    private float[] mBottom;
+    /**
+     * The first column of every entry.
+     */
+    private int[] mMinColumn;
+    /**
+     * The first row of every entry.
+     */
+    private int[] mMinRow;
+    /**
+     * The last column of every entry.
+     */
+    private int[] mMaxColumn;
+    /**
+     * The last row of every entry.
+     */
+    private int[] mMaxRow;
+    /**
+     * The latest query that reported every entry, so that an entry overlapping several cells is reported once.
+     */
+    private int[] mStamps;
+    /**
+     * The entries that can be used again.
+     */
+    private int[] mFreeEntries;
+    /**
+     * The number of entries that can be used again.
+     */
+    private int mFreeEntryCount;
+    /**
+     * The number of entries created so far.
+     */
+    private int mEntryCount;
+    /**
+     * The number of entries in use.
+     */
+    private int mCount;
+    /**
+     * The stamp of the current query.
+     */
+    private int mQueryStamp;
+
+    // Constructor
+    /**
+     * Creates a new {@link SpatialGrid}.
+     * <p>
+     * Cells should be about the size of the indexed objects: smaller cells link every object into many cells, larger
+     * cells make queries test more objects.
+     * </p>
+     * @param originX the left edge of the indexed area.
+     * @param originY the top edge of the indexed area.
+     * @param cellSize the size of a cell.
+     * @param columns the number of columns.
+     * @param rows the number of rows.
+     */
+    public SpatialGrid(float originX, float originY, float cellSize, int columns, int rows) {
+        if (!(cellSize > 0)) {
+            throw new IllegalArgumentException("cellSize must be positive: " + cellSize);
+        }
+        if (columns <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("columns and rows must be positive: " + columns + "x" + rows);
+        }
+        mOriginX = originX;
+        mOriginY = originY;
+        mCellSize = cellSize;
+        mInverseCellSize = 1f / cellSize;
+        mColumns = columns;
+        mRows = rows;
+        mCellHeads = new int[columns * rows];
+        Arrays.fill(mCellHeads, -1);
+        mNodeEntries = new int[64];
+        mNodeNext = new int[64];
+        mObjects = new GameObject[64];
+        mLeft = new float[64];
+        mTop = new float[64];
+        mRight = new float[64];
+        mBottom = new float[64];
+        mMinColumn = new int[64];
+        mMinRow = new int[64];
+        mMaxColumn = new int[64];
+        mMaxRow = new int[64];
+        mStamps = new int[64];
+        mFreeEntries = new int[64];
+    }
+
+    // Getters
+    /**
+     * Gets the number of indexed game objects.
+     * @return the number of entries in use.
+     */
+    public int getCount() {
+        return mCount;
+    }
+
+    // Entries
+    /**
+     * Indexes a game object.
+     * @param gameObject the game object.
+     * @param bounds the bounds of the game object.
+     * @return the entry of the game object, to be passed to {@link #move(int, Bounds)} and {@link #remove(int)}.
+     */
+    public int insert(GameObject gameObject, Bounds bounds) {
+        final int entry;
+        if (mFreeEntryCount > 0) {
+            entry = mFreeEntries[--mFreeEntryCount];
+        } else {
+            if (mEntryCount == mObjects.length) {
+                growEntries(mEntryCount * 2);
+            }
+            entry = mEntryCount++;
+        }
+        mObjects[entry] = gameObject;
+        mStamps[entry] = 0;
+        setBounds(entry, bounds);
+        link(entry);
+        mCount++;
+        return entry;
+    }
+
+    /**
+     * Updates the bounds of an entry.
+     * @param entry the entry returned by {@link #insert(GameObject, Bounds)}.
+     * @param bounds the new bounds.
+     */
+    public void move(int entry, Bounds bounds) {
+        final int minColumn = mMinColumn[entry];
+        final int minRow = mMinRow[entry];
+        final int maxColumn = mMaxColumn[entry];
+        final int maxRow = mMaxRow[entry];
+        setBounds(entry, bounds);
+
+        // Only relink the entry when it crosses a cell boundary
+        if (minColumn != mMinColumn[entry] || minRow != mMinRow[entry]
+                || maxColumn != mMaxColumn[entry] || maxRow != mMaxRow[entry]) {
+            unlink(entry, minColumn, minRow, maxColumn, maxRow);
+            link(entry);
+        }
+    }
+
+    /**
+     * Removes an entry.
+     * @param entry the entry returned by {@link #insert(GameObject, Bounds)}.
+     */
+    public void remove(int entry) {
+        unlink(entry, mMinColumn[entry], mMinRow[entry], mMaxColumn[entry], mMaxRow[entry]);
+        mObjects[entry] = null;
+        mFreeEntries[mFreeEntryCount++] = entry;
+        mCount--;
+    }
+
+    // Queries
+    /**
+     * Finds the game objects whose bounds contain a point.
+     * @param x the horizontal position of the point.
+     * @param y the vertical position of the point.
+     * @param results the list the game objects are added to, which is not cleared.
+     * @return the number of game objects added to the list.
+     */
+    public int queryPoint(float x, float y, List<GameObject> results) {
+        final int stamp = nextQueryStamp();
+        int found = 0;
+        for (int node = mCellHeads[row(y) * mColumns + column(x)]; node >= 0; node = mNodeNext[node]) {
+            final int entry = mNodeEntries[node];
+            if (mStamps[entry] != stamp && mLeft[entry] <= x && x <= mRight[entry]
+                    && mTop[entry] <= y && y <= mBottom[entry]) {
+                mStamps[entry] = stamp;
+                results.add(mObjects[entry]);
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Finds the game objects whose bounds intersect a rectangle.
+     * @param left the left edge of the rectangle.
+     * @param top the top edge of the rectangle.
+     * @param right the right edge of the rectangle.
+     * @param bottom the bottom edge of the rectangle.
+     * @param results the list the game objects are added to, which is not cleared.
+     * @return the number of game objects added to the list.
+     */
+    public int queryRect(float left, float top, float right, float bottom, List<GameObject> results) {
+        final int stamp = nextQueryStamp();
+        final int maxColumn = column(right);
+        final int maxRow = row(bottom);
+        int found = 0;
+        for (int row = row(top); row <= maxRow; row++) {
+            for (int column = column(left); column <= maxColumn; column++) {
+                for (int node = mCellHeads[row * mColumns + column]; node >= 0; node = mNodeNext[node]) {
+                    final int entry = mNodeEntries[node];
+                    if (mStamps[entry] != stamp) {
+                        mStamps[entry] = stamp;
+                        if (mLeft[entry] <= right && left <= mRight[entry]
+                                && mTop[entry] <= bottom && top <= mBottom[entry]) {
+                            results.add(mObjects[entry]);
+                            found++;
+                        }
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Finds the game objects whose bounds intersect a circle.
+     * @param x the horizontal position of the center of the circle.
+     * @param y the vertical position of the center of the circle.
+     * @param radius the radius of the circle.
+     * @param results the list the game objects are added to, which is not cleared.
+     * @return the number of game objects added to the list.
+     */
+    public int queryRadius(float x, float y, float radius, List<GameObject> results) {
+        final int stamp = nextQueryStamp();
+        final float radiusSquared = radius * radius;
+        final int maxColumn = column(x + radius);
+        final int maxRow = row(y + radius);
+        int found = 0;
+        for (int row = row(y - radius); row <= maxRow; row++) {
+            for (int column = column(x - radius); column <= maxColumn; column++) {
+                for (int node = mCellHeads[row * mColumns + column]; node >= 0; node = mNodeNext[node]) {
+                    final int entry = mNodeEntries[node];
+                    if (mStamps[entry] != stamp) {
+                        mStamps[entry] = stamp;
+
+                        // Measure the distance from the center to the closest point of the bounds
+                        final float dx = Math.max(0, Math.max(mLeft[entry] - x, x - mRight[entry]));
+                        final float dy = Math.max(0, Math.max(mTop[entry] - y, y - mBottom[entry]));
+                        if (dx * dx + dy * dy <= radiusSquared) {
+                            results.add(mObjects[entry]);
+                            found++;
+                        }
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        Arrays.fill(mCellHeads, -1);
+        Arrays.fill(mObjects, 0, mEntryCount, null);
+        mFreeNode = -1;
+        mNodeCount = 0;
+        mFreeEntryCount = 0;
+        mEntryCount = 0;
+        mCount = 0;
+    }
+
+    // Cells
+    /**
+     * Gets the column containing a horizontal position, clamped into the grid.
+     * @param x the horizontal position.
+     * @return the column.
+     */
+    private int column(float x) {
+        final float column = (x - mOriginX) * mInverseCellSize;
+        return column <= 0 ? 0 : column >= mColumns - 1 ? mColumns - 1 : (int) column;
+    }
+
+    /**
+     * Gets the row containing a vertical position, clamped into the grid.
+     * @param y the vertical position.
+     * @return the row.
+     */
+    private int row(float y) {
+        final float row = (y - mOriginY) * mInverseCellSize;
+        return row <= 0 ? 0 : row >= mRows - 1 ? mRows - 1 : (int) row;
+    }
+
+    /**
+     * Stores the bounds of an entry and the cells they overlap.
+     * @param entry the entry.
+     * @param bounds the bounds.
+     */
+    private void setBounds(int entry, Bounds bounds) {
+        mLeft[entry] = bounds.mLeft;
+        mTop[entry] = bounds.mTop;
+        mRight[entry] = bounds.mRight;
+        mBottom[entry] = bounds.mBottom;
+        mMinColumn[entry] = column(bounds.mLeft);
+        mMinRow[entry] = row(bounds.mTop);
+        mMaxColumn[entry] = column(bounds.mRight);
+        mMaxRow[entry] = row(bounds.mBottom);
+    }
+
+    /**
+     * Links an entry into every cell it overlaps.
+     * @param entry the entry.
+     */
+    private void link(int entry) {
+        final int maxColumn = mMaxColumn[entry];
+        final int maxRow = mMaxRow[entry];
+        for (int row = mMinRow[entry]; row <= maxRow; row++) {
+            for (int column = mMinColumn[entry]; column <= maxColumn; column++) {
+                final int cell = row * mColumns + column;
+                final int node = obtainNode();
+                mNodeEntries[node] = entry;
+                mNodeNext[node] = mCellHeads[cell];
+                mCellHeads[cell] = node;
+            }
+        }
+    }
+
+    /**
+     * Unlinks an entry from a range of cells.
+     * @param entry the entry.
+     * @param minColumn the first column.
+     * @param minRow the first row.
+     * @param maxColumn the last column.
+     * @param maxRow the last row.
+     */
+    private void unlink(int entry, int minColumn, int minRow, int maxColumn, int maxRow) {
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                final int cell = row * mColumns + column;
+                int previous = -1;
+                for (int node = mCellHeads[cell]; node >= 0; previous = node, node = mNodeNext[node]) {
+                    if (mNodeEntries[node] == entry) {
+                        if (previous < 0) {
+                            mCellHeads[cell] = mNodeNext[node];
+                        } else {
+                            mNodeNext[previous] = mNodeNext[node];
+                        }
+                        mNodeNext[node] = mFreeNode;
+                        mFreeNode = node;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes a node from the free list, or creates one.
+     * @return the node.
+     */
+    private int obtainNode() {
+        if (mFreeNode >= 0) {
+            final int node = mFreeNode;
+            mFreeNode = mNodeNext[node];
+            return node;
+        }
+        if (mNodeCount == mNodeEntries.length) {
+            mNodeEntries = Arrays.copyOf(mNodeEntries, mNodeCount * 2);
+            mNodeNext = Arrays.copyOf(mNodeNext, mNodeCount * 2);
+        }
+        return mNodeCount++;
+    }
+
+    /**
+     * Starts a new query.
+     * @return the stamp of the query.
+     */
+    private int nextQueryStamp() {
+        if (++mQueryStamp == 0) {
+            Arrays.fill(mStamps, 0);
+            mQueryStamp = 1;
+        }
+        return mQueryStamp;
+    }
+
+    /**
+     * Grows every entry column.
+     * @param capacity the new capacity.
+     */
+    private void growEntries(int capacity) {
+        mObjects = Arrays.copyOf(mObjects, capacity);
+        mLeft = Arrays.copyOf(mLeft, capacity);
+        mTop = Arrays.copyOf(mTop, capacity);
+        mRight = Arrays.copyOf(mRight, capacity);
+        mBottom = Arrays.copyOf(mBottom, capacity);
+        mMinColumn = Arrays.copyOf(mMinColumn, capacity);
+        mMinRow = Arrays.copyOf(mMinRow, capacity);
+        mMaxColumn = Arrays.copyOf(mMaxColumn, capacity);
+        mMaxRow = Arrays.copyOf(mMaxRow, capacity);
+        mStamps = Arrays.copyOf(mStamps, capacity);
+        mFreeEntries = Arrays.copyOf(mFreeEntries, capacity);
+    }
+}
@@ -0,0 +1,37 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+/**
+ * Interface for listeners notified of every update of the game engine, before any game object is updated.
+ * <p>
+ * The listener is called once per tick whatever the update rates of the game objects and whether they are updated in
+ * parallel, which makes it suitable to record the ticks of a game.
+ * </p>
+ * @author Vincent Ganneau
+ * @see GameEngine#setTickListener(TickListener)
+ */
+public interface TickListener {
+
+    /**
+     * Callback invoked on the update thread at the start of every update of the game engine.
+     * @param elapsedMillis the number of milliseconds, with sub-millisecond precision, that have passed since the
+     * previous update.
+     */
+    void onTick(double elapsedMillis);
+}
@@ -0,0 +1,106 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free triple buffer that hands over the latest value from a single producer thread to a single consumer thread.
+ * <p>
+ * The producer fills {@link #getWriteBuffer()} then calls {@link #publish()}, while the consumer reads
+ * {@link #getReadBuffer()}. Each thread always owns a buffer of its own and the third one holds the latest published
+ * value, so neither thread ever waits on the other. Intermediate values are dropped when the producer is faster than
+ * the consumer.
+ * </p>
+ * @param <T> the type of the buffers.
+ * @author Vincent Ganneau
+ */
+public class TripleBuffer<T> {
+
+    // Ready state
+    /**
+     * The mask of the ready buffer index inside the ready state.
+     */
+    private static final int INDEX_MASK = 0x3;
+    /**
+     * The flag set inside the ready state when the ready buffer has been published but not read yet.
+     */
+    private static final int FRESH_FLAG = 0x4;
+    /**
+     * The index of the ready buffer, combined with {@link #FRESH_FLAG}.
+     */
+    private final AtomicInteger mReadyState = new AtomicInteger(1);
+
+    // Buffers
+    /**
+     * The three buffers.
+     */
+    private final Object[] mBuffers;
+    /**
+     * The index of the buffer owned by the producer thread.
+     */
+    private int mWriteIndex = 0;
+    /**
+     * The index of the buffer owned by the consumer thread.
+     */
+    private int mReadIndex = 2;
+
+    // Constructor
+    /**
+     * Creates a new {@link TripleBuffer}.
+     * @param first the first buffer, initially owned by the producer thread.
+     * @param second the second buffer.
+     * @param third the third buffer, initially owned by the consumer thread.
+     */
+    public TripleBuffer(T first, T second, T third) {
+        mBuffers = new Object[] {first, second, third};
+    }
+
+    // Producer
+    /**
+     * Gets the buffer the producer thread can fill.
+     * @return the buffer owned by the producer thread.
+     */
+    @SuppressWarnings("unchecked")
+    public T getWriteBuffer() {
+        return (T) mBuffers[mWriteIndex];
+    }
+
+    /**
+     * Publishes the buffer filled by the producer thread and gives it a new buffer to fill.
+     */
+    public void publish() {
+        mWriteIndex = mReadyState.getAndSet(mWriteIndex | FRESH_FLAG) & INDEX_MASK;
+    }
+
+    // Consumer
+    /**
+     * Gets the latest buffer published by the producer thread.
+     * <p>
+     * The buffer stays owned by the consumer thread until the next call, so it must not be modified.
+     * </p>
+     * @return the latest published buffer.
+     */
+    @SuppressWarnings("unchecked")
+    public T getReadBuffer() {
+        if ((mReadyState.get() & FRESH_FLAG) != 0) {
+            mReadIndex = mReadyState.getAndSet(mReadIndex) & INDEX_MASK;
+        }
+        return (T) mBuffers[mReadIndex];
+    }
+}
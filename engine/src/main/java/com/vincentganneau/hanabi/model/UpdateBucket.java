@@ -0,0 +1,183 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Game objects sharing the same {@link UpdateRate}, updated together by the game engine.
+ * <p>
+ * A bucket updated every <code>N</code> ticks splits its game objects into <code>N</code> balanced phases and updates
+ * one phase per tick. A bucket updated at a frequency updates all its game objects on the first tick after its period
+ * has passed. Every game object remembers the game time of its latest update, so it is passed the exact time elapsed
+ * since then without being visited on the ticks it skips.
+ * </p>
+ * <p>
+ * The bucket is not thread-safe: it must only be used from the update thread, or before the game starts.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public class UpdateBucket {
+
+    // Rate
+    /**
+     * The rate of the game objects.
+     */
+    public final UpdateRate mRate;
+
+    // Game objects
+    /**
+     * The game objects of every phase.
+     */
+    private final List<List<GameObject>> mPhases;
+
+    // Schedule
+    /**
+     * The number of ticks since the bucket has been created.
+     */
+    private long mTickCount;
+    /**
+     * The game time of the next update of a bucket updated at a frequency, or {@link Double#NaN} until a game object
+     * is added.
+     */
+    private double mNextUpdateMillis = Double.NaN;
+
+    // Constructor
+    /**
+     * Creates a new {@link UpdateBucket}.
+     * @param rate the rate of the game objects.
+     */
+    public UpdateBucket(UpdateRate rate) {
+        mRate = rate;
+        final int phaseCount = Math.max(1, rate.mTicks);
+        mPhases = new ArrayList<>(phaseCount);
+        for (int i = 0; i < phaseCount; i++) {
+            mPhases.add(new ArrayList<>());
+        }
+    }
+
+    // Getters
+    /**
+     * Gets the game objects of a phase.
+     * @param phase the phase, between <code>0</code> and the number of ticks of the rate excluded.
+     * @return the game objects.
+     */
+    public List<GameObject> getPhase(int phase) {
+        return mPhases.get(phase);
+    }
+
+    /**
+     * Gets the number of game objects.
+     * @return the number of game objects over every phase.
+     */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < mPhases.size(); i++) {
+            size += mPhases.get(i).size();
+        }
+        return size;
+    }
+
+    // Game objects
+    /**
+     * Adds a game object to the smallest phase.
+     * @param gameObject the game object.
+     * @param timeMillis the current game time.
+     */
+    public void add(GameObject gameObject, double timeMillis) {
+        int phase = 0;
+        for (int i = 1; i < mPhases.size(); i++) {
+            if (mPhases.get(i).size() < mPhases.get(phase).size()) {
+                phase = i;
+            }
+        }
+        final List<GameObject> gameObjects = mPhases.get(phase);
+        gameObject.mUpdateBucket = this;
+        gameObject.mUpdatePhase = phase;
+        gameObject.mUpdateIndex = gameObjects.size();
+        gameObject.mLastUpdateMillis = timeMillis;
+        gameObjects.add(gameObject);
+
+        // Start the period when the first game object joins a bucket updated at a frequency
+        if (mRate.mTicks == 0 && Double.isNaN(mNextUpdateMillis)) {
+            mNextUpdateMillis = timeMillis + mRate.mPeriodMillis;
+        }
+    }
+
+    /**
+     * Removes a game object by moving the last game object of its phase in its place.
+     * @param gameObject the game object.
+     */
+    public void remove(GameObject gameObject) {
+        final List<GameObject> gameObjects = mPhases.get(gameObject.mUpdatePhase);
+        final GameObject last = gameObjects.remove(gameObjects.size() - 1);
+        if (last != gameObject) {
+            gameObjects.set(gameObject.mUpdateIndex, last);
+            last.mUpdateIndex = gameObject.mUpdateIndex;
+        }
+        gameObject.mUpdateBucket = null;
+        gameObject.mUpdateIndex = -1;
+
+        // Start a new period when a game object joins the bucket again
+        if (mRate.mTicks == 0 && gameObjects.isEmpty()) {
+            mNextUpdateMillis = Double.NaN;
+        }
+    }
+
+    /**
+     * Forgets the schedule of the bucket, for instance after the game time has been rewound, so that the next period
+     * starts when a game object is added.
+     */
+    public void resetSchedule() {
+        mTickCount = 0;
+        mNextUpdateMillis = Double.NaN;
+    }
+
+    // Update
+    /**
+     * Updates the game objects that are due on the current tick.
+     * @param timeMillis the current game time.
+     * @param gameEngine the {@link GameEngine} instance.
+     */
+    public void update(double timeMillis, GameEngine gameEngine) {
+        final List<GameObject> gameObjects;
+        if (mRate.mTicks > 0) {
+            gameObjects = mPhases.get((int) (mTickCount++ % mRate.mTicks));
+        } else {
+            if (!(timeMillis >= mNextUpdateMillis)) {
+                return;
+            }
+
+            // Do not catch up with the updates missed during a long tick
+            mNextUpdateMillis += mRate.mPeriodMillis;
+            if (mNextUpdateMillis <= timeMillis) {
+                mNextUpdateMillis = timeMillis + mRate.mPeriodMillis;
+            }
+            gameObjects = mPhases.get(0);
+        }
+
+        final int count = gameObjects.size();
+        for (int i = 0; i < count; i++) {
+            final GameObject gameObject = gameObjects.get(i);
+            final double elapsedMillis = timeMillis - gameObject.mLastUpdateMillis;
+            gameObject.mLastUpdateMillis = timeMillis;
+            gameObject.onUpdate(elapsedMillis, gameEngine);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+/**
+ * Immutable rate at which a {@link GameObject} is updated, either every given number of ticks or at a given frequency.
+ * <p>
+ * Game objects sharing an equal rate are bucketed together by the game engine, so that the game objects that skip a
+ * tick are not visited at all.
+ * </p>
+ * @author Vincent Ganneau
+ * @see GameObject#getUpdateRate()
+ */
+public final class UpdateRate {
+
+    // Rates
+    /**
+     * The rate of the game objects updated on every tick.
+     */
+    public static final UpdateRate EVERY_TICK = new UpdateRate(1, 0);
+
+    // Rate
+    /**
+     * The number of ticks between two updates, or <code>0</code> if the rate is a frequency.
+     */
+    public final int mTicks;
+    /**
+     * The number of milliseconds between two updates, or <code>0</code> if the rate is a number of ticks.
+     */
+    public final double mPeriodMillis;
+
+    // Constructor
+    /**
+     * Creates a new {@link UpdateRate}.
+     * @param ticks the number of ticks between two updates, or <code>0</code>.
+     * @param periodMillis the number of milliseconds between two updates, or <code>0</code>.
+     */
+    private UpdateRate(int ticks, double periodMillis) {
+        mTicks = ticks;
+        mPeriodMillis = periodMillis;
+    }
+
+    // Factories
+    /**
+     * Gets the rate of the game objects updated every given number of ticks.
+     * <p>
+     * The game engine spreads such game objects over the ticks, so that they do not all run on the same tick.
+     * </p>
+     * @param ticks the number of ticks between two updates.
+     * @return the {@link UpdateRate} instance.
+     */
+    public static UpdateRate everyTicks(int ticks) {
+        if (ticks <= 0) {
+            throw new IllegalArgumentException("ticks must be positive: " + ticks);
+        }
+        return ticks == 1 ? EVERY_TICK : new UpdateRate(ticks, 0);
+    }
+
+    /**
+     * Gets the rate of the game objects updated at a given frequency, whatever the time step of the game engine.
+     * <p>
+     * The game objects run on the first tick after their period has passed, so the frequency cannot exceed the tick
+     * rate.
+     * </p>
+     * @param hertz the number of updates per second.
+     * @return the {@link UpdateRate} instance.
+     */
+    public static UpdateRate hertz(double hertz) {
+        if (!(hertz > 0)) {
+            throw new IllegalArgumentException("hertz must be positive: " + hertz);
+        }
+        return new UpdateRate(0, 1000d / hertz);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof UpdateRate)) {
+            return false;
+        }
+        final UpdateRate rate = (UpdateRate) object;
+        return mTicks == rate.mTicks && Double.compare(mPeriodMillis, rate.mPeriodMillis) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * mTicks + Double.valueOf(mPeriodMillis).hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return mTicks > 0 ? "UpdateRate{ticks=" + mTicks + "}" : "UpdateRate{periodMillis=" + mPeriodMillis + "}";
+    }
+}
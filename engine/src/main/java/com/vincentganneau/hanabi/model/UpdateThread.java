@@ -0,0 +1,67 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+/**
+ * {@link GameThread} subclass that continuously runs updates on the game engine, on the {@link Clock} of the game
+ * engine.
+ * @author Vincent Ganneau
+ */
+public class UpdateThread extends GameThread {
+
+    // Constructors
+    /**
+     * Creates a new {@link UpdateThread} that runs with a variable time step.
+     * @param gameEngine the {@link GameEngine} instance.
+     */
+    public UpdateThread(GameEngine gameEngine) {
+        super(gameEngine, gameEngine.getClock());
+    }
+
+    /**
+     * Creates a new {@link UpdateThread} that runs with a fixed time step.
+     * @param gameEngine the {@link GameEngine} instance.
+     * @param ticksPerSecond the number of updates per second.
+     * @param maxCatchUpSteps the maximum number of updates fired in a row to catch up with the clock.
+     */
+    public UpdateThread(GameEngine gameEngine, int ticksPerSecond, int maxCatchUpSteps) {
+        super(gameEngine, gameEngine.getClock(), ticksPerSecond, maxCatchUpSteps);
+    }
+
+    // Game loop
+    @Override
+    public void update(double elapsedMillis) {
+        // Update the game
+        mGameEngine.updateGame(elapsedMillis);
+    }
+
+    @Override
+    protected LatencyHistogram getSleepHistogram(GameMetrics metrics) {
+        return metrics.mUpdateSleep;
+    }
+
+    @Override
+    protected LatencyHistogram getPauseHistogram(GameMetrics metrics) {
+        return metrics.mUpdatePause;
+    }
+
+    @Override
+    protected boolean isIdle() {
+        return mGameEngine.isIdle();
+    }
+}
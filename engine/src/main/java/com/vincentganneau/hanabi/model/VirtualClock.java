@@ -0,0 +1,87 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+
+/**
+ * {@link Clock} whose time only moves when it is advanced.
+ * <p>
+ * Waiting on a virtual clock does not block: it advances the time by the duration of the wait and returns right away.
+ * A game thread running with a fixed time step thus fires one update per iteration of its loop, with the same elapsed
+ * times as in real time, as fast as the CPU allows. With a variable time step, the time only moves when
+ * {@link #advance(long)} is called.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public class VirtualClock implements Clock {
+
+    // Time
+    /**
+     * The current time in nanoseconds.
+     */
+    private final AtomicLong mNanos;
+
+    // Constructors
+    /**
+     * Creates a new {@link VirtualClock} starting at <code>0</code>.
+     */
+    public VirtualClock() {
+        this(0);
+    }
+
+    /**
+     * Creates a new {@link VirtualClock}.
+     * @param startNanos the initial time in nanoseconds.
+     */
+    public VirtualClock(long startNanos) {
+        mNanos = new AtomicLong(startNanos);
+    }
+
+    // Time
+    /**
+     * Advances the time.
+     * @param nanos the number of nanoseconds to be added to the time.
+     */
+    public void advance(long nanos) {
+        if (nanos < 0) {
+            throw new IllegalArgumentException("nanos must not be negative: " + nanos);
+        }
+        mNanos.addAndGet(nanos);
+    }
+
+    @Override
+    public long nanoTime() {
+        return mNanos.get();
+    }
+
+    @Override
+    public void parkNanos(Object blocker, long nanos) {
+        if (nanos > 0) {
+            mNanos.addAndGet(nanos);
+        }
+    }
+
+    @Override
+    public void awaitNanos(Condition condition, long nanos) {
+        if (nanos > 0) {
+            mNanos.addAndGet(nanos);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.net;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Pool of direct {@link ByteBuffer}s of a fixed size.
+ * <p>
+ * Direct buffers are written to and read from sockets without an intermediate copy, but they are expensive to
+ * allocate, so they are recycled instead of being left to the garbage collector. A pool is not thread-safe: it is
+ * meant to be used from the thread of a {@link SelectorLoop}.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public class BufferPool {
+
+    // Buffers
+    /**
+     * The capacity of every buffer.
+     */
+    private final int mBufferSize;
+    /**
+     * The maximum number of buffers kept in the pool.
+     */
+    private final int mMaxPooledCount;
+    /**
+     * The buffers available.
+     */
+    private final ArrayDeque<ByteBuffer> mBuffers = new ArrayDeque<>();
+    /**
+     * The number of buffers allocated by the pool.
+     */
+    private int mAllocatedCount;
+
+    // Constructor
+    /**
+     * Creates a new {@link BufferPool}.
+     * @param bufferSize the capacity of every buffer.
+     * @param maxPooledCount the maximum number of buffers kept in the pool, the others being left to the garbage
+     * collector when they are released.
+     */
+    public BufferPool(int bufferSize, int maxPooledCount) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive: " + bufferSize);
+        }
+        if (maxPooledCount < 0) {
+            throw new IllegalArgumentException("maxPooledCount must not be negative: " + maxPooledCount);
+        }
+        mBufferSize = bufferSize;
+        mMaxPooledCount = maxPooledCount;
+    }
+
+    // Pool
+    /**
+     * Takes a buffer from the pool, or allocates one if the pool is empty.
+     * @return an empty buffer, ready to be written.
+     */
+    public ByteBuffer acquire() {
+        final ByteBuffer buffer = mBuffers.pollFirst();
+        if (buffer != null) {
+            return buffer;
+        }
+        mAllocatedCount++;
+        return ByteBuffer.allocateDirect(mBufferSize);
+    }
+
+    /**
+     * Gives a buffer back to the pool.
+     * @param buffer a buffer acquired from this pool, which must not be used afterwards.
+     */
+    public void release(ByteBuffer buffer) {
+        buffer.clear();
+        if (mBuffers.size() < mMaxPooledCount) {
+            mBuffers.addFirst(buffer);
+        }
+    }
+
+    // Getters
+    /**
+     * Gets the capacity of every buffer.
+     * @return the capacity in bytes.
+     */
+    public int getBufferSize() {
+        return mBufferSize;
+    }
+
+    /**
+     * Gets the number of buffers available in the pool.
+     * @return the number of buffers.
+     */
+    public int getPooledCount() {
+        return mBuffers.size();
+    }
+
+    /**
+     * Gets the number of buffers allocated by the pool since it was created.
+     * @return the number of buffers.
+     */
+    public int getAllocatedCount() {
+        return mAllocatedCount;
+    }
+}
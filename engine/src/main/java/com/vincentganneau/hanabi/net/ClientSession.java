@@ -0,0 +1,178 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.net;
+
+import com.vincentganneau.hanabi.game.Card;
+import com.vincentganneau.hanabi.game.GameState;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A player of a {@link SessionClient}, seated at a table of a {@link SessionServer}.
+ * <p>
+ * The session holds the view of its seat of the state of the table, in which its own cards and the deck are hidden,
+ * kept up to date from the keyframes and the deltas sent by the server. The view is only accessed from the thread of
+ * the client, typically from its {@link SessionListener}.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public class ClientSession {
+
+    // Dependencies
+    /**
+     * The client of the session.
+     */
+    private final SessionClient mClient;
+    /**
+     * The listener of the session.
+     */
+    final SessionListener mListener;
+
+    // Table
+    /**
+     * The identifier of the table.
+     */
+    private final int mTableId;
+    /**
+     * The number of players of the table.
+     */
+    private final int mPlayerCount;
+    /**
+     * The seat of the session, or <code>-1</code> until the session is seated.
+     */
+    volatile int mSeat = -1;
+    /**
+     * The view of the state of the table from the seat of the session.
+     */
+    final GameState mGameState;
+    /**
+     * Indicates whether a keyframe has been asked for, in which case the deltas are ignored until it is received.
+     */
+    boolean mResyncPending;
+
+    // Connection
+    /**
+     * The connection of the session, or <code>null</code> until it is opened.
+     */
+    Connection mConnection;
+
+    // Constructor
+    /**
+     * Creates a new {@link ClientSession}.
+     * @param client the client of the session.
+     * @param tableId the identifier of the table.
+     * @param playerCount the number of players of the table.
+     * @param listener the listener of the session.
+     */
+    ClientSession(SessionClient client, int tableId, int playerCount, SessionListener listener) {
+        mClient = client;
+        mTableId = tableId;
+        mPlayerCount = playerCount;
+        mListener = listener;
+        mGameState = new GameState(playerCount);
+    }
+
+    // Moves
+    /**
+     * Sends a move to the server, which broadcasts it back to every player if it is accepted.
+     * <p>
+     * This method can be called from any thread.
+     * </p>
+     * @param turn the turn the move is played on, which the server checks against its own state.
+     * @param move the move.
+     */
+    public void submitMove(int turn, int move) {
+        if (Thread.currentThread() == mClient) {
+            writeMove(turn, move);
+        } else {
+            mClient.execute(() -> writeMove(turn, move));
+        }
+    }
+
+    /**
+     * Writes a move to the connection of the session.
+     * @param turn the turn the move is played on.
+     * @param move the move.
+     */
+    private void writeMove(int turn, int move) {
+        if (mConnection != null) {
+            final ByteBuffer buffer = mClient.beginFrame(mConnection, Protocol.TYPE_MOVE, Protocol.MOVE_SIZE);
+            buffer.putShort((short) turn);
+            buffer.put((byte) move);
+        }
+    }
+
+    /**
+     * Closes the connection of the session.
+     * <p>
+     * This method can be called from any thread.
+     * </p>
+     */
+    public void close() {
+        mClient.execute(() -> {
+            if (mConnection != null) {
+                mClient.close(mConnection);
+            }
+        });
+    }
+
+    // Getters
+    /**
+     * Gets the identifier of the table.
+     * @return the identifier.
+     */
+    public int getTableId() {
+        return mTableId;
+    }
+
+    /**
+     * Gets the number of players of the table.
+     * @return the number of players.
+     */
+    public int getPlayerCount() {
+        return mPlayerCount;
+    }
+
+    /**
+     * Gets the seat of the session.
+     * <p>
+     * This method can be called from any thread.
+     * </p>
+     * @return the seat, or <code>-1</code> until the session is seated.
+     */
+    public int getSeat() {
+        return mSeat;
+    }
+
+    /**
+     * Gets the view of the state of the table from the seat of the session, to be read from the thread of the client
+     * only.
+     * @return the {@link GameState} instance, whose own cards and deck are {@link Card#NONE}.
+     */
+    public GameState getGameState() {
+        return mGameState;
+    }
+
+    /**
+     * Indicates whether it is the turn of the session.
+     * @return <code>true</code> if the game is not over and the current player is the seat of the session.
+     */
+    public boolean isMyTurn() {
+        return !mGameState.isGameOver() && mGameState.getCurrentPlayer() == mSeat;
+    }
+}
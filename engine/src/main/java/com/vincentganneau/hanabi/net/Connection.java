@@ -0,0 +1,83 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.net;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+/**
+ * A connection handled by a {@link SelectorLoop}, only accessed from the thread of the loop.
+ * <p>
+ * A connection only holds buffers while it has something to hold: the beginning of a frame that has not been fully
+ * received, or frames that have not been written to the socket yet. Idle connections thus cost no buffer.
+ * </p>
+ * @author Vincent Ganneau
+ */
+final class Connection {
+
+    // Channel
+    /**
+     * The channel of the connection.
+     */
+    final SocketChannel mChannel;
+    /**
+     * The key of the channel in the selector of the loop.
+     */
+    SelectionKey mKey;
+
+    // Buffers
+    /**
+     * The bytes of an incomplete frame, or <code>null</code>.
+     */
+    ByteBuffer mInput;
+    /**
+     * The frames waiting to be written, or <code>null</code>.
+     */
+    ByteBuffer mOutput;
+
+    // States
+    /**
+     * Indicates whether the connection is waiting for its frames to be flushed at the end of the iteration.
+     */
+    boolean mDirty;
+    /**
+     * Indicates whether the connection is going to be closed at the end of the iteration.
+     */
+    boolean mClosing;
+
+    // Session
+    /**
+     * The object the connection belongs to: the table of a {@link SessionServer}, or the {@link ClientSession} of a
+     * {@link SessionClient}.
+     */
+    Object mAttachment;
+    /**
+     * The seat of the connection at its table, or <code>-1</code>.
+     */
+    int mSeat = -1;
+
+    // Constructor
+    /**
+     * Creates a new {@link Connection}.
+     * @param channel the channel of the connection.
+     */
+    Connection(SocketChannel channel) {
+        mChannel = channel;
+    }
+}
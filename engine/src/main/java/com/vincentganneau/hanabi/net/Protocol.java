@@ -0,0 +1,130 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.net;
+
+/**
+ * The wire protocol between a {@link SessionServer} and its {@link SessionClient}s.
+ * <p>
+ * Every message is a frame made of its length on two bytes, counting the type and the payload, its type on one byte
+ * and its payload. Integers are big-endian.
+ * </p>
+ * <p>
+ * A client joins a table with {@link #TYPE_JOIN}. Once every seat is taken, the server deals the cards and sends
+ * every player its view of the game as a keyframe, {@link #TYPE_STATE}, in which its own cards and the deck are
+ * hidden. From then on, the state is delta-encoded: every move accepted by the server is broadcast as a
+ * {@link #TYPE_DELTA} of a few bytes, carrying the cards the move reveals to the receiving player, which every client
+ * applies to its view. A client whose view cannot apply a delta asks for a new keyframe with {@link #TYPE_RESYNC}.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public final class Protocol {
+
+    // Frames
+    /**
+     * The size of the header of a frame: its length and its type.
+     */
+    public static final int FRAME_HEADER_SIZE = 2 + 1;
+    /**
+     * The maximum length of a frame, type and payload included.
+     */
+    public static final int MAX_FRAME_SIZE = 1024;
+
+    // Client messages
+    /**
+     * Joins a table, creating it if needed: the identifier of the table on four bytes, then the number of players on
+     * one byte.
+     */
+    public static final int TYPE_JOIN = 1;
+    /**
+     * Plays a move: the turn the move is played on, on two bytes, then the move on one byte.
+     */
+    public static final int TYPE_MOVE = 2;
+    /**
+     * Asks for a keyframe of the state, without any payload.
+     */
+    public static final int TYPE_RESYNC = 3;
+
+    // Server messages
+    /**
+     * Confirms a join: the identifier of the table on four bytes, then the seat and the number of players on one byte
+     * each.
+     */
+    public static final int TYPE_SEATED = 16;
+    /**
+     * A keyframe: a snapshot of the {@link com.vincentganneau.hanabi.game.GameState} as seen from the receiving seat,
+     * see {@link com.vincentganneau.hanabi.game.GameState#hideCards(int)}.
+     */
+    public static final int TYPE_STATE = 17;
+    /**
+     * A delta: the turn of an accepted move on two bytes, the move on one byte, then on one byte each the played or
+     * discarded card, or the hinted slots of a hint, and the drawn card, which is
+     * {@link com.vincentganneau.hanabi.game.Card#NONE} for the player who drew it.
+     */
+    public static final int TYPE_DELTA = 18;
+    /**
+     * An error: its code on one byte.
+     */
+    public static final int TYPE_ERROR = 19;
+
+    // Payload sizes
+    /**
+     * The size of the payload of {@link #TYPE_JOIN}.
+     */
+    public static final int JOIN_SIZE = 4 + 1;
+    /**
+     * The size of the payload of {@link #TYPE_MOVE}.
+     */
+    public static final int MOVE_SIZE = 2 + 1;
+    /**
+     * The size of the payload of {@link #TYPE_DELTA}.
+     */
+    public static final int DELTA_SIZE = 2 + 1 + 1 + 1;
+    /**
+     * The size of the payload of {@link #TYPE_SEATED}.
+     */
+    public static final int SEATED_SIZE = 4 + 1 + 1;
+    /**
+     * The size of the payload of {@link #TYPE_ERROR}.
+     */
+    public static final int ERROR_SIZE = 1;
+
+    // Error codes
+    /**
+     * The number of players is invalid or does not match the table.
+     */
+    public static final int ERROR_INVALID_PLAYER_COUNT = 1;
+    /**
+     * Every seat of the table is already taken.
+     */
+    public static final int ERROR_TABLE_FULL = 2;
+    /**
+     * A player has left the table during the game, which cannot go on.
+     */
+    public static final int ERROR_PLAYER_LEFT = 3;
+    /**
+     * The client has sent a move before its game started.
+     */
+    public static final int ERROR_NOT_STARTED = 4;
+
+    // Constructor
+    /**
+     * Prevents instantiation.
+     */
+    private Protocol() {
+    }
+}
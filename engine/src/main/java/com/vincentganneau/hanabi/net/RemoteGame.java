@@ -0,0 +1,239 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.net;
+
+import android.support.annotation.VisibleForTesting;
+
+import com.vincentganneau.hanabi.game.GameState;
+import com.vincentganneau.hanabi.model.GameEngine;
+import com.vincentganneau.hanabi.model.GameObject;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link GameObject} keeping the {@link GameState} of a local {@link GameEngine} in sync with a table of a
+ * {@link SessionServer}.
+ * <p>
+ * The keyframes and the moves received by the {@link ClientSession} on the thread of the client are handed over to
+ * the update thread, which applies them to the state of the game on the next update. Moves are never applied
+ * locally when they are played: they are sent with {@link #submitMove(int)} and applied once the server has
+ * accepted them, like the moves of the other players.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public class RemoteGame extends GameObject implements SessionListener {
+
+    // Dependencies
+    /**
+     * The state of the game, which is only modified from the update thread.
+     */
+    @VisibleForTesting
+    public final GameState mGameState;
+    /**
+     * The session of the local player, or <code>null</code> until it is opened.
+     */
+    private volatile ClientSession mSession;
+
+    // Inbox
+    /**
+     * The lock guarding the inbox.
+     */
+    private final ReentrantLock mLock = new ReentrantLock();
+    /**
+     * The latest keyframe received and not applied yet, or <code>null</code>. Guarded by {@link #mLock}.
+     */
+    private GameState mPendingState;
+    /**
+     * The moves received and not applied yet, after {@link #mPendingState}, each followed by the cards it reveals.
+     * Guarded by {@link #mLock}.
+     */
+    private int[] mPendingMoves = new int[64 * 3];
+    /**
+     * The number of moves received and not applied yet. Guarded by {@link #mLock}.
+     */
+    private int mPendingMoveCount;
+    /**
+     * The spare state swapped with {@link #mPendingState}. Guarded by {@link #mLock}.
+     */
+    private GameState mSpareState;
+
+    // States
+    /**
+     * The code of the latest error reported by the server, or <code>0</code>.
+     */
+    private volatile int mErrorCode;
+    /**
+     * Indicates whether the session has been closed.
+     */
+    private volatile boolean mClosed;
+
+    // Constructor
+    /**
+     * Creates a new {@link RemoteGame}.
+     * @param gameState the state of the game, which is only modified from the update thread.
+     */
+    public RemoteGame(GameState gameState) {
+        mGameState = gameState;
+    }
+
+    // Session
+    /**
+     * Joins a table of a server through a client.
+     * @param client the client.
+     * @param address the address of the server.
+     * @param tableId the identifier of the table.
+     * @param playerCount the number of players of the table.
+     */
+    public void connect(SessionClient client, InetSocketAddress address, int tableId, int playerCount) {
+        mSession = client.connect(address, tableId, playerCount, this);
+    }
+
+    /**
+     * Sends a move of the local player to the server, to be applied once it has been accepted.
+     * <p>
+     * This method must be called from the update thread.
+     * </p>
+     * @param move the move.
+     */
+    public void submitMove(int move) {
+        final ClientSession session = mSession;
+        if (session != null) {
+            session.submitMove(mGameState.getTurn(), move);
+        }
+    }
+
+    // Getters
+    /**
+     * Gets the seat of the local player.
+     * @return the seat, or <code>-1</code> until the local player is seated.
+     */
+    public int getSeat() {
+        final ClientSession session = mSession;
+        return session != null ? session.getSeat() : -1;
+    }
+
+    /**
+     * Indicates whether it is the turn of the local player on the state of the game.
+     * <p>
+     * This method must be called from the update thread.
+     * </p>
+     * @return <code>true</code> if the game is not over and the current player is the local player.
+     */
+    public boolean isLocalTurn() {
+        return !mGameState.isGameOver() && mGameState.getCurrentPlayer() == getSeat();
+    }
+
+    /**
+     * Gets the code of the latest error reported by the server.
+     * @return the code, or <code>0</code> if no error has been reported.
+     * @see Protocol
+     */
+    public int getErrorCode() {
+        return mErrorCode;
+    }
+
+    /**
+     * Indicates whether the session has been closed.
+     * @return <code>true</code> if the session has been closed, <code>false</code> otherwise.
+     */
+    public boolean isClosed() {
+        return mClosed;
+    }
+
+    // Game object
+    @Override
+    public void onGameStart() {
+
+    }
+
+    @Override
+    public void onUpdate(double elapsedMillis, GameEngine gameEngine) {
+        mLock.lock();
+        try {
+            if (mPendingState == null && mPendingMoveCount == 0) {
+                return;
+            }
+            if (mPendingState != null) {
+                mGameState.copyFrom(mPendingState);
+                mSpareState = mPendingState;
+                mPendingState = null;
+            }
+            for (int i = 0; i < mPendingMoveCount; i++) {
+                mGameState.applyObserved(mPendingMoves[3 * i], mPendingMoves[3 * i + 1], mPendingMoves[3 * i + 2]);
+            }
+            mPendingMoveCount = 0;
+        } finally {
+            mLock.unlock();
+        }
+        invalidate();
+    }
+
+    @Override
+    public void onDraw() {
+
+    }
+
+    // Session listener
+    @Override
+    public void onSeated(ClientSession session) {
+
+    }
+
+    @Override
+    public void onStateReceived(ClientSession session) {
+        mLock.lock();
+        try {
+            if (mPendingState == null) {
+                mPendingState = mSpareState != null ? mSpareState : new GameState(session.getPlayerCount());
+                mSpareState = null;
+            }
+            mPendingState.copyFrom(session.getGameState());
+            mPendingMoveCount = 0;
+        } finally {
+            mLock.unlock();
+        }
+    }
+
+    @Override
+    public void onMoveApplied(ClientSession session, int move, int revealed, int drawnCard) {
+        mLock.lock();
+        try {
+            if (3 * mPendingMoveCount == mPendingMoves.length) {
+                mPendingMoves = Arrays.copyOf(mPendingMoves, mPendingMoves.length * 2);
+            }
+            final int offset = 3 * mPendingMoveCount++;
+            mPendingMoves[offset] = move;
+            mPendingMoves[offset + 1] = revealed;
+            mPendingMoves[offset + 2] = drawnCard;
+        } finally {
+            mLock.unlock();
+        }
+    }
+
+    @Override
+    public void onError(ClientSession session, int code) {
+        mErrorCode = code;
+    }
+
+    @Override
+    public void onClosed(ClientSession session) {
+        mClosed = true;
+    }
+}
@@ -0,0 +1,529 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.net;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Abstract {@link Thread} subclass running a non-blocking NIO event loop on a single {@link Selector}.
+ * <p>
+ * Every iteration reads the frames of the readable connections and hands them to {@link #onFrame}, then closes the
+ * connections that asked to be closed, and finally flushes every connection that has been written to. Frames
+ * written during an iteration are thus batched into a single socket write per connection. The pending bytes of a
+ * connection live in direct buffers taken from a {@link BufferPool}, and a connection whose peer does not read fast
+ * enough to keep its pending frames within a buffer is closed.
+ * </p>
+ * <p>
+ * Every method of a subclass is meant to be called from the loop thread, unless documented otherwise. Other threads
+ * hand work over to it with {@link #execute(Runnable)}.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public abstract class SelectorLoop extends Thread {
+
+    // Buffers
+    /**
+     * The capacity of the pooled buffers.
+     */
+    public static final int BUFFER_SIZE = 16 * 1024;
+    /**
+     * The maximum number of buffers kept in the pool.
+     */
+    private static final int MAX_POOLED_BUFFERS = 256;
+
+    // Selector
+    /**
+     * The selector of the loop.
+     */
+    protected final Selector mSelector;
+    /**
+     * Indicates whether the loop is running.
+     */
+    private volatile boolean mRunning = true;
+
+    // Buffers
+    /**
+     * The pool of the buffers of the connections.
+     */
+    protected final BufferPool mBufferPool = new BufferPool(BUFFER_SIZE, MAX_POOLED_BUFFERS);
+    /**
+     * The buffer every connection is read into, after the bytes of its incomplete frame.
+     */
+    private final ByteBuffer mReadBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    /**
+     * The buffer the frames of closing connections are written into, and dropped.
+     */
+    private final ByteBuffer mDiscardBuffer = ByteBuffer.allocate(Protocol.FRAME_HEADER_SIZE + Protocol.MAX_FRAME_SIZE);
+
+    // Connections
+    /**
+     * The connections that have been written to during the current iteration.
+     */
+    private final ArrayList<Connection> mDirtyConnections = new ArrayList<>();
+    /**
+     * The connections to be closed at the end of the current iteration.
+     */
+    private final ArrayList<Connection> mClosingConnections = new ArrayList<>();
+
+    // Commands
+    /**
+     * The commands handed over by other threads.
+     */
+    private final ConcurrentLinkedQueue<Runnable> mCommands = new ConcurrentLinkedQueue<>();
+
+    // Constructor
+    /**
+     * Creates a new {@link SelectorLoop}.
+     * @param name the name of the thread.
+     * @throws IOException if the selector cannot be opened.
+     */
+    protected SelectorLoop(String name) throws IOException {
+        super(name);
+        setDaemon(true);
+        mSelector = Selector.open();
+    }
+
+    // Frames
+    /**
+     * Handles a frame received by a connection.
+     * <p>
+     * A payload that is too short or invalid makes the method throw a {@link BufferUnderflowException} or an
+     * {@link IllegalArgumentException}, which closes the connection.
+     * </p>
+     * @param connection the connection.
+     * @param type the type of the frame.
+     * @param payload the payload of the frame, between its position and its limit.
+     */
+    abstract void onFrame(Connection connection, int type, ByteBuffer payload);
+
+    /**
+     * Notifies a connection has been established.
+     * @param connection the connection.
+     */
+    void onConnected(Connection connection) {
+
+    }
+
+    /**
+     * Notifies a connection has been closed.
+     * @param connection the connection.
+     */
+    abstract void onClosed(Connection connection);
+
+    // Loop
+    @Override
+    public void run() {
+        try {
+            while (mRunning) {
+                mSelector.select();
+                runCommands();
+                final Iterator<SelectionKey> keys = mSelector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    final SelectionKey key = keys.next();
+                    keys.remove();
+                    handleKey(key);
+                }
+                closeConnections();
+                flushConnections();
+            }
+        } catch (IOException e) {
+            // The selector is broken: stop the loop.
+        } finally {
+            closeAll();
+        }
+    }
+
+    /**
+     * Stops the loop and closes every channel.
+     * <p>
+     * This method can be called from any thread.
+     * </p>
+     */
+    public void shutdown() {
+        mRunning = false;
+        mSelector.wakeup();
+    }
+
+    /**
+     * Runs a command on the loop thread.
+     * <p>
+     * This method can be called from any thread.
+     * </p>
+     * @param command the command.
+     */
+    public void execute(Runnable command) {
+        mCommands.add(command);
+        mSelector.wakeup();
+    }
+
+    /**
+     * Runs the commands handed over by other threads.
+     */
+    private void runCommands() {
+        Runnable command;
+        while ((command = mCommands.poll()) != null) {
+            command.run();
+        }
+    }
+
+    /**
+     * Handles a selected key.
+     * @param key the key.
+     */
+    private void handleKey(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept((ServerSocketChannel) key.channel());
+            return;
+        }
+        final Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isConnectable()) {
+                finishConnect(connection);
+            }
+            if (key.isValid() && key.isReadable()) {
+                read(connection);
+            }
+            if (key.isValid() && key.isWritable()) {
+                flush(connection);
+            }
+        } catch (IOException e) {
+            close(connection);
+        }
+    }
+
+    // Channels
+    /**
+     * Listens to connections on an address.
+     * <p>
+     * This method must be called before the loop is started.
+     * </p>
+     * @param address the address, whose port can be <code>0</code> to pick any free port.
+     * @return the port the connections are listened to on.
+     * @throws IOException if the address cannot be bound.
+     */
+    protected int listen(InetSocketAddress address) throws IOException {
+        if (isAlive()) {
+            throw new IllegalStateException("The loop is already running");
+        }
+        final ServerSocketChannel channel = ServerSocketChannel.open();
+        try {
+            channel.configureBlocking(false);
+            channel.socket().setReuseAddress(true);
+            channel.socket().bind(address, 1024);
+            channel.register(mSelector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return channel.socket().getLocalPort();
+    }
+
+    /**
+     * Accepts every pending connection of a server channel.
+     * @param serverChannel the server channel.
+     */
+    private void accept(ServerSocketChannel serverChannel) {
+        while (true) {
+            final SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+                if (channel == null) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Typically out of file descriptors: leave the connection in the backlog.
+                return;
+            }
+            final Connection connection = new Connection(channel);
+            try {
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                connection.mKey = channel.register(mSelector, SelectionKey.OP_READ, connection);
+            } catch (IOException e) {
+                closeChannel(connection);
+                continue;
+            }
+            onConnected(connection);
+        }
+    }
+
+    /**
+     * Opens a connection to an address.
+     * <p>
+     * Frames can be written to the connection right away: they are flushed once it is established.
+     * </p>
+     * @param address the address.
+     * @param attachment the object the connection belongs to.
+     * @return the connection.
+     * @throws IOException if the connection cannot be opened.
+     */
+    Connection connect(InetSocketAddress address, Object attachment) throws IOException {
+        final SocketChannel channel = SocketChannel.open();
+        final Connection connection = new Connection(channel);
+        connection.mAttachment = attachment;
+        try {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            if (channel.connect(address)) {
+                connection.mKey = channel.register(mSelector, SelectionKey.OP_READ, connection);
+                onConnected(connection);
+            } else {
+                connection.mKey = channel.register(mSelector, SelectionKey.OP_CONNECT, connection);
+            }
+        } catch (IOException e) {
+            closeChannel(connection);
+            throw e;
+        }
+        return connection;
+    }
+
+    /**
+     * Finishes establishing a connection, then flushes the frames written to it in the meantime.
+     * @param connection the connection.
+     * @throws IOException if the connection failed.
+     */
+    private void finishConnect(Connection connection) throws IOException {
+        if (connection.mChannel.finishConnect()) {
+            connection.mKey.interestOps(SelectionKey.OP_READ);
+            onConnected(connection);
+            flush(connection);
+        }
+    }
+
+    // Reads
+    /**
+     * Reads a connection and handles every complete frame, keeping the bytes of an incomplete one for the next read.
+     * @param connection the connection.
+     * @throws IOException if the connection cannot be read.
+     */
+    private void read(Connection connection) throws IOException {
+        final ByteBuffer buffer = mReadBuffer;
+        buffer.clear();
+        if (connection.mInput != null) {
+            connection.mInput.flip();
+            buffer.put(connection.mInput);
+            mBufferPool.release(connection.mInput);
+            connection.mInput = null;
+        }
+        if (connection.mChannel.read(buffer) < 0) {
+            close(connection);
+            return;
+        }
+        buffer.flip();
+
+        // Handle the complete frames
+        while (buffer.remaining() >= 2 && !connection.mClosing) {
+            final int position = buffer.position();
+            final int length = buffer.getShort(position) & 0xFFFF;
+            if (length < 1 || length > Protocol.MAX_FRAME_SIZE) {
+                close(connection);
+                return;
+            }
+            if (buffer.remaining() < 2 + length) {
+                break;
+            }
+            final int limit = buffer.limit();
+            final int end = position + 2 + length;
+            buffer.position(position + 2);
+            final int type = buffer.get();
+            buffer.limit(end);
+            try {
+                onFrame(connection, type, buffer);
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                close(connection);
+            }
+            buffer.limit(limit);
+            buffer.position(end);
+        }
+
+        // Keep the incomplete frame
+        if (buffer.hasRemaining() && !connection.mClosing) {
+            connection.mInput = mBufferPool.acquire();
+            connection.mInput.put(buffer);
+        }
+    }
+
+    // Writes
+    /**
+     * Starts writing a frame to a connection, to be flushed at the end of the iteration.
+     * @param connection the connection.
+     * @param type the type of the frame.
+     * @param payloadSize the size of the payload, which the caller must write into the returned buffer.
+     * @return the buffer to write the payload into.
+     */
+    ByteBuffer beginFrame(Connection connection, int type, int payloadSize) {
+        if (payloadSize + 1 > Protocol.MAX_FRAME_SIZE) {
+            throw new IllegalArgumentException("Frame too large: " + payloadSize);
+        }
+        ByteBuffer buffer = connection.mOutput;
+        if (!connection.mClosing) {
+            if (buffer == null) {
+                buffer = connection.mOutput = mBufferPool.acquire();
+            }
+            if (buffer.remaining() < Protocol.FRAME_HEADER_SIZE + payloadSize) {
+                // The peer does not keep up
+                close(connection);
+            }
+        }
+        if (connection.mClosing) {
+            buffer = mDiscardBuffer;
+            buffer.clear();
+        } else if (!connection.mDirty) {
+            connection.mDirty = true;
+            mDirtyConnections.add(connection);
+        }
+        buffer.putShort((short) (payloadSize + 1));
+        buffer.put((byte) type);
+        return buffer;
+    }
+
+    /**
+     * Writes the pending frames of a connection to its channel, and waits for the channel to be writable if they do
+     * not all fit.
+     * @param connection the connection.
+     * @throws IOException if the connection cannot be written.
+     */
+    private void flush(Connection connection) throws IOException {
+        final ByteBuffer buffer = connection.mOutput;
+        if (buffer == null || connection.mClosing || !connection.mChannel.isConnected()) {
+            return;
+        }
+        buffer.flip();
+        connection.mChannel.write(buffer);
+        final SelectionKey key = connection.mKey;
+        if (buffer.hasRemaining()) {
+            buffer.compact();
+            key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+        } else {
+            mBufferPool.release(buffer);
+            connection.mOutput = null;
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+        }
+    }
+
+    /**
+     * Flushes every connection written to during the iteration.
+     */
+    private void flushConnections() {
+        final int count = mDirtyConnections.size();
+        for (int i = 0; i < count; i++) {
+            final Connection connection = mDirtyConnections.get(i);
+            connection.mDirty = false;
+            try {
+                flush(connection);
+            } catch (IOException e) {
+                close(connection);
+            }
+        }
+        mDirtyConnections.clear();
+
+        // Closing a connection can write to others
+        if (!mClosingConnections.isEmpty()) {
+            closeConnections();
+            flushConnections();
+        }
+    }
+
+    // Closing
+    /**
+     * Closes a connection at the end of the iteration, dropping its pending frames.
+     * @param connection the connection.
+     */
+    void close(Connection connection) {
+        if (!connection.mClosing) {
+            connection.mClosing = true;
+            mClosingConnections.add(connection);
+        }
+    }
+
+    /**
+     * Closes the connections that asked to be closed, including those closed while notifying the others.
+     */
+    private void closeConnections() {
+        for (int i = 0; i < mClosingConnections.size(); i++) {
+            final Connection connection = mClosingConnections.get(i);
+            closeChannel(connection);
+            onClosed(connection);
+        }
+        mClosingConnections.clear();
+    }
+
+    /**
+     * Closes the channel of a connection and releases its buffers.
+     * @param connection the connection.
+     */
+    private void closeChannel(Connection connection) {
+        connection.mClosing = true;
+        if (connection.mKey != null) {
+            connection.mKey.cancel();
+        }
+        try {
+            connection.mChannel.close();
+        } catch (IOException e) {
+            // Nothing more can be done.
+        }
+        if (connection.mInput != null) {
+            mBufferPool.release(connection.mInput);
+            connection.mInput = null;
+        }
+        if (connection.mOutput != null) {
+            mBufferPool.release(connection.mOutput);
+            connection.mOutput = null;
+        }
+    }
+
+    /**
+     * Closes every channel and the selector once the loop has stopped.
+     */
+    private void closeAll() {
+        for (SelectionKey key : mSelector.keys()) {
+            try {
+                key.channel().close();
+            } catch (IOException e) {
+                // Nothing more can be done.
+            }
+        }
+        try {
+            mSelector.close();
+        } catch (IOException e) {
+            // Nothing more can be done.
+        }
+    }
+
+    // Getters
+    /**
+     * Gets the pool of the buffers of the connections.
+     * @return the {@link BufferPool} instance, to be read from the loop thread.
+     */
+    public BufferPool getBufferPool() {
+        return mBufferPool;
+    }
+}
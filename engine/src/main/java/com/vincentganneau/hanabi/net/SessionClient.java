@@ -0,0 +1,139 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.net;
+
+import com.vincentganneau.hanabi.game.GameState;
+import com.vincentganneau.hanabi.model.SnapshotReader;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link SelectorLoop} connecting {@link ClientSession}s to a {@link SessionServer}.
+ * <p>
+ * A single client can hold as many sessions as needed, at the same table or at different ones, which lets a single
+ * thread play thousands of tables.
+ * </p>
+ * @author Vincent Ganneau
+ * @see Protocol
+ */
+public class SessionClient extends SelectorLoop {
+
+    // Snapshot
+    /**
+     * The bytes of the keyframe being read.
+     */
+    private final byte[] mSnapshotBytes = new byte[Protocol.MAX_FRAME_SIZE];
+    /**
+     * The reader of the keyframes.
+     */
+    private final SnapshotReader mSnapshotReader = new SnapshotReader(Protocol.MAX_FRAME_SIZE);
+
+    // Constructor
+    /**
+     * Creates a new {@link SessionClient}.
+     * @throws IOException if the selector cannot be opened.
+     */
+    public SessionClient() throws IOException {
+        super("SessionClient");
+    }
+
+    // Sessions
+    /**
+     * Opens a session at a table of a server, creating the table if needed.
+     * <p>
+     * This method can be called from any thread. The listener is notified once the session is seated, or closed if
+     * the server cannot be reached.
+     * </p>
+     * @param address the address of the server.
+     * @param tableId the identifier of the table.
+     * @param playerCount the number of players of the table.
+     * @param listener the listener of the session.
+     * @return the session.
+     */
+    public ClientSession connect(InetSocketAddress address, int tableId, int playerCount, SessionListener listener) {
+        if (playerCount < GameState.MIN_PLAYER_COUNT || playerCount > GameState.MAX_PLAYER_COUNT) {
+            throw new IllegalArgumentException("Invalid number of players: " + playerCount);
+        }
+        final ClientSession session = new ClientSession(this, tableId, playerCount, listener);
+        execute(() -> {
+            try {
+                session.mConnection = connect(address, session);
+            } catch (IOException e) {
+                listener.onClosed(session);
+                return;
+            }
+            final ByteBuffer buffer = beginFrame(session.mConnection, Protocol.TYPE_JOIN, Protocol.JOIN_SIZE);
+            buffer.putInt(tableId);
+            buffer.put((byte) playerCount);
+        });
+        return session;
+    }
+
+    // Frames
+    @Override
+    void onFrame(Connection connection, int type, ByteBuffer payload) {
+        final ClientSession session = (ClientSession) connection.mAttachment;
+        switch (type) {
+            case Protocol.TYPE_SEATED:
+                payload.getInt();
+                session.mSeat = payload.get();
+                session.mListener.onSeated(session);
+                break;
+            case Protocol.TYPE_STATE:
+                final int length = payload.remaining();
+                payload.get(mSnapshotBytes, 0, length);
+                mSnapshotReader.reset(mSnapshotBytes, 0, length);
+                session.mGameState.restoreSnapshot(mSnapshotReader);
+                session.mResyncPending = false;
+                session.mListener.onStateReceived(session);
+                break;
+            case Protocol.TYPE_DELTA:
+                final int turn = payload.getShort() & 0xFFFF;
+                final int move = payload.get() & 0xFF;
+                final int revealed = payload.get();
+                final int drawnCard = payload.get();
+                final GameState gameState = session.mGameState;
+                if (session.mResyncPending) {
+                    // The keyframe on its way already includes the move
+                    break;
+                }
+                if (gameState.getTurn() == turn && gameState.isLegal(move)) {
+                    gameState.applyObserved(move, revealed, drawnCard);
+                    session.mListener.onMoveApplied(session, move, revealed, drawnCard);
+                } else {
+                    // The replica has diverged: ask for a keyframe
+                    session.mResyncPending = true;
+                    beginFrame(connection, Protocol.TYPE_RESYNC, 0);
+                }
+                break;
+            case Protocol.TYPE_ERROR:
+                session.mListener.onError(session, payload.get());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown frame type: " + type);
+        }
+    }
+
+    @Override
+    void onClosed(Connection connection) {
+        final ClientSession session = (ClientSession) connection.mAttachment;
+        session.mListener.onClosed(session);
+    }
+}
@@ -0,0 +1,65 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.net;
+
+/**
+ * Interface for the objects notified of the events of a {@link ClientSession}.
+ * <p>
+ * Every method is called from the thread of the {@link SessionClient}, and must not block it.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public interface SessionListener {
+
+    /**
+     * Notifies the session has been seated at its table.
+     * @param session the session.
+     */
+    void onSeated(ClientSession session);
+
+    /**
+     * Notifies the state of the session has been replaced by a keyframe, when the game starts or after a resync.
+     * @param session the session.
+     */
+    void onStateReceived(ClientSession session);
+
+    /**
+     * Notifies a move accepted by the server has been applied to the state of the session.
+     * @param session the session.
+     * @param move the move.
+     * @param revealed the played or discarded card, or the hinted slots of a hint.
+     * @param drawnCard the drawn card, or {@link com.vincentganneau.hanabi.game.Card#NONE} if the session drew it or
+     * no card was drawn.
+     * @see com.vincentganneau.hanabi.game.GameState#applyObserved(int, int, int)
+     */
+    void onMoveApplied(ClientSession session, int move, int revealed, int drawnCard);
+
+    /**
+     * Notifies the server has reported an error.
+     * @param session the session.
+     * @param code the code of the error.
+     * @see Protocol
+     */
+    void onError(ClientSession session, int code);
+
+    /**
+     * Notifies the connection of the session has been closed.
+     * @param session the session.
+     */
+    void onClosed(ClientSession session);
+}
@@ -0,0 +1,316 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.net;
+
+import com.vincentganneau.hanabi.game.Card;
+import com.vincentganneau.hanabi.game.GameState;
+import com.vincentganneau.hanabi.game.Move;
+import com.vincentganneau.hanabi.model.SnapshotWriter;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * {@link SelectorLoop} hosting tables of Hanabi, every table holding the authoritative {@link GameState} of a game.
+ * <p>
+ * A table is created by the first player joining it, and its cards are dealt once every seat is taken. The server
+ * checks every move against the state of the table: an accepted move is applied and broadcast as a delta to every
+ * seat, while a rejected one is answered with a keyframe, so that the client catches up with the table. Every seat
+ * only receives its own view of the table: neither its keyframes nor its deltas hold its own cards. The game
+ * cannot go on once a player has left, and the table is removed once every player has left.
+ * </p>
+ * <p>
+ * All the tables are handled by the single thread of the loop, which never blocks on a client.
+ * </p>
+ * @author Vincent Ganneau
+ * @see Protocol
+ */
+public class SessionServer extends SelectorLoop {
+
+    // Tables
+    /**
+     * The tables, by identifier.
+     */
+    private final HashMap<Integer, Table> mTables = new HashMap<>();
+    /**
+     * The number of tables, readable from any thread.
+     */
+    private volatile int mTableCount;
+
+    // Randomness
+    /**
+     * The source of randomness of the deals.
+     */
+    private final Random mRandom;
+
+    // Snapshot
+    /**
+     * The writer of the keyframes.
+     */
+    private final SnapshotWriter mSnapshotWriter = new SnapshotWriter(Protocol.MAX_FRAME_SIZE);
+    /**
+     * The view of a seat, copied from the state of its table before every keyframe.
+     */
+    private final GameState mViewState = new GameState(GameState.MAX_PLAYER_COUNT);
+
+    // Constructor
+    /**
+     * Creates a new {@link SessionServer}.
+     * @param seed the seed of the deals, so that a sequence of tables can be replayed.
+     * @throws IOException if the selector cannot be opened.
+     */
+    public SessionServer(long seed) throws IOException {
+        super("SessionServer");
+        mRandom = new Random(seed);
+    }
+
+    // Channels
+    /**
+     * Listens to clients on an address.
+     * <p>
+     * This method must be called before the server is started.
+     * </p>
+     * @param address the address, whose port can be <code>0</code> to pick any free port.
+     * @return the port the clients are listened to on.
+     * @throws IOException if the address cannot be bound.
+     */
+    public int bind(InetSocketAddress address) throws IOException {
+        return listen(address);
+    }
+
+    // Frames
+    @Override
+    void onFrame(Connection connection, int type, ByteBuffer payload) {
+        switch (type) {
+            case Protocol.TYPE_JOIN:
+                final int tableId = payload.getInt();
+                join(connection, tableId, payload.get());
+                break;
+            case Protocol.TYPE_MOVE:
+                final int turn = payload.getShort() & 0xFFFF;
+                play(connection, turn, payload.get() & 0xFF);
+                break;
+            case Protocol.TYPE_RESYNC:
+                final Table table = (Table) connection.mAttachment;
+                if (table != null && table.mStarted) {
+                    writeState(table.mGameState, connection.mSeat);
+                    sendState(connection);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown frame type: " + type);
+        }
+    }
+
+    @Override
+    void onClosed(Connection connection) {
+        final Table table = (Table) connection.mAttachment;
+        if (table == null) {
+            return;
+        }
+        table.mSeats[connection.mSeat] = null;
+        if (--table.mSeatedCount == 0) {
+            mTables.remove(table.mId);
+            mTableCount = mTables.size();
+        } else if (table.mStarted) {
+            for (Connection seat : table.mSeats) {
+                if (seat != null) {
+                    sendError(seat, Protocol.ERROR_PLAYER_LEFT);
+                }
+            }
+        }
+    }
+
+    // Tables
+    /**
+     * Seats a connection at a table, creating the table if needed, and deals the cards once the table is full.
+     * @param connection the connection.
+     * @param tableId the identifier of the table.
+     * @param playerCount the number of players of the table.
+     */
+    private void join(Connection connection, int tableId, int playerCount) {
+        if (connection.mAttachment != null) {
+            throw new IllegalArgumentException("Already seated");
+        }
+        Table table = mTables.get(tableId);
+        if (table == null) {
+            if (playerCount < GameState.MIN_PLAYER_COUNT || playerCount > GameState.MAX_PLAYER_COUNT) {
+                sendError(connection, Protocol.ERROR_INVALID_PLAYER_COUNT);
+                return;
+            }
+            table = new Table(tableId, playerCount);
+            mTables.put(tableId, table);
+            mTableCount = mTables.size();
+        } else if (table.mSeats.length != playerCount) {
+            sendError(connection, Protocol.ERROR_INVALID_PLAYER_COUNT);
+            return;
+        } else if (table.mStarted || table.mSeatedCount == playerCount) {
+            sendError(connection, Protocol.ERROR_TABLE_FULL);
+            return;
+        }
+
+        // Take the first free seat
+        int seat = 0;
+        while (table.mSeats[seat] != null) {
+            seat++;
+        }
+        table.mSeats[seat] = connection;
+        table.mSeatedCount++;
+        connection.mAttachment = table;
+        connection.mSeat = seat;
+        final ByteBuffer buffer = beginFrame(connection, Protocol.TYPE_SEATED, Protocol.SEATED_SIZE);
+        buffer.putInt(tableId);
+        buffer.put((byte) seat);
+        buffer.put((byte) playerCount);
+
+        // Deal once every seat is taken
+        if (table.mSeatedCount == playerCount) {
+            table.mStarted = true;
+            table.mGameState.deal(mRandom);
+            for (int player = 0; player < playerCount; player++) {
+                writeState(table.mGameState, player);
+                sendState(table.mSeats[player]);
+            }
+        }
+    }
+
+    /**
+     * Applies a move to the table of a connection and broadcasts it with the cards it reveals, or sends a keyframe
+     * back if the move cannot be applied.
+     * @param connection the connection.
+     * @param turn the turn the client played the move on.
+     * @param move the move.
+     */
+    private void play(Connection connection, int turn, int move) {
+        final Table table = (Table) connection.mAttachment;
+        if (table == null || !table.mStarted) {
+            sendError(connection, Protocol.ERROR_NOT_STARTED);
+            return;
+        }
+        final GameState gameState = table.mGameState;
+        if (gameState.isGameOver() || gameState.getCurrentPlayer() != connection.mSeat
+                || gameState.getTurn() != turn || !gameState.isLegal(move)) {
+            writeState(gameState, connection.mSeat);
+            sendState(connection);
+            return;
+        }
+        final int player = connection.mSeat;
+        final int revealed = Move.isHint(move)
+                ? gameState.getHintedSlots(move)
+                : gameState.getCard(player, Move.slot(move));
+        final int deckSize = gameState.getDeckSize();
+        gameState.apply(move);
+        final int drawnCard = gameState.getDeckSize() < deckSize ? gameState.getCard(player, 0) : Card.NONE;
+        for (int seat = 0; seat < table.mSeats.length; seat++) {
+            final Connection receiver = table.mSeats[seat];
+            if (receiver != null) {
+                // The drawn card is hidden from the player who drew it
+                final ByteBuffer buffer = beginFrame(receiver, Protocol.TYPE_DELTA, Protocol.DELTA_SIZE);
+                buffer.putShort((short) turn);
+                buffer.put((byte) move);
+                buffer.put((byte) revealed);
+                buffer.put((byte) (seat != player ? drawnCard : Card.NONE));
+            }
+        }
+    }
+
+    // Messages
+    /**
+     * Writes a keyframe of the view of a seat into {@link #mSnapshotWriter}, to be sent by
+     * {@link #sendState(Connection)}.
+     * @param gameState the state of the table.
+     * @param seat the seat, whose own cards and deck are hidden.
+     */
+    private void writeState(GameState gameState, int seat) {
+        mViewState.copyFrom(gameState);
+        mViewState.hideCards(seat);
+        mSnapshotWriter.reset();
+        mViewState.saveSnapshot(mSnapshotWriter);
+    }
+
+    /**
+     * Sends the keyframe held by {@link #mSnapshotWriter}.
+     * @param connection the connection.
+     */
+    private void sendState(Connection connection) {
+        final int size = mSnapshotWriter.getSize();
+        beginFrame(connection, Protocol.TYPE_STATE, size).put(mSnapshotWriter.getBuffer(), 0, size);
+    }
+
+    /**
+     * Sends an error.
+     * @param connection the connection.
+     * @param code the code of the error.
+     */
+    private void sendError(Connection connection, int code) {
+        beginFrame(connection, Protocol.TYPE_ERROR, Protocol.ERROR_SIZE).put((byte) code);
+    }
+
+    // Getters
+    /**
+     * Gets the number of tables.
+     * <p>
+     * This method can be called from any thread.
+     * </p>
+     * @return the number of tables with at least a player.
+     */
+    public int getTableCount() {
+        return mTableCount;
+    }
+
+    /**
+     * A table of the server.
+     */
+    private static final class Table {
+
+        /**
+         * The identifier of the table.
+         */
+        final int mId;
+        /**
+         * The authoritative state of the game of the table.
+         */
+        final GameState mGameState;
+        /**
+         * The connection of every seat, or <code>null</code> for a free seat.
+         */
+        final Connection[] mSeats;
+        /**
+         * The number of seats taken.
+         */
+        int mSeatedCount;
+        /**
+         * Indicates whether the cards have been dealt.
+         */
+        boolean mStarted;
+
+        /**
+         * Creates a new {@link Table}.
+         * @param id the identifier of the table.
+         * @param playerCount the number of players.
+         */
+        Table(int id, int playerCount) {
+            mId = id;
+            mGameState = new GameState(playerCount);
+            mSeats = new Connection[playerCount];
+        }
+    }
+}
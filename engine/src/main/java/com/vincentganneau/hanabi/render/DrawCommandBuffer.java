@@ -0,0 +1,252 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.render;
+
+import java.util.Arrays;
+
+/**
+ * Buffer of the sprites to be drawn during a frame, recorded by the game objects and sorted by a
+ * {@link SpriteRenderer}.
+ * <p>
+ * Every command is stored in primitive arrays that are reused from one frame to the next, so recording does not
+ * allocate once the arrays are large enough. Commands are sorted by layer, then by texture and state, with a stable
+ * radix sort: sprites of a layer are drawn after the sprites of the lower layers, and sprites sharing a layer, a
+ * texture and a state are drawn in the order they were recorded. Overlapping sprites that use different textures or
+ * states must thus be recorded on different layers.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public class DrawCommandBuffer {
+
+    // Keys
+    /**
+     * The maximum layer, texture or state of a command.
+     */
+    public static final int MAX_KEY_VALUE = 0xFF;
+    /**
+     * The number of bits of every part of the key of a command.
+     */
+    private static final int KEY_BITS = 8;
+
+    // Commands
+    /**
+     * The key of every command: its layer, texture and state, from the most significant part to the least one.
+     */
+    private int[] mKeys;
+    /**
+     * The region of every command inside its texture.
+     */
+    private int[] mRegions;
+    /**
+     * The left, top, width and height of every command on the screen.
+     */
+    private float[] mBounds;
+    /**
+     * The number of commands.
+     */
+    private int mCount;
+
+    // Sort
+    /**
+     * The commands in drawing order, once sorted.
+     */
+    private int[] mOrder;
+    /**
+     * The scratch array of the radix sort.
+     */
+    private int[] mScratch;
+    /**
+     * The number of commands of every value of a part of the key, then the position of their first command.
+     */
+    private final int[] mBuckets = new int[MAX_KEY_VALUE + 1];
+
+    // Constructor
+    /**
+     * Creates a new {@link DrawCommandBuffer}.
+     * @param capacity the initial number of commands, large enough for a typical frame.
+     */
+    public DrawCommandBuffer(int capacity) {
+        capacity = Math.max(capacity, 16);
+        mKeys = new int[capacity];
+        mRegions = new int[capacity];
+        mBounds = new float[capacity * 4];
+        mOrder = new int[capacity];
+        mScratch = new int[capacity];
+    }
+
+    // Commands
+    /**
+     * Records a sprite.
+     * @param layer the layer of the sprite, between <code>0</code> and {@link #MAX_KEY_VALUE}.
+     * @param texture the texture of the sprite, between <code>0</code> and {@link #MAX_KEY_VALUE}.
+     * @param state the drawing state of the sprite, between <code>0</code> and {@link #MAX_KEY_VALUE}, which is
+     * passed as is to the {@link SpriteBackend}.
+     * @param region the region of the sprite inside its texture.
+     * @param x the left of the sprite on the screen.
+     * @param y the top of the sprite on the screen.
+     * @param width the width of the sprite on the screen.
+     * @param height the height of the sprite on the screen.
+     */
+    public void add(int layer, int texture, int state, int region, float x, float y, float width, float height) {
+        if ((layer | texture | state) > MAX_KEY_VALUE || (layer | texture | state) < 0) {
+            throw new IllegalArgumentException("Invalid key: " + layer + ", " + texture + ", " + state);
+        }
+        if (mCount == mKeys.length) {
+            grow(mCount * 2);
+        }
+        final int command = mCount++;
+        mKeys[command] = layer << 2 * KEY_BITS | texture << KEY_BITS | state;
+        mRegions[command] = region;
+        final int offset = command * 4;
+        mBounds[offset] = x;
+        mBounds[offset + 1] = y;
+        mBounds[offset + 2] = width;
+        mBounds[offset + 3] = height;
+    }
+
+    /**
+     * Discards every command.
+     */
+    public void clear() {
+        mCount = 0;
+    }
+
+    /**
+     * Gets the number of commands.
+     * @return the number of commands.
+     */
+    public int getCount() {
+        return mCount;
+    }
+
+    // Sort
+    /**
+     * Sorts the commands into drawing order, one part of the key at a time from the least significant one.
+     */
+    void sort() {
+        final int count = mCount;
+        int[] order = mOrder;
+        int[] scratch = mScratch;
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        for (int shift = 0; shift < 3 * KEY_BITS; shift += KEY_BITS) {
+            // Count the commands of every value
+            Arrays.fill(mBuckets, 0);
+            for (int i = 0; i < count; i++) {
+                mBuckets[mKeys[i] >>> shift & MAX_KEY_VALUE]++;
+            }
+            if (mBuckets[mKeys[0] >>> shift & MAX_KEY_VALUE] == count) {
+                // Every command has the same value
+                continue;
+            }
+
+            // Move the commands after those of the lower values
+            int position = 0;
+            for (int value = 0; value <= MAX_KEY_VALUE; value++) {
+                final int bucketCount = mBuckets[value];
+                mBuckets[value] = position;
+                position += bucketCount;
+            }
+            for (int i = 0; i < count; i++) {
+                final int command = order[i];
+                scratch[mBuckets[mKeys[command] >>> shift & MAX_KEY_VALUE]++] = command;
+            }
+            final int[] sorted = scratch;
+            scratch = order;
+            order = sorted;
+        }
+        mOrder = order;
+        mScratch = scratch;
+    }
+
+    // Getters
+    /**
+     * Gets a command in drawing order, once sorted.
+     * @param index the position of the command in drawing order.
+     * @return the command.
+     */
+    int getSorted(int index) {
+        return mOrder[index];
+    }
+
+    /**
+     * Gets the texture and state of a command.
+     * @param command the command.
+     * @return the texture and state, equal for the commands that can be drawn together.
+     */
+    int getBatchKey(int command) {
+        return mKeys[command] & (1 << 2 * KEY_BITS) - 1;
+    }
+
+    /**
+     * Gets the layer of a command.
+     * @param command the command.
+     * @return the layer.
+     */
+    int getLayer(int command) {
+        return mKeys[command] >>> 2 * KEY_BITS;
+    }
+
+    /**
+     * Gets the texture of a command.
+     * @param command the command.
+     * @return the texture.
+     */
+    int getTexture(int command) {
+        return mKeys[command] >>> KEY_BITS & MAX_KEY_VALUE;
+    }
+
+    /**
+     * Gets the state of a command.
+     * @param command the command.
+     * @return the state.
+     */
+    int getState(int command) {
+        return mKeys[command] & MAX_KEY_VALUE;
+    }
+
+    /**
+     * Gets the region of a command.
+     * @param command the command.
+     * @return the region.
+     */
+    int getRegion(int command) {
+        return mRegions[command];
+    }
+
+    /**
+     * Gets the bounds of the commands on the screen.
+     * @return the left, top, width and height of every command.
+     */
+    float[] getBounds() {
+        return mBounds;
+    }
+
+    /**
+     * Grows every array.
+     * @param capacity the new capacity.
+     */
+    private void grow(int capacity) {
+        mKeys = Arrays.copyOf(mKeys, capacity);
+        mRegions = Arrays.copyOf(mRegions, capacity);
+        mBounds = Arrays.copyOf(mBounds, capacity * 4);
+        mOrder = new int[capacity];
+        mScratch = new int[capacity];
+    }
+}
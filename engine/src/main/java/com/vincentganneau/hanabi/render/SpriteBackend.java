@@ -0,0 +1,48 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.render;
+
+/**
+ * Interface for the platform drawing the batches of a {@link SpriteRenderer}.
+ * @author Vincent Ganneau
+ */
+public interface SpriteBackend {
+
+    /**
+     * Starts a frame.
+     */
+    void beginFrame();
+
+    /**
+     * Draws sprites sharing the same texture and state with a single draw call.
+     * <p>
+     * Every sprite takes {@link SpriteRenderer#FLOATS_PER_SPRITE} values: the left, top, right and bottom of the
+     * sprite on the screen, then the left, top, right and bottom of its region inside the texture, in pixels.
+     * </p>
+     * @param texture the index of the texture.
+     * @param state the drawing state of the sprites, such as a blending mode, as recorded by the game objects.
+     * @param vertices the coordinates of the sprites, only valid during the call.
+     * @param spriteCount the number of sprites.
+     */
+    void drawBatch(int texture, int state, float[] vertices, int spriteCount);
+
+    /**
+     * Ends a frame.
+     */
+    void endFrame();
+}
@@ -0,0 +1,193 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.render;
+
+/**
+ * Renderer drawing the sprites recorded during a frame with as few draw calls as possible.
+ * <p>
+ * The game objects record their sprites into {@link #getCommands()}. The renderer then sorts them, and hands every
+ * run of consecutive sprites sharing a texture and a state over to the {@link SpriteBackend} as a single batch. With
+ * every image of the game packed into a single {@link TextureAtlas}, a frame typically takes one draw call per
+ * drawing state instead of one per sprite.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public class SpriteRenderer {
+
+    // Vertices
+    /**
+     * The number of values of every sprite inside a batch.
+     * @see SpriteBackend#drawBatch(int, int, float[], int)
+     */
+    public static final int FLOATS_PER_SPRITE = 8;
+
+    // Textures
+    /**
+     * The atlas of every texture.
+     */
+    private final TextureAtlas[] mAtlases;
+
+    // Commands
+    /**
+     * The sprites of the current frame.
+     */
+    private final DrawCommandBuffer mCommands;
+    /**
+     * The coordinates of the sprites of the current batch.
+     */
+    private float[] mVertices;
+
+    // Statistics
+    /**
+     * The number of batches of the latest frame.
+     */
+    private int mBatchCount;
+    /**
+     * The number of sprites of the latest frame.
+     */
+    private int mSpriteCount;
+
+    // Constructor
+    /**
+     * Creates a new {@link SpriteRenderer}.
+     * @param capacity the initial number of sprites of a frame.
+     * @param atlases the atlas of every texture, indexed by texture.
+     */
+    public SpriteRenderer(int capacity, TextureAtlas... atlases) {
+        if (atlases.length == 0 || atlases.length > DrawCommandBuffer.MAX_KEY_VALUE + 1) {
+            throw new IllegalArgumentException("Invalid number of textures: " + atlases.length);
+        }
+        mAtlases = atlases.clone();
+        mCommands = new DrawCommandBuffer(capacity);
+        mVertices = new float[Math.max(capacity, 16) * FLOATS_PER_SPRITE];
+    }
+
+    // Rendering
+    /**
+     * Gets the buffer the sprites of the current frame are recorded into.
+     * @return the {@link DrawCommandBuffer} instance.
+     */
+    public DrawCommandBuffer getCommands() {
+        return mCommands;
+    }
+
+    /**
+     * Draws the sprites of the current frame, then discards them.
+     * <p>
+     * {@link SpriteBackend#endFrame()} is called even if drawing a batch throws an exception.
+     * </p>
+     * @param backend the backend drawing the batches.
+     */
+    public void render(SpriteBackend backend) {
+        try {
+            render(backend, mCommands);
+        } finally {
+            mCommands.clear();
+        }
+    }
+
+    /**
+     * Draws the sprites recorded into another buffer, which are kept so that the same frame can be drawn again.
+     * <p>
+     * {@link SpriteBackend#endFrame()} is called even if drawing a batch throws an exception.
+     * </p>
+     * @param backend the backend drawing the batches.
+     * @param commands the sprites of the frame, which must not be recorded into while they are drawn.
+     */
+    public void render(SpriteBackend backend, DrawCommandBuffer commands) {
+        final int count = commands.getCount();
+        if (count > 0) {
+            commands.sort();
+        }
+        if (mVertices.length < count * FLOATS_PER_SPRITE) {
+            mVertices = new float[count * FLOATS_PER_SPRITE];
+        }
+        final float[] vertices = mVertices;
+        final float[] bounds = commands.getBounds();
+
+        backend.beginFrame();
+        int batchCount = 0;
+        int index = 0;
+        try {
+            while (index < count) {
+                // Fill a batch with the following sprites sharing its texture and state
+                final int first = commands.getSorted(index);
+                final int batchKey = commands.getBatchKey(first);
+                final int texture = commands.getTexture(first);
+                if (texture >= mAtlases.length) {
+                    throw new IllegalArgumentException("Unknown texture: " + texture);
+                }
+                final TextureAtlas atlas = mAtlases[texture];
+                int spriteCount = 0;
+                do {
+                    final int command = commands.getSorted(index);
+                    final int region = commands.getRegion(command);
+                    final int offset = spriteCount * FLOATS_PER_SPRITE;
+                    final int boundsOffset = command * 4;
+                    final float x = bounds[boundsOffset];
+                    final float y = bounds[boundsOffset + 1];
+                    vertices[offset] = x;
+                    vertices[offset + 1] = y;
+                    vertices[offset + 2] = x + bounds[boundsOffset + 2];
+                    vertices[offset + 3] = y + bounds[boundsOffset + 3];
+                    final int regionX = atlas.getRegionX(region);
+                    final int regionY = atlas.getRegionY(region);
+                    vertices[offset + 4] = regionX;
+                    vertices[offset + 5] = regionY;
+                    vertices[offset + 6] = regionX + atlas.getRegionWidth(region);
+                    vertices[offset + 7] = regionY + atlas.getRegionHeight(region);
+                    spriteCount++;
+                    index++;
+                } while (index < count && commands.getBatchKey(commands.getSorted(index)) == batchKey);
+                backend.drawBatch(texture, commands.getState(first), vertices, spriteCount);
+                batchCount++;
+            }
+        } finally {
+            // End the frame even if a batch failed, so that the backend releases its surface
+            backend.endFrame();
+            mBatchCount = batchCount;
+            mSpriteCount = count;
+        }
+    }
+
+    // Getters
+    /**
+     * Gets the number of draw calls of the latest frame.
+     * @return the number of batches.
+     */
+    public int getBatchCount() {
+        return mBatchCount;
+    }
+
+    /**
+     * Gets the number of sprites of the latest frame.
+     * @return the number of sprites.
+     */
+    public int getSpriteCount() {
+        return mSpriteCount;
+    }
+
+    /**
+     * Gets the atlas of a texture.
+     * @param texture the texture.
+     * @return the {@link TextureAtlas} instance.
+     */
+    public TextureAtlas getAtlas(int texture) {
+        return mAtlases[texture];
+    }
+}
@@ -0,0 +1,134 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.render;
+
+import com.vincentganneau.hanabi.game.Card;
+
+/**
+ * The images of the game, as regions of a single {@link TextureAtlas}.
+ * <p>
+ * The index of the region of every image is its sprite: the face of every kind of card, the back of the cards, the
+ * hint and fuse tokens, and a firework of every color.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public final class Sprites {
+
+    // Sprites
+    /**
+     * The back of the cards.
+     */
+    public static final int CARD_BACK = Card.KIND_COUNT;
+    /**
+     * A hint token.
+     */
+    public static final int HINT_TOKEN = CARD_BACK + 1;
+    /**
+     * A fuse token.
+     */
+    public static final int FUSE_TOKEN = HINT_TOKEN + 1;
+    /**
+     * The firework of the first color.
+     */
+    private static final int FIREWORK = FUSE_TOKEN + 1;
+    /**
+     * The number of sprites.
+     */
+    public static final int COUNT = FIREWORK + Card.COLOR_COUNT;
+
+    // Atlas
+    /**
+     * The number of empty pixels around every sprite.
+     */
+    private static final int PADDING = 1;
+    /**
+     * The maximum size of the atlas, supported by the textures of every device.
+     */
+    private static final int MAX_ATLAS_SIZE = 2048;
+
+    // Constructor
+    /**
+     * Prevents instantiation.
+     */
+    private Sprites() {
+    }
+
+    // Sprites
+    /**
+     * Gets the sprite of the face of a card.
+     * @param card the card.
+     * @return the sprite.
+     */
+    public static int cardFace(int card) {
+        return card;
+    }
+
+    /**
+     * Gets the sprite of the firework of a color.
+     * @param color the color.
+     * @return the sprite.
+     */
+    public static int firework(int color) {
+        return FIREWORK + color;
+    }
+
+    // Atlas
+    /**
+     * Packs every sprite into the smallest square atlas with a power-of-two size.
+     * @param cardWidth the width of the cards in pixels.
+     * @param cardHeight the height of the cards in pixels.
+     * @param tokenSize the size of the tokens in pixels.
+     * @param fireworkSize the size of the fireworks in pixels.
+     * @return the {@link TextureAtlas} instance, whose region of every sprite is the sprite itself.
+     */
+    public static TextureAtlas newAtlas(int cardWidth, int cardHeight, int tokenSize, int fireworkSize) {
+        for (int size = 64; size <= MAX_ATLAS_SIZE; size *= 2) {
+            final TextureAtlas atlas = new TextureAtlas(size, size, PADDING);
+            if (pack(atlas, cardWidth, cardHeight, tokenSize, fireworkSize)) {
+                return atlas;
+            }
+        }
+        throw new IllegalArgumentException("The sprites do not fit into a " + MAX_ATLAS_SIZE + " pixels atlas");
+    }
+
+    /**
+     * Packs every sprite into an atlas, in the order of the sprites.
+     * @param atlas the empty atlas.
+     * @param cardWidth the width of the cards in pixels.
+     * @param cardHeight the height of the cards in pixels.
+     * @param tokenSize the size of the tokens in pixels.
+     * @param fireworkSize the size of the fireworks in pixels.
+     * @return <code>true</code> if every sprite fits, <code>false</code> otherwise.
+     */
+    private static boolean pack(TextureAtlas atlas, int cardWidth, int cardHeight, int tokenSize, int fireworkSize) {
+        for (int sprite = 0; sprite <= CARD_BACK; sprite++) {
+            if (atlas.add(cardWidth, cardHeight) < 0) {
+                return false;
+            }
+        }
+        if (atlas.add(tokenSize, tokenSize) < 0 || atlas.add(tokenSize, tokenSize) < 0) {
+            return false;
+        }
+        for (int color = 0; color < Card.COLOR_COUNT; color++) {
+            if (atlas.add(fireworkSize, fireworkSize) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
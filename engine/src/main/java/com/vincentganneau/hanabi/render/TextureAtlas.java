@@ -0,0 +1,194 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.render;
+
+import java.util.Arrays;
+
+/**
+ * Layout of many images packed into a single texture, so that they can be drawn together without switching textures.
+ * <p>
+ * Regions are packed in the order they are added, on shelves filled from left to right and stacked from top to
+ * bottom, which wastes little space when the images have similar heights, like the cards of a deck. Every region is
+ * surrounded by a padding, so that filtering never samples the neighboring regions.
+ * </p>
+ * <p>
+ * The atlas only holds the layout: the platform paints every image into its region of the actual texture.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public class TextureAtlas {
+
+    // Size
+    /**
+     * The width of the texture in pixels.
+     */
+    private final int mWidth;
+    /**
+     * The height of the texture in pixels.
+     */
+    private final int mHeight;
+    /**
+     * The number of empty pixels around every region.
+     */
+    private final int mPadding;
+
+    // Regions
+    /**
+     * The left, top, width and height of every region.
+     */
+    private int[] mRegions = new int[4 * 32];
+    /**
+     * The number of regions.
+     */
+    private int mRegionCount;
+
+    // Shelves
+    /**
+     * The left of the free space of the current shelf.
+     */
+    private int mShelfX;
+    /**
+     * The top of the current shelf.
+     */
+    private int mShelfY;
+    /**
+     * The height of the current shelf, padding included.
+     */
+    private int mShelfHeight;
+
+    // Constructor
+    /**
+     * Creates a new empty {@link TextureAtlas}.
+     * @param width the width of the texture in pixels.
+     * @param height the height of the texture in pixels.
+     * @param padding the number of empty pixels around every region.
+     */
+    public TextureAtlas(int width, int height, int padding) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Invalid size: " + width + "x" + height);
+        }
+        if (padding < 0) {
+            throw new IllegalArgumentException("padding must not be negative: " + padding);
+        }
+        mWidth = width;
+        mHeight = height;
+        mPadding = padding;
+    }
+
+    // Regions
+    /**
+     * Packs a region into the atlas.
+     * @param width the width of the region in pixels.
+     * @param height the height of the region in pixels.
+     * @return the index of the region, or <code>-1</code> if the atlas has no room left for it.
+     */
+    public int add(int width, int height) {
+        final int paddedWidth = width + 2 * mPadding;
+        final int paddedHeight = height + 2 * mPadding;
+        if (width <= 0 || height <= 0 || paddedWidth > mWidth) {
+            return -1;
+        }
+
+        // Start a new shelf when the current one is full
+        int shelfX = mShelfX;
+        int shelfY = mShelfY;
+        int shelfHeight = mShelfHeight;
+        if (shelfX + paddedWidth > mWidth) {
+            shelfY += shelfHeight;
+            shelfX = 0;
+            shelfHeight = 0;
+        }
+        if (shelfY + paddedHeight > mHeight) {
+            return -1;
+        }
+        mShelfX = shelfX + paddedWidth;
+        mShelfY = shelfY;
+        mShelfHeight = Math.max(shelfHeight, paddedHeight);
+
+        if (mRegionCount * 4 == mRegions.length) {
+            mRegions = Arrays.copyOf(mRegions, mRegions.length * 2);
+        }
+        final int offset = mRegionCount * 4;
+        mRegions[offset] = shelfX + mPadding;
+        mRegions[offset + 1] = shelfY + mPadding;
+        mRegions[offset + 2] = width;
+        mRegions[offset + 3] = height;
+        return mRegionCount++;
+    }
+
+    // Getters
+    /**
+     * Gets the width of the texture.
+     * @return the width in pixels.
+     */
+    public int getWidth() {
+        return mWidth;
+    }
+
+    /**
+     * Gets the height of the texture.
+     * @return the height in pixels.
+     */
+    public int getHeight() {
+        return mHeight;
+    }
+
+    /**
+     * Gets the number of regions.
+     * @return the number of regions.
+     */
+    public int getRegionCount() {
+        return mRegionCount;
+    }
+
+    /**
+     * Gets the left of a region.
+     * @param region the index of the region.
+     * @return the left in pixels.
+     */
+    public int getRegionX(int region) {
+        return mRegions[region * 4];
+    }
+
+    /**
+     * Gets the top of a region.
+     * @param region the index of the region.
+     * @return the top in pixels.
+     */
+    public int getRegionY(int region) {
+        return mRegions[region * 4 + 1];
+    }
+
+    /**
+     * Gets the width of a region.
+     * @param region the index of the region.
+     * @return the width in pixels.
+     */
+    public int getRegionWidth(int region) {
+        return mRegions[region * 4 + 2];
+    }
+
+    /**
+     * Gets the height of a region.
+     * @param region the index of the region.
+     * @return the height in pixels.
+     */
+    public int getRegionHeight(int region) {
+        return mRegions[region * 4 + 3];
+    }
+}
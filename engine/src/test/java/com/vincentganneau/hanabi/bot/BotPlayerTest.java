@@ -0,0 +1,165 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.bot;
+
+import com.vincentganneau.hanabi.game.GameState;
+import com.vincentganneau.hanabi.model.GameEngine;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.RejectedExecutionException;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the {@link BotPlayer} class.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class BotPlayerTest {
+
+    // Dependencies
+    @Mock
+    private GameEngine mGameEngine;
+
+    // Search
+    private MctsSearch mSearch;
+    private final List<Runnable> mTasks = new ArrayList<>();
+
+    // Bot player
+    private BotPlayer mBotPlayer;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        mSearch = new MctsSearch(1, 0, 200, 42);
+        final GameState gameState = new GameState(2);
+        gameState.deal(new Random(42));
+        mBotPlayer = new BotPlayer(gameState, 0, mSearch, mTasks::add);
+    }
+
+    @After
+    public void tearDown() {
+        mSearch.shutdown();
+    }
+
+    /**
+     * Tests the {@link BotPlayer#onUpdate(double, com.vincentganneau.hanabi.model.GameEngine)} method searches off
+     * the update thread, then plays the move found.
+     */
+    @Test
+    public void testOnUpdate() {
+        // Given
+        mBotPlayer.onGameStart();
+        assertTrue(mBotPlayer.needsUpdate());
+
+        // When
+        mBotPlayer.onUpdate(16, mGameEngine);
+
+        // Then
+        assertEquals(1, mTasks.size());
+        assertFalse(mBotPlayer.needsUpdate());
+        assertEquals(0, mBotPlayer.mGameState.getTurn());
+
+        // When
+        mTasks.remove(0).run();
+
+        // Then
+        verify(mGameEngine).wakeUp();
+        assertTrue(mBotPlayer.needsUpdate());
+
+        // When
+        mBotPlayer.onUpdate(16, mGameEngine);
+
+        // Then
+        assertEquals(1, mBotPlayer.mGameState.getTurn());
+        assertEquals(1, mBotPlayer.mGameState.getCurrentPlayer());
+        assertTrue(mBotPlayer.isDirty());
+        assertFalse(mBotPlayer.needsUpdate());
+
+        // When
+        mBotPlayer.onUpdate(16, mGameEngine);
+
+        // Then
+        assertTrue(mTasks.isEmpty());
+    }
+
+    /**
+     * Tests a bot whose search fails plays the move of the {@link HeuristicPolicy} instead of waiting forever.
+     */
+    @Test
+    public void testSearchFailure() {
+        // Given
+        final MctsSearch search = mock(MctsSearch.class);
+        when(search.search(any(GameState.class))).thenThrow(new IllegalStateException());
+        when(mGameEngine.getRandom()).thenReturn(new Random(42));
+        final BotPlayer botPlayer = new BotPlayer(mBotPlayer.mGameState, 0, search, mTasks::add);
+        botPlayer.onGameStart();
+        botPlayer.onUpdate(16, mGameEngine);
+
+        // When
+        mTasks.remove(0).run();
+
+        // Then
+        verify(mGameEngine).wakeUp();
+        assertTrue(botPlayer.needsUpdate());
+
+        // When
+        botPlayer.onUpdate(16, mGameEngine);
+
+        // Then
+        assertEquals(1, botPlayer.mGameState.getTurn());
+        assertTrue(botPlayer.isDirty());
+    }
+
+    /**
+     * Tests a bot whose search is rejected by the executor plays the move of the {@link HeuristicPolicy} right away.
+     */
+    @Test
+    public void testSearchRejected() {
+        // Given
+        when(mGameEngine.getRandom()).thenReturn(new Random(42));
+        final BotPlayer botPlayer = new BotPlayer(mBotPlayer.mGameState, 0, mSearch, runnable -> {
+            throw new RejectedExecutionException();
+        });
+        botPlayer.onGameStart();
+
+        // When
+        botPlayer.onUpdate(16, mGameEngine);
+
+        // Then
+        assertEquals(1, botPlayer.mGameState.getTurn());
+        assertTrue(botPlayer.isDirty());
+        assertFalse(botPlayer.needsUpdate());
+    }
+}
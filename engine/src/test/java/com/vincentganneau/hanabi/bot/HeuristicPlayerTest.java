@@ -0,0 +1,78 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.bot;
+
+import com.vincentganneau.hanabi.game.GameState;
+import com.vincentganneau.hanabi.model.GameEngine;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Random;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * Tests the {@link HeuristicPlayer} class.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class HeuristicPlayerTest {
+
+    // Dependencies
+    @Mock
+    private GameEngine mGameEngine;
+
+    // Heuristic players
+    private HeuristicPlayer mFirstPlayer;
+    private HeuristicPlayer mSecondPlayer;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        final GameState gameState = new GameState(2);
+        gameState.deal(new Random(42));
+        mFirstPlayer = new HeuristicPlayer(gameState, 0, new Random(42));
+        mSecondPlayer = new HeuristicPlayer(gameState, 1, new Random(42));
+    }
+
+    /**
+     * Tests the {@link HeuristicPlayer#onUpdate(double, GameEngine)} method only plays on the turn of the player.
+     */
+    @Test
+    public void testOnUpdate() {
+        // Given
+        assertTrue(mFirstPlayer.needsUpdate());
+        assertFalse(mSecondPlayer.needsUpdate());
+
+        // When
+        mSecondPlayer.onUpdate(16, mGameEngine);
+        mFirstPlayer.onUpdate(16, mGameEngine);
+
+        // Then
+        assertEquals(1, mFirstPlayer.mGameState.getTurn());
+        assertFalse(mFirstPlayer.needsUpdate());
+        assertTrue(mSecondPlayer.needsUpdate());
+    }
+}
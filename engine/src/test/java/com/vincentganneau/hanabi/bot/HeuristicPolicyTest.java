@@ -0,0 +1,105 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.bot;
+
+import com.vincentganneau.hanabi.game.Card;
+import com.vincentganneau.hanabi.game.GameState;
+import com.vincentganneau.hanabi.game.Move;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Random;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * Tests the {@link HeuristicPolicy} class.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class HeuristicPolicyTest {
+
+    // Game state
+    private GameState mGameState;
+
+    // Moves
+    private final int[] mMoves = new int[Move.MAX_LEGAL_MOVES];
+
+    @Before
+    public void setUp() {
+        // Deal the deck ordered by color then rank, the second player holding R5 R4 R3 R2 R1
+        final byte[] deck = new byte[Card.DECK_SIZE];
+        Card.fillDeck(deck);
+        mGameState = new GameState(2);
+        mGameState.deal(deck);
+    }
+
+    /**
+     * Tests the policy hints a playable card of the next player.
+     */
+    @Test
+    public void testHint() {
+        // When
+        final int move = HeuristicPolicy.chooseMove(mGameState, new Random(42), mMoves);
+
+        // Then
+        assertEquals(Move.hintRank(1, 1), move);
+    }
+
+    /**
+     * Tests the policy plays a card once it is known to be playable.
+     */
+    @Test
+    public void testPlay() {
+        // Given
+        mGameState.apply(Move.hintRank(1, 1));
+
+        // When
+        final int move = HeuristicPolicy.chooseMove(mGameState, new Random(42), mMoves);
+
+        // Then
+        assertEquals(Move.play(4), move);
+    }
+
+    /**
+     * Tests the policy only chooses legal moves and never misplays along random games.
+     */
+    @Test
+    public void testLegalMoves() {
+        // Given
+        final Random random = new Random(42);
+        for (int playerCount = GameState.MIN_PLAYER_COUNT; playerCount <= GameState.MAX_PLAYER_COUNT; playerCount++) {
+            final GameState gameState = new GameState(playerCount);
+            gameState.deal(random);
+
+            // When
+            while (!gameState.isGameOver()) {
+                final int move = HeuristicPolicy.chooseMove(gameState, random, mMoves);
+
+                // Then
+                assertTrue(gameState.isLegal(move));
+                gameState.apply(move);
+                assertEquals(GameState.MAX_FUSES, gameState.getFuses());
+            }
+        }
+    }
+}
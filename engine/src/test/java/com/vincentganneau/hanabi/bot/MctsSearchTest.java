@@ -0,0 +1,142 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.bot;
+
+import com.vincentganneau.hanabi.game.Card;
+import com.vincentganneau.hanabi.game.GameState;
+import com.vincentganneau.hanabi.game.Move;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Random;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * Tests the {@link MctsSearch} class.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class MctsSearchTest {
+
+    // Search
+    private MctsSearch mSearch;
+
+    // Game state
+    private GameState mGameState;
+
+    @Before
+    public void setUp() {
+        mSearch = new MctsSearch(4, 0, 2000, 42);
+        mGameState = new GameState(2);
+        mGameState.deal(new Random(42));
+    }
+
+    @After
+    public void tearDown() {
+        mSearch.shutdown();
+    }
+
+    /**
+     * Tests the {@link MctsSearch} constructor without any budget.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidConstructor() {
+        new MctsSearch(1, 0, 0, 42);
+    }
+
+    /**
+     * Tests the {@link MctsSearch#search(GameState)} method spends its iteration budget and returns a legal move.
+     */
+    @Test
+    public void testSearch() {
+        // Given
+        final GameState copy = new GameState(2);
+        copy.copyFrom(mGameState);
+
+        // When
+        final int move = mSearch.search(mGameState);
+
+        // Then
+        assertTrue(mGameState.isLegal(move));
+        assertEquals(2000, mSearch.getIterationCount());
+        assertEquals(copy, mGameState);
+    }
+
+    /**
+     * Tests the {@link MctsSearch#search(GameState)} method with a time budget.
+     */
+    @Test
+    public void testSearchTimeBudget() {
+        // Given
+        final MctsSearch search = new MctsSearch(2, 50, 0, 42);
+
+        // When
+        final long startNanos = System.nanoTime();
+        final int move = search.search(mGameState);
+        final long elapsedMillis = (System.nanoTime() - startNanos) / 1000000;
+        search.shutdown();
+
+        // Then
+        assertTrue(mGameState.isLegal(move));
+        assertTrue(elapsedMillis >= 50 && elapsedMillis < 500);
+        assertTrue(search.getIterationCount() > 0);
+    }
+
+    /**
+     * Tests the {@link MctsSearch#search(GameState)} method does not burn the last fuse on a blind play when a
+     * partner can be hinted about a playable card.
+     */
+    @Test
+    public void testAvoidsBlindPlay() {
+        // Given
+        final byte[] deck = new byte[Card.DECK_SIZE];
+        Card.fillDeck(deck);
+        mGameState.deal(deck);
+        mGameState.apply(Move.play(0));
+        mGameState.apply(Move.play(1));
+
+        // When
+        final int move = mSearch.search(mGameState);
+
+        // Then
+        assertEquals(1, mGameState.getFuses());
+        assertTrue(Move.isHint(move) || Move.type(move) == Move.TYPE_DISCARD);
+    }
+
+    /**
+     * Tests the {@link MctsSearch#search(GameState)} method once the game is over.
+     */
+    @Test
+    public void testSearchGameOver() {
+        // Given
+        final int[] moves = new int[Move.MAX_LEGAL_MOVES];
+        while (!mGameState.isGameOver()) {
+            mGameState.getLegalMoves(moves);
+            mGameState.apply(moves[0]);
+        }
+
+        // Then
+        assertEquals(Move.NONE, mSearch.search(mGameState));
+    }
+}
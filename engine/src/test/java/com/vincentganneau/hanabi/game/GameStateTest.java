@@ -0,0 +1,400 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.game;
+
+import com.vincentganneau.hanabi.model.SnapshotReader;
+import com.vincentganneau.hanabi.model.SnapshotWriter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Random;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * Tests the {@link GameState} class.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class GameStateTest {
+
+    // Game state
+    private GameState mGameState;
+
+    @Before
+    public void setUp() {
+        // Deal the deck ordered by color then rank: R1 R1 R1 R2 R2 R3 R3 R4 R4 R5 Y1...
+        final byte[] deck = new byte[Card.DECK_SIZE];
+        Card.fillDeck(deck);
+        mGameState = new GameState(2);
+        mGameState.deal(deck);
+    }
+
+    /**
+     * Tests the {@link GameState} constructor with an invalid number of players.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidConstructor() {
+        new GameState(6);
+    }
+
+    /**
+     * Tests the {@link GameState#deal(byte[])} method.
+     */
+    @Test
+    public void testDeal() {
+        assertEquals(5, mGameState.getHandSize(0));
+        assertEquals(5, mGameState.getHandSize(1));
+        assertEquals(40, mGameState.getDeckSize());
+        assertEquals(GameState.MAX_HINTS, mGameState.getHints());
+        assertEquals(GameState.MAX_FUSES, mGameState.getFuses());
+        assertEquals(Card.of(0, 1), mGameState.getCard(0, 4));
+        assertEquals(Card.of(0, 4), mGameState.getCard(0, 0));
+        assertEquals(Card.of(0, 5), mGameState.getCard(1, 0));
+        assertEquals(Card.of(1, 1), mGameState.getDeckCard(0));
+    }
+
+    /**
+     * Tests the {@link GameState#apply(int)} method with a successful play.
+     */
+    @Test
+    public void testPlay() {
+        // When
+        mGameState.apply(Move.play(4));
+
+        // Then
+        assertEquals(1, mGameState.getFirework(0));
+        assertEquals(1, mGameState.getScore());
+        assertEquals(Card.of(1, 1), mGameState.getCard(0, 0));
+        assertEquals(5, mGameState.getHandSize(0));
+        assertEquals(39, mGameState.getDeckSize());
+        assertEquals(1, mGameState.getCurrentPlayer());
+        assertEquals(1, mGameState.getTurn());
+    }
+
+    /**
+     * Tests the {@link GameState#apply(int)} method with a misplay.
+     */
+    @Test
+    public void testMisplay() {
+        // When
+        mGameState.apply(Move.play(0));
+
+        // Then
+        assertEquals(0, mGameState.getScore());
+        assertEquals(GameState.MAX_FUSES - 1, mGameState.getFuses());
+        assertEquals(1, mGameState.getDiscardCount(Card.of(0, 4)));
+    }
+
+    /**
+     * Tests the {@link GameState#isLegal(int)} method.
+     */
+    @Test
+    public void testIsLegal() {
+        assertTrue(mGameState.isLegal(Move.play(4)));
+        assertFalse(mGameState.isLegal(Move.play(5)));
+        assertFalse(mGameState.isLegal(Move.discard(0)));
+        assertTrue(mGameState.isLegal(Move.hintColor(1, 0)));
+        assertFalse(mGameState.isLegal(Move.hintColor(1, 1)));
+        assertTrue(mGameState.isLegal(Move.hintRank(1, 4)));
+        assertFalse(mGameState.isLegal(Move.hintRank(1, 6)));
+        assertFalse(mGameState.isLegal(Move.hintRank(0, 1)));
+
+        // When
+        mGameState.apply(Move.hintColor(1, 0));
+
+        // Then
+        assertEquals(GameState.MAX_HINTS - 1, mGameState.getHints());
+        assertTrue(mGameState.isLegal(Move.discard(0)));
+    }
+
+    /**
+     * Tests the {@link GameState#getLegalMoves(int[])} method agrees with {@link GameState#isLegal(int)}.
+     */
+    @Test
+    public void testGetLegalMoves() {
+        // Given
+        final int[] moves = new int[Move.MAX_LEGAL_MOVES];
+        final Random random = new Random(7);
+        mGameState.deal(random);
+
+        while (!mGameState.isGameOver()) {
+            // When
+            final int count = mGameState.getLegalMoves(moves);
+
+            // Then
+            int legal = 0;
+            for (int move = 0; move < 1 << 8; move++) {
+                if (mGameState.isLegal(move)) {
+                    legal++;
+                }
+            }
+            assertEquals(legal, count);
+            for (int i = 0; i < count; i++) {
+                assertTrue(mGameState.isLegal(moves[i]));
+            }
+            mGameState.apply(moves[random.nextInt(count)]);
+        }
+    }
+
+    /**
+     * Tests the {@link GameState#undo(int)} method restores every state of random games.
+     */
+    @Test
+    public void testUndo() {
+        // Given
+        final int[] moves = new int[Move.MAX_LEGAL_MOVES];
+        final int[] records = new int[256];
+        final GameState[] states = new GameState[256];
+        final Random random = new Random(42);
+        for (int playerCount = GameState.MIN_PLAYER_COUNT; playerCount <= GameState.MAX_PLAYER_COUNT; playerCount++) {
+            final GameState gameState = new GameState(playerCount);
+            gameState.deal(random);
+
+            // When
+            int turns = 0;
+            while (!gameState.isGameOver()) {
+                states[turns] = new GameState(playerCount);
+                states[turns].copyFrom(gameState);
+                records[turns++] = gameState.apply(moves[random.nextInt(gameState.getLegalMoves(moves))]);
+            }
+
+            // Then
+            while (turns > 0) {
+                gameState.undo(records[--turns]);
+                assertEquals(states[turns], gameState);
+            }
+        }
+    }
+
+    /**
+     * Tests hints narrow the hint masks of the hinted hand, which follow the cards when the hand shifts.
+     */
+    @Test
+    public void testHintMasks() {
+        // Given
+        final int card = mGameState.getCard(1, 1);
+
+        // When
+        mGameState.apply(Move.hintRank(1, Card.rank(card)));
+        mGameState.apply(Move.discard(0));
+
+        // Then
+        final int rankMask = Card.rankMask(Card.rank(card));
+        assertEquals(Card.ALL_KINDS, mGameState.getHintMask(1, 0));
+        for (int slot = 1; slot < 5; slot++) {
+            assertEquals(Card.rank(mGameState.getCard(1, slot)) == Card.rank(card)
+                    ? rankMask : Card.ALL_KINDS & ~rankMask, mGameState.getHintMask(1, slot));
+        }
+        assertEquals(rankMask, mGameState.getHintMask(1, 1));
+    }
+
+    /**
+     * Tests the {@link GameState#determinize(int, Random)} method only redistributes the cards hidden from a player.
+     */
+    @Test
+    public void testDeterminize() {
+        // Given
+        mGameState.apply(Move.hintRank(1, Card.rank(mGameState.getCard(1, 0))));
+        mGameState.apply(Move.hintColor(0, Card.color(mGameState.getCard(0, 2))));
+        final GameState copy = new GameState(2);
+        copy.copyFrom(mGameState);
+        final int[] counts = new int[Card.KIND_COUNT];
+        for (int slot = 0; slot < 5; slot++) {
+            counts[mGameState.getCard(0, slot)]++;
+        }
+        for (int i = 0; i < mGameState.getDeckSize(); i++) {
+            counts[mGameState.getDeckCard(i)]++;
+        }
+
+        // When
+        mGameState.determinize(0, new Random(3));
+
+        // Then
+        assertFalse(copy.equals(mGameState));
+        for (int slot = 0; slot < 5; slot++) {
+            assertEquals(copy.getCard(1, slot), mGameState.getCard(1, slot));
+            assertTrue((mGameState.getHintMask(0, slot) & 1 << mGameState.getCard(0, slot)) != 0);
+            counts[mGameState.getCard(0, slot)]--;
+        }
+        for (int i = 0; i < mGameState.getDeckSize(); i++) {
+            counts[mGameState.getDeckCard(i)]--;
+        }
+        for (int card = 0; card < Card.KIND_COUNT; card++) {
+            assertEquals(0, counts[card]);
+        }
+    }
+
+    /**
+     * Tests the {@link GameState#determinize(int, Random)} method keeps a hand fully known from its hints, and still
+     * shuffles the deck.
+     */
+    @Test
+    public void testDeterminizeKnownHand() {
+        // Given: player 0 holds the only hidden red cards, R4 R3 R2 R1 R1, and is told their colors and ranks
+        mGameState.apply(Move.hintColor(1, 0));
+        mGameState.apply(Move.hintColor(0, 0));
+        mGameState.apply(Move.hintRank(1, 5));
+        mGameState.apply(Move.hintRank(0, 1));
+        mGameState.apply(Move.hintRank(1, 4));
+        mGameState.apply(Move.hintRank(0, 2));
+        mGameState.apply(Move.hintRank(1, 3));
+        mGameState.apply(Move.hintRank(0, 3));
+        final GameState copy = new GameState(2);
+        copy.copyFrom(mGameState);
+
+        // When
+        mGameState.determinize(0, new Random(42));
+
+        // Then
+        for (int slot = 0; slot < 5; slot++) {
+            assertEquals(copy.getCard(0, slot), mGameState.getCard(0, slot));
+        }
+        assertFalse(copy.equals(mGameState));
+    }
+
+    /**
+     * Tests the {@link GameState#determinize(int, Random)} method always deals a hand matching the hints, over random
+     * games.
+     */
+    @Test
+    public void testDeterminizeRandomGames() {
+        // Given
+        final int[] moves = new int[Move.MAX_LEGAL_MOVES];
+        final Random random = new Random(42);
+        final GameState gameState = new GameState(3);
+        for (int game = 0; game < 200; game++) {
+            gameState.deal(random);
+            final int turns = random.nextInt(40);
+            while (gameState.getTurn() < turns && !gameState.isGameOver()) {
+                gameState.apply(moves[random.nextInt(gameState.getLegalMoves(moves))]);
+            }
+            final int player = gameState.getCurrentPlayer();
+
+            // When
+            gameState.determinize(player, random);
+
+            // Then
+            for (int slot = 0; slot < gameState.getHandSize(player); slot++) {
+                assertTrue((gameState.getHintMask(player, slot) & 1 << gameState.getCard(player, slot)) != 0);
+            }
+        }
+    }
+
+    /**
+     * Tests the {@link GameState#applyObserved(int, int, int)} method keeps the view of a player in sync with the
+     * actual state, without ever revealing its own cards.
+     */
+    @Test
+    public void testApplyObserved() {
+        // Given
+        final int[] moves = new int[Move.MAX_LEGAL_MOVES];
+        final Random random = new Random(42);
+        final GameState gameState = new GameState(3);
+        gameState.deal(random);
+        final GameState view = new GameState(3);
+        view.copyFrom(gameState);
+        view.hideCards(1);
+        final GameState determinized = new GameState(3);
+
+        while (!gameState.isGameOver()) {
+            // When
+            final int move = moves[random.nextInt(gameState.getLegalMoves(moves))];
+            final int player = gameState.getCurrentPlayer();
+            final int revealed = Move.isHint(move)
+                    ? gameState.getHintedSlots(move)
+                    : gameState.getCard(player, Move.slot(move));
+            final int deckSize = gameState.getDeckSize();
+            gameState.apply(move);
+            final boolean visible = gameState.getDeckSize() < deckSize && player != 1;
+            view.applyObserved(move, revealed, visible ? gameState.getCard(player, 0) : Card.NONE);
+
+            // Then
+            assertEquals(gameState.getScore(), view.getScore());
+            assertEquals(gameState.getHints(), view.getHints());
+            for (int other = 0; other < 3; other++) {
+                for (int slot = 0; slot < gameState.getHandSize(other); slot++) {
+                    assertEquals(other == 1 ? Card.NONE : gameState.getCard(other, slot), view.getCard(other, slot));
+                    assertEquals(gameState.getHintMask(other, slot), view.getHintMask(other, slot));
+                }
+            }
+            determinized.copyFrom(view);
+            determinized.determinize(1, random);
+            for (int slot = 0; slot < determinized.getHandSize(1); slot++) {
+                assertTrue((determinized.getHintMask(1, slot) & 1 << determinized.getCard(1, slot)) != 0);
+            }
+        }
+        assertEquals(gameState.getTurn(), view.getTurn());
+    }
+
+    /**
+     * Tests the {@link GameState#saveSnapshot(SnapshotWriter)} and {@link GameState#restoreSnapshot(SnapshotReader)}
+     * methods in the middle of a game.
+     */
+    @Test
+    public void testSnapshot() {
+        // Given
+        final int[] moves = new int[Move.MAX_LEGAL_MOVES];
+        final Random random = new Random(42);
+        final GameState gameState = new GameState(4);
+        gameState.deal(random);
+        while (gameState.getTurn() < 20 && !gameState.isGameOver()) {
+            gameState.apply(moves[random.nextInt(gameState.getLegalMoves(moves))]);
+        }
+        final SnapshotWriter writer = new SnapshotWriter(256);
+        gameState.saveSnapshot(writer);
+
+        // When
+        final SnapshotReader reader = new SnapshotReader(256);
+        reader.reset(writer.getBuffer(), 0, writer.getSize());
+        mGameState.restoreSnapshot(reader);
+
+        // Then
+        assertEquals(gameState, mGameState);
+    }
+
+    /**
+     * Tests the game ends once every player has played after the deck is empty.
+     */
+    @Test
+    public void testFinalRound() {
+        // Given
+        final int[] moves = new int[Move.MAX_LEGAL_MOVES];
+        final GameState gameState = new GameState(3);
+        gameState.deal(new Random(1));
+
+        // When
+        while (gameState.getDeckSize() > 0) {
+            final int count = gameState.getLegalMoves(moves);
+            gameState.apply(gameState.getHints() < GameState.MAX_HINTS ? Move.discard(0) : moves[count - 1]);
+        }
+
+        // Then
+        for (int i = 0; i < 3; i++) {
+            assertFalse(gameState.isGameOver());
+            gameState.apply(moves[gameState.getLegalMoves(moves) - 1]);
+        }
+        assertTrue(gameState.isGameOver());
+        assertEquals(0, gameState.getLegalMoves(moves));
+    }
+}
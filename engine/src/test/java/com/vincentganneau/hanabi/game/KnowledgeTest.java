@@ -0,0 +1,120 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.game;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Random;
+
+import static junit.framework.Assert.assertEquals;
+
+/**
+ * Tests the {@link Knowledge} class.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class KnowledgeTest {
+
+    // Game state
+    private GameState mGameState;
+
+    // Knowledge
+    private Knowledge mKnowledge;
+
+    @Before
+    public void setUp() {
+        // Deal the deck ordered by color then rank: the first player holds R4 R3 R2 R1 R1, the second R5 R4 R3 R2 R1
+        final byte[] deck = new byte[Card.DECK_SIZE];
+        Card.fillDeck(deck);
+        mGameState = new GameState(2);
+        mGameState.deal(deck);
+        mKnowledge = new Knowledge(2);
+        mKnowledge.reset(mGameState);
+    }
+
+    /**
+     * Tests the {@link Knowledge} constructor with an invalid number of players.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidConstructor() {
+        // When
+        new Knowledge(1);
+    }
+
+    /**
+     * Tests the {@link Knowledge#reset(GameState)} method counts the cards every player cannot see.
+     */
+    @Test
+    public void testReset() {
+        // Then
+        final int red1 = Card.of(0, 1);
+        final int red5 = Card.of(0, 5);
+        assertEquals(2, mKnowledge.getUnseenCount(0, red1));
+        assertEquals(0, mKnowledge.getUnseenCount(0, red5));
+        assertEquals(1, mKnowledge.getUnseenCount(1, red1));
+        assertEquals(Card.ALL_KINDS & ~(1 << red5), mKnowledge.getPossibilities(0, 0));
+        assertEquals(2.0 / 45, mKnowledge.getProbability(0, 0, red1), 1e-9);
+        assertEquals(0.0, mKnowledge.getProbability(0, 0, red5));
+    }
+
+    /**
+     * Tests a hint narrows the possibilities of the hinted cards.
+     */
+    @Test
+    public void testHint() {
+        // When
+        mKnowledge.apply(mGameState, Move.hintRank(1, 1));
+
+        // Then
+        final int red1 = Card.of(0, 1);
+        assertEquals(Card.rankMask(1), mKnowledge.getPossibilities(1, 4));
+        assertEquals(1.0 / 13, mKnowledge.getProbability(1, 4, red1), 1e-9);
+        assertEquals(1.0, mKnowledge.getMaskProbability(1, 4, mGameState.getPlayableMask()), 1e-9);
+        assertEquals(0.0, mKnowledge.getMaskProbability(1, 3, mGameState.getPlayableMask()));
+    }
+
+    /**
+     * Tests the incremental updates of {@link Knowledge#apply(GameState, int)} match a full rebuild along random
+     * games.
+     */
+    @Test
+    public void testApply() {
+        // Given
+        final int[] moves = new int[Move.MAX_LEGAL_MOVES];
+        final Random random = new Random(42);
+        for (int playerCount = GameState.MIN_PLAYER_COUNT; playerCount <= GameState.MAX_PLAYER_COUNT; playerCount++) {
+            final GameState gameState = new GameState(playerCount);
+            gameState.deal(random);
+            final Knowledge knowledge = new Knowledge(playerCount);
+            knowledge.reset(gameState);
+            final Knowledge expectedKnowledge = new Knowledge(playerCount);
+
+            // When
+            while (!gameState.isGameOver()) {
+                knowledge.apply(gameState, moves[random.nextInt(gameState.getLegalMoves(moves))]);
+
+                // Then
+                expectedKnowledge.reset(gameState);
+                assertEquals(expectedKnowledge, knowledge);
+            }
+        }
+    }
+}
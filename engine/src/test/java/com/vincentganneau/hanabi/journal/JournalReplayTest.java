@@ -0,0 +1,172 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.journal;
+
+import com.vincentganneau.hanabi.bot.HeuristicPlayer;
+import com.vincentganneau.hanabi.game.GameState;
+import com.vincentganneau.hanabi.game.Move;
+import com.vincentganneau.hanabi.model.DirectDispatcher;
+import com.vincentganneau.hanabi.model.GameEngine;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Random;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * Tests the {@link JournalReplay} class against games recorded by a {@link MoveJournal}.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class JournalReplayTest {
+
+    // Recorded game
+    private MoveJournal mJournal;
+    private GameState mRecordedState;
+    private int mTickCount;
+
+    @Before
+    public void setUp() {
+        // Record a game between heuristic players through a headless engine
+        mJournal = new MoveJournal(256, 8);
+        mRecordedState = new GameState(3);
+        mRecordedState.setMoveListener(mJournal);
+        mRecordedState.deal(new Random(42));
+        mJournal.start(mRecordedState);
+        final GameEngine gameEngine = new GameEngine(new DirectDispatcher());
+        gameEngine.setTickListener(mJournal);
+        final Random random = new Random(42);
+        for (int player = 0; player < 3; player++) {
+            gameEngine.addGameObject(new HeuristicPlayer(mRecordedState, player, random));
+        }
+        while (!mRecordedState.isGameOver()) {
+            gameEngine.updateGame(mTickCount % 2 == 0 ? 16 : 17);
+            mTickCount++;
+        }
+    }
+
+    /**
+     * Tests the {@link JournalReplay#play(GameEngine)} method replays every tick and every move.
+     */
+    @Test
+    public void testPlay() {
+        // Given
+        final GameState gameState = new GameState(2);
+        final GameEngine gameEngine = new GameEngine(new DirectDispatcher());
+        final JournalReplay journalReplay = new JournalReplay(mJournal, gameState);
+        gameEngine.addGameObject(journalReplay);
+
+        // When
+        final int ticks = journalReplay.play(gameEngine);
+
+        // Then
+        assertEquals(mTickCount, ticks);
+        assertEquals(mRecordedState, gameState);
+        assertEquals(mTickCount, gameEngine.getMetrics().getTickCount());
+    }
+
+    /**
+     * Tests the {@link JournalReplay#seek(GameEngine, int)} method reaches every turn, from the nearest checkpoint,
+     * in any order.
+     */
+    @Test
+    public void testSeek() {
+        // Given
+        final int turnCount = mRecordedState.getTurn();
+        final GameState[] states = new GameState[turnCount + 1];
+        final GameState linearState = new GameState(2);
+        final GameEngine linearEngine = new GameEngine(new DirectDispatcher());
+        final JournalReplay linearReplay = new JournalReplay(mJournal, linearState);
+        linearEngine.addGameObject(linearReplay);
+        for (int turn = 0; turn <= turnCount; turn++) {
+            assertTrue(linearReplay.seek(linearEngine, turn));
+            states[turn] = new GameState(2);
+            states[turn].copyFrom(linearState);
+        }
+        final GameState gameState = new GameState(2);
+        final GameEngine gameEngine = new GameEngine(new DirectDispatcher());
+        final JournalReplay journalReplay = new JournalReplay(mJournal, gameState);
+        gameEngine.addGameObject(journalReplay);
+
+        // When
+        final Random random = new Random(42);
+        for (int i = 0; i < 100; i++) {
+            final int turn = random.nextInt(turnCount + 1);
+            assertTrue(journalReplay.seek(gameEngine, turn));
+
+            // Then
+            assertEquals(states[turn], gameState);
+        }
+        assertEquals(mRecordedState, states[turnCount]);
+        assertFalse(journalReplay.seek(gameEngine, turnCount + 1));
+    }
+
+    /**
+     * Tests the {@link JournalReplay} undoes the moves undone during the recording, including those undone before the
+     * latest checkpoint.
+     */
+    @Test
+    public void testPlayUndo() {
+        // Given
+        final GameState recordedState = new GameState(2);
+        recordedState.setMoveListener(mJournal);
+        recordedState.deal(new Random(7));
+        mJournal.start(recordedState);
+        final int[] moves = new int[Move.MAX_LEGAL_MOVES];
+        final int[] records = new int[GameState.MAX_SCORE * 4];
+        final Random random = new Random(7);
+        for (int turn = 0; turn < 12; turn++) {
+            mJournal.recordTick(16);
+            records[turn] = recordedState.apply(moves[random.nextInt(recordedState.getLegalMoves(moves))]);
+        }
+        mJournal.recordTick(16);
+        recordedState.undo(records[11]);
+        recordedState.undo(records[10]);
+        recordedState.undo(records[9]);
+        recordedState.undo(records[8]);
+        recordedState.undo(records[7]);
+        for (int turn = 7; turn < 10; turn++) {
+            mJournal.recordTick(16);
+            recordedState.apply(moves[random.nextInt(recordedState.getLegalMoves(moves))]);
+        }
+        final GameState gameState = new GameState(2);
+        final GameEngine gameEngine = new GameEngine(new DirectDispatcher());
+        final JournalReplay journalReplay = new JournalReplay(mJournal, gameState);
+        gameEngine.addGameObject(journalReplay);
+
+        // When
+        journalReplay.play(gameEngine);
+
+        // Then
+        assertEquals(recordedState, gameState);
+        assertEquals(2, mJournal.getCheckpointCount());
+        assertEquals(7, mJournal.getCheckpointTurn(1));
+
+        // When
+        assertTrue(journalReplay.seek(gameEngine, 10));
+
+        // Then
+        assertEquals(recordedState, gameState);
+    }
+}
@@ -0,0 +1,240 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.journal;
+
+import com.vincentganneau.hanabi.bot.HeuristicPlayer;
+import com.vincentganneau.hanabi.game.GameState;
+import com.vincentganneau.hanabi.game.Move;
+import com.vincentganneau.hanabi.model.DirectDispatcher;
+import com.vincentganneau.hanabi.model.GameEngine;
+import com.vincentganneau.hanabi.model.GameObject;
+import com.vincentganneau.hanabi.model.UpdateRate;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static junit.framework.Assert.assertEquals;
+
+/**
+ * Tests the {@link MoveJournal} class.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class MoveJournalTest {
+
+    // Journal
+    private MoveJournal mJournal;
+
+    // Game state
+    private GameState mGameState;
+
+    @Before
+    public void setUp() {
+        mJournal = new MoveJournal(64, 10);
+        mGameState = new GameState(2);
+        mGameState.setMoveListener(mJournal);
+        mGameState.deal(new Random(42));
+    }
+
+    /**
+     * Tests the {@link MoveJournal} constructor with an invalid checkpoint interval.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidConstructor() {
+        // When
+        new MoveJournal(64, 0);
+    }
+
+    /**
+     * Tests a journal cannot be recorded into before it is started.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testNotStarted() {
+        // When
+        mJournal.recordTick(16);
+    }
+
+    /**
+     * Tests a move cannot be recorded before the journal is started.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testMoveNotStarted() {
+        // When
+        mGameState.apply(Move.discard(0));
+    }
+
+    /**
+     * Tests undone moves are recorded, as a checkpoint when they go back before the latest checkpoint.
+     */
+    @Test
+    public void testUndo() {
+        // Given
+        mJournal.start(mGameState);
+        final int startSize = mJournal.getSize();
+        final int record = mGameState.apply(Move.hintRank(1, 1 + mGameState.getCard(1, 0) % 5));
+
+        // When
+        mGameState.undo(record);
+
+        // Then
+        assertEquals(0, mGameState.getTurn());
+        assertEquals(startSize + 2 + 1, mJournal.getSize());
+        assertEquals(1, mJournal.getCheckpointCount());
+
+        // Given
+        final int[] records = new int[10];
+        for (int turn = 0; turn < 10; turn++) {
+            records[turn] = mGameState.apply(Move.discard(0));
+        }
+        assertEquals(2, mJournal.getCheckpointCount());
+
+        // When
+        mGameState.undo(records[9]);
+
+        // Then
+        assertEquals(2, mJournal.getCheckpointCount());
+        assertEquals(9, mJournal.getCheckpointTurn(1));
+        assertEquals(1, mJournal.findCheckpoint(10));
+    }
+
+    /**
+     * Tests the moves applied to a copy of a recorded state are not recorded.
+     */
+    @Test
+    public void testCopyNotRecorded() {
+        // Given
+        mJournal.start(mGameState);
+        final int size = mJournal.getSize();
+        final GameState copy = new GameState(2);
+        copy.copyFrom(mGameState);
+
+        // When
+        copy.apply(Move.hintRank(1, 1 + copy.getCard(1, 0) % 5));
+
+        // Then
+        assertEquals(size, mJournal.getSize());
+    }
+
+    /**
+     * Tests the ticks of a game engine are recorded before its game objects are updated, whatever their update rate.
+     */
+    @Test
+    public void testOnTick() {
+        // Given
+        mJournal.start(mGameState);
+        final int startSize = mJournal.getSize();
+        final GameEngine gameEngine = new GameEngine(new DirectDispatcher());
+        gameEngine.setTickListener(mJournal);
+        final GameObject player = new HeuristicPlayer(mGameState, 0, new Random(7)) {
+            @Override
+            public UpdateRate getUpdateRate() {
+                return UpdateRate.everyTicks(2);
+            }
+        };
+        gameEngine.addGameObject(player);
+
+        // When
+        gameEngine.updateGame(16);
+        gameEngine.updateGame(16);
+
+        // Then
+        assertEquals(1, mGameState.getTurn());
+        assertEquals(startSize + 9 + 1 + 2, mJournal.getSize());
+    }
+
+    /**
+     * Tests ticks of a fixed duration and moves are recorded compactly, with periodic checkpoints.
+     */
+    @Test
+    public void testRecord() {
+        // Given
+        mJournal.start(mGameState);
+        final int startSize = mJournal.getSize();
+
+        // When
+        mJournal.recordTick(16);
+        mJournal.recordTick(16);
+        mGameState.apply(Move.hintRank(1, 1 + mGameState.getCard(1, 0) % 5));
+
+        // Then
+        assertEquals(startSize + 9 + 1 + 2, mJournal.getSize());
+        assertEquals(1, mJournal.getCheckpointCount());
+
+        // When
+        final int[] moves = new int[Move.MAX_LEGAL_MOVES];
+        while (mGameState.getTurn() < 25) {
+            final int count = mGameState.getLegalMoves(moves);
+            mJournal.recordTick(16);
+            mGameState.apply(mGameState.getHints() < GameState.MAX_HINTS ? Move.discard(0) : moves[count - 1]);
+        }
+
+        // Then
+        assertEquals(3, mJournal.getCheckpointCount());
+        assertEquals(0, mJournal.getCheckpointTurn(0));
+        assertEquals(10, mJournal.getCheckpointTurn(1));
+        assertEquals(20, mJournal.getCheckpointTurn(2));
+        assertEquals(-1, mJournal.findCheckpoint(-1));
+        assertEquals(0, mJournal.findCheckpoint(9));
+        assertEquals(1, mJournal.findCheckpoint(10));
+        assertEquals(2, mJournal.findCheckpoint(25));
+    }
+
+    /**
+     * Tests a journal reads back as written, with its checkpoints.
+     */
+    @Test
+    public void testReadFrom() throws IOException {
+        // Given
+        final int[] moves = new int[Move.MAX_LEGAL_MOVES];
+        final Random random = new Random(42);
+        mJournal.start(mGameState);
+        while (!mGameState.isGameOver()) {
+            mJournal.recordTick(16);
+            mGameState.apply(moves[random.nextInt(mGameState.getLegalMoves(moves))]);
+        }
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        mJournal.writeTo(outputStream);
+
+        // When
+        final MoveJournal journal = new MoveJournal(64, 10);
+        journal.readFrom(new ByteArrayInputStream(outputStream.toByteArray()));
+
+        // Then
+        assertEquals(mJournal.getSize(), journal.getSize());
+        assertEquals(mJournal.getCheckpointCount(), journal.getCheckpointCount());
+        for (int i = 0; i < journal.getCheckpointCount(); i++) {
+            assertEquals(mJournal.getCheckpointTurn(i), journal.getCheckpointTurn(i));
+        }
+    }
+
+    /**
+     * Tests data that is not a journal is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadInvalidJournal() throws IOException {
+        // When
+        mJournal.readFrom(new ByteArrayInputStream(new byte[16]));
+    }
+}
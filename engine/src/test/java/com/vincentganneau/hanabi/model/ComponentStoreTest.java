@@ -0,0 +1,129 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * Tests the {@link ComponentStore} class.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class ComponentStoreTest {
+
+    // Component store
+    private ComponentStore mComponentStore;
+
+    @Before
+    public void setUp() {
+        mComponentStore = new ComponentStore(2);
+    }
+
+    /**
+     * Tests the {@link ComponentStore} constructor.
+     */
+    @Test
+    public void testConstructor() {
+        assertEquals(0, mComponentStore.getCount());
+        assertEquals(-1, mComponentStore.indexOf(0));
+    }
+
+    /**
+     * Tests the {@link ComponentStore#createEntity()} method.
+     */
+    @Test
+    public void testCreateEntity() {
+        // When
+        for (int i = 0; i < 10; i++) {
+            final int entity = mComponentStore.createEntity();
+            mComponentStore.mPositionX[mComponentStore.indexOf(entity)] = entity;
+        }
+
+        // Then
+        assertEquals(10, mComponentStore.getCount());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, mComponentStore.indexOf(i));
+            assertEquals(i, mComponentStore.getEntity(i));
+            assertEquals((float) i, mComponentStore.mPositionX[i]);
+        }
+    }
+
+    /**
+     * Tests the {@link ComponentStore#destroyEntity(int)} method.
+     */
+    @Test
+    public void testDestroyEntity() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            final int entity = mComponentStore.createEntity();
+            mComponentStore.mFlags[mComponentStore.indexOf(entity)] = entity;
+        }
+
+        // When
+        assertTrue(mComponentStore.destroyEntity(0));
+
+        // Then
+        assertFalse(mComponentStore.destroyEntity(0));
+        assertEquals(2, mComponentStore.getCount());
+        assertEquals(-1, mComponentStore.indexOf(0));
+        assertEquals(0, mComponentStore.indexOf(2));
+        assertEquals(2, mComponentStore.mFlags[0]);
+        assertEquals(1, mComponentStore.indexOf(1));
+
+        // When
+        final int entity = mComponentStore.createEntity();
+
+        // Then
+        assertEquals(0, entity);
+        assertEquals(2, mComponentStore.indexOf(entity));
+        assertEquals(0, mComponentStore.mFlags[2]);
+
+        // When
+        mComponentStore.clear();
+
+        // Then
+        assertEquals(0, mComponentStore.getCount());
+        assertEquals(-1, mComponentStore.indexOf(1));
+    }
+
+    /**
+     * Tests the {@link MovementSystem} class.
+     */
+    @Test
+    public void testMovementSystem() {
+        // Given
+        final int index = mComponentStore.indexOf(mComponentStore.createEntity());
+        mComponentStore.mPositionX[index] = 1;
+        mComponentStore.mVelocityX[index] = 0.5f;
+        mComponentStore.mVelocityY[index] = -0.25f;
+
+        // When
+        new MovementSystem().onUpdate(4, mComponentStore);
+
+        // Then
+        assertEquals(3f, mComponentStore.mPositionX[index]);
+        assertEquals(-1f, mComponentStore.mPositionY[index]);
+    }
+}
@@ -17,13 +17,15 @@
 
 package com.vincentganneau.hanabi.model;
 
+import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 import static junit.framework.Assert.assertEquals;
-import static org.mockito.Mockito.atLeastOnce;
+import static junit.framework.Assert.assertTrue;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -50,18 +52,49 @@ public class DrawThreadTest extends GameThreadTest {
 
     @Override
     protected void verifyAtLeastOnceUpdate() {
-        verify(mGameEngine, atLeastOnce()).drawGame();
+        verify(mGameEngine, timeout(TIMEOUT_MILLIS).atLeastOnce()).drawGame();
     }
 
     @Override
     public void testConstructor() {
         super.testConstructor();
-        assertEquals(1000 / 60, mDrawThread.mMinElapsedMillis);
+        assertEquals(1000000000L / 60, mDrawThread.mFixedStepNanos);
+        assertEquals(1, mDrawThread.mMaxCatchUpSteps);
     }
 
-    @Override
-    public void testRunningGame() throws InterruptedException {
-        mDrawThread.mMinElapsedMillis = -1;
-        super.testRunningGame();
+    /**
+     * Tests the {@link DrawThread} paces its frames in real time, so that drawing never moves the time of the
+     * {@link VirtualClock} of the game engine.
+     */
+    @Test
+    public void testVirtualClockUntouched() throws InterruptedException {
+        // Given
+        final long nanoTime = mClock.nanoTime();
+
+        // When
+        mDrawThread.startGame();
+        verify(mGameEngine, timeout(TIMEOUT_MILLIS).atLeast(3)).drawGame();
+        mDrawThread.stopGame();
+        mDrawThread.join(TIMEOUT_MILLIS);
+
+        // Then
+        assertTrue(mDrawThread.mClock instanceof RealTimeClock);
+        assertEquals(nanoTime, mClock.nanoTime());
+    }
+
+    /**
+     * Tests the {@link DrawThread} records the time it sleeps into its own histogram, apart from the update thread.
+     */
+    @Test
+    public void testSleepMetrics() throws InterruptedException {
+        // When
+        mDrawThread.startGame();
+        verify(mGameEngine, timeout(TIMEOUT_MILLIS).atLeast(3)).drawGame();
+        mDrawThread.stopGame();
+        mDrawThread.join(TIMEOUT_MILLIS);
+
+        // Then
+        assertTrue(mMetrics.mDrawSleep.getCount() > 0);
+        assertEquals(0, mMetrics.mUpdateSleep.getCount());
     }
-}
\ No newline at end of file
+}
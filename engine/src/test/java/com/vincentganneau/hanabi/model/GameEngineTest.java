@@ -0,0 +1,942 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import com.vincentganneau.hanabi.game.GameState;
+import com.vincentganneau.hanabi.render.DrawCommandBuffer;
+import com.vincentganneau.hanabi.render.SpriteBackend;
+import com.vincentganneau.hanabi.render.SpriteRenderer;
+import com.vincentganneau.hanabi.render.Sprites;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
+import static org.mockito.AdditionalMatchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the {@link GameEngine} class.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class GameEngineTest {
+
+    // Dependencies
+    @Mock
+    private Dispatcher mDispatcher;
+
+    // Game engine
+    private GameEngine mGameEngine;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        mGameEngine = spy(new GameEngine(mDispatcher));
+    }
+
+    /**
+     * Tests the {@link GameEngine} constructor.
+     */
+    @Test
+    public void testConstructor() {
+        assertEquals(mDispatcher, mGameEngine.mDispatcher);
+        assertTrue(mGameEngine.mRenderingEnabled);
+        assertTrue(mGameEngine.mGameObjects.isEmpty());
+        assertTrue(mGameEngine.mGameObjectsToAdd.isEmpty());
+        assertTrue(mGameEngine.mGameObjectsToRemove.isEmpty());
+        assertNull(mGameEngine.mUpdateThread);
+        assertNull(mGameEngine.mDrawThread);
+        assertNull(mGameEngine.mDrawScheduler);
+        assertEquals(0, mGameEngine.mTicksPerSecond);
+        assertNull(mGameEngine.mParallelUpdater);
+        assertEquals(0, mGameEngine.mComponentStore.getCount());
+        assertTrue(mGameEngine.mComponentSystems.isEmpty());
+        assertFalse(mGameEngine.isGameRunning());
+    }
+
+    /**
+     * Tests the {@link GameEngine#setFixedTimeStep(int, int)} method.
+     */
+    @Test
+    public void testFixedTimeStep() {
+        // When
+        mGameEngine.setFixedTimeStep(1000, 5);
+        mGameEngine.startGame();
+
+        // Then
+        assertEquals(1000000L, mGameEngine.mUpdateThread.mFixedStepNanos);
+        assertEquals(5, mGameEngine.mUpdateThread.mMaxCatchUpSteps);
+
+        // When
+        mGameEngine.stopGame();
+
+        // Then
+        assertFalse(mGameEngine.isGameRunning());
+    }
+
+    /**
+     * Tests the {@link GameEngine} running headless.
+     */
+    @Test
+    public void testHeadlessGame() throws InterruptedException {
+        // Given
+        final GameEngine gameEngine = new GameEngine(new DirectDispatcher());
+        final GameObject gameObject = spy(new DummyGameObject());
+        gameEngine.setRenderingEnabled(false);
+
+        // When
+        gameEngine.addGameObject(gameObject);
+        gameEngine.startGame();
+        Thread.sleep(200);
+        gameEngine.stopGame();
+
+        // Then
+        assertNull(gameEngine.mDrawThread);
+        verify(gameObject).onAddedToGameUiThread();
+        verify(gameObject, atLeastOnce()).onUpdate(anyDouble(), eq(gameEngine));
+        verify(gameObject, never()).onDraw();
+    }
+
+    /**
+     * Tests the {@link GameEngine#setClock(Clock)} method with a {@link VirtualClock} runs the game faster than real
+     * time.
+     */
+    @Test
+    public void testVirtualClock() throws InterruptedException {
+        // Given
+        final GameEngine gameEngine = new GameEngine(new DirectDispatcher());
+        final GameObject gameObject = spy(new DummyGameObject());
+        final VirtualClock clock = new VirtualClock();
+        gameEngine.setRenderingEnabled(false);
+        gameEngine.setFixedTimeStep(100, 3);
+        gameEngine.setClock(clock);
+        gameEngine.addGameObject(gameObject);
+
+        // When
+        final long startNanos = System.nanoTime();
+        gameEngine.startGame();
+        Thread.sleep(200);
+        gameEngine.stopGame();
+        gameEngine.mUpdateThread.join();
+
+        // Then
+        assertEquals(clock, gameEngine.mUpdateThread.mClock);
+        assertTrue(clock.nanoTime() > System.nanoTime() - startNanos);
+        verify(gameObject, atLeastOnce()).onUpdate(eq(10d), eq(gameEngine));
+        verify(gameObject, never()).onUpdate(not(eq(10d)), any(GameEngine.class));
+    }
+
+    /**
+     * Tests the {@link GameEngine#setRandomSeed(long)} method makes deals reproducible.
+     */
+    @Test
+    public void testRandomSeed() {
+        // Given
+        final GameState gameState = new GameState(3);
+        final GameState otherGameState = new GameState(3);
+        final GameEngine otherGameEngine = new GameEngine(new DirectDispatcher());
+
+        // When
+        mGameEngine.setRandomSeed(42);
+        otherGameEngine.setRandomSeed(42);
+        gameState.deal(mGameEngine.getRandom());
+        otherGameState.deal(otherGameEngine.getRandom());
+
+        // Then
+        assertEquals(gameState, otherGameState);
+
+        // When
+        gameState.deal(mGameEngine.getRandom());
+
+        // Then
+        assertFalse(gameState.equals(otherGameState));
+    }
+
+    /**
+     * Tests the {@link GameEngine#setDrawScheduler(DrawScheduler)} method.
+     */
+    @Test
+    public void testDrawScheduler() {
+        // Given
+        final DrawScheduler drawScheduler = mock(DrawScheduler.class);
+
+        // When
+        mGameEngine.setDrawScheduler(drawScheduler);
+        mGameEngine.startGame();
+
+        // Then
+        assertNull(mGameEngine.mDrawThread);
+        verify(drawScheduler).start(mGameEngine);
+
+        // When
+        mGameEngine.stopGame();
+
+        // Then
+        verify(drawScheduler, atLeastOnce()).stop();
+    }
+
+    /**
+     * Tests the {@link GameEngine#drawGame()} method skips frames while the previous one is not rendered.
+     */
+    @Test
+    public void testDrawGameBackpressure() {
+        // When
+        mGameEngine.drawGame();
+        mGameEngine.drawGame();
+
+        // Then
+        verify(mDispatcher).dispatch(mGameEngine.mDrawRunnable);
+        assertTrue(mGameEngine.mDrawPending.get());
+        assertEquals(1, mGameEngine.getMetrics().getSkippedFrameCount());
+
+        // When
+        mGameEngine.mDrawRunnable.run();
+        mGameEngine.drawGame();
+
+        // Then
+        verify(mDispatcher, times(2)).dispatch(mGameEngine.mDrawRunnable);
+        assertEquals(1, mGameEngine.getMetrics().getSkippedFrameCount());
+    }
+
+    /**
+     * Tests the {@link GameEngine#setDirtyTrackingEnabled(boolean)} method.
+     */
+    @Test
+    public void testDirtyTracking() {
+        // Given
+        final GameEngine gameEngine = new GameEngine(mDispatcher);
+        final GameObject first = spy(new DummyGameObject());
+        final GameObject second = spy(new DummyGameObject());
+        gameEngine.setDirtyTrackingEnabled(true);
+        gameEngine.addGameObject(first);
+        gameEngine.addGameObject(second);
+        gameEngine.updateGame(1000 / 60);
+
+        // When
+        gameEngine.drawGame();
+        gameEngine.mDrawRunnable.run();
+
+        // Then
+        verify(first).onDraw();
+        verify(second).onDraw();
+        assertFalse(first.isDirty());
+        assertFalse(second.isDirty());
+
+        // When
+        gameEngine.updateGame(1000 / 60);
+        gameEngine.drawGame();
+
+        // Then
+        verify(mDispatcher).dispatch(gameEngine.mDrawRunnable);
+        assertFalse(gameEngine.mRedrawPending.get());
+
+        // When
+        second.invalidate();
+        gameEngine.updateGame(1000 / 60);
+        gameEngine.drawGame();
+        gameEngine.mDrawRunnable.run();
+
+        // Then
+        verify(mDispatcher, times(2)).dispatch(gameEngine.mDrawRunnable);
+        verify(first).onDraw();
+        verify(second, times(2)).onDraw();
+        assertFalse(second.isDirty());
+    }
+
+    /**
+     * Tests the sprites drawn by the UI thread are those recorded when the snapshot was published, even if the game
+     * object is updated while the frame is drawn.
+     */
+    @Test
+    public void testSpriteRendererMutateDuringDraw() {
+        // Given
+        final GameEngine gameEngine = new GameEngine(mDispatcher);
+        final SpriteRenderer spriteRenderer = new SpriteRenderer(16, Sprites.newAtlas(64, 96, 32, 48));
+        final SpriteBackend spriteBackend = mock(SpriteBackend.class);
+        final float[] x = {10};
+        final GameObject gameObject = spy(new DummyGameObject());
+        doAnswer(invocation -> {
+            invocation.<DrawCommandBuffer>getArgument(0).add(0, 0, 0, Sprites.CARD_BACK, x[0], 0, 64, 96);
+            return null;
+        }).when(gameObject).onRender(any(DrawCommandBuffer.class));
+        final float[] drawnX = new float[1];
+        doAnswer(invocation -> {
+            // Update the game object in the middle of the frame
+            x[0] = 20;
+            gameEngine.updateGame(1000 / 60);
+            return null;
+        }).when(spriteBackend).beginFrame();
+        doAnswer(invocation -> {
+            drawnX[0] = invocation.<float[]>getArgument(2)[0];
+            return null;
+        }).when(spriteBackend).drawBatch(anyInt(), anyInt(), any(float[].class), anyInt());
+        gameEngine.setSpriteRenderer(spriteRenderer, spriteBackend);
+        gameEngine.addGameObject(gameObject);
+        gameEngine.updateGame(1000 / 60);
+        gameEngine.drawGame();
+
+        // When
+        gameEngine.mDrawRunnable.run();
+
+        // Then
+        verify(spriteBackend).drawBatch(eq(0), eq(0), any(float[].class), eq(1));
+        assertEquals(10f, drawnX[0]);
+
+        // When
+        gameEngine.drawGame();
+        gameEngine.mDrawRunnable.run();
+
+        // Then
+        assertEquals(20f, drawnX[0]);
+    }
+
+    /**
+     * Tests a frame failing to render lets the next frame be posted.
+     */
+    @Test
+    public void testDrawFailure() {
+        // Given
+        final GameEngine gameEngine = new GameEngine(mDispatcher);
+        final SpriteRenderer spriteRenderer = new SpriteRenderer(16, Sprites.newAtlas(64, 96, 32, 48));
+        final SpriteBackend spriteBackend = mock(SpriteBackend.class);
+        final GameObject gameObject = spy(new DummyGameObject());
+        doAnswer(invocation -> {
+            invocation.<DrawCommandBuffer>getArgument(0).add(0, 1, 0, Sprites.CARD_BACK, 0, 0, 64, 96);
+            return null;
+        }).when(gameObject).onRender(any(DrawCommandBuffer.class));
+        gameEngine.setSpriteRenderer(spriteRenderer, spriteBackend);
+        gameEngine.addGameObject(gameObject);
+        gameEngine.updateGame(1000 / 60);
+        gameEngine.drawGame();
+
+        // When
+        try {
+            gameEngine.mDrawRunnable.run();
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Then
+            assertFalse(gameEngine.mDrawPending.get());
+            verify(spriteBackend).endFrame();
+        }
+    }
+
+    /**
+     * Tests the {@link GameEngine#requestFullRedraw()} method renders every game object again with dirty tracking.
+     */
+    @Test
+    public void testRequestFullRedraw() {
+        // Given
+        final GameEngine gameEngine = new GameEngine(mDispatcher);
+        final GameObject gameObject = spy(new DummyGameObject());
+        gameEngine.setDirtyTrackingEnabled(true);
+        gameEngine.addGameObject(gameObject);
+        gameEngine.updateGame(1000 / 60);
+        gameEngine.drawGame();
+        gameEngine.mDrawRunnable.run();
+
+        // When
+        gameEngine.requestFullRedraw();
+        gameEngine.drawGame();
+        gameEngine.mDrawRunnable.run();
+
+        // Then
+        verify(mDispatcher, times(2)).dispatch(gameEngine.mDrawRunnable);
+        verify(gameObject, times(2)).onDraw();
+    }
+
+    /**
+     * Tests the {@link GameEngine#setDrawDispatcher(Dispatcher)} method renders the frames on the calling thread while
+     * the game objects are still notified through the dispatcher of the game engine.
+     */
+    @Test
+    public void testDrawDispatcher() {
+        // Given
+        final GameEngine gameEngine = new GameEngine(mDispatcher);
+        final GameObject gameObject = spy(new DummyGameObject());
+        gameEngine.setDrawDispatcher(new DirectDispatcher());
+        gameEngine.addGameObject(gameObject);
+        gameEngine.updateGame(1000 / 60);
+
+        // When
+        gameEngine.drawGame();
+
+        // Then
+        verify(gameObject).onDraw();
+        verify(mDispatcher, never()).dispatch(gameEngine.mDrawRunnable);
+        verify(mDispatcher).dispatch(gameEngine.mNotifyRunnable);
+        assertFalse(gameEngine.mDrawPending.get());
+
+        // When
+        gameEngine.setDrawDispatcher(null);
+        gameEngine.drawGame();
+
+        // Then
+        verify(mDispatcher).dispatch(gameEngine.mDrawRunnable);
+    }
+
+    /**
+     * Tests the {@link GameEngine#setSpriteRenderer(SpriteRenderer, SpriteBackend)} method draws the sprites of every
+     * game object in a single batch.
+     */
+    @Test
+    public void testSpriteRenderer() {
+        // Given
+        final GameEngine gameEngine = new GameEngine(mDispatcher);
+        final SpriteRenderer spriteRenderer = new SpriteRenderer(16, Sprites.newAtlas(64, 96, 32, 48));
+        final SpriteBackend spriteBackend = mock(SpriteBackend.class);
+        final GameObject first = spy(new DummyGameObject());
+        final GameObject second = spy(new DummyGameObject());
+        doAnswer(invocation -> {
+            invocation.<DrawCommandBuffer>getArgument(0).add(0, 0, 0, Sprites.CARD_BACK, 0, 0, 64, 96);
+            return null;
+        }).when(first).onRender(any(DrawCommandBuffer.class));
+        doAnswer(invocation -> {
+            invocation.<DrawCommandBuffer>getArgument(0).add(1, 0, 0, Sprites.HINT_TOKEN, 0, 0, 32, 32);
+            return null;
+        }).when(second).onRender(any(DrawCommandBuffer.class));
+        gameEngine.setSpriteRenderer(spriteRenderer, spriteBackend);
+        gameEngine.addGameObject(first);
+        gameEngine.addGameObject(second);
+        gameEngine.updateGame(1000 / 60);
+
+        // When
+        gameEngine.drawGame();
+        gameEngine.mDrawRunnable.run();
+
+        // Then
+        verify(first).onRender(any(DrawCommandBuffer.class));
+        verify(second).onRender(any(DrawCommandBuffer.class));
+        verify(first, never()).onDraw();
+        verify(spriteBackend).beginFrame();
+        verify(spriteBackend).drawBatch(eq(0), eq(0), any(float[].class), eq(2));
+        verify(spriteBackend).endFrame();
+        assertEquals(1, spriteRenderer.getBatchCount());
+        assertEquals(2, spriteRenderer.getSpriteCount());
+    }
+
+    /**
+     * Tests the {@link GameEngine#setAdaptiveScheduling(boolean)} method.
+     */
+    @Test
+    public void testAdaptiveScheduling() {
+        // Given
+        final GameObject gameObject = spy(new DummyGameObject());
+        mGameEngine.addGameObject(gameObject);
+
+        // Then
+        assertFalse(mGameEngine.isIdle());
+
+        // When
+        mGameEngine.setAdaptiveScheduling(true);
+
+        // Then
+        assertFalse(mGameEngine.isIdle());
+
+        // When
+        when(gameObject.needsUpdate()).thenReturn(false);
+
+        // Then
+        assertTrue(mGameEngine.isIdle());
+
+        // When
+        mGameEngine.mGameObjectsToAdd.offer(new DummyGameObject());
+
+        // Then
+        assertFalse(mGameEngine.isIdle());
+    }
+
+    /**
+     * Tests the {@link GameEngine#setSpatialGrid(SpatialGrid)} method.
+     */
+    @Test
+    public void testSpatialGrid() {
+        // Given
+        final Bounds bounds = new Bounds();
+        bounds.set(0, 0, 10, 10);
+        final GameObject gameObject = new DummyGameObject() {
+            @Override
+            public boolean getBounds(Bounds out) {
+                out.set(bounds.mLeft, bounds.mTop, bounds.mRight, bounds.mBottom);
+                return true;
+            }
+        };
+        final List<GameObject> results = new ArrayList<>();
+        mGameEngine.addGameObject(gameObject);
+        mGameEngine.addGameObject(new DummyGameObject());
+
+        // When
+        mGameEngine.setSpatialGrid(new SpatialGrid(0, 0, 10, 10, 10));
+
+        // Then
+        assertEquals(1, mGameEngine.getSpatialGrid().getCount());
+        assertEquals(1, mGameEngine.getSpatialGrid().queryPoint(5, 5, results));
+
+        // When
+        bounds.set(50, 50, 60, 60);
+        mGameEngine.updateGame(1000 / 60);
+
+        // Then
+        assertEquals(0, mGameEngine.getSpatialGrid().queryPoint(5, 5, results));
+        assertEquals(1, mGameEngine.getSpatialGrid().queryPoint(55, 55, results));
+
+        // When
+        mGameEngine.removeGameObject(gameObject);
+
+        // Then
+        assertEquals(0, mGameEngine.getSpatialGrid().getCount());
+        assertEquals(-1, gameObject.mSpatialEntry);
+    }
+
+    /**
+     * Tests the {@link GameEngine#updateGame(double)} method with game objects updated less often than every tick.
+     */
+    @Test
+    public void testUpdateRate() {
+        // Given
+        final GameObject everyTick = spy(new DummyGameObject());
+        final GameObject everyOtherTick = spy(new DummyGameObject());
+        when(everyOtherTick.getUpdateRate()).thenReturn(UpdateRate.everyTicks(2));
+        mGameEngine.addGameObject(everyTick);
+        mGameEngine.addGameObject(everyOtherTick);
+
+        // When
+        mGameEngine.updateGame(10);
+        mGameEngine.updateGame(10);
+        mGameEngine.updateGame(10);
+
+        // Then
+        assertEquals(1, mGameEngine.mEveryTickBucket.size());
+        assertEquals(1, mGameEngine.mUpdateBuckets.size());
+        verify(everyTick, times(3)).onUpdate(10d, mGameEngine);
+        verify(everyOtherTick).onUpdate(10d, mGameEngine);
+        verify(everyOtherTick).onUpdate(20d, mGameEngine);
+
+        // When
+        mGameEngine.removeGameObject(everyOtherTick);
+
+        // Then
+        assertEquals(0, mGameEngine.mUpdateBuckets.get(0).size());
+        assertNull(everyOtherTick.mUpdateBucket);
+    }
+
+    /**
+     * Tests the {@link GameEngine#setParallelUpdate(int)} method.
+     */
+    @Test
+    public void testParallelUpdate() {
+        // Given
+        final GameObject gameObject = spy(new DummyGameObject());
+        mGameEngine.addGameObject(gameObject);
+
+        // When
+        mGameEngine.setParallelUpdate(2);
+        mGameEngine.updateGame(1000 / 60);
+
+        // Then
+        assertNotNull(mGameEngine.mParallelUpdater);
+        assertEquals(2, mGameEngine.mParallelUpdater.getParallelism());
+        verify(gameObject).onUpdate(1000 / 60, mGameEngine);
+
+        // When
+        mGameEngine.setParallelUpdate(1);
+
+        // Then
+        assertNull(mGameEngine.mParallelUpdater);
+    }
+
+    /**
+     * Tests the {@link GameEngine#stopGame()} method stops the worker threads of the parallel update, and the
+     * {@link GameEngine#startGame()} method starts new ones.
+     */
+    @Test
+    public void testParallelUpdateRestart() throws InterruptedException {
+        // Given
+        final GameEngine gameEngine = new GameEngine(new DirectDispatcher());
+        gameEngine.setRenderingEnabled(false);
+        gameEngine.setParallelUpdate(3);
+
+        for (int i = 0; i < 3; i++) {
+            // When
+            gameEngine.startGame();
+            final ParallelUpdater parallelUpdater = gameEngine.mParallelUpdater;
+            gameEngine.stopGame();
+
+            // Then
+            assertEquals(3, parallelUpdater.getParallelism());
+            assertNull(gameEngine.mParallelUpdater);
+            for (Thread worker : parallelUpdater.mWorkers) {
+                worker.join(1000);
+                assertFalse(worker.isAlive());
+            }
+        }
+        assertEquals(3, gameEngine.mParallelism);
+    }
+
+    /**
+     * Tests the {@link GameEngine#addComponentSystem(ComponentSystem)} method.
+     */
+    @Test
+    public void testAddComponentSystem() {
+        // Given
+        final ComponentSystem componentSystem = mock(ComponentSystem.class);
+
+        // When
+        mGameEngine.addComponentSystem(componentSystem);
+        mGameEngine.updateGame(1000 / 60);
+
+        // Then
+        verify(componentSystem).onUpdate(1000 / 60, mGameEngine.mComponentStore);
+    }
+
+    /**
+     * Tests the {@link GameEngine#setTickListener(TickListener)} method notifies every update before the game objects
+     * are updated.
+     */
+    @Test
+    public void testTickListener() {
+        // Given
+        final TickListener tickListener = mock(TickListener.class);
+        final GameObject gameObject = spy(new DummyGameObject());
+        mGameEngine.addGameObject(gameObject);
+        mGameEngine.setTickListener(tickListener);
+
+        // When
+        mGameEngine.updateGame(10);
+
+        // Then
+        final InOrder inOrder = inOrder(tickListener, gameObject);
+        inOrder.verify(tickListener).onTick(10d);
+        inOrder.verify(gameObject).onUpdate(10d, mGameEngine);
+    }
+
+    /**
+     * Tests the {@link GameEngine#spawnGameObject(GameObjectPool)} method.
+     */
+    @Test
+    public void testSpawnGameObject() {
+        // Given
+        final GameObjectPool<DummyGameObject> pool = new GameObjectPool<DummyGameObject>() {
+            @Override
+            protected DummyGameObject newGameObject() {
+                return new DummyGameObject();
+            }
+        };
+        pool.prefill(1);
+
+        // When
+        final DummyGameObject gameObject = mGameEngine.spawnGameObject(pool);
+
+        // Then
+        assertEquals(0, pool.getFreeCount());
+        assertEquals(gameObject, mGameEngine.mGameObjects.get(0));
+
+        // When
+        mGameEngine.removeGameObject(gameObject);
+        mGameEngine.mNotifyRunnable.run();
+
+        // Then
+        verify(mDispatcher).dispatch(mGameEngine.mNotifyRunnable);
+        assertTrue(mGameEngine.mGameObjects.isEmpty());
+        assertEquals(1, pool.getFreeCount());
+        assertEquals(gameObject, mGameEngine.spawnGameObject(pool));
+    }
+
+    /**
+     * Tests a pooled game object removed then added again before the notifications run is notified in order and is
+     * not released to its pool.
+     */
+    @Test
+    public void testRemoveAndAddPooledGameObject() {
+        // Given
+        final GameObjectPool<DummyGameObject> pool = new GameObjectPool<DummyGameObject>() {
+            @Override
+            protected DummyGameObject newGameObject() {
+                return spy(new DummyGameObject());
+            }
+        };
+        final DummyGameObject gameObject = mGameEngine.spawnGameObject(pool);
+
+        // When
+        mGameEngine.removeGameObject(gameObject);
+        mGameEngine.addGameObject(gameObject);
+        mGameEngine.mNotifyRunnable.run();
+
+        // Then
+        final InOrder inOrder = inOrder(gameObject);
+        inOrder.verify(gameObject).onAddedToGameUiThread();
+        inOrder.verify(gameObject).onRemovedFromGameUiThread();
+        inOrder.verify(gameObject).onAddedToGameUiThread();
+        assertEquals(0, pool.getFreeCount());
+        assertEquals(gameObject, mGameEngine.mGameObjects.get(0));
+    }
+
+    /**
+     * Tests the {@link GameEngine#removeGameObject(GameObject)} method swaps the last game object in place.
+     */
+    @Test
+    public void testRemoveGameObject() {
+        // Given
+        final GameObject first = new DummyGameObject();
+        final GameObject second = new DummyGameObject();
+        final GameObject third = new DummyGameObject();
+        mGameEngine.addGameObject(first);
+        mGameEngine.addGameObject(second);
+        mGameEngine.addGameObject(third);
+
+        // When
+        mGameEngine.removeGameObject(first);
+        mGameEngine.removeGameObject(first);
+        mGameEngine.updateGame(0);
+
+        // Then
+        assertEquals(2, mGameEngine.mGameObjects.size());
+        assertEquals(third, mGameEngine.mGameObjects.get(0));
+        assertEquals(second, mGameEngine.mGameObjects.get(1));
+        assertEquals(0, third.mSlotIndex);
+        assertEquals(1, second.mSlotIndex);
+        assertEquals(-1, first.mSlotIndex);
+        assertTrue(mGameEngine.mGameObjectsToRemove.isEmpty());
+
+        // When
+        mGameEngine.removeGameObject(second);
+        mGameEngine.updateGame(0);
+
+        // Then
+        assertEquals(1, mGameEngine.mGameObjects.size());
+        assertEquals(third, mGameEngine.mGameObjects.get(0));
+    }
+
+    /**
+     * Tests the entire game lifecycle.
+     */
+    @Test
+    public void testGameLifecycle() throws InterruptedException {
+        // Given
+        final GameObject gameObject = spy(new DummyGameObject());
+        doAnswer(invocation -> {
+            mGameEngine.mNotifyRunnable.run();
+            return null;
+        }).when(mDispatcher).dispatch(mGameEngine.mNotifyRunnable);
+        doAnswer(invocation -> {
+            mGameEngine.mDrawRunnable.run();
+            return null;
+        }).when(mDispatcher).dispatch(mGameEngine.mDrawRunnable);
+
+        // When
+        when(mGameEngine.isGameRunning()).thenReturn(true);
+        mGameEngine.addGameObject(gameObject);
+
+        // Then
+        assertEquals(1, mGameEngine.mGameObjectsToAdd.size());
+        verify(mDispatcher, never()).dispatch(mGameEngine.mNotifyRunnable);
+
+        // When
+        when(mGameEngine.isGameRunning()).thenCallRealMethod();
+        mGameEngine.addGameObject(gameObject);
+
+        // Then
+        assertEquals(1, mGameEngine.mGameObjects.size());
+        verify(mDispatcher).dispatch(mGameEngine.mNotifyRunnable);
+        verify(gameObject).onAddedToGameUiThread();
+
+        // When
+        mGameEngine.startGame();
+
+        // Then
+        verify(mGameEngine).stopGame();
+        verify(gameObject).onGameStart();
+        assertNotNull(mGameEngine.mUpdateThread);
+        assertNotNull(mGameEngine.mDrawThread);
+        assertTrue(mGameEngine.isGameRunning());
+
+        // When
+        mGameEngine.updateGame(1000 / 60);
+        Thread.sleep(200);
+
+        // Then
+        assertEquals(1, mGameEngine.mGameObjects.size());
+        assertEquals(0, gameObject.mSlotIndex);
+        assertTrue(mGameEngine.mGameObjectsToAdd.isEmpty());
+        verify(gameObject, atLeastOnce()).onUpdate(1000 / 60, mGameEngine);
+
+        // When
+        mGameEngine.drawGame();
+        Thread.sleep(200);
+
+        // Then
+        verify(mDispatcher, atLeastOnce()).dispatch(mGameEngine.mDrawRunnable);
+        verify(gameObject, atLeastOnce()).onDraw();
+        assertTrue(mGameEngine.getMetrics().getTickCount() > 0);
+        assertTrue(mGameEngine.getMetrics().mUpdate.getCount() > 0);
+        assertTrue(mGameEngine.getMetrics().mDrawExecute.getCount() > 0);
+
+        // When
+        mGameEngine.removeGameObject(gameObject);
+        Thread.sleep(200);
+
+        // Then
+        assertTrue(mGameEngine.mGameObjects.isEmpty());
+        verify(gameObject).onRemovedFromGameUiThread();
+
+        // When
+        mGameEngine.stopGame();
+
+        // Then
+        assertFalse(mGameEngine.isGameRunning());
+    }
+
+    /**
+     * Tests the {@link GameEngine#saveSnapshot(SnapshotWriter)} and
+     * {@link GameEngine#restoreSnapshot(SnapshotReader, GameObjectFactory)} methods.
+     */
+    @Test
+    public void testSnapshot() {
+        // Given
+        mGameEngine.addGameObject(new CounterGameObject(3));
+        mGameEngine.addGameObject(new DummyGameObject());
+        mGameEngine.addGameObject(new CounterGameObject(7));
+        final SnapshotWriter writer = new SnapshotWriter(64);
+        mGameEngine.saveSnapshot(writer);
+        final SnapshotReader reader = new SnapshotReader(64);
+        final GameEngine gameEngine = new GameEngine(mDispatcher);
+        gameEngine.addGameObject(new DummyGameObject());
+
+        // When
+        reader.reset(writer.getBuffer(), 0, writer.getSize());
+        gameEngine.restoreSnapshot(reader,
+                type -> type == CounterGameObject.SNAPSHOT_TYPE ? new CounterGameObject(0) : null);
+
+        // Then
+        assertEquals(2, gameEngine.mGameObjects.size());
+        assertEquals(3, ((CounterGameObject) gameEngine.mGameObjects.get(0)).mCount);
+        assertEquals(7, ((CounterGameObject) gameEngine.mGameObjects.get(1)).mCount);
+        assertFalse(reader.nextRecord());
+
+        // When
+        reader.reset(writer.getBuffer(), 0, writer.getSize());
+        gameEngine.restoreSnapshot(reader, type -> null);
+
+        // Then
+        assertTrue(gameEngine.mGameObjects.isEmpty());
+    }
+
+    /**
+     * Tests the {@link GameEngine#restoreSnapshot(SnapshotReader, GameObjectFactory)} method restarts the schedule of
+     * the game objects updated at a frequency from the restored game time.
+     */
+    @Test
+    public void testSnapshotUpdateRate() {
+        // Given
+        final SnapshotWriter writer = new SnapshotWriter(64);
+        final SnapshotReader reader = new SnapshotReader(64);
+        final GameObject gameObject = spy(new CounterGameObject(0));
+        when(gameObject.getUpdateRate()).thenReturn(UpdateRate.hertz(10));
+        mGameEngine.addGameObject(gameObject);
+        mGameEngine.saveSnapshot(writer);
+        for (int i = 0; i < 10; i++) {
+            mGameEngine.updateGame(100);
+        }
+        verify(gameObject, times(10)).onUpdate(100d, mGameEngine);
+
+        // When
+        reader.reset(writer.getBuffer(), 0, writer.getSize());
+        mGameEngine.restoreSnapshot(reader, type -> gameObject);
+        mGameEngine.updateGame(100);
+
+        // Then
+        verify(gameObject, times(11)).onUpdate(100d, mGameEngine);
+    }
+
+    /**
+     * Dummy {@link GameObject} subclass.
+     */
+    private class DummyGameObject extends GameObject {
+
+        @Override
+        public void onGameStart() {
+
+        }
+
+        @Override
+        public void onUpdate(double elapsedMillis, GameEngine gameEngine) {
+
+        }
+
+        @Override
+        public void onDraw() {
+
+        }
+    }
+
+    /**
+     * {@link GameObject} subclass saving a counter into snapshots.
+     */
+    private class CounterGameObject extends DummyGameObject {
+
+        // Snapshot
+        private static final int SNAPSHOT_TYPE = 1;
+
+        // Counter
+        private int mCount;
+
+        CounterGameObject(int count) {
+            mCount = count;
+        }
+
+        @Override
+        public int getSnapshotType() {
+            return SNAPSHOT_TYPE;
+        }
+
+        @Override
+        public void saveSnapshot(SnapshotWriter writer) {
+            writer.writeInt(mCount);
+        }
+
+        @Override
+        public void restoreSnapshot(SnapshotReader reader, int version) {
+            mCount = reader.readInt();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static junit.framework.Assert.assertEquals;
+
+/**
+ * Tests the {@link GameMetrics} class.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class GameMetricsTest {
+
+    // Metrics
+    private GameMetrics mMetrics;
+
+    @Before
+    public void setUp() {
+        mMetrics = new GameMetrics();
+    }
+
+    /**
+     * Tests the {@link GameMetrics#onTick(long)} method.
+     */
+    @Test
+    public void testOnTick() {
+        // When
+        for (int i = 0; i <= 100; i++) {
+            mMetrics.onTick(1000000000L + i * 10000000L);
+        }
+
+        // Then
+        assertEquals(101, mMetrics.getTickCount());
+        assertEquals(100d, mMetrics.getTicksPerSecond(), 0.001);
+    }
+
+    /**
+     * Tests the {@link GameMetrics#onFrame(long)} method.
+     */
+    @Test
+    public void testOnFrame() {
+        // Given
+        mMetrics.mFrameIntervalNanos = 10;
+
+        // When
+        mMetrics.onFrame(100);
+        mMetrics.onFrame(111);
+        mMetrics.onFrame(140);
+        mMetrics.onFrame(149);
+
+        // Then
+        assertEquals(4, mMetrics.getFrameCount());
+        assertEquals(2, mMetrics.getDroppedFrameCount());
+
+        // When
+        mMetrics.reset();
+
+        // Then
+        assertEquals(0, mMetrics.getFrameCount());
+        assertEquals(0, mMetrics.getDroppedFrameCount());
+        assertEquals(0, mMetrics.getTickCount());
+    }
+
+    /**
+     * Tests the {@link GameMetrics#onFrameIdle()} method.
+     */
+    @Test
+    public void testOnFrameIdle() {
+        // Given
+        mMetrics.mFrameIntervalNanos = 10;
+
+        // When
+        mMetrics.onFrame(100);
+        mMetrics.onFrameIdle();
+        mMetrics.onFrame(200);
+        mMetrics.onFrame(240);
+
+        // Then
+        assertEquals(3, mMetrics.getFrameCount());
+        assertEquals(3, mMetrics.getDroppedFrameCount());
+    }
+}
@@ -0,0 +1,104 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNotSame;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests the {@link GameObjectPool} class.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class GameObjectPoolTest {
+
+    // Pool
+    private GameObjectPool<GameObject> mPool;
+
+    @Before
+    public void setUp() {
+        mPool = new GameObjectPool<GameObject>() {
+            @Override
+            protected GameObject newGameObject() {
+                return mock(GameObject.class);
+            }
+        };
+    }
+
+    /**
+     * Tests the {@link GameObjectPool#prefill(int)} method.
+     */
+    @Test
+    public void testPrefill() {
+        // When
+        mPool.prefill(20);
+
+        // Then
+        assertEquals(20, mPool.getFreeCount());
+    }
+
+    /**
+     * Tests the {@link GameObjectPool#acquire()} and {@link GameObjectPool#release(GameObject)} methods.
+     */
+    @Test
+    public void testAcquireAndRelease() {
+        // When
+        final GameObject gameObject = mPool.acquire();
+
+        // Then
+        assertSame(mPool, gameObject.mPool);
+        verify(gameObject).onAcquiredFromPool();
+
+        // When
+        mPool.release(gameObject);
+        mPool.release(gameObject);
+
+        // Then
+        assertNull(gameObject.mPool);
+        assertEquals(1, mPool.getFreeCount());
+        verify(gameObject).onReleasedToPool();
+        assertSame(gameObject, mPool.acquire());
+        assertNotSame(gameObject, mPool.acquire());
+    }
+
+    /**
+     * Tests the {@link GameObjectPool#release(GameObject)} method with a game object from another pool.
+     */
+    @Test
+    public void testReleaseForeignGameObject() {
+        // Given
+        final GameObject gameObject = mock(GameObject.class);
+
+        // When
+        mPool.release(gameObject);
+
+        // Then
+        assertEquals(0, mPool.getFreeCount());
+        verify(gameObject, never()).onReleasedToPool();
+    }
+}
@@ -0,0 +1,145 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests the {@link GameObjectQueue} class.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class GameObjectQueueTest {
+
+    // Queue
+    private GameObjectQueue mQueue;
+
+    @Before
+    public void setUp() {
+        mQueue = new GameObjectQueue();
+    }
+
+    /**
+     * Tests the {@link GameObjectQueue} constructor.
+     */
+    @Test
+    public void testConstructor() {
+        assertTrue(mQueue.isEmpty());
+        assertEquals(0, mQueue.drain());
+    }
+
+    /**
+     * Tests the {@link GameObjectQueue#offer(GameObject)} and {@link GameObjectQueue#drain()} methods.
+     */
+    @Test
+    public void testOfferAndDrain() {
+        // Given
+        final GameObject[] gameObjects = new GameObject[100];
+        for (int i = 0; i < gameObjects.length; i++) {
+            gameObjects[i] = mock(GameObject.class);
+        }
+
+        // When
+        for (GameObject gameObject : gameObjects) {
+            mQueue.offer(gameObject);
+        }
+
+        // Then
+        assertEquals(gameObjects.length, mQueue.size());
+
+        // When
+        final int count = mQueue.drain();
+
+        // Then
+        assertTrue(mQueue.isEmpty());
+        assertEquals(gameObjects.length, count);
+        for (int i = 0; i < count; i++) {
+            assertSame(gameObjects[i], mQueue.getDrained(i));
+        }
+
+        // When
+        mQueue.offer(gameObjects[0]);
+
+        // Then
+        assertEquals(1, mQueue.drain());
+        assertSame(gameObjects[0], mQueue.getDrained(0));
+    }
+
+    /**
+     * Tests the {@link GameObjectQueue#offer(GameObject, int)} method keeps the tag of every game object.
+     */
+    @Test
+    public void testOfferWithTag() {
+        // Given
+        final GameObject gameObject = mock(GameObject.class);
+
+        // When
+        for (int i = 0; i < 40; i++) {
+            mQueue.offer(gameObject, i % 3);
+        }
+        final int count = mQueue.drain();
+
+        // Then
+        assertEquals(40, count);
+        for (int i = 0; i < count; i++) {
+            assertSame(gameObject, mQueue.getDrained(i));
+            assertEquals(i % 3, mQueue.getDrainedTag(i));
+        }
+    }
+
+    /**
+     * Tests the {@link GameObjectQueue#offer(GameObject)} method from concurrent threads.
+     */
+    @Test
+    public void testConcurrentOffer() throws InterruptedException {
+        // Given
+        final GameObject gameObject = mock(GameObject.class);
+        final Thread[] producers = new Thread[4];
+        for (int i = 0; i < producers.length; i++) {
+            producers[i] = new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    mQueue.offer(gameObject);
+                }
+            });
+        }
+
+        // When
+        int count = 0;
+        for (Thread producer : producers) {
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            while (producer.isAlive()) {
+                count += mQueue.drain();
+            }
+            producer.join();
+        }
+        count += mQueue.drain();
+
+        // Then
+        assertEquals(producers.length * 10000, count);
+    }
+}
@@ -27,12 +27,14 @@ import org.mockito.MockitoAnnotations;
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertTrue;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
 
 /**
  * Tests the {@link GameThread} subclasses.
@@ -41,25 +43,52 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 @RunWith(JUnit4.class)
 public abstract class GameThreadTest {
 
+    // Timeout
+    /**
+     * The maximum time to wait for the game thread to reach a state, which is only reached on failure.
+     */
+    protected static final long TIMEOUT_MILLIS = 5000;
+
     // Dependencies
     @Mock
     protected GameEngine mGameEngine;
 
+    // Metrics
+    protected GameMetrics mMetrics;
+
+    // Clock
+    protected VirtualClock mClock;
+
     // Game thread
     protected GameThread mGameThread;
 
     @Before
     public void setUp() throws InterruptedException {
         MockitoAnnotations.initMocks(this);
+        mMetrics = new GameMetrics();
+        when(mGameEngine.getMetrics()).thenReturn(mMetrics);
+        mClock = new VirtualClock();
+        when(mGameEngine.getClock()).thenReturn(mClock);
     }
 
     /**
-     * Verifies the {@link GameThread#update(long)} is never called.
+     * Waits until the game thread blocks on its wake-up condition.
+     */
+    protected void awaitBlocked() {
+        final long deadlineMillis = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (mGameThread.getState() != Thread.State.WAITING) {
+            assertTrue(System.currentTimeMillis() < deadlineMillis);
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Verifies the {@link GameThread#update(double)} is never called.
      */
     protected abstract void verifyNeverUpdate();
 
     /**
-     * Verifies the {@link GameThread#update(long)} is called at least once.
+     * Verifies the {@link GameThread#update(double)} is called at least once, waiting for it if needed.
      */
     protected abstract void verifyAtLeastOnceUpdate();
 
@@ -96,7 +125,7 @@ public abstract class GameThreadTest {
         mGameThread.resumeGame();
 
         // Then
-        verify(mGameThread, never()).notifyGamePausedLock();
+        verify(mGameThread, never()).signalWakeUp();
     }
 
     /**
@@ -112,7 +141,7 @@ public abstract class GameThreadTest {
 
         // Then
         assertFalse(mGameThread.mGamePaused);
-        verify(mGameThread).notifyGamePausedLock();
+        verify(mGameThread).signalWakeUp();
     }
 
     /**
@@ -152,7 +181,7 @@ public abstract class GameThreadTest {
         mGameThread.start();
 
         // Then
-        verify(mGameThread, never()).update(anyLong());
+        verify(mGameThread, never()).update(anyDouble());
         verifyNeverUpdate();
     }
 
@@ -163,47 +192,43 @@ public abstract class GameThreadTest {
     public void testRunningGame() throws InterruptedException {
         // When
         mGameThread.startGame();
-        Thread.sleep(200);
 
         // Then
-        verify(mGameThread, atLeastOnce()).update(anyLong());
+        verify(mGameThread, timeout(TIMEOUT_MILLIS).atLeastOnce()).update(anyDouble());
         verifyAtLeastOnceUpdate();
 
         // When
         mGameThread.pauseGame();
-        Thread.sleep(200);
+        awaitBlocked();
         clearInvocations(mGameEngine);
 
         // Then
         verifyNeverUpdate();
-        verify(mGameThread, atLeastOnce()).waitGamePausedLock();
+        verify(mGameThread, atLeastOnce()).awaitWakeUp();
 
         // When
         mGameThread.resumeGame();
-        Thread.sleep(200);
-        clearInvocations(mGameEngine);
-        Thread.sleep(200);
 
         // Then
         verifyAtLeastOnceUpdate();
 
         // When
         mGameThread.pauseGame();
-        Thread.sleep(200);
+        awaitBlocked();
         clearInvocations(mGameEngine);
 
         // Then
         verifyNeverUpdate();
-        verify(mGameThread, atLeastOnce()).waitGamePausedLock();
 
         // When
         mGameThread.stopGame();
-        Thread.sleep(200);
+        mGameThread.join(TIMEOUT_MILLIS);
         clearInvocations(mGameEngine);
         clearInvocations(mGameThread);
 
         // Then
+        assertFalse(mGameThread.isAlive());
         verifyNoMoreInteractions(mGameEngine);
         verifyNoMoreInteractions(mGameThread);
     }
-}
\ No newline at end of file
+}
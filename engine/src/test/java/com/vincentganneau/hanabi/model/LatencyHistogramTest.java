@@ -0,0 +1,112 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * Tests the {@link LatencyHistogram} class.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class LatencyHistogramTest {
+
+    // Histogram
+    private LatencyHistogram mHistogram;
+
+    @Before
+    public void setUp() {
+        mHistogram = new LatencyHistogram();
+    }
+
+    /**
+     * Tests the {@link LatencyHistogram} constructor.
+     */
+    @Test
+    public void testConstructor() {
+        assertEquals(0, mHistogram.getCount());
+        assertEquals(0, mHistogram.getMax());
+        assertEquals(0, mHistogram.getPercentile(50));
+    }
+
+    /**
+     * Tests the {@link LatencyHistogram#record(long)} method.
+     */
+    @Test
+    public void testRecord() {
+        // When
+        for (long i = 1; i <= 1000; i++) {
+            mHistogram.record(i * 1000);
+        }
+
+        // Then
+        assertEquals(1000, mHistogram.getCount());
+        assertEquals(1000000, mHistogram.getMax());
+        assertAccurate(500000, mHistogram.getPercentile(50));
+        assertAccurate(990000, mHistogram.getPercentile(99));
+        assertEquals(1000000, mHistogram.getPercentile(100));
+
+        // When
+        mHistogram.reset();
+
+        // Then
+        assertEquals(0, mHistogram.getCount());
+        assertEquals(0, mHistogram.getMax());
+    }
+
+    /**
+     * Tests the {@link LatencyHistogram#record(long)} method with extreme values.
+     */
+    @Test
+    public void testRecordExtremeValues() {
+        // When
+        mHistogram.record(-1);
+        mHistogram.record(Long.MAX_VALUE);
+
+        // Then
+        assertEquals(0, mHistogram.getPercentile(50));
+        assertEquals(Long.MAX_VALUE, mHistogram.getPercentile(100));
+    }
+
+    /**
+     * Tests every bucket holds the values between the previous bucket and its highest value.
+     */
+    @Test
+    public void testBuckets() {
+        for (long value = 1; value < 100000; value++) {
+            final int index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.highestValueOf(index) >= value);
+            assertTrue(LatencyHistogram.highestValueOf(index - 1) < value);
+        }
+    }
+
+    /**
+     * Asserts a percentile is within the relative error of the histogram.
+     * @param expected the expected value.
+     * @param actual the actual value.
+     */
+    private static void assertAccurate(long expected, long actual) {
+        assertTrue(actual + " is not close to " + expected, Math.abs(actual - expected) <= expected / 16);
+    }
+}
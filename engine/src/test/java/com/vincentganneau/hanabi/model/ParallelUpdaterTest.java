@@ -0,0 +1,216 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * Tests the {@link ParallelUpdater} class.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class ParallelUpdaterTest {
+
+    // Dependencies
+    @Mock
+    private GameEngine mGameEngine;
+
+    // Parallel updater
+    private ParallelUpdater mParallelUpdater;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        mParallelUpdater = new ParallelUpdater(mGameEngine, 4);
+    }
+
+    @After
+    public void tearDown() {
+        mParallelUpdater.shutdown();
+    }
+
+    /**
+     * Tests the {@link ParallelUpdater} constructor.
+     */
+    @Test
+    public void testConstructor() {
+        assertEquals(4, mParallelUpdater.getParallelism());
+    }
+
+    /**
+     * Tests the {@link ParallelUpdater} constructor with an invalid parallelism.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidConstructor() {
+        new ParallelUpdater(mGameEngine, 1);
+    }
+
+    /**
+     * Tests the {@link ParallelUpdater#update(List, double)} method updates every game object exactly once.
+     */
+    @Test
+    public void testUpdate() {
+        // Given
+        final List<GameObject> gameObjects = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            gameObjects.add(new CountingGameObject(i % 3 == 0 ? GameObject.UPDATE_GROUP_INDEPENDENT : i % 7));
+        }
+        gameObjects.add(new CountingGameObject(GameObject.UPDATE_GROUP_SEQUENTIAL));
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            mParallelUpdater.update(gameObjects, 16);
+        }
+
+        // Then
+        for (GameObject gameObject : gameObjects) {
+            assertEquals(100, ((CountingGameObject) gameObject).mUpdates.get());
+            assertEquals(16d, ((CountingGameObject) gameObject).mElapsedMillis);
+        }
+    }
+
+    /**
+     * Tests the {@link ParallelUpdater#update(List, double)} method updates sequential game objects on the calling
+     * thread and every update group on a single thread.
+     */
+    @Test
+    public void testUpdateGroups() {
+        // Given
+        final List<GameObject> gameObjects = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            gameObjects.add(new CountingGameObject(1 + i % 5));
+        }
+        final CountingGameObject sequential = new CountingGameObject(GameObject.UPDATE_GROUP_SEQUENTIAL);
+        gameObjects.add(sequential);
+
+        // When
+        mParallelUpdater.update(gameObjects, 16);
+
+        // Then
+        assertSame(Thread.currentThread(), sequential.mThread);
+        for (int i = 5; i < 1000; i++) {
+            assertSame(((CountingGameObject) gameObjects.get(i - 5)).mThread,
+                    ((CountingGameObject) gameObjects.get(i)).mThread);
+        }
+    }
+
+    /**
+     * Tests the {@link ParallelUpdater#invalidate()} method.
+     */
+    @Test
+    public void testInvalidate() {
+        // Given
+        final List<GameObject> gameObjects = new ArrayList<>();
+        final CountingGameObject first = new CountingGameObject(GameObject.UPDATE_GROUP_INDEPENDENT);
+        final CountingGameObject second = new CountingGameObject(GameObject.UPDATE_GROUP_INDEPENDENT);
+        gameObjects.add(first);
+        mParallelUpdater.update(gameObjects, 16);
+
+        // When
+        gameObjects.add(second);
+        mParallelUpdater.invalidate();
+        mParallelUpdater.update(gameObjects, 16);
+
+        // Then
+        assertEquals(2, first.mUpdates.get());
+        assertEquals(1, second.mUpdates.get());
+    }
+
+    /**
+     * Tests the {@link ParallelUpdater#update(List, double)} method propagates failures to the calling thread.
+     */
+    @Test
+    public void testUpdateFailure() {
+        // Given
+        final List<GameObject> gameObjects = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            gameObjects.add(new CountingGameObject(GameObject.UPDATE_GROUP_INDEPENDENT));
+        }
+        gameObjects.add(new CountingGameObject(GameObject.UPDATE_GROUP_INDEPENDENT) {
+            @Override
+            public void onUpdate(double elapsedMillis, GameEngine gameEngine) {
+                throw new IllegalStateException();
+            }
+        });
+
+        // When
+        boolean failed = false;
+        try {
+            mParallelUpdater.update(gameObjects, 16);
+        } catch (IllegalStateException e) {
+            failed = true;
+        }
+
+        // Then
+        assertTrue(failed);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(1, ((CountingGameObject) gameObjects.get(i)).mUpdates.get());
+        }
+    }
+
+    /**
+     * {@link GameObject} subclass that counts its updates.
+     */
+    private static class CountingGameObject extends GameObject {
+
+        private final int mUpdateGroup;
+        private final AtomicInteger mUpdates = new AtomicInteger();
+        private volatile double mElapsedMillis;
+        private volatile Thread mThread;
+
+        private CountingGameObject(int updateGroup) {
+            mUpdateGroup = updateGroup;
+        }
+
+        @Override
+        public int getUpdateGroup() {
+            return mUpdateGroup;
+        }
+
+        @Override
+        public void onGameStart() {
+
+        }
+
+        @Override
+        public void onUpdate(double elapsedMillis, GameEngine gameEngine) {
+            mUpdates.incrementAndGet();
+            mElapsedMillis = elapsedMillis;
+            mThread = Thread.currentThread();
+        }
+
+        @Override
+        public void onDraw() {
+
+        }
+    }
+}
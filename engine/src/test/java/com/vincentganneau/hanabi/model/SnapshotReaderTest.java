@@ -0,0 +1,144 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * Tests the {@link SnapshotReader} class against snapshots written by a {@link SnapshotWriter}.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class SnapshotReaderTest {
+
+    // Snapshot
+    private SnapshotWriter mWriter;
+    private SnapshotReader mReader;
+
+    @Before
+    public void setUp() {
+        // Start with a buffer too small for the snapshot, so that it grows
+        mWriter = new SnapshotWriter(16);
+        mReader = new SnapshotReader(16);
+        mWriter.beginRecord(1, 1);
+        mWriter.writeByte(-3);
+        mWriter.writeShort(1000);
+        mWriter.writeInt(123456789);
+        mWriter.writeLong(Long.MIN_VALUE);
+        mWriter.writeDouble(0.5);
+        mWriter.writeBytes(new byte[] {1, 2, 3}, 1, 2);
+        mWriter.endRecord();
+        mWriter.beginRecord(2, 3);
+        mWriter.writeInt(42);
+        mWriter.writeInt(43);
+        mWriter.endRecord();
+    }
+
+    /**
+     * Tests every field reads back as written.
+     */
+    @Test
+    public void testFields() throws IOException {
+        // Given
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        mWriter.writeTo(outputStream);
+
+        // When
+        mReader.readFrom(new ByteArrayInputStream(outputStream.toByteArray()));
+
+        // Then
+        assertEquals(1, mReader.requireRecord(1));
+        assertEquals(-3, mReader.readByte());
+        assertEquals(1000, mReader.readShort());
+        assertEquals(123456789, mReader.readInt());
+        assertEquals(Long.MIN_VALUE, mReader.readLong());
+        assertEquals(0.5, mReader.readDouble());
+        final byte[] bytes = new byte[2];
+        mReader.readBytes(bytes, 0, 2);
+        assertTrue(Arrays.equals(new byte[] {2, 3}, bytes));
+        assertFalse(mReader.hasMoreFields());
+    }
+
+    /**
+     * Tests the unread fields of a record, such as fields appended by a newer version, are skipped.
+     */
+    @Test
+    public void testSkipFields() {
+        // When
+        mReader.reset(mWriter.getBuffer(), 0, mWriter.getSize());
+        mReader.nextRecord();
+        mReader.readByte();
+
+        // Then
+        assertTrue(mReader.nextRecord());
+        assertEquals(2, mReader.getRecordType());
+        assertEquals(3, mReader.getRecordVersion());
+        assertEquals(42, mReader.readInt());
+        assertTrue(mReader.hasMoreFields());
+        assertFalse(mReader.nextRecord());
+    }
+
+    /**
+     * Tests fields cannot be read beyond the end of their record.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadBeyondRecord() {
+        // Given
+        mReader.reset(mWriter.getBuffer(), 0, mWriter.getSize());
+        mReader.requireRecord(1);
+        mReader.nextRecord();
+        mReader.readLong();
+
+        // When
+        mReader.readByte();
+    }
+
+    /**
+     * Tests a truncated snapshot is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTruncatedSnapshot() {
+        // Given
+        mReader.reset(mWriter.getBuffer(), 0, mWriter.getSize() - 1);
+        mReader.nextRecord();
+
+        // When
+        mReader.nextRecord();
+    }
+
+    /**
+     * Tests data that is not a snapshot is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidHeader() {
+        // When
+        mReader.reset(new byte[16], 0, 16);
+    }
+}
@@ -0,0 +1,196 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests the {@link SpatialGrid} class.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class SpatialGridTest {
+
+    // Spatial grid
+    private SpatialGrid mSpatialGrid;
+
+    // Results
+    private final List<GameObject> mResults = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        mSpatialGrid = new SpatialGrid(0, 0, 10, 10, 10);
+    }
+
+    /**
+     * Creates bounds.
+     * @param left the left edge.
+     * @param top the top edge.
+     * @param right the right edge.
+     * @param bottom the bottom edge.
+     * @return the bounds.
+     */
+    private static Bounds bounds(float left, float top, float right, float bottom) {
+        final Bounds bounds = new Bounds();
+        bounds.set(left, top, right, bottom);
+        return bounds;
+    }
+
+    /**
+     * Tests the {@link SpatialGrid} constructor with an invalid cell size.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidConstructor() {
+        new SpatialGrid(0, 0, 0, 10, 10);
+    }
+
+    /**
+     * Tests the {@link SpatialGrid#queryPoint(float, float, List)} method.
+     */
+    @Test
+    public void testQueryPoint() {
+        // Given
+        final GameObject first = mock(GameObject.class);
+        final GameObject second = mock(GameObject.class);
+        mSpatialGrid.insert(first, bounds(5, 5, 25, 25));
+        mSpatialGrid.insert(second, bounds(20, 20, 30, 30));
+
+        // When
+        final int found = mSpatialGrid.queryPoint(22, 22, mResults);
+
+        // Then
+        assertEquals(2, found);
+        assertTrue(mResults.contains(first));
+        assertTrue(mResults.contains(second));
+
+        // When
+        mResults.clear();
+
+        // Then
+        assertEquals(1, mSpatialGrid.queryPoint(6, 6, mResults));
+        assertEquals(first, mResults.get(0));
+        assertEquals(0, mSpatialGrid.queryPoint(50, 50, mResults));
+    }
+
+    /**
+     * Tests the {@link SpatialGrid#queryRect(float, float, float, float, List)} method reports every game object once.
+     */
+    @Test
+    public void testQueryRect() {
+        // Given
+        final GameObject large = mock(GameObject.class);
+        final GameObject small = mock(GameObject.class);
+        mSpatialGrid.insert(large, bounds(0, 0, 45, 45));
+        mSpatialGrid.insert(small, bounds(60, 60, 61, 61));
+
+        // When
+        final int found = mSpatialGrid.queryRect(10, 10, 70, 70, mResults);
+
+        // Then
+        assertEquals(2, found);
+        assertEquals(2, mResults.size());
+
+        // When
+        mResults.clear();
+
+        // Then
+        assertEquals(0, mSpatialGrid.queryRect(50, 50, 59, 59, mResults));
+    }
+
+    /**
+     * Tests the {@link SpatialGrid#queryRadius(float, float, float, List)} method.
+     */
+    @Test
+    public void testQueryRadius() {
+        // Given
+        final GameObject gameObject = mock(GameObject.class);
+        mSpatialGrid.insert(gameObject, bounds(30, 30, 40, 40));
+
+        // Then
+        assertEquals(0, mSpatialGrid.queryRadius(20, 20, 14, mResults));
+        assertEquals(1, mSpatialGrid.queryRadius(20, 20, 15, mResults));
+        assertEquals(1, mSpatialGrid.queryRadius(35, 20, 10, mResults));
+    }
+
+    /**
+     * Tests the {@link SpatialGrid#move(int, Bounds)} and {@link SpatialGrid#remove(int)} methods.
+     */
+    @Test
+    public void testMoveAndRemove() {
+        // Given
+        final GameObject gameObject = mock(GameObject.class);
+        final int entry = mSpatialGrid.insert(gameObject, bounds(0, 0, 5, 5));
+
+        // When
+        mSpatialGrid.move(entry, bounds(80, 80, 85, 85));
+
+        // Then
+        assertEquals(0, mSpatialGrid.queryPoint(2, 2, mResults));
+        assertEquals(1, mSpatialGrid.queryPoint(82, 82, mResults));
+
+        // When
+        mSpatialGrid.remove(entry);
+
+        // Then
+        assertEquals(0, mSpatialGrid.getCount());
+        assertEquals(0, mSpatialGrid.queryPoint(82, 82, mResults));
+        assertEquals(entry, mSpatialGrid.insert(gameObject, bounds(0, 0, 5, 5)));
+    }
+
+    /**
+     * Tests the {@link SpatialGrid} with positions outside of the indexed area.
+     */
+    @Test
+    public void testOutsideArea() {
+        // Given
+        final GameObject gameObject = mock(GameObject.class);
+        mSpatialGrid.insert(gameObject, bounds(-50, 150, -40, 160));
+
+        // Then
+        assertEquals(1, mSpatialGrid.queryPoint(-45, 155, mResults));
+        assertEquals(0, mSpatialGrid.queryPoint(5, 95, mResults));
+    }
+
+    /**
+     * Tests the {@link SpatialGrid} with many game objects.
+     */
+    @Test
+    public void testGrowth() {
+        // Given
+        for (int i = 0; i < 1000; i++) {
+            mSpatialGrid.insert(mock(GameObject.class), bounds(i % 100, i / 10, i % 100 + 2, i / 10 + 2));
+        }
+
+        // When
+        final int found = mSpatialGrid.queryRect(0, 0, 100, 100, mResults);
+
+        // Then
+        assertEquals(1000, mSpatialGrid.getCount());
+        assertEquals(1000, found);
+    }
+}
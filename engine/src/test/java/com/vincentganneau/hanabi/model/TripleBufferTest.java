@@ -0,0 +1,115 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNotSame;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * Tests the {@link TripleBuffer} class.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class TripleBufferTest {
+
+    // Triple buffer
+    private TripleBuffer<StringBuilder> mTripleBuffer;
+
+    @Before
+    public void setUp() {
+        mTripleBuffer = new TripleBuffer<>(new StringBuilder(), new StringBuilder(), new StringBuilder());
+    }
+
+    /**
+     * Tests the {@link TripleBuffer} constructor.
+     */
+    @Test
+    public void testConstructor() {
+        assertNotSame(mTripleBuffer.getWriteBuffer(), mTripleBuffer.getReadBuffer());
+        assertEquals("", mTripleBuffer.getReadBuffer().toString());
+    }
+
+    /**
+     * Tests the {@link TripleBuffer#publish()} method.
+     */
+    @Test
+    public void testPublish() {
+        // When
+        mTripleBuffer.getWriteBuffer().append("first");
+        mTripleBuffer.publish();
+
+        // Then
+        assertEquals("first", mTripleBuffer.getReadBuffer().toString());
+        assertEquals("first", mTripleBuffer.getReadBuffer().toString());
+        assertNotSame(mTripleBuffer.getWriteBuffer(), mTripleBuffer.getReadBuffer());
+    }
+
+    /**
+     * Tests the {@link TripleBuffer#publish()} method when the producer is faster than the consumer.
+     */
+    @Test
+    public void testPublishTwice() {
+        // When
+        mTripleBuffer.getWriteBuffer().setLength(0);
+        mTripleBuffer.getWriteBuffer().append("first");
+        mTripleBuffer.publish();
+        mTripleBuffer.getWriteBuffer().setLength(0);
+        mTripleBuffer.getWriteBuffer().append("second");
+        mTripleBuffer.publish();
+
+        // Then
+        assertEquals("second", mTripleBuffer.getReadBuffer().toString());
+        assertNotSame(mTripleBuffer.getWriteBuffer(), mTripleBuffer.getReadBuffer());
+    }
+
+    /**
+     * Tests the {@link TripleBuffer} class with concurrent producer and consumer threads.
+     */
+    @Test
+    public void testConcurrentHandOver() throws InterruptedException {
+        // Given
+        final TripleBuffer<int[]> tripleBuffer = new TripleBuffer<>(new int[2], new int[2], new int[2]);
+        final Thread producer = new Thread(() -> {
+            for (int i = 1; i <= 100000; i++) {
+                final int[] buffer = tripleBuffer.getWriteBuffer();
+                buffer[0] = i;
+                buffer[1] = -i;
+                tripleBuffer.publish();
+            }
+        });
+
+        // When
+        producer.start();
+        int previous = 0;
+        while (previous < 100000) {
+            final int[] buffer = tripleBuffer.getReadBuffer();
+
+            // Then
+            assertEquals(buffer[0], -buffer[1]);
+            assertTrue(buffer[0] >= previous);
+            previous = buffer[0];
+        }
+        producer.join();
+    }
+}
@@ -0,0 +1,195 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests the {@link UpdateBucket} class.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class UpdateBucketTest {
+
+    // Dependencies
+    @Mock
+    private GameEngine mGameEngine;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    /**
+     * Tests the {@link UpdateRate} factories.
+     */
+    @Test
+    public void testUpdateRate() {
+        assertEquals(UpdateRate.EVERY_TICK, UpdateRate.everyTicks(1));
+        assertEquals(UpdateRate.everyTicks(3), UpdateRate.everyTicks(3));
+        assertEquals(UpdateRate.hertz(10), UpdateRate.hertz(10));
+        assertEquals(100d, UpdateRate.hertz(10).mPeriodMillis);
+        assertEquals(0, UpdateRate.hertz(10).mTicks);
+    }
+
+    /**
+     * Tests the {@link UpdateRate#everyTicks(int)} method with an invalid number of ticks.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidUpdateRate() {
+        UpdateRate.everyTicks(0);
+    }
+
+    /**
+     * Tests the {@link UpdateBucket#add(GameObject, double)} method balances the phases.
+     */
+    @Test
+    public void testAdd() {
+        // Given
+        final UpdateBucket bucket = new UpdateBucket(UpdateRate.everyTicks(3));
+
+        // When
+        for (int i = 0; i < 7; i++) {
+            bucket.add(mock(GameObject.class), 0);
+        }
+
+        // Then
+        assertEquals(7, bucket.size());
+        assertEquals(3, bucket.getPhase(0).size());
+        assertEquals(2, bucket.getPhase(1).size());
+        assertEquals(2, bucket.getPhase(2).size());
+    }
+
+    /**
+     * Tests the {@link UpdateBucket#remove(GameObject)} method.
+     */
+    @Test
+    public void testRemove() {
+        // Given
+        final UpdateBucket bucket = new UpdateBucket(UpdateRate.EVERY_TICK);
+        final GameObject first = mock(GameObject.class);
+        final GameObject second = mock(GameObject.class);
+        bucket.add(first, 0);
+        bucket.add(second, 0);
+
+        // When
+        bucket.remove(first);
+
+        // Then
+        assertEquals(1, bucket.size());
+        assertEquals(second, bucket.getPhase(0).get(0));
+        assertEquals(0, second.mUpdateIndex);
+        assertEquals(-1, first.mUpdateIndex);
+        assertNull(first.mUpdateBucket);
+    }
+
+    /**
+     * Tests the {@link UpdateBucket#update(double, GameEngine)} method every given number of ticks.
+     */
+    @Test
+    public void testUpdateEveryTicks() {
+        // Given
+        final UpdateBucket bucket = new UpdateBucket(UpdateRate.everyTicks(2));
+        final GameObject first = mock(GameObject.class);
+        final GameObject second = mock(GameObject.class);
+        bucket.add(first, 0);
+        bucket.add(second, 0);
+
+        // When
+        bucket.update(10, mGameEngine);
+
+        // Then
+        verify(first).onUpdate(10d, mGameEngine);
+        verify(second, never()).onUpdate(anyDouble(), eq(mGameEngine));
+
+        // When
+        bucket.update(20, mGameEngine);
+        bucket.update(30, mGameEngine);
+
+        // Then
+        verify(second).onUpdate(20d, mGameEngine);
+        verify(first).onUpdate(20d, mGameEngine);
+    }
+
+    /**
+     * Tests the {@link UpdateBucket#update(double, GameEngine)} method at a given frequency.
+     */
+    @Test
+    public void testUpdateHertz() {
+        // Given
+        final UpdateBucket bucket = new UpdateBucket(UpdateRate.hertz(20));
+        final GameObject gameObject = mock(GameObject.class);
+        bucket.add(gameObject, 0);
+
+        // When
+        bucket.update(16, mGameEngine);
+        bucket.update(32, mGameEngine);
+        bucket.update(48, mGameEngine);
+
+        // Then
+        verify(gameObject, never()).onUpdate(anyDouble(), eq(mGameEngine));
+
+        // When
+        bucket.update(64, mGameEngine);
+
+        // Then
+        verify(gameObject).onUpdate(64d, mGameEngine);
+
+        // When
+        bucket.update(200, mGameEngine);
+        bucket.update(210, mGameEngine);
+
+        // Then
+        verify(gameObject).onUpdate(136d, mGameEngine);
+        verify(gameObject, never()).onUpdate(10d, mGameEngine);
+    }
+
+    /**
+     * Tests a bucket updated at a given frequency starts a new period when a game object joins it after it became
+     * empty.
+     */
+    @Test
+    public void testUpdateHertzAfterEmpty() {
+        // Given
+        final UpdateBucket bucket = new UpdateBucket(UpdateRate.hertz(20));
+        final GameObject first = mock(GameObject.class);
+        final GameObject second = mock(GameObject.class);
+        bucket.add(first, 1000);
+        bucket.remove(first);
+
+        // When
+        bucket.add(second, 0);
+        bucket.update(50, mGameEngine);
+
+        // Then
+        verify(second).onUpdate(50d, mGameEngine);
+    }
+}
@@ -0,0 +1,190 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+import static org.mockito.AdditionalMatchers.not;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the {@link UpdateThread} class.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class UpdateThreadTest extends GameThreadTest {
+
+    @Override
+    public void setUp() throws InterruptedException {
+        super.setUp();
+        mGameThread = spy(new UpdateThread(mGameEngine));
+    }
+
+    @Override
+    protected void verifyNeverUpdate() {
+        verify(mGameEngine, never()).updateGame(anyDouble());
+    }
+
+    @Override
+    protected void verifyAtLeastOnceUpdate() {
+        verify(mGameEngine, timeout(TIMEOUT_MILLIS).atLeastOnce()).updateGame(anyDouble());
+    }
+
+    /**
+     * Tests the {@link UpdateThread} constructor with a fixed time step.
+     */
+    @Test
+    public void testFixedTimeStepConstructor() {
+        // When
+        final UpdateThread updateThread = new UpdateThread(mGameEngine, 50, 3);
+
+        // Then
+        assertEquals(20000000L, updateThread.mFixedStepNanos);
+        assertEquals(20d, updateThread.mFixedStepMillis);
+        assertEquals(3, updateThread.mMaxCatchUpSteps);
+    }
+
+    /**
+     * Tests the {@link UpdateThread} constructor with an invalid tick rate.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidFixedTimeStepConstructor() {
+        new UpdateThread(mGameEngine, 0, 3);
+    }
+
+    /**
+     * Tests the {@link GameThread#run()} method with a fixed time step.
+     */
+    @Test
+    public void testRunningFixedTimeStepGame() throws InterruptedException {
+        // Given
+        mGameThread = spy(new UpdateThread(mGameEngine, 100, 3));
+
+        // When
+        mGameThread.startGame();
+        verify(mGameEngine, timeout(TIMEOUT_MILLIS).atLeast(3)).updateGame(10d);
+        mGameThread.stopGame();
+        mGameThread.join();
+
+        // Then
+        verify(mGameEngine, never()).updateGame(not(eq(10d)));
+        assertTrue(mMetrics.mUpdateSleep.getCount() > 0);
+        assertEquals(0, mMetrics.mDrawSleep.getCount());
+    }
+
+    /**
+     * Tests the {@link GameThread#run()} method while the game engine is idle.
+     */
+    @Test
+    public void testRunningIdleGame() throws InterruptedException {
+        // Given
+        mGameThread = spy(new UpdateThread(mGameEngine, 100, 3));
+        when(mGameEngine.isIdle()).thenReturn(true);
+
+        // When
+        mGameThread.startGame();
+        awaitBlocked();
+
+        // Then
+        verify(mGameEngine, never()).updateGame(anyDouble());
+
+        // When
+        mGameThread.wakeUp();
+
+        // Then
+        verify(mGameEngine, timeout(TIMEOUT_MILLIS)).updateGame(10d);
+
+        // When
+        awaitBlocked();
+        mGameThread.scheduleWakeUp(50000000L);
+
+        // Then
+        verify(mGameEngine, timeout(TIMEOUT_MILLIS).times(2)).updateGame(10d);
+
+        // When
+        mGameThread.stopGame();
+        mGameThread.join();
+
+        // Then
+        verify(mGameEngine, times(2)).updateGame(anyDouble());
+    }
+
+    /**
+     * Tests the {@link GameThread#run()} method with a fixed time step and a {@link VirtualClock}.
+     */
+    @Test
+    public void testVirtualClock() {
+        // Given
+        final VirtualClock clock = new VirtualClock();
+        when(mGameEngine.getClock()).thenReturn(clock);
+        mGameThread = new UpdateThread(mGameEngine, 100, 3);
+        final int[] updates = new int[1];
+        doAnswer(invocation -> {
+            if (++updates[0] == 1000) {
+                mGameThread.stopGame();
+            }
+            return null;
+        }).when(mGameEngine).updateGame(10d);
+
+        // When
+        mGameThread.mGameRunning = true;
+        mGameThread.run();
+
+        // Then
+        assertEquals(10000000000L, clock.nanoTime());
+        verify(mGameEngine, times(1000)).updateGame(10d);
+        verify(mGameEngine, never()).updateGame(not(eq(10d)));
+    }
+
+    /**
+     * Tests the {@link GameThread#scheduleWakeUp(long)} method with a {@link VirtualClock}.
+     */
+    @Test
+    public void testVirtualClockScheduledWakeUp() {
+        // Given
+        final VirtualClock clock = new VirtualClock();
+        when(mGameEngine.getClock()).thenReturn(clock);
+        when(mGameEngine.isIdle()).thenReturn(true);
+        mGameThread = new UpdateThread(mGameEngine, 100, 3);
+        doAnswer(invocation -> {
+            mGameThread.stopGame();
+            return null;
+        }).when(mGameEngine).updateGame(10d);
+
+        // When
+        mGameThread.mGameRunning = true;
+        mGameThread.scheduleWakeUp(50000000L);
+        mGameThread.run();
+
+        // Then
+        assertEquals(50000000L, clock.nanoTime());
+        verify(mGameEngine).updateGame(10d);
+    }
+}
@@ -0,0 +1,97 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.model;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import static junit.framework.Assert.assertEquals;
+
+/**
+ * Tests the {@link VirtualClock} class.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class VirtualClockTest {
+
+    // Clock
+    private VirtualClock mClock;
+
+    @Before
+    public void setUp() {
+        mClock = new VirtualClock(1000L);
+    }
+
+    /**
+     * Tests the {@link VirtualClock#advance(long)} method.
+     */
+    @Test
+    public void testAdvance() {
+        // When
+        mClock.advance(500L);
+
+        // Then
+        assertEquals(1500L, mClock.nanoTime());
+    }
+
+    /**
+     * Tests the {@link VirtualClock#advance(long)} method with a negative duration.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidAdvance() {
+        mClock.advance(-1L);
+    }
+
+    /**
+     * Tests the {@link VirtualClock#parkNanos(Object, long)} method advances the time without blocking.
+     */
+    @Test(timeout = 1000)
+    public void testParkNanos() {
+        // When
+        mClock.parkNanos(this, 60000000000L);
+        mClock.parkNanos(this, -1L);
+
+        // Then
+        assertEquals(60000001000L, mClock.nanoTime());
+    }
+
+    /**
+     * Tests the {@link VirtualClock#awaitNanos(java.util.concurrent.locks.Condition, long)} method advances the time
+     * without blocking.
+     */
+    @Test(timeout = 1000)
+    public void testAwaitNanos() {
+        // Given
+        final ReentrantLock lock = new ReentrantLock();
+
+        // When
+        lock.lock();
+        try {
+            mClock.awaitNanos(lock.newCondition(), 60000000000L);
+        } finally {
+            lock.unlock();
+        }
+
+        // Then
+        assertEquals(60000001000L, mClock.nanoTime());
+    }
+}
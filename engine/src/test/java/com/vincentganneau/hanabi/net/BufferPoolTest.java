@@ -0,0 +1,94 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.net;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.nio.ByteBuffer;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNotSame;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * Tests the {@link BufferPool} class.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class BufferPoolTest {
+
+    // Buffer pool
+    private BufferPool mBufferPool;
+
+    @Before
+    public void setUp() {
+        mBufferPool = new BufferPool(64, 1);
+    }
+
+    /**
+     * Tests the {@link BufferPool} constructor with an invalid buffer size.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidConstructor() {
+        new BufferPool(0, 1);
+    }
+
+    /**
+     * Tests the {@link BufferPool#acquire()} method reuses released buffers.
+     */
+    @Test
+    public void testAcquire() {
+        // Given
+        final ByteBuffer buffer = mBufferPool.acquire();
+        buffer.putInt(42);
+
+        // When
+        mBufferPool.release(buffer);
+
+        // Then
+        final ByteBuffer reused = mBufferPool.acquire();
+        assertSame(buffer, reused);
+        assertTrue(reused.isDirect());
+        assertEquals(0, reused.position());
+        assertEquals(64, reused.remaining());
+        assertEquals(1, mBufferPool.getAllocatedCount());
+    }
+
+    /**
+     * Tests the {@link BufferPool#release(ByteBuffer)} method drops the buffers beyond the size of the pool.
+     */
+    @Test
+    public void testRelease() {
+        // Given
+        final ByteBuffer buffer = mBufferPool.acquire();
+        final ByteBuffer otherBuffer = mBufferPool.acquire();
+        assertNotSame(buffer, otherBuffer);
+
+        // When
+        mBufferPool.release(buffer);
+        mBufferPool.release(otherBuffer);
+
+        // Then
+        assertEquals(1, mBufferPool.getPooledCount());
+        assertEquals(2, mBufferPool.getAllocatedCount());
+    }
+}
@@ -0,0 +1,185 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.net;
+
+import com.vincentganneau.hanabi.bot.HeuristicPolicy;
+import com.vincentganneau.hanabi.game.Card;
+import com.vincentganneau.hanabi.game.GameState;
+import com.vincentganneau.hanabi.game.Move;
+import com.vincentganneau.hanabi.model.DirectDispatcher;
+import com.vincentganneau.hanabi.model.GameEngine;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Random;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the {@link RemoteGame} class.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class RemoteGameTest {
+
+    // Dependencies
+    @Mock
+    private ClientSession mSession;
+
+    // Remote game
+    private RemoteGame mRemoteGame;
+    private final GameEngine mGameEngine = new GameEngine(new DirectDispatcher());
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        mRemoteGame = new RemoteGame(new GameState(3));
+    }
+
+    /**
+     * Tests the {@link RemoteGame#onUpdate(double, GameEngine)} method applies the keyframe and the moves received
+     * since the previous update.
+     */
+    @Test
+    public void testUpdate() {
+        // Given
+        final GameState gameState = new GameState(3);
+        gameState.deal(new Random(42));
+        final GameState view = new GameState(3);
+        view.copyFrom(gameState);
+        view.hideCards(0);
+        when(mSession.getPlayerCount()).thenReturn(3);
+        when(mSession.getGameState()).thenReturn(view);
+        mRemoteGame.onStateReceived(mSession);
+        receiveMove(gameState, view, Move.discard(0));
+        receiveMove(gameState, view, Move.discard(1));
+
+        // When
+        mRemoteGame.onUpdate(0, mGameEngine);
+
+        // Then
+        assertEquals(view, mRemoteGame.mGameState);
+        assertEquals(Card.NONE, mRemoteGame.mGameState.getCard(0, 0));
+        assertEquals(gameState.getCard(1, 0), mRemoteGame.mGameState.getCard(1, 0));
+
+        // When
+        receiveMove(gameState, view, Move.hintColor(0, Card.color(gameState.getCard(0, 1))));
+        mRemoteGame.onUpdate(0, mGameEngine);
+
+        // Then
+        assertEquals(view, mRemoteGame.mGameState);
+        assertEquals(gameState.getHintMask(0, 1), mRemoteGame.mGameState.getHintMask(0, 1));
+    }
+
+    /**
+     * Tests two game engines playing a table over the loopback interface end with the same state.
+     */
+    @Test
+    public void testSync() throws IOException, InterruptedException {
+        // Given
+        final SessionServer server = new SessionServer(42);
+        final InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0)));
+        server.start();
+        final SessionClient client = new SessionClient();
+        client.start();
+        final GameEngine[] gameEngines = new GameEngine[2];
+        final RemoteGame[] remoteGames = new RemoteGame[2];
+        for (int i = 0; i < 2; i++) {
+            gameEngines[i] = new GameEngine(new DirectDispatcher());
+            remoteGames[i] = new RemoteGame(new GameState(2));
+            gameEngines[i].addGameObject(remoteGames[i]);
+            remoteGames[i].connect(client, address, 7, 2);
+        }
+
+        // When
+        final Random random = new Random(42);
+        final int[] moves = new int[Move.MAX_LEGAL_MOVES];
+        final int[] submittedTurns = {-1, -1};
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (!(isPlayed(remoteGames[0].mGameState) && isPlayed(remoteGames[1].mGameState))
+                && System.currentTimeMillis() < deadline) {
+            for (int i = 0; i < 2; i++) {
+                gameEngines[i].updateGame(1);
+                final GameState gameState = remoteGames[i].mGameState;
+                if (remoteGames[i].isLocalTurn() && submittedTurns[i] != gameState.getTurn()) {
+                    submittedTurns[i] = gameState.getTurn();
+                    remoteGames[i].submitMove(HeuristicPolicy.chooseMove(gameState, random, moves));
+                }
+            }
+            Thread.sleep(1);
+        }
+        client.shutdown();
+        server.shutdown();
+        client.join();
+        server.join();
+
+        // Then
+        assertTrue(isPlayed(remoteGames[0].mGameState));
+        assertTrue(isPlayed(remoteGames[1].mGameState));
+        for (int i = 0; i < 2; i++) {
+            final GameState gameState = remoteGames[i].mGameState;
+            final int seat = remoteGames[i].getSeat();
+            assertEquals(Card.NONE, gameState.getCard(seat, 0));
+            assertTrue(gameState.getCard(1 - seat, 0) != Card.NONE);
+            for (int player = 0; player < 2; player++) {
+                gameState.hideCards(player);
+            }
+        }
+        assertEquals(remoteGames[0].mGameState, remoteGames[1].mGameState);
+        assertEquals(0, remoteGames[0].getErrorCode());
+    }
+
+    /**
+     * Indicates whether a game has been dealt and played to the end, as a state whose cards have not been dealt yet
+     * is over too.
+     * @param gameState the state of the game.
+     * @return <code>true</code> if at least a move has been played and the game is over.
+     */
+    private static boolean isPlayed(GameState gameState) {
+        return gameState.getTurn() > 0 && gameState.isGameOver();
+    }
+
+    /**
+     * Applies a move to the state of a table, and hands it over to the remote game of seat <code>0</code> as it would
+     * be received from the server.
+     * @param gameState the state of the table.
+     * @param view the view of seat <code>0</code>, applied the move as by the session.
+     * @param move the move.
+     */
+    private void receiveMove(GameState gameState, GameState view, int move) {
+        final int player = gameState.getCurrentPlayer();
+        final int revealed = Move.isHint(move)
+                ? gameState.getHintedSlots(move)
+                : gameState.getCard(player, Move.slot(move));
+        gameState.apply(move);
+        final int drawnCard = !Move.isHint(move) && player != 0 ? gameState.getCard(player, 0) : Card.NONE;
+        view.applyObserved(move, revealed, drawnCard);
+        mRemoteGame.onMoveApplied(mSession, move, revealed, drawnCard);
+    }
+}
@@ -0,0 +1,324 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.net;
+
+import com.vincentganneau.hanabi.bot.HeuristicPolicy;
+import com.vincentganneau.hanabi.game.Card;
+import com.vincentganneau.hanabi.game.GameState;
+import com.vincentganneau.hanabi.game.Move;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests the {@link SessionServer} and {@link SessionClient} classes over the loopback interface.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class SessionServerTest {
+
+    // Timeout
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    // Server
+    private SessionServer mServer;
+    private InetSocketAddress mAddress;
+
+    // Client
+    private SessionClient mClient;
+
+    @Before
+    public void setUp() throws IOException {
+        mServer = new SessionServer(42);
+        mAddress = new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                mServer.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0)));
+        mServer.start();
+        mClient = new SessionClient();
+        mClient.start();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        mClient.shutdown();
+        mServer.shutdown();
+        mClient.join();
+        mServer.join();
+    }
+
+    /**
+     * Tests many tables played to the end by a single client keep the views of every seat in sync.
+     */
+    @Test
+    public void testPlayGames() throws InterruptedException {
+        // Given
+        final int tableCount = 200;
+        final ClientSession[][] sessions = new ClientSession[tableCount][];
+        int sessionCount = 0;
+        for (int table = 0; table < tableCount; table++) {
+            sessions[table] = new ClientSession[GameState.MIN_PLAYER_COUNT + table % 4];
+            sessionCount += sessions[table].length;
+        }
+        final PolicyListener listener = new PolicyListener(sessionCount);
+
+        // When
+        for (int table = 0; table < tableCount; table++) {
+            for (int seat = 0; seat < sessions[table].length; seat++) {
+                sessions[table][seat] = mClient.connect(mAddress, table, sessions[table].length, listener);
+            }
+        }
+
+        // Then
+        assertTrue(listener.mGamesOver.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        assertEquals(tableCount, mServer.getTableCount());
+        final GameState publicState = new GameState(GameState.MAX_PLAYER_COUNT);
+        final GameState otherPublicState = new GameState(GameState.MAX_PLAYER_COUNT);
+        for (ClientSession[] table : sessions) {
+            assertTrue(table[0].getGameState().getScore() > 0);
+            hideEveryCard(table[0].getGameState(), publicState);
+            for (ClientSession session : table) {
+                hideEveryCard(session.getGameState(), otherPublicState);
+                assertEquals(publicState, otherPublicState);
+
+                // Every player sees the same cards in the hands of the others
+                for (ClientSession other : table) {
+                    for (int holder = 0; holder < table.length; holder++) {
+                        if (holder != session.getSeat() && holder != other.getSeat()) {
+                            for (int slot = 0; slot < table[0].getGameState().getHandSize(holder); slot++) {
+                                assertEquals(session.getGameState().getCard(holder, slot),
+                                        other.getGameState().getCard(holder, slot));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests the view of a seat never holds its own cards nor the deck, from the first keyframe to the end of the game.
+     */
+    @Test
+    public void testOwnCardsHidden() throws InterruptedException {
+        // Given
+        final int tableCount = 20;
+        int sessionCount = 0;
+        for (int table = 0; table < tableCount; table++) {
+            sessionCount += GameState.MIN_PLAYER_COUNT + table % 4;
+        }
+        final PolicyListener listener = new PolicyListener(sessionCount);
+
+        // When
+        for (int table = 0; table < tableCount; table++) {
+            final int playerCount = GameState.MIN_PLAYER_COUNT + table % 4;
+            for (int seat = 0; seat < playerCount; seat++) {
+                mClient.connect(mAddress, table, playerCount, listener);
+            }
+        }
+
+        // Then
+        assertTrue(listener.mGamesOver.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        assertTrue(listener.mViewCount > sessionCount);
+        assertFalse(listener.mOwnCardSeen);
+    }
+
+    /**
+     * Tests a move played out of turn is answered with a keyframe instead of being broadcast.
+     */
+    @Test
+    public void testRejectedMove() {
+        // Given
+        final SessionListener listener = mock(SessionListener.class);
+        final ClientSession session = mClient.connect(mAddress, 1, 2, listener);
+        final ClientSession otherSession = mClient.connect(mAddress, 1, 2, listener);
+        verify(listener, timeout(TIMEOUT_MILLIS)).onStateReceived(session);
+        verify(listener, timeout(TIMEOUT_MILLIS)).onStateReceived(otherSession);
+
+        final ClientSession waitingSession = session.getSeat() == 1 ? session : otherSession;
+        final int[] moves = new int[Move.MAX_LEGAL_MOVES];
+        waitingSession.getGameState().getLegalMoves(moves);
+
+        // When
+        waitingSession.submitMove(0, moves[0]);
+
+        // Then
+        verify(listener, timeout(TIMEOUT_MILLIS).times(2)).onStateReceived(waitingSession);
+        verify(listener, after(100).never()).onMoveApplied(any(ClientSession.class), anyInt(), anyInt(), anyInt());
+    }
+
+    /**
+     * Tests a table does not accept more players than its number of players.
+     */
+    @Test
+    public void testTableFull() {
+        // Given
+        final SessionListener listener = mock(SessionListener.class);
+        mClient.connect(mAddress, 1, 2, listener);
+        mClient.connect(mAddress, 1, 2, listener);
+        verify(listener, timeout(TIMEOUT_MILLIS).times(2)).onSeated(any(ClientSession.class));
+
+        // When
+        final ClientSession session = mClient.connect(mAddress, 1, 2, listener);
+
+        // Then
+        verify(listener, timeout(TIMEOUT_MILLIS)).onError(session, Protocol.ERROR_TABLE_FULL);
+        verify(listener, never()).onSeated(session);
+    }
+
+    /**
+     * Tests a table rejects players expecting another number of players.
+     */
+    @Test
+    public void testInvalidPlayerCount() {
+        // Given
+        final SessionListener listener = mock(SessionListener.class);
+        mClient.connect(mAddress, 1, 2, listener);
+        verify(listener, timeout(TIMEOUT_MILLIS)).onSeated(any(ClientSession.class));
+
+        // When
+        final ClientSession session = mClient.connect(mAddress, 1, 3, listener);
+
+        // Then
+        verify(listener, timeout(TIMEOUT_MILLIS)).onError(session, Protocol.ERROR_INVALID_PLAYER_COUNT);
+    }
+
+    /**
+     * Tests the other players of a table are notified when a player leaves during the game.
+     */
+    @Test
+    public void testPlayerLeft() {
+        // Given
+        final SessionListener listener = mock(SessionListener.class);
+        final ClientSession session = mClient.connect(mAddress, 1, 2, listener);
+        final ClientSession otherSession = mClient.connect(mAddress, 1, 2, listener);
+        verify(listener, timeout(TIMEOUT_MILLIS).times(2)).onStateReceived(any(ClientSession.class));
+
+        // When
+        session.close();
+
+        // Then
+        verify(listener, timeout(TIMEOUT_MILLIS)).onClosed(session);
+        verify(listener, timeout(TIMEOUT_MILLIS)).onError(otherSession, Protocol.ERROR_PLAYER_LEFT);
+        verify(listener, never()).onError(session, Protocol.ERROR_PLAYER_LEFT);
+    }
+
+    /**
+     * Copies a view of a table and hides every card of the copy, leaving only what every player sees.
+     * @param view the view.
+     * @param publicState the copy.
+     */
+    private static void hideEveryCard(GameState view, GameState publicState) {
+        publicState.copyFrom(view);
+        for (int player = 0; player < view.getPlayerCount(); player++) {
+            publicState.hideCards(player);
+        }
+    }
+
+    /**
+     * {@link SessionListener} playing the turns of its sessions with the {@link HeuristicPolicy}, and checking their
+     * views never hold their own cards.
+     */
+    private static class PolicyListener implements SessionListener {
+
+        private final Random mRandom = new Random(42);
+        private final int[] mMoves = new int[Move.MAX_LEGAL_MOVES];
+        private final CountDownLatch mGamesOver;
+        private volatile int mViewCount;
+        private volatile boolean mOwnCardSeen;
+
+        PolicyListener(int sessionCount) {
+            mGamesOver = new CountDownLatch(sessionCount);
+        }
+
+        @Override
+        public void onSeated(ClientSession session) {
+
+        }
+
+        @Override
+        public void onStateReceived(ClientSession session) {
+            checkView(session);
+            play(session);
+        }
+
+        @Override
+        public void onMoveApplied(ClientSession session, int move, int revealed, int drawnCard) {
+            checkView(session);
+            if (session.getGameState().isGameOver()) {
+                mGamesOver.countDown();
+            }
+            play(session);
+        }
+
+        @Override
+        public void onError(ClientSession session, int code) {
+
+        }
+
+        @Override
+        public void onClosed(ClientSession session) {
+
+        }
+
+        /**
+         * Checks the view of a session holds neither its own cards nor the deck.
+         * @param session the session.
+         */
+        private void checkView(ClientSession session) {
+            final GameState gameState = session.getGameState();
+            for (int slot = 0; slot < gameState.getHandSize(session.getSeat()); slot++) {
+                mOwnCardSeen |= gameState.getCard(session.getSeat(), slot) != Card.NONE;
+            }
+            for (int index = 0; index < gameState.getDeckSize(); index++) {
+                mOwnCardSeen |= gameState.getDeckCard(index) != Card.NONE;
+            }
+            mViewCount++;
+        }
+
+        /**
+         * Plays the turn of a session, if it is its turn.
+         * @param session the session.
+         */
+        private void play(ClientSession session) {
+            if (session.isMyTurn()) {
+                final GameState gameState = session.getGameState();
+                session.submitMove(gameState.getTurn(), HeuristicPolicy.chooseMove(gameState, mRandom, mMoves));
+            }
+        }
+    }
+}
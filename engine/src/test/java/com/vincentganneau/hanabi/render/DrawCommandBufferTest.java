@@ -0,0 +1,102 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.render;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Random;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * Tests the {@link DrawCommandBuffer} class.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class DrawCommandBufferTest {
+
+    // Commands
+    private DrawCommandBuffer mCommands;
+
+    @Before
+    public void setUp() {
+        mCommands = new DrawCommandBuffer(4);
+    }
+
+    /**
+     * Tests the {@link DrawCommandBuffer#add(int, int, int, int, float, float, float, float)} method with an invalid
+     * layer.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidAdd() {
+        mCommands.add(DrawCommandBuffer.MAX_KEY_VALUE + 1, 0, 0, 0, 0, 0, 1, 1);
+    }
+
+    /**
+     * Tests the {@link DrawCommandBuffer#sort()} method orders commands by layer, texture and state, and keeps the
+     * order of the commands sharing all three.
+     */
+    @Test
+    public void testSort() {
+        // Given
+        final Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            mCommands.add(random.nextInt(3), random.nextInt(2), random.nextInt(4), i, i, 0, 1, 1);
+        }
+
+        // When
+        mCommands.sort();
+
+        // Then
+        assertEquals(1000, mCommands.getCount());
+        for (int i = 1; i < 1000; i++) {
+            final int previous = mCommands.getSorted(i - 1);
+            final int command = mCommands.getSorted(i);
+            final int previousKey = mCommands.getLayer(previous) << 16 | mCommands.getBatchKey(previous);
+            final int key = mCommands.getLayer(command) << 16 | mCommands.getBatchKey(command);
+            assertTrue(previousKey < key || previousKey == key && previous < command);
+        }
+    }
+
+    /**
+     * Tests the {@link DrawCommandBuffer#clear()} method keeps the buffer reusable.
+     */
+    @Test
+    public void testClear() {
+        // Given
+        mCommands.add(1, 0, 0, 7, 10, 20, 30, 40);
+
+        // When
+        mCommands.clear();
+        mCommands.add(2, 1, 3, 5, 1, 2, 3, 4);
+        mCommands.sort();
+
+        // Then
+        assertEquals(1, mCommands.getCount());
+        final int command = mCommands.getSorted(0);
+        assertEquals(2, mCommands.getLayer(command));
+        assertEquals(1, mCommands.getTexture(command));
+        assertEquals(3, mCommands.getState(command));
+        assertEquals(5, mCommands.getRegion(command));
+        assertEquals(4f, mCommands.getBounds()[command * 4 + 3]);
+    }
+}
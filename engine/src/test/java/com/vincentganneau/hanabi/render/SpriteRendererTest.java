@@ -0,0 +1,155 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.render;
+
+import com.vincentganneau.hanabi.game.Card;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.fail;
+
+/**
+ * Tests the {@link SpriteRenderer} class.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class SpriteRendererTest {
+
+    // Renderer
+    private TextureAtlas mAtlas;
+    private SpriteRenderer mSpriteRenderer;
+    private RecordingBackend mBackend;
+
+    @Before
+    public void setUp() {
+        mAtlas = Sprites.newAtlas(64, 96, 32, 48);
+        mSpriteRenderer = new SpriteRenderer(4, mAtlas);
+        mBackend = new RecordingBackend();
+    }
+
+    /**
+     * Tests the {@link SpriteRenderer#render(SpriteBackend)} method merges the sprites sharing a texture and a state.
+     */
+    @Test
+    public void testRender() {
+        // Given
+        final DrawCommandBuffer commands = mSpriteRenderer.getCommands();
+        for (int card = 0; card < Card.KIND_COUNT; card++) {
+            commands.add(1, 0, 0, Sprites.cardFace(card), card * 10, 100, 64, 96);
+        }
+        commands.add(2, 0, 1, Sprites.HINT_TOKEN, 5, 6, 32, 32);
+        commands.add(0, 0, 0, Sprites.CARD_BACK, 0, 0, 64, 96);
+
+        // When
+        mSpriteRenderer.render(mBackend);
+
+        // Then
+        assertEquals(2, mSpriteRenderer.getBatchCount());
+        assertEquals(Card.KIND_COUNT + 2, mSpriteRenderer.getSpriteCount());
+        assertEquals(1, mBackend.mFrameCount);
+        assertEquals(2, mBackend.mBatches.size());
+        final float[] first = mBackend.mBatches.get(0);
+        assertEquals((Card.KIND_COUNT + 1) * SpriteRenderer.FLOATS_PER_SPRITE, first.length);
+        assertEquals(64f, first[2]);
+        assertEquals((float) mAtlas.getRegionX(Sprites.CARD_BACK), first[4]);
+        assertEquals(10f, first[2 * SpriteRenderer.FLOATS_PER_SPRITE]);
+        assertEquals(196f, first[2 * SpriteRenderer.FLOATS_PER_SPRITE + 3]);
+        final float[] second = mBackend.mBatches.get(1);
+        assertEquals(1, mBackend.mStates.get(1).intValue());
+        assertEquals((float) mAtlas.getRegionY(Sprites.HINT_TOKEN) + 32, second[7]);
+        assertEquals(0, commands.getCount());
+    }
+
+    /**
+     * Tests the {@link SpriteRenderer#render(SpriteBackend)} method with an unknown texture still ends the frame and
+     * discards its sprites.
+     */
+    @Test
+    public void testRenderUnknownTexture() {
+        // Given
+        mSpriteRenderer.getCommands().add(0, 1, 0, 0, 0, 0, 1, 1);
+
+        // When
+        try {
+            mSpriteRenderer.render(mBackend);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Then
+            assertEquals(1, mBackend.mFrameCount);
+            assertEquals(0, mSpriteRenderer.getCommands().getCount());
+        }
+    }
+
+    /**
+     * Tests the {@link SpriteRenderer#render(SpriteBackend, DrawCommandBuffer)} method keeps the sprites of another
+     * buffer, so that the same frame can be drawn again.
+     */
+    @Test
+    public void testRenderOtherBuffer() {
+        // Given
+        final DrawCommandBuffer commands = new DrawCommandBuffer(16);
+        commands.add(1, 0, 0, Sprites.HINT_TOKEN, 5, 6, 32, 32);
+        commands.add(0, 0, 0, Sprites.CARD_BACK, 0, 0, 64, 96);
+
+        // When
+        mSpriteRenderer.render(mBackend, commands);
+        mSpriteRenderer.render(mBackend, commands);
+
+        // Then
+        assertEquals(2, mBackend.mFrameCount);
+        assertEquals(2, commands.getCount());
+        assertEquals(2, mSpriteRenderer.getSpriteCount());
+        assertEquals(64f, mBackend.mBatches.get(1)[2]);
+        assertEquals(0, mSpriteRenderer.getCommands().getCount());
+    }
+
+    /**
+     * {@link SpriteBackend} recording a copy of every batch.
+     */
+    private static class RecordingBackend implements SpriteBackend {
+
+        private final List<float[]> mBatches = new ArrayList<>();
+        private final List<Integer> mStates = new ArrayList<>();
+        private int mFrameCount;
+
+        @Override
+        public void beginFrame() {
+
+        }
+
+        @Override
+        public void drawBatch(int texture, int state, float[] vertices, int spriteCount) {
+            final float[] batch = new float[spriteCount * SpriteRenderer.FLOATS_PER_SPRITE];
+            System.arraycopy(vertices, 0, batch, 0, batch.length);
+            mBatches.add(batch);
+            mStates.add(state);
+        }
+
+        @Override
+        public void endFrame() {
+            mFrameCount++;
+        }
+    }
+}
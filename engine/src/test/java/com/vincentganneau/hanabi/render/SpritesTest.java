@@ -0,0 +1,68 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.render;
+
+import com.vincentganneau.hanabi.game.Card;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+
+/**
+ * Tests the {@link Sprites} class.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class SpritesTest {
+
+    /**
+     * Tests the {@link Sprites#newAtlas(int, int, int, int)} method packs every sprite without overlaps.
+     */
+    @Test
+    public void testNewAtlas() {
+        // When
+        final TextureAtlas atlas = Sprites.newAtlas(64, 96, 32, 48);
+
+        // Then
+        assertEquals(512, atlas.getWidth());
+        assertEquals(Sprites.COUNT, atlas.getRegionCount());
+        assertEquals(64, atlas.getRegionWidth(Sprites.cardFace(Card.of(4, 5))));
+        assertEquals(96, atlas.getRegionHeight(Sprites.CARD_BACK));
+        assertEquals(32, atlas.getRegionWidth(Sprites.FUSE_TOKEN));
+        assertEquals(48, atlas.getRegionHeight(Sprites.firework(Card.COLOR_COUNT - 1)));
+        for (int sprite = 0; sprite < Sprites.COUNT; sprite++) {
+            for (int other = sprite + 1; other < Sprites.COUNT; other++) {
+                assertFalse(atlas.getRegionX(sprite) < atlas.getRegionX(other) + atlas.getRegionWidth(other)
+                        && atlas.getRegionX(other) < atlas.getRegionX(sprite) + atlas.getRegionWidth(sprite)
+                        && atlas.getRegionY(sprite) < atlas.getRegionY(other) + atlas.getRegionHeight(other)
+                        && atlas.getRegionY(other) < atlas.getRegionY(sprite) + atlas.getRegionHeight(sprite));
+            }
+        }
+    }
+
+    /**
+     * Tests the {@link Sprites#newAtlas(int, int, int, int)} method with sprites too large for any atlas.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNewAtlasTooLarge() {
+        Sprites.newAtlas(1024, 1024, 32, 48);
+    }
+}
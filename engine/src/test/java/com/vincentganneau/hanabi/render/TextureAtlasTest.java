@@ -0,0 +1,94 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.render;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static junit.framework.Assert.assertEquals;
+
+/**
+ * Tests the {@link TextureAtlas} class.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class TextureAtlasTest {
+
+    // Atlas
+    private TextureAtlas mAtlas;
+
+    @Before
+    public void setUp() {
+        mAtlas = new TextureAtlas(64, 32, 1);
+    }
+
+    /**
+     * Tests the {@link TextureAtlas} constructor with an invalid size.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidConstructor() {
+        new TextureAtlas(0, 32, 1);
+    }
+
+    /**
+     * Tests the {@link TextureAtlas#add(int, int)} method fills shelves from left to right and top to bottom.
+     */
+    @Test
+    public void testAdd() {
+        // When
+        final int first = mAtlas.add(20, 10);
+        final int second = mAtlas.add(20, 12);
+        final int third = mAtlas.add(30, 8);
+
+        // Then
+        assertEquals(0, first);
+        assertEquals(1, second);
+        assertEquals(2, third);
+        assertEquals(3, mAtlas.getRegionCount());
+        assertEquals(1, mAtlas.getRegionX(first));
+        assertEquals(1, mAtlas.getRegionY(first));
+        assertEquals(23, mAtlas.getRegionX(second));
+        assertEquals(1, mAtlas.getRegionY(second));
+        assertEquals(1, mAtlas.getRegionX(third));
+        assertEquals(15, mAtlas.getRegionY(third));
+        assertEquals(30, mAtlas.getRegionWidth(third));
+        assertEquals(8, mAtlas.getRegionHeight(third));
+    }
+
+    /**
+     * Tests the {@link TextureAtlas#add(int, int)} method when the atlas has no room left.
+     */
+    @Test
+    public void testAddFull() {
+        // Given
+        mAtlas.add(62, 20);
+
+        // When
+        final int tooWide = mAtlas.add(63, 1);
+        final int tooHigh = mAtlas.add(10, 11);
+        final int fitting = mAtlas.add(10, 8);
+
+        // Then
+        assertEquals(-1, tooWide);
+        assertEquals(-1, tooHigh);
+        assertEquals(1, fitting);
+        assertEquals(23, mAtlas.getRegionY(fitting));
+    }
+}
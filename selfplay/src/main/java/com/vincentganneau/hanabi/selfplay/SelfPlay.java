@@ -0,0 +1,102 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.selfplay;
+
+import com.vincentganneau.hanabi.game.GameState;
+
+/**
+ * Command-line entry point of the self-play tournaments, on a plain JVM.
+ * <p>
+ * Usage: <code>selfplay [--games N] [--threads N] [--players N] [--iterations N] [--seed N]</code>, by default
+ * 10000 games of 2 players following the heuristic policy, on every available processor.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public class SelfPlay {
+
+    // Constructor
+    /**
+     * Prevents instantiation.
+     */
+    private SelfPlay() {
+    }
+
+    // Main
+    /**
+     * Runs a tournament and prints its report.
+     * @param args the command-line arguments.
+     * @throws InterruptedException if the tournament is interrupted.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int games = 10000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int players = GameState.MIN_PLAYER_COUNT;
+        int iterations = 0;
+        long seed = System.nanoTime();
+        for (int i = 0; i < args.length; i++) {
+            final String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--games":
+                    games = parseInt(args[i], value);
+                    break;
+                case "--threads":
+                    threads = parseInt(args[i], value);
+                    break;
+                case "--players":
+                    players = parseInt(args[i], value);
+                    break;
+                case "--iterations":
+                    iterations = parseInt(args[i], value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(requireValue(args[i], value));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+            i++;
+        }
+
+        System.out.printf("%d games of %d players, %d threads, %s, seed %d%n", games, players, threads,
+                iterations > 0 ? iterations + " iterations per move" : "heuristic policy", seed);
+        System.out.print(new Tournament(games, threads, players, iterations, seed).run().format());
+    }
+
+    /**
+     * Parses the integer value of an option.
+     * @param option the option.
+     * @param value the value, or <code>null</code> if it is missing.
+     * @return the integer value.
+     */
+    private static int parseInt(String option, String value) {
+        return Integer.parseInt(requireValue(option, value));
+    }
+
+    /**
+     * Checks the value of an option is not missing.
+     * @param option the option.
+     * @param value the value, or <code>null</code> if it is missing.
+     * @return the value.
+     */
+    private static String requireValue(String option, String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing value of option " + option);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,194 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.selfplay;
+
+import com.vincentganneau.hanabi.bot.BotPlayer;
+import com.vincentganneau.hanabi.bot.HeuristicPlayer;
+import com.vincentganneau.hanabi.bot.MctsSearch;
+import com.vincentganneau.hanabi.game.GameState;
+import com.vincentganneau.hanabi.model.DirectDispatcher;
+import com.vincentganneau.hanabi.model.GameEngine;
+import com.vincentganneau.hanabi.model.GameObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Plays many games of Hanabi between computer players, across a pool of threads.
+ * <p>
+ * Every thread owns a headless {@link GameEngine}, whose game objects are the players and whose {@link Random} is
+ * seeded from the seed of the tournament and the index of the thread. Games are dealt to the threads in turn, so a
+ * tournament is reproducible for a given seed and number of threads. The cards are shuffled by a source of randomness
+ * of their own, so tournaments with the same seed and number of threads play the same deals whatever the players.
+ * </p>
+ * <p>
+ * The players follow the {@link com.vincentganneau.hanabi.bot.HeuristicPolicy}, or search every move with a
+ * single-threaded {@link MctsSearch} when an iteration budget is given: the tournament is parallel across games rather
+ * than inside a search.
+ * </p>
+ * @author Vincent Ganneau
+ */
+public class Tournament {
+
+    // Game loop
+    /**
+     * The duration of every headless update in milliseconds.
+     */
+    private static final double STEP_MILLIS = 1000.0 / 60;
+    /**
+     * The maximum number of updates of a game, beyond which a player is considered stuck.
+     */
+    private static final int MAX_UPDATES = 10000;
+
+    // Configuration
+    /**
+     * The number of games.
+     */
+    public final int mGameCount;
+    /**
+     * The number of threads.
+     */
+    public final int mThreadCount;
+    /**
+     * The number of players of every game.
+     */
+    public final int mPlayerCount;
+    /**
+     * The number of iterations of the search of every move, or <code>0</code> to play the heuristic policy.
+     */
+    public final int mIterations;
+    /**
+     * The seed of the tournament.
+     */
+    public final long mSeed;
+
+    // Constructor
+    /**
+     * Creates a new {@link Tournament}.
+     * @param gameCount the number of games.
+     * @param threadCount the number of threads.
+     * @param playerCount the number of players of every game.
+     * @param iterations the number of iterations of the search of every move, or <code>0</code> to play the heuristic
+     * policy.
+     * @param seed the seed of the tournament.
+     */
+    public Tournament(int gameCount, int threadCount, int playerCount, int iterations, long seed) {
+        if (gameCount < 0 || threadCount < 1 || iterations < 0) {
+            throw new IllegalArgumentException("Invalid tournament: " + gameCount + " games, " + threadCount
+                    + " threads, " + iterations + " iterations");
+        }
+        if (playerCount < GameState.MIN_PLAYER_COUNT || playerCount > GameState.MAX_PLAYER_COUNT) {
+            throw new IllegalArgumentException("Invalid number of players: " + playerCount);
+        }
+        mGameCount = gameCount;
+        mThreadCount = threadCount;
+        mPlayerCount = playerCount;
+        mIterations = iterations;
+        mSeed = seed;
+    }
+
+    // Tournament
+    /**
+     * Plays every game of the tournament, blocking until they are all over.
+     * @return the result of the tournament.
+     * @throws InterruptedException if the calling thread is interrupted while waiting.
+     */
+    public TournamentResult run() throws InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(mThreadCount);
+        try {
+            final long startNanos = System.nanoTime();
+            final List<Future<int[]>> futures = new ArrayList<>(mThreadCount);
+            for (int i = 0; i < mThreadCount; i++) {
+                final int thread = i;
+                futures.add(executor.submit(new Callable<int[]>() {
+                    @Override
+                    public int[] call() {
+                        return playGames(thread);
+                    }
+                }));
+            }
+
+            // Merge the score distribution of every thread
+            final int[] scores = new int[GameState.MAX_SCORE + 1];
+            for (Future<int[]> future : futures) {
+                final int[] threadScores = future.get();
+                for (int score = 0; score <= GameState.MAX_SCORE; score++) {
+                    scores[score] += threadScores[score];
+                }
+            }
+            return new TournamentResult(scores, System.nanoTime() - startNanos);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays the games dealt to a thread.
+     * @param thread the index of the thread.
+     * @return the number of games that ended with every score.
+     */
+    private int[] playGames(int thread) {
+        final GameState gameState = new GameState(mPlayerCount);
+        final GameEngine gameEngine = new GameEngine(new DirectDispatcher());
+        gameEngine.setRenderingEnabled(false);
+        gameEngine.setRandomSeed(mSeed * 31 + thread);
+        final Random random = gameEngine.getRandom();
+        final Random dealRandom = new Random(random.nextLong());
+        final MctsSearch search = mIterations > 0 ? new MctsSearch(1, 0, mIterations, random.nextLong()) : null;
+        final GameObject[] players = new GameObject[mPlayerCount];
+        for (int player = 0; player < mPlayerCount; player++) {
+            // Search inline: the update thread of a headless engine is the calling thread
+            players[player] = search != null
+                    ? new BotPlayer(gameState, player, search, Runnable::run)
+                    : new HeuristicPlayer(gameState, player, random);
+            gameEngine.addGameObject(players[player]);
+        }
+
+        // Play every game, updating the engine until the game is over
+        final int[] scores = new int[GameState.MAX_SCORE + 1];
+        try {
+            for (int game = thread; game < mGameCount; game += mThreadCount) {
+                gameState.deal(dealRandom);
+                for (GameObject player : players) {
+                    player.onGameStart();
+                }
+                int updates = 0;
+                while (!gameState.isGameOver()) {
+                    if (++updates > MAX_UPDATES) {
+                        throw new IllegalStateException("Game " + game + " is stuck at turn " + gameState.getTurn());
+                    }
+                    gameEngine.updateGame(STEP_MILLIS);
+                }
+                scores[gameState.getScore()]++;
+            }
+        } finally {
+            if (search != null) {
+                search.shutdown();
+            }
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,166 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.selfplay;
+
+import com.vincentganneau.hanabi.game.GameState;
+
+import java.util.Locale;
+
+/**
+ * Score distribution and throughput of a {@link Tournament}.
+ * @author Vincent Ganneau
+ */
+public class TournamentResult {
+
+    // Report
+    /**
+     * The width of the longest bar of the score distribution.
+     */
+    private static final int BAR_WIDTH = 50;
+
+    // Results
+    /**
+     * The number of games that ended with every score, from <code>0</code> to {@link GameState#MAX_SCORE}.
+     */
+    public final int[] mScores;
+    /**
+     * The duration of the tournament in nanoseconds.
+     */
+    public final long mElapsedNanos;
+
+    // Constructor
+    /**
+     * Creates a new {@link TournamentResult}.
+     * @param scores the number of games that ended with every score, from <code>0</code> to
+     * {@link GameState#MAX_SCORE}.
+     * @param elapsedNanos the duration of the tournament in nanoseconds.
+     */
+    public TournamentResult(int[] scores, long elapsedNanos) {
+        mScores = scores;
+        mElapsedNanos = elapsedNanos;
+    }
+
+    // Getters
+    /**
+     * Gets the number of games played.
+     * @return the number of games.
+     */
+    public int getGameCount() {
+        int count = 0;
+        for (int games : mScores) {
+            count += games;
+        }
+        return count;
+    }
+
+    /**
+     * Gets the mean score.
+     * @return the mean score, or <code>0</code> if no game was played.
+     */
+    public double getMeanScore() {
+        final int count = getGameCount();
+        if (count == 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (int score = 0; score < mScores.length; score++) {
+            sum += (long) score * mScores[score];
+        }
+        return (double) sum / count;
+    }
+
+    /**
+     * Gets the standard deviation of the scores.
+     * @return the standard deviation, or <code>0</code> if no game was played.
+     */
+    public double getScoreDeviation() {
+        final int count = getGameCount();
+        if (count == 0) {
+            return 0;
+        }
+        final double mean = getMeanScore();
+        double sum = 0;
+        for (int score = 0; score < mScores.length; score++) {
+            sum += (score - mean) * (score - mean) * mScores[score];
+        }
+        return Math.sqrt(sum / count);
+    }
+
+    /**
+     * Gets a percentile of the scores.
+     * @param percentile the percentile, between <code>0</code> and <code>100</code>.
+     * @return the lowest score reached or beaten by the given percentage of the games, or <code>0</code> if no game was
+     * played.
+     */
+    public int getScorePercentile(double percentile) {
+        final double rank = getGameCount() * percentile / 100;
+        long count = 0;
+        for (int score = 0; score < mScores.length; score++) {
+            count += mScores[score];
+            if (count > 0 && count >= rank) {
+                return score;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the share of the games that ended with a perfect score.
+     * @return the rate, between <code>0</code> and <code>1</code>.
+     */
+    public double getPerfectScoreRate() {
+        final int count = getGameCount();
+        return count > 0 ? (double) mScores[GameState.MAX_SCORE] / count : 0;
+    }
+
+    /**
+     * Gets the number of games played per second.
+     * @return the throughput of the tournament.
+     */
+    public double getGamesPerSecond() {
+        return mElapsedNanos > 0 ? getGameCount() * 1e9 / mElapsedNanos : 0;
+    }
+
+    // Report
+    /**
+     * Formats the result as a human-readable report, with a bar chart of the score distribution.
+     * @return the report.
+     */
+    public String format() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append(String.format(Locale.US, "Games: %d in %.2f s (%.1f games/s)%n", getGameCount(),
+                mElapsedNanos / 1e9, getGamesPerSecond()));
+        builder.append(String.format(Locale.US, "Score: mean %.2f, deviation %.2f, p10 %d, median %d, p90 %d%n",
+                getMeanScore(), getScoreDeviation(), getScorePercentile(10), getScorePercentile(50),
+                getScorePercentile(90)));
+        builder.append(String.format(Locale.US, "Perfect scores: %.2f%%%n", getPerfectScoreRate() * 100));
+        int max = 0;
+        for (int games : mScores) {
+            max = Math.max(max, games);
+        }
+        for (int score = 0; score < mScores.length; score++) {
+            final int width = max > 0 ? (int) ((long) mScores[score] * BAR_WIDTH / max) : 0;
+            builder.append(String.format(Locale.US, "%2d %8d ", score, mScores[score]));
+            for (int i = 0; i < width; i++) {
+                builder.append('#');
+            }
+            builder.append(String.format("%n"));
+        }
+        return builder.toString();
+    }
+}
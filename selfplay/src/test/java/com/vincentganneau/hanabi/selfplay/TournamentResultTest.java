@@ -0,0 +1,94 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.selfplay;
+
+import com.vincentganneau.hanabi.game.GameState;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * Tests the {@link TournamentResult} class.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class TournamentResultTest {
+
+    // Result
+    private TournamentResult mResult;
+
+    @Before
+    public void setUp() {
+        // 1 game scoring 10, 2 games scoring 20 and 1 perfect game, in 2 seconds
+        final int[] scores = new int[GameState.MAX_SCORE + 1];
+        scores[10] = 1;
+        scores[20] = 2;
+        scores[GameState.MAX_SCORE] = 1;
+        mResult = new TournamentResult(scores, 2000000000L);
+    }
+
+    /**
+     * Tests the statistics of a result.
+     */
+    @Test
+    public void testStatistics() {
+        // Then
+        assertEquals(4, mResult.getGameCount());
+        assertEquals(18.75, mResult.getMeanScore(), 1e-9);
+        assertEquals(Math.sqrt((8.75 * 8.75 + 2 * 1.25 * 1.25 + 6.25 * 6.25) / 4), mResult.getScoreDeviation(), 1e-9);
+        assertEquals(10, mResult.getScorePercentile(10));
+        assertEquals(20, mResult.getScorePercentile(50));
+        assertEquals(GameState.MAX_SCORE, mResult.getScorePercentile(90));
+        assertEquals(0.25, mResult.getPerfectScoreRate(), 1e-9);
+        assertEquals(2.0, mResult.getGamesPerSecond(), 1e-9);
+    }
+
+    /**
+     * Tests the statistics of an empty result.
+     */
+    @Test
+    public void testEmptyResult() {
+        // Given
+        final TournamentResult result = new TournamentResult(new int[GameState.MAX_SCORE + 1], 0);
+
+        // Then
+        assertEquals(0, result.getGameCount());
+        assertEquals(0.0, result.getMeanScore());
+        assertEquals(0.0, result.getPerfectScoreRate());
+        assertEquals(0.0, result.getGamesPerSecond());
+    }
+
+    /**
+     * Tests the report contains the statistics and a line per score.
+     */
+    @Test
+    public void testFormat() {
+        // When
+        final String report = mResult.format();
+
+        // Then
+        assertTrue(report.contains("mean 18.75"));
+        assertTrue(report.contains("Perfect scores: 25.00%"));
+        assertEquals(3 + GameState.MAX_SCORE + 1, report.split(System.lineSeparator()).length);
+    }
+}
@@ -0,0 +1,94 @@
+/*__________________________________________________________________________
+
+    Copyright (C) 2018 Vincent Ganneau
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+  __________________________________________________________________________*/
+
+package com.vincentganneau.hanabi.selfplay;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * Tests the {@link Tournament} class.
+ * @author Vincent Ganneau
+ */
+@RunWith(JUnit4.class)
+public class TournamentTest {
+
+    /**
+     * Tests the {@link Tournament} constructor with an invalid number of players.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidConstructor() {
+        // When
+        new Tournament(10, 2, 6, 0, 42);
+    }
+
+    /**
+     * Tests every game of a tournament is played, and the results only depend on the seed and the number of threads.
+     */
+    @Test
+    public void testRun() throws InterruptedException {
+        // Given
+        final Tournament tournament = new Tournament(200, 3, 3, 0, 42);
+
+        // When
+        final TournamentResult result = tournament.run();
+        final TournamentResult otherResult = new Tournament(200, 3, 3, 0, 42).run();
+
+        // Then
+        assertEquals(200, result.getGameCount());
+        assertTrue(result.getMeanScore() > 10);
+        assertTrue(Arrays.equals(result.mScores, otherResult.mScores));
+    }
+
+    /**
+     * Tests a tournament between bots searching every move.
+     */
+    @Test
+    public void testRunWithSearch() throws InterruptedException {
+        // Given
+        final Tournament tournament = new Tournament(4, 2, 2, 50, 42);
+
+        // When
+        final TournamentResult result = tournament.run();
+
+        // Then
+        assertEquals(4, result.getGameCount());
+    }
+
+    /**
+     * Tests bots searching every move score at least as much as the heuristic policy they start from, on the same deals.
+     */
+    @Test
+    public void testSearchMatchesHeuristic() throws InterruptedException {
+        // Given
+        final Tournament heuristicTournament = new Tournament(40, 1, 2, 0, 42);
+        final Tournament searchTournament = new Tournament(40, 1, 2, 200, 42);
+
+        // When
+        final TournamentResult heuristicResult = heuristicTournament.run();
+        final TournamentResult searchResult = searchTournament.run();
+
+        // Then
+        assertTrue(searchResult.getMeanScore() >= heuristicResult.getMeanScore());
+    }
+}